@@ -0,0 +1,131 @@
+package de.bund.zrb.runtime;
+
+import de.bund.zrb.expressions.domain.ResolvableExpression;
+import de.bund.zrb.expressions.engine.CompositeExpression;
+import de.bund.zrb.expressions.engine.ExpressionParser;
+import de.bund.zrb.expressions.engine.FunctionExpression;
+import de.bund.zrb.expressions.engine.LiteralExpression;
+import de.bund.zrb.expressions.engine.VariableExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former parse-and-walk evaluation of action/assertion templates with the cached
+ * {@link TemplatePlan} used by {@link ActionRuntimeEvaluator}.
+ *
+ * The templates follow the shapes used in our test models (user variables, nested calls such as
+ * {@code {{otp({{user}})}}}, selectors with embedded placeholders, template indirection). Side-effecting tools
+ * (otp, screenshot) are replaced by the Echo/Date builtins so the benchmark runs without a browser.
+ *
+ * Run with: {@code gradlew :app:jmh -PjmhArgs=TemplateEvaluationBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateEvaluationBenchmark {
+
+    @Param({"variable", "selector", "nested-call", "template-ref", "assertion"})
+    public String shape;
+
+    private String template;
+    private ExpressionRegistry registry;
+    private Map<String, String> caseVars;
+    private Map<String, String> rootVars;
+    private Map<String, String> templates;
+
+    @Setup
+    public void setUp() {
+        registry = ExpressionRegistryImpl.getInstance();
+        rootVars = new LinkedHashMap<String, String>();
+        rootVars.put("user", "sachbearbeiter01");
+        rootVars.put("domain", "example.org");
+        caseVars = new LinkedHashMap<String, String>();
+        caseVars.put("field", "aktenzeichen");
+        caseVars.put("az", "4711/2024");
+        templates = new LinkedHashMap<String, String>();
+        templates.put("OTP", "{{Echo({{user}};'otp')}}");
+
+        Map<String, String> shapes = new LinkedHashMap<String, String>();
+        shapes.put("variable", "{{user}}");
+        shapes.put("selector", "#main > form .row:nth-child(2) input[name=\"{{field}}\"][data-user=\"{{user}}\"]");
+        shapes.put("nested-call", "{{Echo({{Echo({{user}};'@';{{domain}})}};'/';{{az}})}}");
+        shapes.put("template-ref", "Code für {{user}}: {{OTP}}");
+        shapes.put("assertion", "{{Echo({{az}})}} vom {{Date('dd.MM.yyyy')}} – {{Echo({{az}})}}");
+        template = shapes.get(shape);
+    }
+
+    private ValueScope newScope() {
+        // wie TestRunner: ein neuer Scope je Action bzw. Assertion-Gruppe
+        Map<String, String> none = Collections.emptyMap();
+        return new ValueScope(rootVars, none, caseVars, templates, none, none, registry);
+    }
+
+    @Benchmark
+    public String parseAndWalk() throws Exception {
+        return LegacyEvaluator.evaluate(template, newScope());
+    }
+
+    @Benchmark
+    public String compiledPlan() throws Exception {
+        return ActionRuntimeEvaluator.evaluateActionValue(template, newScope());
+    }
+
+    /** Former ActionRuntimeEvaluator: parse on every call, walk the tree, every call via registry.evaluate. */
+    private static final class LegacyEvaluator {
+
+        static String evaluate(String template, ValueScope scope) throws Exception {
+            if (template == null || template.trim().isEmpty()) return "";
+            if (!template.contains("{{")) return template;
+            return eval(new ExpressionParser().parseTemplate(template), scope);
+        }
+
+        private static String eval(ResolvableExpression expr, ValueScope scope) throws Exception {
+            if (expr instanceof LiteralExpression) {
+                return ((LiteralExpression) expr).getText();
+            }
+            if (expr instanceof VariableExpression) {
+                String name = ((VariableExpression) expr).getName();
+                String val = scope.lookupVar(name);
+                if (val != null) return val;
+                String tmpl = scope.lookupTemplate(name);
+                if (tmpl != null && tmpl.contains("{{")) return evaluate(tmpl, scope);
+                return (tmpl != null) ? tmpl : "";
+            }
+            if (expr instanceof FunctionExpression) {
+                FunctionExpression fn = (FunctionExpression) expr;
+                List<String> argVals = new ArrayList<String>();
+                for (ResolvableExpression argExpr : fn.getArgs()) {
+                    argVals.add(eval(argExpr, scope));
+                }
+                return scope.getExpressionRegistry().evaluate(fn.getFunctionName(), argVals);
+            }
+            if (expr instanceof CompositeExpression) {
+                StringBuilder sb = new StringBuilder();
+                for (ResolvableExpression part : ((CompositeExpression) expr).getParts()) {
+                    sb.append(eval(part, scope));
+                }
+                return sb.toString();
+            }
+            return "";
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package de.bund.zrb.ui.components.log;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.JEditorPane;
+import javax.swing.SwingUtilities;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing step logs into the log pane of the runner.
+ *
+ * - {@code appendOne*}: one more step on a log that already holds {@code entries} steps. The former
+ *   getText()/splice/setText approach grows linearly with the log size, the incremental document stays flat.
+ * - {@code appendAll}: a whole run of {@code entries} steps (50k = long suite), flushed every 100 steps like the
+ *   EDT does under load. Not measured for the former approach: it is quadratic and runs for hours at 50k.
+ *
+ * All document work runs on the EDT, as in the application.
+ * Run with: {@code gradlew :app:jmh -PjmhArgs=TestExecutionLoggerBenchmark}
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class TestExecutionLoggerBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int entries;
+
+    private JEditorPane legacyPane;
+    private TestExecutionLogger logger;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            legacyPane = new JEditorPane();
+            legacyPane.setContentType("text/html");
+            StringBuilder html = new StringBuilder("<html><body>");
+            for (int i = 0; i < entries; i++) {
+                html.append(step(i).toHtml());
+            }
+            legacyPane.setText(html.append("</body></html>").toString());
+
+            logger = new TestExecutionLogger(new JEditorPane());
+            for (int i = 0; i < entries; i++) {
+                logger.append(step(i));
+                if (i % 100 == 99) logger.flushPending();
+            }
+            logger.flushPending();
+        });
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public void appendOneLegacy() throws Exception {
+        final StepLog log = step(counter++);
+        SwingUtilities.invokeAndWait(() -> {
+            // former TestExecutionLogger.append
+            String html = log.toHtml();
+            String current = legacyPane.getText();
+            int insertPos = current.lastIndexOf("</body>");
+            legacyPane.setText(current.substring(0, insertPos) + html + current.substring(insertPos));
+            legacyPane.setCaretPosition(legacyPane.getDocument().getLength());
+        });
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public void appendOneIncremental() throws Exception {
+        final StepLog log = step(counter++);
+        SwingUtilities.invokeAndWait(() -> {
+            logger.append(log);
+            logger.flushPending();
+        });
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public int appendAll() throws Exception {
+        final TestExecutionLogger fresh = new TestExecutionLogger(new JEditorPane());
+        for (int i = 0; i < entries; i++) {
+            fresh.append(step(i));
+            if (i % 100 == 99) SwingUtilities.invokeAndWait(fresh::flushPending);
+        }
+        SwingUtilities.invokeAndWait(fresh::flushPending);
+        return fresh.drain().size();
+    }
+
+    private static StepLog step(int i) {
+        StepLog log = new StepLog("When", "click on #main > form .row:nth-child(" + (i % 7) + ") button[name='save'] (" + i + ")");
+        log.setStatus(i % 50 != 0);
+        if (i % 50 == 0) log.setError("Element not interactable");
+        return log;
+    }
+}
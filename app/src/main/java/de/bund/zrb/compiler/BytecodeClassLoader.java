@@ -0,0 +1,27 @@
+package de.bund.zrb.compiler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Loads classes from compiled bytecode held in memory (e.g. from {@link InMemoryJavaCompiler#compileToBytecode}
+ * or read back from a cache file).
+ */
+public class BytecodeClassLoader extends ClassLoader {
+
+    private final Map<String, byte[]> classes;
+
+    public BytecodeClassLoader(Map<String, byte[]> classes, ClassLoader parent) {
+        super(parent);
+        this.classes = new HashMap<>(classes);
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] bytes = classes.get(name);
+        if (bytes != null) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+        return super.findClass(name);
+    }
+}
@@ -5,6 +5,7 @@ import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ServiceLoader;
 
 public class InMemoryJavaCompiler {
@@ -31,11 +32,28 @@ public class InMemoryJavaCompiler {
     }
 
     public <T> T compile(String className, String sourceCode, Class<T> expectedType) throws Exception {
+        ClassLoader classLoader = new BytecodeClassLoader(compileToBytecode(className, sourceCode), getClass().getClassLoader());
+        return instantiate(classLoader, className, expectedType);
+    }
+
+    /**
+     * Compiles the source without loading it.
+     *
+     * @return Bytecode of all generated classes (binary name → class file), incl. inner classes
+     */
+    public Map<String, byte[]> compileToBytecode(String className, String sourceCode) throws Exception {
         JavaCompiler javaCompiler = getCompiler();
 
         DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
         StandardJavaFileManager stdFileManager = javaCompiler.getStandardFileManager(diagnostics, Locale.getDefault(), null);
-        MemoryJavaFileManager fileManager = new MemoryJavaFileManager(stdFileManager);
+        try (MemoryJavaFileManager fileManager = new MemoryJavaFileManager(stdFileManager)) {
+            return compileToBytecode(javaCompiler, fileManager, diagnostics, className, sourceCode);
+        }
+    }
+
+    private Map<String, byte[]> compileToBytecode(JavaCompiler javaCompiler, MemoryJavaFileManager fileManager,
+                                                  DiagnosticCollector<JavaFileObject> diagnostics,
+                                                  String className, String sourceCode) {
 
         JavaFileObject sourceFile = new JavaSourceFromString(className, sourceCode);
 
@@ -64,7 +82,11 @@ public class InMemoryJavaCompiler {
             throw new IllegalStateException("Compilation failed:\n" + sw);
         }
 
-        ClassLoader classLoader = fileManager.getClassLoader(null);
+        return fileManager.getCompiledBytecode();
+    }
+
+    /** Loads {@code className} and creates an instance via its no-arg constructor. */
+    public static <T> T instantiate(ClassLoader classLoader, String className, Class<T> expectedType) throws Exception {
         Class<?> clazz = classLoader.loadClass(className);
         Object instance = clazz.getDeclaredConstructor().newInstance();
 
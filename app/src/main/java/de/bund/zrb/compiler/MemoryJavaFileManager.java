@@ -27,6 +27,15 @@ public class MemoryJavaFileManager extends ForwardingJavaFileManager<JavaFileMan
         return fileObject;
     }
 
+    /** @return Bytecode of all classes written by the last compilation (binary name → class file) */
+    public Map<String, byte[]> getCompiledBytecode() {
+        Map<String, byte[]> out = new HashMap<>();
+        for (Map.Entry<String, MemoryJavaFileObject> e : compiledClasses.entrySet()) {
+            out.put(e.getKey(), e.getValue().getBytes());
+        }
+        return out;
+    }
+
     @Override
     public ClassLoader getClassLoader(Location location) {
         return new ClassLoader(getClass().getClassLoader()) {
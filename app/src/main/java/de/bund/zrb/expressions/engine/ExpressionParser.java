@@ -17,11 +17,26 @@ import java.util.List;
  *
  * This parser does not resolve anything.
  * It only builds the expression model.
+ *
+ * The parser is stateless; the resulting trees are immutable and may be shared,
+ * see {@link #parseTemplateCached(String)}.
  */
 public class ExpressionParser {
 
+    /** Parsed trees of all templates seen so far (bounded, -Dwd4j.expr.templateCacheSize). */
+    private static final TemplateCache<ResolvableExpression> PARSED = new TemplateCache<ResolvableExpression>(
+            TemplateCache.maxEntriesFromProperty("wd4j.expr.templateCacheSize", 1024),
+            template -> new ExpressionParser().parseTemplate(template));
+
     private final Lexer lexer = new Lexer();
 
+    /**
+     * Same as {@link #parseTemplate(String)}, but each distinct template is lexed and parsed only once.
+     */
+    public static ResolvableExpression parseTemplateCached(String template) {
+        return PARSED.get(template);
+    }
+
     /**
      * Parse a full template string like:
      * "Hallo {{userName}}, Code: {{otp()}}"
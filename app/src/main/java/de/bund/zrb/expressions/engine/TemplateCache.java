@@ -0,0 +1,78 @@
+package de.bund.zrb.expressions.engine;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, thread-safe cache of values derived from a template string (parsed trees, evaluation plans).
+ *
+ * Intent:
+ * - Templates of actions, assertions and givens are resolved again and again, but only change when edited.
+ *   Parse each distinct template once instead of on every resolve.
+ *
+ * Behavior:
+ * - Lookups are lock-free; a template may be built twice under contention, both results are equivalent.
+ * - When full, an arbitrary entry is dropped (the working set of a test run is small, no LRU bookkeeping needed).
+ * - Build failures (e.g. unmatched "{{") are not cached and propagate to the caller.
+ */
+public final class TemplateCache<V> {
+
+    private final Map<String, V> entries = new ConcurrentHashMap<String, V>();
+    private final int maxEntries;
+    private final Function<String, V> builder;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public TemplateCache(int maxEntries, Function<String, V> builder) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.builder = builder;
+    }
+
+    public V get(String template) {
+        V value = entries.get(template);
+        if (value != null) {
+            hits.incrementAndGet();
+            return value;
+        }
+        misses.incrementAndGet();
+        value = builder.apply(template);
+        if (entries.size() >= maxEntries) {
+            Iterator<String> it = entries.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        V previous = entries.putIfAbsent(template, value);
+        return previous != null ? previous : value;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /** Maximum size from a system property, e.g. {@code -Dwd4j.expr.templateCacheSize=1024}. */
+    public static int maxEntriesFromProperty(String property, int defaultValue) {
+        try {
+            return Integer.parseInt(System.getProperty(property, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -26,7 +26,6 @@ import de.bund.zrb.expressions.runtime.ResolutionContext;
  */
 public class ResolveTemplateUseCase {
 
-    private final ExpressionParser parser = new ExpressionParser();
     private final ResolutionContext resolutionContext;
 
     public ResolveTemplateUseCase(ResolutionContext resolutionContext) {
@@ -38,7 +37,7 @@ public class ResolveTemplateUseCase {
      * Return the resolved string.
      */
     public String resolveTemplate(String template) throws UnresolvedSymbolException {
-        ResolvableExpression expr = parser.parseTemplate(template);
+        ResolvableExpression expr = ExpressionParser.parseTemplateCached(template);
         Object result = expr.resolve(resolutionContext);
         return result == null ? "" : result.toString();
     }
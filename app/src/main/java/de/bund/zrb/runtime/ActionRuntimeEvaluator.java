@@ -1,15 +1,5 @@
 package de.bund.zrb.runtime;
 
-import de.bund.zrb.expressions.domain.ResolvableExpression;
-import de.bund.zrb.expressions.engine.CompositeExpression;
-import de.bund.zrb.expressions.engine.ExpressionParser;
-import de.bund.zrb.expressions.engine.FunctionExpression;
-import de.bund.zrb.expressions.engine.LiteralExpression;
-import de.bund.zrb.expressions.engine.VariableExpression;
-
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Wandelt action.getValue() (z.B. "{{username}}", "{{otp()}}", "{{wrap({{username}},\"X\")}}")
  * zur Laufzeit in einen konkreten String um.
@@ -17,9 +7,9 @@ import java.util.List;
  * Spielregeln:
  * - Wenn KEINE {{...}}-Syntax drin steckt -> gib den String 1:1 zurück.
  * - Sonst:
- *   - Parse mit ExpressionParser
+ *   - Parse mit ExpressionParser (einmal je Template, siehe TemplatePlan)
  *   - Variablen -> ValueScope.lookupVar(name)
- *   - Funktionsaufrufe -> scope.getExpressionRegistry().evaluate(fnName, argStrings...)
+ *   - Funktionsaufrufe -> scope.getExpressionRegistry().evaluate(fnName, argStrings...), Builtins direkt
  *   - Composite -> Teile zusammenkleben
  */
 public final class ActionRuntimeEvaluator {
@@ -36,72 +26,7 @@ public final class ActionRuntimeEvaluator {
             return template;
         }
 
-        // 1. parse in AST
-        ExpressionParser parser = new ExpressionParser();
-        ResolvableExpression ast = parser.parseTemplate(template);
-
-        // 2. rekursiv auswerten
-        return eval(ast, scope);
-    }
-
-    private static String eval(ResolvableExpression expr, ValueScope scope) throws Exception {
-        if (expr == null) return "";
-
-        // LiteralExpression = normaler Textteil
-        if (expr instanceof LiteralExpression) {
-            return ((LiteralExpression) expr).getText();
-        }
-
-        // VariableExpression = {{username}}
-        if (expr instanceof VariableExpression) {
-            String name = ((VariableExpression) expr).getName();
-            if (name == null) return "";
-            // Variablen-Namen kommen OHNE Präfix "{{" "}}", OHNE "*"
-            // Shadowing in scope.lookupVar(...)
-            String val = scope.lookupVar(name);
-            if (val != null) {
-                return val;
-            }
-
-            // Falls diese "Variable" eigentlich ein Template-Name ist:
-            String tmpl = scope.lookupTemplate(name);
-            if (tmpl != null && tmpl.contains("{{")) {
-                // rekursive Auswertung des Template-Strings
-                return evaluateActionValue(tmpl, scope);
-            } else if (tmpl != null) {
-                return tmpl;
-            }
-
-            return "";
-        }
-
-        // FunctionExpression = {{otp()}}, {{wrap({{username}},"X")}}
-        if (expr instanceof FunctionExpression) {
-            FunctionExpression fn = (FunctionExpression) expr;
-            String fnName = fn.getFunctionName();
-
-            // Argumente rekursiv auswerten (sind selber ResolvableExpression)
-            List<String> argVals = new ArrayList<String>();
-            for (ResolvableExpression argExpr : fn.getArgs()) {
-                argVals.add(eval(argExpr, scope));
-            }
-
-            // An Registry delegieren
-            ExpressionRegistry reg = scope.getExpressionRegistry();
-            return reg.evaluate(fnName, argVals);
-        }
-
-        // CompositeExpression = Verkettung mehrerer Teile
-        if (expr instanceof CompositeExpression) {
-            CompositeExpression cx = (CompositeExpression) expr;
-            StringBuilder sb = new StringBuilder();
-            for (ResolvableExpression part : cx.getParts()) {
-                sb.append(eval(part, scope));
-            }
-            return sb.toString();
-        }
-
-        // Unbekannter Knoten? → leer
-        return "";
+        // Geparst und übersetzt wird je Template nur einmal (TemplatePlan-Cache)
+        return TemplatePlan.forTemplate(template).evaluate(scope);
     }
 }
@@ -0,0 +1,198 @@
+package de.bund.zrb.runtime;
+
+import de.bund.zrb.compiler.BytecodeClassLoader;
+import de.bund.zrb.compiler.InMemoryJavaCompiler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache der kompilierten Benutzer-Expressions, Schlüssel ist ein Hash über Klassenname und Quelltext.
+ *
+ * Jede Expression wird einmal kompiliert und geladen; Aufrufe gehen danach direkt über die typisierte
+ * {@code Function} (kein javac, kein neuer ClassLoader, keine Reflection). Der Bytecode wird zusätzlich im
+ * Verzeichnis {@code expressions-cache} neben {@code expressions.json} abgelegt, ein Warmstart lädt ihn von dort.
+ *
+ * Die Instanz einer Expression wird wiederverwendet – Expressions sollten daher zustandslos sein.
+ */
+final class CompiledExpressionCache {
+
+    private static final int FILE_MAGIC = 0x57443445; // "WD4E"
+    private static final String FILE_SUFFIX = ".classes";
+
+    private final InMemoryJavaCompiler compiler;
+    private final File dir; // null = nur im Speicher
+    private final Map<String, Object> instances = new ConcurrentHashMap<String, Object>(); // hash → Instanz
+    private final Object compileLock = new Object();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong compiles = new AtomicLong();
+
+    CompiledExpressionCache(InMemoryJavaCompiler compiler, File dir) {
+        this.compiler = compiler;
+        this.dir = dir;
+    }
+
+    /** @return Typisierte Funktion der Expression (kompiliert nur beim ersten Aufruf je Quelltext) */
+    @SuppressWarnings("unchecked")
+    Function<Object, Object> function(String className, String source) throws Exception {
+        Object instance = instance(className, source);
+        if (!(instance instanceof Function)) {
+            throw new ClassCastException("Compiled class does not implement " + Function.class.getName());
+        }
+        return (Function<Object, Object>) instance;
+    }
+
+    Object instance(String className, String source) throws Exception {
+        String hash = hash(className, source);
+        Object instance = instances.get(hash);
+        if (instance != null) {
+            memoryHits.incrementAndGet();
+            return instance;
+        }
+        synchronized (compileLock) {
+            instance = instances.get(hash);
+            if (instance != null) {
+                memoryHits.incrementAndGet();
+                return instance;
+            }
+            instance = loadFromDisk(hash, className);
+            if (instance != null) {
+                diskHits.incrementAndGet();
+            } else {
+                Map<String, byte[]> bytecode = compiler.compileToBytecode(className, source);
+                compiles.incrementAndGet();
+                instance = load(bytecode, className);
+                writeToDisk(hash, bytecode);
+            }
+            instances.put(hash, instance);
+            return instance;
+        }
+    }
+
+    /**
+     * Verwirft alle geladenen Klassen, deren Quelltext nicht mehr registriert ist (Änderung, Löschen, Reload),
+     * und löscht deren Cache-Dateien.
+     *
+     * @param keep Hashes ({@link #hash(String, String)}) der aktuell registrierten Expressions
+     */
+    void retainOnly(Set<String> keep) {
+        synchronized (compileLock) {
+            instances.keySet().retainAll(keep);
+            File[] files = (dir != null) ? dir.listFiles() : null;
+            if (files != null) {
+                for (File f : files) {
+                    String name = f.getName();
+                    if (name.endsWith(FILE_SUFFIX) && !keep.contains(name.substring(0, name.length() - FILE_SUFFIX.length()))) {
+                        if (!f.delete()) f.deleteOnExit();
+                    }
+                }
+            }
+        }
+    }
+
+    /** @return z.B. "97.5 % Treffer (195 Speicher, 3 Datei, 2 kompiliert)" */
+    String stats() {
+        long mem = memoryHits.get();
+        long disk = diskHits.get();
+        long comp = compiles.get();
+        long total = mem + disk + comp;
+        double rate = total > 0 ? (mem + disk) * 100d / total : 0d;
+        return String.format(Locale.ROOT, "%.1f %% Treffer (%d Speicher, %d Datei, %d kompiliert)", rate, mem, disk, comp);
+    }
+
+    long getMemoryHits() { return memoryHits.get(); }
+    long getDiskHits() { return diskHits.get(); }
+    long getCompiles() { return compiles.get(); }
+
+    // -------------------------------------------------------------------------
+
+    private Object load(Map<String, byte[]> bytecode, String className) throws Exception {
+        ClassLoader loader = new BytecodeClassLoader(bytecode, CompiledExpressionCache.class.getClassLoader());
+        return InMemoryJavaCompiler.instantiate(loader, className, Object.class);
+    }
+
+    private Object loadFromDisk(String hash, String className) {
+        File f = file(hash);
+        if (f == null || !f.isFile()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+            if (in.readInt() != FILE_MAGIC) return null;
+            int count = in.readInt();
+            Map<String, byte[]> bytecode = new LinkedHashMap<String, byte[]>();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                bytecode.put(name, bytes);
+            }
+            return load(bytecode, className);
+        } catch (Exception | LinkageError e) {
+            // defekt oder mit anderer Java-Version/Classpath erzeugt: neu kompilieren
+            if (!f.delete()) f.deleteOnExit();
+            return null;
+        }
+    }
+
+    private void writeToDisk(String hash, Map<String, byte[]> bytecode) {
+        File f = file(hash);
+        if (f == null) return;
+        try {
+            if (!dir.exists()) dir.mkdirs();
+            File tmp = new File(dir, hash + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(bytecode.size());
+                for (Map.Entry<String, byte[]> e : bytecode.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    out.writeInt(e.getValue().length);
+                    out.write(e.getValue());
+                }
+            }
+            Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("⚠ Expression-Cache konnte nicht geschrieben werden: " + e.getMessage());
+        }
+    }
+
+    private File file(String hash) {
+        return (dir != null) ? new File(dir, hash + FILE_SUFFIX) : null;
+    }
+
+    /** Hash über Klassenname, Quelltext und Java-Version (Bytecode einer anderen JVM wird nicht geladen). */
+    static String hash(String className, String source) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(System.getProperty("java.specification.version", "").getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            md.update(String.valueOf(className).getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            md.update(String.valueOf(source).getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(64);
+            for (byte b : md.digest()) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
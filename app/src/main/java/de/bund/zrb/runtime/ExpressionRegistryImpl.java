@@ -22,27 +22,42 @@ import java.util.function.Function;
  * Vereinigt Benutzer-Expressions (kompiliert zur Laufzeit) und eingebaute Funktionen (Builtins, kein Compile).
  * - Builtins werden über BuiltinFunctionCatalog bereitgestellt.
  * - evaluate(..) ruft zuerst Builtins direkt auf, danach ggf. die User-Implementierung via Compiler.
+ * - User-Expressions werden je Quelltext nur einmal kompiliert (CompiledExpressionCache, Bytecode auch auf Platte).
  * - Builtins tauchen in getKeys() auf, sind nicht löschbar und liefern bei getCode() kein Optional mit Source.
  */
 public class ExpressionRegistryImpl implements ExpressionRegistry {
 
     private static final String FILE_NAME = "expressions.json";
+    private static final String CACHE_DIR_NAME = "expressions-cache";
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final Type MAP_TYPE = new TypeToken<Map<String, String>>() {}.getType();
 
+    private static final FunctionContext DEFAULT_CONTEXT = new FunctionContext() {
+        // Keep minimal; erweitere bei Bedarf um Services
+        public String resolveVariable(String name) { return ""; }
+        public Map<String, Object> services() { return Collections.emptyMap(); }
+    };
+
     private static ExpressionRegistryImpl instance;
 
     // Benutzerdefinierte Expressions (Name -> Source)
     private final Map<String, String> expressions = new LinkedHashMap<String, String>();
     private final Map<String, FunctionMetadata> metadata = new LinkedHashMap<String, FunctionMetadata>();
     private final File file;
-    private final InMemoryJavaCompiler compiler = new InMemoryJavaCompiler();
+    private final CompiledExpressionCache compiled;
 
     // Externer Katalog der Builtins (bereitgestellt von dir)
     private final BuiltinFunctionCatalog builtins = new BuiltinFunctionCatalog();
 
     private ExpressionRegistryImpl() {
-        this.file = new File(getSettingsFolder(), FILE_NAME);
+        this(null);
+    }
+
+    /** @param settingsDir Ablage für expressions.json und den Bytecode-Cache, null = ~/.wd4j */
+    ExpressionRegistryImpl(File settingsDir) {
+        File dir = (settingsDir != null) ? settingsDir : getSettingsFolder();
+        this.file = new File(dir, FILE_NAME);
+        this.compiled = new CompiledExpressionCache(new InMemoryJavaCompiler(), new File(dir, CACHE_DIR_NAME));
         reload();
     }
 
@@ -86,6 +101,7 @@ public class ExpressionRegistryImpl implements ExpressionRegistry {
             return;
         }
         expressions.put(key, fullSourceCode != null ? fullSourceCode : "");
+        pruneCompiled();
     }
 
     @Override
@@ -94,6 +110,7 @@ public class ExpressionRegistryImpl implements ExpressionRegistry {
         String norm = normalize(key);
         if (builtins.contains(norm)) return;
         expressions.remove(key);
+        pruneCompiled();
     }
 
     @Override
@@ -140,22 +157,26 @@ public class ExpressionRegistryImpl implements ExpressionRegistry {
             }
         }
         ExpressionExamples.ensureExamplesRegistered(this);
+        pruneCompiled();
     }
 
 
     @Override
-    public synchronized String evaluate(String key, List<String> params) throws Exception {
+    public String evaluate(String key, List<String> params) throws Exception {
         String norm = normalize(key);
 
         // 1) Builtin? Direkt ausführen (ohne Compile)
         ExpressionFunction builtin = builtins.get(norm);
         if (builtin != null) {
             List<String> safeParams = params != null ? params : Collections.<String>emptyList();
-            return builtin.invoke(safeParams, defaultContext());
+            return builtin.invoke(safeParams, DEFAULT_CONTEXT);
         }
 
-        // 2) User-Expression via Compile
-        String source = expressions.get(key);
+        // 2) User-Expression via Compile (Cache); der Aufruf selbst läuft ohne Lock, parallel aus mehreren Workern
+        String source;
+        synchronized (this) {
+            source = expressions.get(key);
+        }
         if (source == null || source.trim().isEmpty()) {
             throw new IllegalArgumentException("Kein Quelltext für Ausdruck: '" + key + "'");
         }
@@ -167,17 +188,34 @@ public class ExpressionRegistryImpl implements ExpressionRegistry {
         }
 
         String className = extractClassName(source, key);
-        Object instance = compiler.compile(className, source, java.util.function.Function.class);
+        Function<Object, Object> function = compiled.function(className, source);
+        return String.valueOf(function.apply(params));
+    }
 
-        java.lang.reflect.Method apply = instance.getClass().getMethod("apply", Object.class);
-        Object result = apply.invoke(instance, params);
-        return String.valueOf(result);
+    /** @return Trefferquote des Compile-Caches, z.B. für die Ausgabe am Ende eines Testlaufs */
+    public String getCompileCacheStats() {
+        return compiled.stats();
     }
 
     // -------------------------------------------------------------------------
     // IntelliSense-Unterstützung (optional für deinen Functions-Tab)
     // -------------------------------------------------------------------------
 
+    /**
+     * Builtin zum Namen, ohne User-Expressions und ohne Lock (der Katalog ist nach dem Start unveränderlich).
+     * Erlaubt es, Builtins einmal zu binden und direkt aufzurufen (TemplatePlan).
+     *
+     * @return null, wenn kein Builtin dieses Namens existiert
+     */
+    public ExpressionFunction getBuiltin(String key) {
+        return builtins.get(normalize(key));
+    }
+
+    /** Kontext, mit dem evaluate(..) Builtins aufruft. */
+    public FunctionContext getBuiltinContext() {
+        return DEFAULT_CONTEXT;
+    }
+
     /** Metadaten aller Builtins (z. B. für IntelliSense). */
     public synchronized Collection<FunctionMetadata> builtinMetadata() {
         return builtins.metadata();
@@ -224,14 +262,6 @@ public class ExpressionRegistryImpl implements ExpressionRegistry {
         Map<String, FunctionMetadata> meta;
     }
 
-    private FunctionContext defaultContext() {
-        // Keep minimal; erweitere bei Bedarf um Services
-        return new FunctionContext() {
-            public String resolveVariable(String name) { return ""; }
-            public Map<String, Object> services() { return Collections.emptyMap(); }
-        };
-    }
-
     private String normalize(String key) {
         return key == null ? "" : key.trim().toLowerCase(Locale.ROOT);
     }
@@ -275,6 +305,15 @@ public class ExpressionRegistryImpl implements ExpressionRegistry {
                 + "}\n";
     }
 
+    /** Verwirft kompilierte Klassen (Speicher und Platte), deren Quelltext nicht mehr registriert ist. */
+    private void pruneCompiled() {
+        Set<String> keep = new HashSet<String>();
+        for (Map.Entry<String, String> e : expressions.entrySet()) {
+            keep.add(CompiledExpressionCache.hash(extractClassName(e.getValue(), e.getKey()), e.getValue()));
+        }
+        compiled.retainOnly(keep);
+    }
+
     private File getSettingsFolder() {
         String home = System.getProperty("user.home", ".");
         File dir = new File(home, ".wd4j"); // Beispielordner
@@ -322,7 +361,7 @@ public class ExpressionRegistryImpl implements ExpressionRegistry {
 
         try {
             String className = extractClassName(sourceCode, norm);
-            Object instance = compiler.compile(className, sourceCode, java.util.function.Function.class);
+            Object instance = compiled.instance(className, sourceCode);
             if (instance instanceof ExpressionFunction) {
                 return (ExpressionFunction) instance;
             }
@@ -0,0 +1,223 @@
+package de.bund.zrb.runtime;
+
+import de.bund.zrb.expressions.domain.ExpressionFunction;
+import de.bund.zrb.expressions.domain.ResolvableExpression;
+import de.bund.zrb.expressions.engine.CompositeExpression;
+import de.bund.zrb.expressions.engine.ExpressionParser;
+import de.bund.zrb.expressions.engine.FunctionExpression;
+import de.bund.zrb.expressions.engine.LiteralExpression;
+import de.bund.zrb.expressions.engine.TemplateCache;
+import de.bund.zrb.expressions.engine.VariableExpression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vorübersetzter Auswertungsplan eines Templates (z.B. "Hallo {{user}}, Code: {{otp({{user}})}}").
+ *
+ * Je Template wird einmal geparst und übersetzt (beschränkter Cache, -Dwd4j.expr.templateCacheSize), danach
+ * läuft jede Auswertung nur noch über den Plan:
+ * - Literale werden direkt in einen gemeinsamen StringBuilder geschrieben, benachbarte Literale sind zusammengefasst.
+ * - Builtins werden beim ersten Aufruf an die Registry gebunden und dann direkt aufgerufen
+ *   (kein Normalisieren, kein Lookup, kein Registry-Lock).
+ *
+ * Die Semantik entspricht der bisherigen rekursiven Auswertung in ActionRuntimeEvaluator.
+ * Pläne sind unveränderlich (bis auf die Bindung) und werden zwischen Threads geteilt.
+ */
+final class TemplatePlan {
+
+    private static final TemplateCache<TemplatePlan> PLANS = new TemplateCache<TemplatePlan>(
+            TemplateCache.maxEntriesFromProperty("wd4j.expr.templateCacheSize", 1024),
+            template -> compile(new ExpressionParser().parseTemplate(template)));
+
+    private final Node root;
+    private final String constant; // != null, wenn das Template keine dynamischen Teile hat
+
+    private TemplatePlan(Node root) {
+        this.root = root;
+        this.constant = (root instanceof Literal) ? ((Literal) root).text : null;
+    }
+
+    static TemplatePlan forTemplate(String template) {
+        return PLANS.get(template);
+    }
+
+    static TemplatePlan compile(ResolvableExpression ast) {
+        return new TemplatePlan(node(ast));
+    }
+
+    String evaluate(ValueScope scope) throws Exception {
+        return (constant != null) ? constant : root.eval(scope);
+    }
+
+    // -------------------------------------------------------------------------
+    // Übersetzung
+    // -------------------------------------------------------------------------
+
+    private static Node node(ResolvableExpression expr) {
+        if (expr instanceof LiteralExpression) {
+            return new Literal(((LiteralExpression) expr).getText());
+        }
+        if (expr instanceof VariableExpression) {
+            String name = ((VariableExpression) expr).getName();
+            return (name != null) ? new Variable(name) : new Literal("");
+        }
+        if (expr instanceof FunctionExpression) {
+            FunctionExpression fn = (FunctionExpression) expr;
+            List<ResolvableExpression> args = fn.getArgs();
+            Node[] argNodes = new Node[args.size()];
+            for (int i = 0; i < argNodes.length; i++) {
+                argNodes[i] = node(args.get(i));
+            }
+            return new Call(fn.getFunctionName(), argNodes);
+        }
+        if (expr instanceof CompositeExpression) {
+            List<Node> parts = new ArrayList<Node>();
+            flatten((CompositeExpression) expr, parts);
+            return (parts.size() == 1) ? parts.get(0) : new Concat(parts.toArray(new Node[0]));
+        }
+        // Unbekannter Knoten → leer
+        return new Literal("");
+    }
+
+    /** Verschachtelte Composites auflösen und benachbarte Literale zusammenfassen. */
+    private static void flatten(CompositeExpression cx, List<Node> out) {
+        for (ResolvableExpression part : cx.getParts()) {
+            if (part instanceof CompositeExpression) {
+                flatten((CompositeExpression) part, out);
+                continue;
+            }
+            Node n = node(part);
+            int last = out.size() - 1;
+            if (n instanceof Literal && last >= 0 && out.get(last) instanceof Literal) {
+                out.set(last, new Literal(((Literal) out.get(last)).text + ((Literal) n).text));
+            } else {
+                out.add(n);
+            }
+        }
+        if (out.isEmpty()) {
+            out.add(new Literal(""));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Knoten
+    // -------------------------------------------------------------------------
+
+    private abstract static class Node {
+        /** Wert als String (wie bisher: Ergebnis einer Funktion kann null sein). */
+        abstract String eval(ValueScope scope) throws Exception;
+
+        void appendTo(StringBuilder sb, ValueScope scope) throws Exception {
+            sb.append(eval(scope));
+        }
+    }
+
+    private static final class Literal extends Node {
+        final String text;
+
+        Literal(String text) {
+            this.text = text;
+        }
+
+        String eval(ValueScope scope) {
+            return text;
+        }
+    }
+
+    /** {{name}}: Variable mit Shadowing, sonst gleichnamiges Template (rekursiv), sonst leer. */
+    private static final class Variable extends Node {
+        final String name;
+
+        Variable(String name) {
+            this.name = name;
+        }
+
+        String eval(ValueScope scope) throws Exception {
+            String val = scope.lookupVar(name);
+            if (val != null) {
+                return val;
+            }
+            String tmpl = scope.lookupTemplate(name);
+            if (tmpl != null && tmpl.contains("{{")) {
+                return ActionRuntimeEvaluator.evaluateActionValue(tmpl, scope);
+            }
+            return (tmpl != null) ? tmpl : "";
+        }
+    }
+
+    private static final class Concat extends Node {
+        final Node[] parts;
+        final int literalLength;
+
+        Concat(Node[] parts) {
+            this.parts = parts;
+            int len = 0;
+            for (Node p : parts) {
+                if (p instanceof Literal) len += ((Literal) p).text.length();
+            }
+            this.literalLength = len;
+        }
+
+        String eval(ValueScope scope) throws Exception {
+            StringBuilder sb = new StringBuilder(literalLength + 32);
+            appendTo(sb, scope);
+            return sb.toString();
+        }
+
+        @Override
+        void appendTo(StringBuilder sb, ValueScope scope) throws Exception {
+            for (Node part : parts) {
+                part.appendTo(sb, scope);
+            }
+        }
+    }
+
+    private static final class Call extends Node {
+        final String functionName;
+        final Node[] args;
+        private volatile Binding binding;
+
+        Call(String functionName, Node[] args) {
+            this.functionName = functionName;
+            this.args = args;
+        }
+
+        String eval(ValueScope scope) throws Exception {
+            List<String> argVals = new ArrayList<String>(args.length);
+            for (Node arg : args) {
+                argVals.add(arg.eval(scope));
+            }
+
+            ExpressionRegistry reg = scope.getExpressionRegistry();
+            ExpressionFunction builtin = bind(reg);
+            if (builtin == null) {
+                return reg.evaluate(functionName, argVals); // User-Expression (kompiliert, gecacht in der Registry)
+            }
+            return builtin.invoke(argVals, ((ExpressionRegistryImpl) reg).getBuiltinContext());
+        }
+
+        /** @return gebundenes Builtin oder null (User-Expression bzw. fremde Registry → evaluate) */
+        private ExpressionFunction bind(ExpressionRegistry reg) {
+            Binding b = binding;
+            if (b == null || b.registry != reg) {
+                ExpressionFunction fn = (reg instanceof ExpressionRegistryImpl)
+                        ? ((ExpressionRegistryImpl) reg).getBuiltin(functionName)
+                        : null;
+                b = new Binding(reg, fn);
+                binding = b;
+            }
+            return b.builtin;
+        }
+    }
+
+    private static final class Binding {
+        final ExpressionRegistry registry;
+        final ExpressionFunction builtin;
+
+        Binding(ExpressionRegistry registry, ExpressionFunction builtin) {
+            this.registry = registry;
+            this.builtin = builtin;
+        }
+    }
+}
@@ -16,6 +16,15 @@ public final class TestRunContext {
         return vars;
     }
 
+    /**
+     * Neue Suite innerhalb dieses Kontexts (headless Worker): Suite-Variablen leeren und das
+     * Suite-BeforeAll erneut zulassen, da seine Ergebnisse mit den Suite-Variablen verworfen werden.
+     */
+    public void enterSuite() {
+        vars.enterSuite();
+        suiteBeforeAllDone.clear();
+    }
+
     public boolean isRootBeforeAllDone() {
         return rootBeforeAllDone;
     }
@@ -0,0 +1,91 @@
+package de.bund.zrb.service;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import de.bund.zrb.BrowserImpl;
+import de.bund.zrb.model.TestCase;
+import de.bund.zrb.model.TestSuite;
+import de.bund.zrb.ui.components.log.LogComponent;
+import de.bund.zrb.ui.components.log.TestExecutionLogger;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Worker des {@link ParallelSuiteExecutor} auf dem gemeinsamen Browser: ein eigener TestRunner (headless, eigener
+ * TestRunContext) und je User ein eigener User-Context, der nur von diesem Worker benutzt wird.
+ *
+ * Muss auf dem Worker-Thread erzeugt werden: die Pages werden für diesen Thread an den BrowserService gebunden,
+ * so dass auch Givens und Tools (Login, Screenshot …) die Contexts des Workers verwenden; der Runner an den
+ * TestPlayerService, so dass Tool-Screenshots im Report und Log dieses Workers landen.
+ */
+class BrowserCaseWorker implements ParallelSuiteExecutor.CaseWorker {
+
+    private final BrowserImpl browser;
+    private final TestExecutionLogger log = new TestExecutionLogger();
+    private final TestRunner runner;
+    private final Map<String, BrowserContext> contexts = new LinkedHashMap<String, BrowserContext>();
+
+    BrowserCaseWorker(BrowserServiceImpl browserService, GivenConditionExecutor givenExecutor,
+                      int workerNo, Path reportHtml, Path reportImages) {
+        this.browser = browserService.getBrowser();
+        if (browser == null) {
+            throw new IllegalStateException("Kein Browser verfügbar");
+        }
+        this.runner = new TestRunner(browserService, givenExecutor, null, log);
+        this.runner.attachReport(reportHtml, reportImages, "w" + workerNo + "-");
+        BrowserServiceImpl.bindWorkerPages(this::page);
+        TestPlayerService.bindWorkerRunner(runner);
+    }
+
+    @Override
+    public List<LogComponent> enterSuite(TestSuite suite) {
+        runner.enterSuiteHeadless(suite);
+        return log.drain();
+    }
+
+    @Override
+    public List<LogComponent> runCase(TestSuite suite, TestCase testCase) {
+        runner.runCaseHeadless(suite, testCase);
+        return log.drain();
+    }
+
+    @Override
+    public void stop() {
+        runner.stopPlayback();
+    }
+
+    @Override
+    public void close() {
+        runner.finishImages();
+        for (BrowserContext context : contexts.values()) {
+            try {
+                synchronized (browser) {
+                    context.close();
+                }
+            } catch (RuntimeException ignore) {
+                // Browser evtl. bereits beendet
+            }
+        }
+        contexts.clear();
+        BrowserServiceImpl.bindWorkerPages(null);
+        TestPlayerService.bindWorkerRunner(null);
+    }
+
+    private Page page(String username) {
+        String key = (username != null) ? username : "default";
+        BrowserContext context = contexts.get(key);
+        if (context == null) {
+            synchronized (browser) { // BrowserImpl verwaltet seine Contexts nicht thread-safe
+                context = browser.newContext();
+            }
+            contexts.put(key, context);
+        }
+        synchronized (browser) { // newPage registriert die Page ebenfalls im BrowserImpl
+            List<Page> pages = context.pages();
+            return pages.isEmpty() ? context.newPage() : pages.get(0);
+        }
+    }
+}
@@ -36,6 +36,10 @@ public class BrowserServiceImpl implements BrowserService {
     private LoginRedirectSentry autoLogin;
     private final BrowserProcessService browserProcessService = new WindowsBrowserProcessService();
 
+    // Headless-Worker (ParallelSuiteExecutor): eigene User-Contexts je Thread statt der geteilten
+    private static final ThreadLocal<java.util.function.Function<String, Page>> WORKER_PAGES =
+            new ThreadLocal<java.util.function.Function<String, Page>>();
+
     private BrowserServiceImpl() {}
 
     public static BrowserServiceImpl getInstance() {
@@ -367,6 +371,10 @@ public class BrowserServiceImpl implements BrowserService {
 
     @Override
     public com.microsoft.playwright.Page getActivePage(String username) {
+        java.util.function.Function<String, Page> workerPages = WORKER_PAGES.get();
+        if (workerPages != null) {
+            return workerPages.apply(username);
+        }
         BrowserContext context = getOrCreateUserContext(username);
         List<Page> pages = context.pages();
         if (pages.isEmpty()) {
@@ -375,6 +383,18 @@ public class BrowserServiceImpl implements BrowserService {
         return pages.get(0);
     }
 
+    /**
+     * Bindet die Pages eines Worker-Threads: {@link #getActivePage(String)} (und damit Actions, Givens und Tools)
+     * liefert auf diesem Thread die Pages des Workers. {@code null} hebt die Bindung auf.
+     */
+    public static void bindWorkerPages(java.util.function.Function<String, Page> pages) {
+        if (pages != null) {
+            WORKER_PAGES.set(pages);
+        } else {
+            WORKER_PAGES.remove();
+        }
+    }
+
     @Override
     public com.microsoft.playwright.Page getActivePage() {
         return browser.getActivePage();
@@ -0,0 +1,33 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.runtime.ExpressionRegistryImpl;
+
+import java.util.Locale;
+
+/**
+ * Headless-Sink: eine Zeile je Testfall und die Kennzahlen des Laufs (Laufzeit, Durchsatz, Expression-Cache) auf der Konsole.
+ */
+public class ConsoleResultSink implements TestResultSink {
+
+    @Override
+    public void runStarted(int cases, int workers) {
+        System.out.printf(Locale.ROOT, "[RUN] %d Testfälle auf %d Workern%n", cases, workers);
+    }
+
+    @Override
+    public void caseFinished(ParallelSuiteExecutor.CaseResult result) {
+        System.out.printf(Locale.ROOT, "[RUN] %s %s / %s (w%d, %d ms)%n",
+                result.isPassed() ? "✔" : "✘",
+                result.getSuite().getName(), result.getTestCase().getName(),
+                result.getWorker(), result.getDurationMillis());
+    }
+
+    @Override
+    public void runFinished(ParallelSuiteExecutor.RunSummary summary) {
+        System.out.printf(Locale.ROOT,
+                "[RUN] %d Testfälle, %d fehlgeschlagen, %d nicht ausgeführt – %d Worker, %.1f s, %.1f Testfälle/min%n",
+                summary.getCases(), summary.getFailed(), summary.getSkipped(), summary.getWorkers(),
+                summary.getWallMillis() / 1000d, summary.getCasesPerMinute());
+        System.out.println("[RUN] Expression-Cache: " + ExpressionRegistryImpl.getInstance().getCompileCacheStats());
+    }
+}
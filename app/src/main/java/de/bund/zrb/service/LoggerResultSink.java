@@ -0,0 +1,42 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.ui.components.log.LogComponent;
+import de.bund.zrb.ui.components.log.SuiteLog;
+import de.bund.zrb.ui.components.log.TestExecutionLogger;
+
+import java.nio.file.Path;
+
+/**
+ * UI-Sink: schreibt die Logs jedes abgeschlossenen Testfalls am Stück in den TestExecutionLogger (Log-Fenster)
+ * und exportiert am Ende den HTML-Report. Die Testfälle erscheinen in der Reihenfolge ihres Abschlusses.
+ */
+public class LoggerResultSink implements TestResultSink {
+
+    private final TestExecutionLogger logger;
+    private final Path reportHtml; // null = kein Export
+
+    public LoggerResultSink(TestExecutionLogger logger, Path reportHtml) {
+        this.logger = logger;
+        this.reportHtml = reportHtml;
+    }
+
+    @Override
+    public void caseFinished(ParallelSuiteExecutor.CaseResult result) {
+        for (LogComponent log : result.getLogs()) {
+            logger.append(log);
+        }
+    }
+
+    @Override
+    public void runFinished(ParallelSuiteExecutor.RunSummary summary) {
+        SuiteLog log = new SuiteLog(String.format(java.util.Locale.ROOT,
+                "Lauf beendet: %d Testfälle (%d fehlgeschlagen, %d nicht ausgeführt) auf %d Workern in %.1f s",
+                summary.getCases(), summary.getFailed(), summary.getSkipped(), summary.getWorkers(),
+                summary.getWallMillis() / 1000d));
+        log.setStatus(summary.getFailed() == 0 && summary.getSkipped() == 0);
+        logger.append(log);
+        if (reportHtml != null) {
+            logger.exportAsHtml(reportHtml);
+        }
+    }
+}
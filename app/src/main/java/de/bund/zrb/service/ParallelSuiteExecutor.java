@@ -0,0 +1,262 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.model.TestCase;
+import de.bund.zrb.model.TestSuite;
+import de.bund.zrb.ui.components.log.LogComponent;
+import de.bund.zrb.ui.components.log.StepLog;
+import de.bund.zrb.ui.components.log.SuiteLog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless Ausführung von Testfällen auf N Workern, ohne Swing-Baum.
+ *
+ * Die Testfälle (aus den {@code TestSuite}/{@code TestCase}-Modellen) liegen in einer gemeinsamen Queue, in
+ * Suite-Reihenfolge; jeder freie Worker holt sich den nächsten. Ein Worker hat seinen eigenen TestRunContext
+ * und eigene User-Contexts im Browser (siehe {@link BrowserCaseWorker}), Testfälle müssen also unabhängig
+ * voneinander sein. Ergebnisse gehen an die registrierten {@link TestResultSink}s – das UI ist nur einer davon.
+ *
+ * Konfiguration: {@code -Dwd4j.run.workers} (Anzahl Worker für {@code TestPlayerService.runSuites}, Default 1 =
+ * bisheriger sequenzieller Lauf im UI).
+ */
+public class ParallelSuiteExecutor {
+
+    /** Führt die Testfälle eines Workers aus; wird nur vom Thread dieses Workers benutzt. */
+    public interface CaseWorker extends AutoCloseable {
+
+        /** Suite-Wechsel des Workers. @return Logs des Suite-Setups */
+        List<LogComponent> enterSuite(TestSuite suite);
+
+        /** @return Logs des Testfalls, in Reihenfolge */
+        List<LogComponent> runCase(TestSuite suite, TestCase testCase);
+
+        /** Abbruch von außen (beliebiger Thread). */
+        void stop();
+
+        @Override
+        void close();
+    }
+
+    public interface WorkerFactory {
+        /** @param worker Nummer des Workers, ab 1 */
+        CaseWorker create(int worker);
+    }
+
+    /** Ein auszuführender Testfall. */
+    public static final class CaseRef {
+        private final TestSuite suite;
+        private final TestCase testCase;
+
+        public CaseRef(TestSuite suite, TestCase testCase) {
+            this.suite = suite;
+            this.testCase = testCase;
+        }
+
+        public TestSuite getSuite() { return suite; }
+        public TestCase getTestCase() { return testCase; }
+    }
+
+    /** Ergebnis eines Testfalls. */
+    public static final class CaseResult {
+        private final CaseRef ref;
+        private final int worker;
+        private final boolean passed;
+        private final List<LogComponent> logs;
+        private final long durationNanos;
+
+        CaseResult(CaseRef ref, int worker, boolean passed, List<LogComponent> logs, long durationNanos) {
+            this.ref = ref;
+            this.worker = worker;
+            this.passed = passed;
+            this.logs = Collections.unmodifiableList(logs);
+            this.durationNanos = durationNanos;
+        }
+
+        public TestSuite getSuite() { return ref.suite; }
+        public TestCase getTestCase() { return ref.testCase; }
+        public int getWorker() { return worker; }
+        public boolean isPassed() { return passed; }
+        public List<LogComponent> getLogs() { return logs; }
+        public long getDurationMillis() { return TimeUnit.NANOSECONDS.toMillis(durationNanos); }
+    }
+
+    /** Kennzahlen eines Laufs. */
+    public static final class RunSummary {
+        private final int workers;
+        private final int cases;
+        private final int failed;
+        private final int skipped;
+        private final long wallNanos;
+
+        RunSummary(int workers, int cases, int failed, int skipped, long wallNanos) {
+            this.workers = workers;
+            this.cases = cases;
+            this.failed = failed;
+            this.skipped = skipped;
+            this.wallNanos = wallNanos;
+        }
+
+        public int getWorkers() { return workers; }
+        /** @return Ausgeführte Testfälle */
+        public int getCases() { return cases; }
+        public int getFailed() { return failed; }
+        /** @return Nicht ausgeführte Testfälle (Abbruch oder kein Worker verfügbar) */
+        public int getSkipped() { return skipped; }
+        public long getWallMillis() { return TimeUnit.NANOSECONDS.toMillis(wallNanos); }
+
+        /** @return Ausgeführte Testfälle pro Minute */
+        public double getCasesPerMinute() {
+            return wallNanos > 0 ? cases * 60e9 / wallNanos : 0d;
+        }
+    }
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    private final int workers;
+    private final WorkerFactory workerFactory;
+    private final List<TestResultSink> sinks = new CopyOnWriteArrayList<TestResultSink>();
+    private final List<CaseWorker> activeWorkers = new CopyOnWriteArrayList<CaseWorker>();
+    private final Object sinkLock = new Object();
+    private volatile boolean stopped;
+
+    public ParallelSuiteExecutor(int workers, WorkerFactory workerFactory) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be >= 1: " + workers);
+        }
+        this.workers = workers;
+        this.workerFactory = workerFactory;
+    }
+
+    public ParallelSuiteExecutor addSink(TestResultSink sink) {
+        sinks.add(sink);
+        return this;
+    }
+
+    /** Bricht den Lauf ab: laufende Testfälle werden beendet, weitere nicht mehr gestartet. */
+    public void stop() {
+        stopped = true;
+        for (CaseWorker worker : activeWorkers) {
+            worker.stop();
+        }
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /** @return Alle Testfälle der Suites, in Suite-Reihenfolge */
+    public static List<CaseRef> casesOf(List<TestSuite> suites) {
+        List<CaseRef> out = new ArrayList<CaseRef>();
+        if (suites == null) return out;
+        for (TestSuite suite : suites) {
+            if (suite == null || suite.getTestCases() == null) continue;
+            for (TestCase testCase : suite.getTestCases()) {
+                if (testCase != null) out.add(new CaseRef(suite, testCase));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Führt die Testfälle aus und kehrt zurück, wenn alle abgeschlossen sind (oder abgebrochen wurde).
+     */
+    public RunSummary run(List<CaseRef> cases) {
+        stopped = false;
+        final Queue<CaseRef> queue = new ConcurrentLinkedQueue<CaseRef>(cases);
+        final int threads = Math.max(1, Math.min(workers, cases.size()));
+        final AtomicInteger executed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+
+        synchronized (sinkLock) {
+            for (TestResultSink sink : sinks) sink.runStarted(cases.size(), threads);
+        }
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "wd4j-suite-worker-" + THREADS.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 1; i <= threads; i++) {
+            final int workerNo = i;
+            pool.execute(() -> work(workerNo, queue, executed, failed));
+        }
+        pool.shutdown();
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Worker laufen noch
+            }
+        } catch (InterruptedException e) {
+            stop();
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        RunSummary summary = new RunSummary(threads, executed.get(), failed.get(), queue.size(), System.nanoTime() - start);
+        synchronized (sinkLock) {
+            for (TestResultSink sink : sinks) sink.runFinished(summary);
+        }
+        return summary;
+    }
+
+    private void work(int workerNo, Queue<CaseRef> queue, AtomicInteger executed, AtomicInteger failed) {
+        CaseWorker worker;
+        try {
+            worker = workerFactory.create(workerNo);
+        } catch (RuntimeException ex) {
+            // Die übrigen Worker arbeiten die Queue weiter ab
+            System.err.println("[RUN] Worker " + workerNo + " konnte nicht gestartet werden: " + ex.getMessage());
+            return;
+        }
+        activeWorkers.add(worker);
+        try {
+            TestSuite currentSuite = null;
+            CaseRef ref;
+            while (!stopped && (ref = queue.poll()) != null) {
+                synchronized (sinkLock) {
+                    for (TestResultSink sink : sinks) sink.caseStarted(workerNo, ref.suite, ref.testCase);
+                }
+                long caseStart = System.nanoTime();
+                List<LogComponent> logs = new ArrayList<LogComponent>();
+                try {
+                    if (ref.suite != currentSuite) {
+                        currentSuite = ref.suite;
+                        logs.addAll(worker.enterSuite(ref.suite));
+                    }
+                    logs.addAll(worker.runCase(ref.suite, ref.testCase));
+                } catch (RuntimeException ex) {
+                    SuiteLog error = new SuiteLog(ref.testCase.getName());
+                    error.setError("Worker-Fehler: " + (ex.getMessage() != null ? ex.getMessage() : ex.toString()));
+                    logs.add(error);
+                    currentSuite = null; // Zustand unklar: Suite-Setup beim nächsten Fall wiederholen
+                }
+                boolean passed = passed(logs);
+                executed.incrementAndGet();
+                if (!passed) failed.incrementAndGet();
+                CaseResult result = new CaseResult(ref, workerNo, passed, logs, System.nanoTime() - caseStart);
+                synchronized (sinkLock) {
+                    for (TestResultSink sink : sinks) sink.caseFinished(result);
+                }
+            }
+        } finally {
+            activeWorkers.remove(worker);
+            worker.close();
+        }
+    }
+
+    static boolean passed(List<LogComponent> logs) {
+        for (LogComponent log : logs) {
+            if (log instanceof StepLog && !((StepLog) log).isSuccess()) return false;
+            if (log instanceof SuiteLog && ((SuiteLog) log).isFailed()) return false;
+        }
+        return true;
+    }
+}
@@ -1,6 +1,8 @@
 package de.bund.zrb.service;
 
 import de.bund.zrb.model.TestAction;
+import de.bund.zrb.model.TestCase;
+import de.bund.zrb.model.TestSuite;
 import de.bund.zrb.ui.TestNode;
 import de.bund.zrb.ui.TestPlayerUi;
 import de.bund.zrb.ui.components.log.StepLog;
@@ -35,7 +37,11 @@ public class TestPlayerService {
     private TestExecutionLogger logger;
 
     // --- Laufender Runner (pro Playback) ---
-    private TestRunner currentRunner;
+    private volatile TestRunner currentRunner;
+    // --- Runner des Workers auf diesem Thread (paralleler Lauf), Ziel der Tool-Screenshots ---
+    private static final ThreadLocal<TestRunner> WORKER_RUNNER = new ThreadLocal<TestRunner>();
+    // --- Laufender paralleler Lauf (wd4j.run.workers > 1) ---
+    private volatile ParallelSuiteExecutor currentExecutor;
 
     private VideoOverlayController overlayController;
 
@@ -67,6 +73,10 @@ public class TestPlayerService {
         if (currentRunner != null) {
             currentRunner.stopPlayback();
         }
+        ParallelSuiteExecutor executor = currentExecutor;
+        if (executor != null) {
+            executor.stop();
+        }
     }
 
     /**
@@ -78,6 +88,11 @@ public class TestPlayerService {
         if (!isReady()) {
             return;
         }
+        int workers = Integer.getInteger("wd4j.run.workers", 1);
+        if (workers > 1) {
+            runSuitesParallel(workers);
+            return;
+        }
         // Pro Lauf einen frischen Runner mit neuem TestRunContext anlegen
         currentRunner = new TestRunner(
                 browserService,
@@ -95,6 +110,40 @@ public class TestPlayerService {
         }
     }
 
+    /**
+     * Führt die Testfälle der Auswahl im Tree headless auf {@code workers} Workern aus (eigene User-Contexts je
+     * Worker). Das Log-Fenster erhält jeden Testfall nach dessen Abschluss, der Report wird am Ende geschrieben.
+     */
+    public void runSuitesParallel(int workers) {
+        if (!isReady()) {
+            return;
+        }
+        java.nio.file.Path baseDir = TestRunner.reportBaseDir();
+        String reportName = TestRunner.newReportBaseName();
+        final java.nio.file.Path reportHtml = baseDir.resolve(reportName + ".html");
+        final java.nio.file.Path reportImages = baseDir.resolve(reportName);
+        try {
+            java.nio.file.Files.createDirectories(reportImages);
+        } catch (java.io.IOException e) {
+            throw new RuntimeException("Report-Verzeichnisse konnten nicht angelegt werden: " + reportImages, e);
+        }
+        logger.setDocumentBase(baseDir);
+
+        ParallelSuiteExecutor executor = new ParallelSuiteExecutor(workers,
+                workerNo -> new BrowserCaseWorker(browserService, givenExecutor, workerNo, reportHtml, reportImages))
+                .addSink(new LoggerResultSink(logger, reportHtml))
+                .addSink(new ConsoleResultSink());
+        currentExecutor = executor;
+        try {
+            executor.run(resolveSelectedCases());
+        } finally {
+            currentExecutor = null;
+        }
+        if (executor.isStopped()) {
+            logger.append(new SuiteLog("⏹ Playback abgebrochen!"));
+        }
+    }
+
     /**
      * Öffentliche Kompatibilitäts-Methode (Single Action außerhalb eines Runs).
      * Delegiert an den TestRunner, der dafür einen isolierten Kontext verwendet.
@@ -115,8 +164,15 @@ public class TestPlayerService {
      * wird ad-hoc einer erzeugt, der nur für Reporting/Screenshots zuständig ist.
      */
     public String saveScreenshotFromTool(byte[] png, String baseName) throws Exception {
-        ensureRunnerForToolSupport();
-        return currentRunner.saveScreenshotFromTool(png, baseName);
+        return toolRunner().saveScreenshotFromTool(png, baseName);
+    }
+
+    /**
+     * Public API für Tools: Screenshot der Seite (oder eines Elements) direkt in den Report schreiben.
+     * Wie {@link #saveScreenshotFromTool(byte[], String)}, ohne das Bild vorher als byte[] zu holen.
+     */
+    public String saveScreenshotFromPage(com.microsoft.playwright.Page page, String selectorOrNull, String baseName) throws Exception {
+        return toolRunner().saveScreenshotFromPage(page, selectorOrNull, baseName);
     }
 
     /**
@@ -125,8 +181,7 @@ public class TestPlayerService {
      * wird ad-hoc einer erzeugt, um Logging trotzdem zu ermöglichen.
      */
     public void logScreenshotFromTool(String label, String relImagePath, boolean ok, String errorMsg) {
-        ensureRunnerForToolSupport();
-        currentRunner.logScreenshotFromTool(label, relImagePath, ok, errorMsg);
+        toolRunner().logScreenshotFromTool(label, relImagePath, ok, errorMsg);
     }
 
     /**
@@ -160,14 +215,55 @@ public class TestPlayerService {
         return drawerRef != null && logger != null;
     }
 
+    /** Testfälle der Auswahl im Tree: eine Suite, ein Testfall oder (sonst) alle Suites. */
+    private java.util.List<ParallelSuiteExecutor.CaseRef> resolveSelectedCases() {
+        TestRegistry registry = TestRegistry.getInstance();
+        TestNode selected = drawerRef.getSelectedNode();
+        Object model = (selected != null) ? selected.getModelRef() : null;
+        if (model instanceof TestSuite) {
+            return ParallelSuiteExecutor.casesOf(java.util.Collections.singletonList((TestSuite) model));
+        }
+        if (model instanceof TestCase) {
+            TestCase testCase = (TestCase) model;
+            TestSuite suite = registry.findSuiteById(testCase.getParentId());
+            if (suite != null) {
+                return java.util.Collections.singletonList(new ParallelSuiteExecutor.CaseRef(suite, testCase));
+            }
+        }
+        return ParallelSuiteExecutor.casesOf(registry.getAll());
+    }
+
+    /**
+     * Bindet den Runner eines Workers an den aktuellen Thread: Tool-Screenshots und -Logs landen dann in dessen
+     * Report-Bildern und Log (statt im UI-Runner). {@code null} hebt die Bindung auf.
+     */
+    static void bindWorkerRunner(TestRunner runner) {
+        if (runner != null) {
+            WORKER_RUNNER.set(runner);
+        } else {
+            WORKER_RUNNER.remove();
+        }
+    }
+
+    /** @return {@code true} auf dem Thread eines Workers (headless, keine Dialoge) */
+    public static boolean isWorkerThread() {
+        return WORKER_RUNNER.get() != null;
+    }
+
+    /** Runner für Tool-Aufrufe: der des Workers auf diesem Thread, sonst der laufende bzw. ein Ad-hoc-Runner. */
+    private TestRunner toolRunner() {
+        TestRunner worker = WORKER_RUNNER.get();
+        return (worker != null) ? worker : ensureRunnerForToolSupport();
+    }
+
     /**
      * Stellt sicher, dass für Tool-Aufrufe (Screenshot/Logging) ein Runner existiert.
      * Dieser Runner muss keinen vollständigen Suite-Lauf ausführen, sorgt aber
      * für initialisiertes Reporting/Context.
      */
-    private void ensureRunnerForToolSupport() {
+    private synchronized TestRunner ensureRunnerForToolSupport() {
         if (currentRunner != null) {
-            return;
+            return currentRunner;
         }
         // Ad-hoc Runner nur für Reporting/Screenshots/Logging
         currentRunner = new TestRunner(
@@ -176,5 +272,6 @@ public class TestPlayerService {
                 drawerRef,
                 logger
         );
+        return currentRunner;
     }
 }
@@ -0,0 +1,25 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.model.TestCase;
+import de.bund.zrb.model.TestSuite;
+
+/**
+ * Empfänger der Ergebnisse eines Testlaufs (UI-Log, Konsole, Report …).
+ *
+ * Der {@link ParallelSuiteExecutor} ruft alle Sinks serialisiert auf – nie zwei Aufrufe gleichzeitig –,
+ * Testfälle in der Reihenfolge ihres Abschlusses. Ein Sink muss daher selbst nicht thread-safe sein,
+ * sollte aber schnell zurückkehren, da die Worker solange warten.
+ */
+public interface TestResultSink {
+
+    default void runStarted(int cases, int workers) {
+    }
+
+    default void caseStarted(int worker, TestSuite suite, TestCase testCase) {
+    }
+
+    void caseFinished(ParallelSuiteExecutor.CaseResult result);
+
+    default void runFinished(ParallelSuiteExecutor.RunSummary summary) {
+    }
+}
@@ -5,6 +5,7 @@ import com.microsoft.playwright.Page;
 import de.bund.zrb.PageImpl;
 import de.bund.zrb.model.*;
 import de.bund.zrb.runtime.*;
+import de.bund.zrb.support.ScreenshotEncoder;
 import de.bund.zrb.ui.TestNode;
 import de.bund.zrb.ui.TestPlayerUi;
 import de.bund.zrb.ui.components.log.*;
@@ -56,6 +57,18 @@ public class TestRunner {
     private Path reportHtmlPath;
     private Path reportImagesDir;
     private int screenshotCounter;
+    private String reportFilePrefix = "";
+    // Im Hintergrund umkodierte Report-Bilder (JPEG/WebP), werden vor dem HTML-Export abgewartet
+    private final List<java.util.concurrent.CompletableFuture<Path>> pendingImageWrites =
+            new ArrayList<java.util.concurrent.CompletableFuture<Path>>();
+    // Umkodieren fehlgeschlagen: relativer Pfad des Zielformats → relativer Pfad des als .png behaltenen Originals
+    private final Map<String, String> imageFallbacks = new java.util.concurrent.ConcurrentHashMap<String, String>();
+    // Screenshot-Einträge, deren <img src> bis zum Export noch auf ein Fallback-Bild umgestellt werden kann
+    private final List<StepLog> screenshotLogs = new ArrayList<StepLog>();
+
+    private static final String REPORT_SCREENSHOT_FORMAT_KEY = "report.screenshotFormat";
+    private static final String REPORT_SCREENSHOT_QUALITY_KEY = "report.screenshotQuality";
+    private static final long IMAGE_WRITE_TIMEOUT_SECONDS = 60L;
 
     private static final int QUIET_MS = 500; // 400–600ms hat sich bewährt
     private static final String TYPE_PRECONDITION_REF = "preconditionRef";
@@ -218,6 +231,22 @@ public class TestRunner {
     }
 
     private LogComponent executeTestCaseNode(TestNode node, TestCase testCase) {
+        // Alle Handles (resultOwnership=root), die der Testfall erzeugt, am Ende gesammelt freigeben
+        WDHandleRegistry.Scope handles = openHandleScope();
+        try {
+            return runTestCaseNode(node, testCase);
+        } finally {
+            if (handles != null) handles.close();
+        }
+    }
+
+    private WDHandleRegistry.Scope openHandleScope() {
+        BrowserImpl browser = browserService.getBrowser();
+        WebDriver wd = (browser != null) ? browser.getWebDriver() : null;
+        return (wd != null) ? wd.script().handles().openScope() : null;
+    }
+
+    private LogComponent runTestCaseNode(TestNode node, TestCase testCase) {
         runContext.getVars().enterCase();
         SuiteLog caseLog = new SuiteLog(testCase.getName());
         logger.append(caseLog);
@@ -329,12 +358,40 @@ public class TestRunner {
         return relToHtml(file);
     }
 
+    /**
+     * Wie {@link #saveScreenshotFromTool(byte[], String)}, holt das Bild aber selbst: PNG und JPEG werden über
+     * {@link PageImpl#screenshot(Page.ScreenshotOptions, Path)} direkt in die Report-Datei dekodiert, ohne das Bild
+     * als byte[] zu halten. Element-Screenshots und andere Formate (WebP) gehen über den byte[]-Weg.
+     */
+    public String saveScreenshotFromPage(Page page, String selectorOrNull, String baseName) throws Exception {
+        initReportIfNeeded();
+        if (baseName == null || baseName.trim().isEmpty()) baseName = SCREENSHOT_TOOL_BASE;
+        String format = reportScreenshotFormat();
+        boolean streamable = "png".equals(format) || "jpeg".equals(format);
+        if (selectorOrNull != null || !(page instanceof PageImpl) || !streamable) {
+            byte[] png = (selectorOrNull != null) ? page.locator(selectorOrNull).screenshot() : page.screenshot();
+            return relToHtml(saveScreenshotBytes(png, baseName));
+        }
+        Page.ScreenshotOptions options = new Page.ScreenshotOptions();
+        if ("jpeg".equals(format)) {
+            options.setType(com.microsoft.playwright.options.ScreenshotType.JPEG);
+            Integer q = SettingsService.getInstance().get(REPORT_SCREENSHOT_QUALITY_KEY, Integer.class);
+            if (q != null) options.setQuality(q);
+        }
+        Path file = reportImagesDir.resolve(screenshotFileName(baseName, ScreenshotEncoder.extension(format)));
+        ((PageImpl) page).screenshot(options, file);
+        return relToHtml(file);
+    }
+
     public void logScreenshotFromTool(String label, String relImagePath, boolean ok, String errorMsg) {
         StepLog log = new StepLog(LOG_LABEL_THEN, (label == null || label.trim().isEmpty()) ? SCREENSHOT_LABEL : label);
         log.setStatus(ok);
         if (!ok && errorMsg != null && errorMsg.trim().length() > 0) log.setError(errorMsg.trim());
         if (relImagePath != null && relImagePath.trim().length() > 0) {
             log.setHtmlAppend("<img src='" + relImagePath + "' alt='Screenshot' style='max-width:100%;border:1px solid #ccc;margin-top:.5rem'/>");
+            synchronized (screenshotLogs) {
+                screenshotLogs.add(log);
+            }
         }
         if (logger != null) logger.append(log);
     }
@@ -344,6 +401,87 @@ public class TestRunner {
 
     /// /////////////////////////////////////////////////////////////////////////////
 
+    ////////////////////////////////////////////////////////////////////////////////
+    // Headless-Ausführung auf Modellen (Worker des ParallelSuiteExecutor)
+
+    /// /////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Beginnt eine Suite ohne UI-Baum: Suite-Variablen leeren und Suite-Setup (BeforeAll/BeforeEach) auswerten.
+     * Jeder Worker hat einen eigenen TestRunContext; Root-BeforeAll läuft daher einmal je Worker.
+     */
+    SuiteLog enterSuiteHeadless(TestSuite suite) {
+        if (runContext == null) runContext = new TestRunContext(ExpressionRegistryImpl.getInstance());
+        runContext.enterSuite();
+        SuiteLog suiteLog = new SuiteLog(suite.getName() != null ? suite.getName() : String.valueOf(suite.getId()));
+        logger.append(suiteLog);
+        try {
+            SuiteLog assignBlock = new SuiteLog("ASSIGN");
+            assignBlock.setParent(suiteLog);
+            logger.append(assignBlock);
+            initSuiteSymbols(suite, assignBlock);
+        } catch (Exception ex) {
+            suiteLog.setStatus(false);
+            suiteLog.setError(SUITE_SETUP_FAILED_MSG + ": " + safeMsg(ex));
+        }
+        return suiteLog;
+    }
+
+    /**
+     * Führt einen Testfall ohne UI-Baum aus (ASSIGN → Preconditions → ACT → ASSERT), wie runTestCaseNode.
+     */
+    SuiteLog runCaseHeadless(TestSuite suite, TestCase testCase) {
+        WDHandleRegistry.Scope handles = openHandleScope();
+        try {
+            runContext.getVars().enterCase();
+            SuiteLog caseLog = new SuiteLog(testCase.getName());
+            logger.append(caseLog);
+            try {
+                SuiteLog assignBlock = new SuiteLog("ASSIGN");
+                assignBlock.setParent(caseLog);
+                logger.append(assignBlock);
+                initCaseSymbols(suite, testCase, assignBlock);
+                runCasePreconditions(suite, testCase, caseLog);
+            } catch (Exception ex) {
+                caseLog.setStatus(false);
+                caseLog.setError(CASE_SETUP_FAILED_MSG + ": " + safeMsg(ex));
+                return caseLog;
+            }
+            SuiteLog actBlock = new SuiteLog("ACT");
+            actBlock.setParent(caseLog);
+            logger.append(actBlock);
+            for (TestAction action : testCase.getWhen()) {
+                if (stopped) break;
+                StepLog stepLog = new StepLog(LOG_LABEL_WHEN, buildStepText(action));
+                boolean ok;
+                try {
+                    ok = playSingleAction(runContext, action, stepLog);
+                } catch (RuntimeException ex) {
+                    ok = false;
+                    stepLog.setError(safeMsg(ex));
+                }
+                stepLog.setStatus(ok);
+                stepLog.setParent(actBlock);
+                if (!"screenshot".equalsIgnoreCase(action.getAction())) {
+                    logger.append(stepLog);
+                }
+            }
+            executeAfterAssertions(suite, testCase, caseLog);
+            return caseLog;
+        } finally {
+            if (handles != null) handles.close();
+        }
+    }
+
+    /** Wartet auf die im Hintergrund geschriebenen Report-Bilder (Ende eines Workers). */
+    void finishImages() {
+        awaitPendingImageWrites();
+    }
+
+    private boolean isHeadless() {
+        return drawerRef == null;
+    }
+
     // Öffentliche Kompatibilitäts-Methode (Single Action außerhalb eines Runs)
     public synchronized boolean playSingleAction(final TestAction action, final StepLog stepLog) {
         TestRunContext isolated = new TestRunContext(ExpressionRegistryImpl.getInstance());
@@ -358,14 +496,19 @@ public class TestRunner {
             final String effectiveUser = resolveEffectiveUserForAction(ctx, action);
             lastUsernameUsed = effectiveUser;
             PageImpl page = (PageImpl) browserService.getActivePage(effectiveUser);
-            if (page != null) {
-                String contextId = page.getBrowsingContext().value();
-                browserService.switchSelectedPage(contextId);
-            } else {
-                JOptionPane.showMessageDialog(null, String.format(NO_TAB_FOR_USER_MSG, effectiveUser));
+            if (page == null) {
+                if (isHeadless()) {
+                    stepLog.setError(String.format(NO_TAB_FOR_USER_MSG, effectiveUser));
+                } else {
+                    JOptionPane.showMessageDialog(null, String.format(NO_TAB_FOR_USER_MSG, effectiveUser));
+                }
                 stepLog.setStatus(false);
                 return false;
             }
+            if (!isHeadless()) {
+                // Headless-Worker haben eigene Contexts – der sichtbare Tab bleibt, wie er ist
+                browserService.switchSelectedPage(page.getBrowsingContext().value());
+            }
             if (effectiveUser != null && effectiveUser.trim().length() > 0) {
                 ctx.getVars().setCaseVar("username", effectiveUser.trim());
                 ctx.getVars().setCaseVar("user", effectiveUser.trim());
@@ -516,15 +659,78 @@ public class TestRunner {
         return (node != null) ? node : drawerRef.getRootNode();
     }
 
-    private Path saveScreenshotBytes(byte[] png, String baseName) throws Exception {
+    private Path saveScreenshotBytes(final byte[] png, String baseName) throws Exception {
         initReportIfNeeded();
-        String safe = (baseName == null || baseName.trim().isEmpty()) ? SCREENSHOT_SHOT_BASE : baseName.replaceAll("[^a-zA-Z0-9._-]", "_");
-        String fileName = String.format("%03d-%s.png", ++screenshotCounter, safe);
-        Path file = reportImagesDir.resolve(fileName);
-        Files.write(file, png);
+        String format = reportScreenshotFormat();
+        final String fileName = screenshotFileName(baseName, ScreenshotEncoder.extension(format));
+        final Path file = reportImagesDir.resolve(fileName);
+        if ("png".equals(format)) {
+            Files.write(file, png);
+            return file;
+        }
+        // Umkodieren im Hintergrund, der Testlauf wartet nicht auf ImageIO; endReport() wartet auf alle Bilder
+        Integer q = SettingsService.getInstance().get(REPORT_SCREENSHOT_QUALITY_KEY, Integer.class);
+        Float quality = (q != null) ? q.floatValue() / 100.0f : null;
+        pendingImageWrites.add(ScreenshotEncoder.reencodeAsync(png, format, quality, file).exceptionally(ex -> {
+            // Original mit passender Endung behalten, der Report verweist vor dem Export darauf
+            Path fallback = file.resolveSibling(fileName.substring(0, fileName.lastIndexOf('.')) + ".png");
+            try {
+                Files.deleteIfExists(file);
+                Files.write(fallback, png);
+                imageFallbacks.put(relToHtml(file), relToHtml(fallback));
+            } catch (java.io.IOException ignore) {
+            }
+            return fallback;
+        }));
         return file;
     }
 
+    private String screenshotFileName(String baseName, String extWithDot) {
+        String safe = (baseName == null || baseName.trim().isEmpty()) ? SCREENSHOT_SHOT_BASE : baseName.replaceAll("[^a-zA-Z0-9._-]", "_");
+        return String.format("%s%03d-%s%s", reportFilePrefix, ++screenshotCounter, safe, extWithDot);
+    }
+
+    /** @return Konfiguriertes Report-Bildformat; PNG, wenn ImageIO das Format nicht schreiben kann (z.B. WebP ohne Plugin) */
+    private String reportScreenshotFormat() {
+        String format = ScreenshotEncoder.normalize(SettingsService.getInstance().get(REPORT_SCREENSHOT_FORMAT_KEY, String.class));
+        return ScreenshotEncoder.canEncode(format) ? format : "png";
+    }
+
+    private void awaitPendingImageWrites() {
+        for (java.util.concurrent.CompletableFuture<Path> pending : pendingImageWrites) {
+            try {
+                pending.get(IMAGE_WRITE_TIMEOUT_SECONDS, java.util.concurrent.TimeUnit.SECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception ignore) {
+                // Fallback schreibt bereits das Original
+            }
+        }
+        pendingImageWrites.clear();
+        applyImageFallbacks();
+    }
+
+    /** Stellt die Screenshot-Einträge auf die als .png behaltenen Originale um (Umkodieren fehlgeschlagen). */
+    private void applyImageFallbacks() {
+        synchronized (screenshotLogs) {
+            if (!imageFallbacks.isEmpty()) {
+                for (StepLog log : screenshotLogs) {
+                    String html = log.getHtmlAppend();
+                    for (Map.Entry<String, String> e : imageFallbacks.entrySet()) {
+                        String src = "src='" + e.getKey() + "'";
+                        if (html != null && html.contains(src)) {
+                            html = html.replace(src, "src='" + e.getValue() + "'");
+                            log.setHtmlAppend(html);
+                        }
+                    }
+                }
+                imageFallbacks.clear();
+            }
+            screenshotLogs.clear();
+        }
+    }
+
     private void withRecordingSuppressed(Page page, Runnable action) {
         try {
             page.evaluate("() => { window.__zrbSuppressRecording = (window.__zrbSuppressRecording || 0) + 1; }");
@@ -556,9 +762,8 @@ public class TestRunner {
     }
 
     private void beginReport() {
-        String baseDirStr = SettingsService.getInstance().get("reportBaseDir", String.class);
-        Path baseDir = (baseDirStr != null && !baseDirStr.trim().isEmpty()) ? java.nio.file.Paths.get(baseDirStr.trim()) : DEFAULT_REPORT_BASE_DIR;
-        reportBaseName = java.time.LocalDateTime.now().format(REPORT_TS_FMT);
+        Path baseDir = reportBaseDir();
+        reportBaseName = newReportBaseName();
         reportHtmlPath = baseDir.resolve(reportBaseName + ".html");
         reportImagesDir = baseDir.resolve(reportBaseName);
         screenshotCounter = 0;
@@ -569,11 +774,32 @@ public class TestRunner {
         if (logger != null) logger.setDocumentBase(baseDir);
     }
 
+    /** Report-Verzeichnis aus den Settings ({@code reportBaseDir}). */
+    static Path reportBaseDir() {
+        String baseDirStr = SettingsService.getInstance().get("reportBaseDir", String.class);
+        return (baseDirStr != null && !baseDirStr.trim().isEmpty()) ? java.nio.file.Paths.get(baseDirStr.trim()) : DEFAULT_REPORT_BASE_DIR;
+    }
+
+    static String newReportBaseName() {
+        return java.time.LocalDateTime.now().format(REPORT_TS_FMT);
+    }
+
+    /**
+     * Worker eines parallelen Laufs: Bilder in das gemeinsame Report-Verzeichnis schreiben,
+     * mit eigenem Dateipräfix (die Zähler der Worker laufen unabhängig).
+     */
+    void attachReport(Path htmlPath, Path imagesDir, String filePrefix) {
+        this.reportHtmlPath = htmlPath;
+        this.reportImagesDir = imagesDir;
+        this.reportBaseName = imagesDir.getFileName().toString();
+        this.reportFilePrefix = (filePrefix != null) ? filePrefix : "";
+        this.screenshotCounter = 0;
+    }
+
     private void initReportIfNeeded() {
         if (reportBaseName != null) return;
-        String baseDirStr = SettingsService.getInstance().get("reportBaseDir", String.class);
-        Path baseDir = (baseDirStr != null && !baseDirStr.trim().isEmpty()) ? java.nio.file.Paths.get(baseDirStr.trim()) : DEFAULT_REPORT_BASE_DIR;
-        reportBaseName = java.time.LocalDateTime.now().format(REPORT_TS_FMT);
+        Path baseDir = reportBaseDir();
+        reportBaseName = newReportBaseName();
         reportHtmlPath = baseDir.resolve(reportBaseName + ".html");
         reportImagesDir = baseDir.resolve(reportBaseName);
         screenshotCounter = 0;
@@ -596,7 +822,7 @@ public class TestRunner {
         initReportIfNeeded();
         String safe = (baseName == null || baseName.trim().isEmpty()) ? SCREENSHOT_SHOT_BASE : baseName.replaceAll("[^a-zA-Z0-9._-]", "_");
         String ext = (extWithDot != null && extWithDot.startsWith(".")) ? extWithDot : ".png";
-        String fileName = String.format("%03d-%s%s", ++screenshotCounter, safe, ext);
+        String fileName = String.format("%s%03d-%s%s", reportFilePrefix, ++screenshotCounter, safe, ext);
         Path file = reportImagesDir.resolve(fileName);
         Files.write(file, bytes);
         return file;
@@ -679,6 +905,7 @@ public class TestRunner {
     /// /////////////////////////////////////////////////////////////////////////////
 
     private void endReport() {
+        awaitPendingImageWrites();
         if (logger != null) logger.exportAsHtml(reportHtmlPath);
     }
 
@@ -913,15 +1140,14 @@ public class TestRunner {
     }
 
     private List<LogComponent> executeAfterAssertions(TestNode caseNode, TestCase testCase, SuiteLog parentLog) {
+        return executeAfterAssertions(resolveParentSuite(caseNode), testCase, parentLog);
+    }
+
+    private List<LogComponent> executeAfterAssertions(TestSuite suite, TestCase testCase, SuiteLog parentLog) {
         List<LogComponent> out = new ArrayList<LogComponent>();
         try {
             final ValueScope scope = runContext.getVars().buildCaseScope();
             RootNode root = TestRegistry.getInstance().getRoot();
-            TestSuite suite = null;
-            if (caseNode.getParent() instanceof TestNode) {
-                Object parentModel = ((TestNode) caseNode.getParent()).getModelRef();
-                if (parentModel instanceof TestSuite) suite = (TestSuite) parentModel;
-            }
             java.util.LinkedHashMap<String, String> collected = new java.util.LinkedHashMap<String, String>();
             java.util.LinkedHashMap<String, String> descriptions = new java.util.LinkedHashMap<String, String>();
             java.util.LinkedHashMap<String, String> validatorTypes = new java.util.LinkedHashMap<String, String>();
@@ -1252,10 +1478,13 @@ public class TestRunner {
     }
 
     private void initCaseSymbols(final TestNode node, final TestCase testCase, SuiteLog assignBlock) throws Exception {
+        initCaseSymbols(resolveParentSuite(node), testCase, assignBlock);
+    }
+
+    private void initCaseSymbols(final TestSuite parentSuite, final TestCase testCase, SuiteLog assignBlock) throws Exception {
         if (testCase == null) return;
         final RuntimeVariableContext vars = runContext.getVars();
         final RootNode rootModel = TestRegistry.getInstance().getRoot();
-        final TestSuite parentSuite = resolveParentSuite(node);
         vars.fillCaseTemplatesFromMap(filterEnabled(testCase.getTemplates(), testCase.getTemplatesEnabled()));
         if (parentSuite!=null) vars.fillSuiteTemplatesFromMap(filterEnabled(parentSuite.getTemplates(), parentSuite.getTemplatesEnabled()));
         if (rootModel!=null) vars.fillRootTemplatesFromMap(filterEnabled(rootModel.getTemplates(), rootModel.getTemplatesEnabled()));
@@ -1380,15 +1609,14 @@ public class TestRunner {
     }
 
     private void runCasePreconditions(TestNode caseNode, TestCase testCase, SuiteLog parentLog) throws Exception {
+        runCasePreconditions(resolveParentSuite(caseNode), testCase, parentLog);
+    }
+
+    private void runCasePreconditions(TestSuite suite, TestCase testCase, SuiteLog parentLog) throws Exception {
         if (testCase == null) return;
         java.util.List<Precondtion> refs = new java.util.ArrayList<Precondtion>();
         RootNode root = TestRegistry.getInstance().getRoot();
         if (root != null && root.getPreconditions() != null) refs.addAll(root.getPreconditions());
-        TestSuite suite = null;
-        if (caseNode.getParent() instanceof TestNode) {
-            Object parentModel = ((TestNode) caseNode.getParent()).getModelRef();
-            if (parentModel instanceof TestSuite) suite = (TestSuite) parentModel;
-        }
         if (suite != null && suite.getPreconditions() != null) refs.addAll(suite.getPreconditions());
         if (testCase.getPreconditions() != null) refs.addAll(testCase.getPreconditions());
         if (refs.isEmpty()) return;
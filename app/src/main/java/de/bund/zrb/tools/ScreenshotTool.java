@@ -131,9 +131,7 @@ public class ScreenshotTool extends AbstractUserTool implements BuiltinTool {
                         label, null, false, (ex.getMessage() != null) ? ex.getMessage() : ex.toString()
                 );
             } catch (Throwable ignore) {}
-            JOptionPane.showMessageDialog(null,
-                    "Screenshot fehlgeschlagen: " + ex.getMessage(),
-                    "Fehler", JOptionPane.ERROR_MESSAGE);
+            showMessage("Screenshot fehlgeschlagen: " + ex.getMessage(), "Fehler", JOptionPane.ERROR_MESSAGE);
             return null;
         }
     }
@@ -192,18 +190,12 @@ public class ScreenshotTool extends AbstractUserTool implements BuiltinTool {
         try {
             Page page = browserService.getActivePage(username);
             if (page == null) {
-                JOptionPane.showMessageDialog(null,
-                        "Kein aktiver Tab für Benutzer: " + username,
-                        "Screenshot", JOptionPane.WARNING_MESSAGE);
+                showMessage("Kein aktiver Tab für Benutzer: " + username, "Screenshot", JOptionPane.WARNING_MESSAGE);
                 return;
             }
 
-            byte[] png = (selectorOrNull != null)
-                    ? page.locator(selectorOrNull).screenshot()
-                    : page.screenshot();
-
             TestPlayerService tps = TestPlayerService.getInstance();
-            String rel = tps.saveScreenshotFromTool(png, safeBaseName(label != null ? label : "shot"));
+            String rel = tps.saveScreenshotFromPage(page, selectorOrNull, safeBaseName(label != null ? label : "shot"));
             tps.logScreenshotFromTool(label, rel, true, null);
 
         } catch (Exception ex) {
@@ -213,10 +205,17 @@ public class ScreenshotTool extends AbstractUserTool implements BuiltinTool {
                         (ex.getMessage() != null) ? ex.getMessage() : ex.toString()
                 );
             } catch (Throwable ignore) {}
-            JOptionPane.showMessageDialog(null,
-                    "Screenshot fehlgeschlagen: " + ex.getMessage(),
-                    "Fehler", JOptionPane.ERROR_MESSAGE);
+            showMessage("Screenshot fehlgeschlagen: " + ex.getMessage(), "Fehler", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /** Dialog nur im UI; auf Worker-Threads eines parallelen Laufs (headless) nur auf die Konsole. */
+    private void showMessage(String message, String title, int type) {
+        if (TestPlayerService.isWorkerThread() || GraphicsEnvironment.isHeadless()) {
+            System.err.println("[" + title + "] " + message);
+            return;
         }
+        JOptionPane.showMessageDialog(null, message, title, type);
     }
 
     private String trimToNull(String s) {
@@ -0,0 +1,361 @@
+package de.bund.zrb.ui.components.log;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.destination.PDPageFitDestination;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schreibt die Logs eines Testlaufs als PDF (Überschriften, Schritte, Screenshots, Outline).
+ *
+ * - Screenshots werden vorab parallel gelesen und auf Druckauflösung verkleinert ({@link ReportImagePrefetcher}),
+ *   während der Writer die Seiten zeichnet.
+ * - PDFBox hält Seiten- und Bilddaten nur bis -Dwd4j.report.pdf.maxMainMemoryMb (Standard 64) im Heap,
+ *   der Rest liegt in einer Scratch-Datei im Temp-Verzeichnis.
+ * - Der Log-Baum kann während des Exports weiterwachsen (Hintergrund-Export im laufenden Test). Er wird daher
+ *   zu Beginn einmal eingefroren ({@link Node}); Bildliste und Zeichnen arbeiten auf demselben Stand.
+ */
+final class PdfReportWriter {
+
+    private static final int IMAGE_DPI = Integer.getInteger("wd4j.report.pdf.imageDpi", 150);
+    private static final long MAX_MAIN_MEMORY_BYTES = Long.getLong("wd4j.report.pdf.maxMainMemoryMb", 64L) * 1024L * 1024L;
+    private static final int IMAGE_THREADS =
+            Integer.getInteger("wd4j.report.pdf.imageThreads", Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    static final java.util.regex.Pattern IMG_SRC = java.util.regex.Pattern
+            .compile("<img[^>]*?src=['\"]([^'\"]+)['\"][^>]*>", java.util.regex.Pattern.CASE_INSENSITIVE);
+
+    private final URL imageBase;
+
+    /** @param imageBase Basis für relative Bildpfade (Report-Verzeichnis), null = absolut */
+    PdfReportWriter(URL imageBase) {
+        this.imageBase = imageBase;
+    }
+
+    void write(List<LogComponent> roots, File file) throws IOException {
+        List<Node> tree = freeze(roots);
+
+        float pageWidth  = PDRectangle.A4.getWidth();
+        float pageHeight = PDRectangle.A4.getHeight();
+
+        final float left   = 50f;
+        final float right  = 50f;
+        final float top    = 50f;
+        final float bottom = 50f;
+        final float contentWidth = pageWidth - left - right;
+
+        // breiter als die Seite (bei IMAGE_DPI) wird nie gedruckt
+        int maxImageWidthPx = Math.round(contentWidth / 72f * IMAGE_DPI);
+
+        // y[0] als “mutable float”
+        final float[] y = new float[]{ pageHeight - top };
+        final PDPageContentStream[] content = new PDPageContentStream[1];
+
+        try (PDDocument pdf = new PDDocument(MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY_BYTES));
+             ReportImagePrefetcher images = new ReportImagePrefetcher(
+                     collectImageSrcs(tree), imageBase, maxImageWidthPx, IMAGE_THREADS)) {
+            PDDocumentOutline outline = new PDDocumentOutline();
+            pdf.getDocumentCatalog().setDocumentOutline(outline);
+
+            PDPage page = new PDPage(PDRectangle.A4);
+            PDFStyle.initFont(pdf);
+            pdf.addPage(page);
+            content[0] = new PDPageContentStream(pdf, page);
+            PageBox pg = new PageBox(page, pageWidth, pageHeight, contentWidth, left, right, top, bottom);
+
+            try {
+                for (Node root : tree) {
+                    // Nur Suite-ähnliche Top-Level-Einträge ins Outline aufnehmen
+                    PDOutlineItem suiteItem = null;
+                    if (!root.isStep() && root.comp.getName() != null) {
+                        suiteItem = createOutlineItem(root.comp.getName(), pg.page);
+                        outline.addLast(suiteItem);
+                        suiteItem.openNode();
+                    }
+
+                    renderComponentRecursive(pdf, content, root, suiteItem, pg, y, images, 0);
+                }
+            } finally {
+                if (content[0] != null) content[0].close();
+            }
+            outline.openNode();
+            pdf.save(file);
+        }
+    }
+
+    /** Unveränderliche Sicht auf einen Log-Eintrag: Kinder und Bildquellen zum Zeitpunkt des Exports. */
+    private static final class Node {
+        final LogComponent comp;
+        final List<String> imageSrcs; // nur StepLog
+        final List<Node> children;
+
+        Node(LogComponent comp, List<String> imageSrcs, List<Node> children) {
+            this.comp = comp;
+            this.imageSrcs = imageSrcs;
+            this.children = children;
+        }
+
+        boolean isStep() {
+            return comp instanceof StepLog;
+        }
+    }
+
+    private List<Node> freeze(List<LogComponent> comps) {
+        List<Node> out = new ArrayList<Node>();
+        if (comps == null) return out;
+        // toArray statt Iterator: keine ConcurrentModificationException, wenn der Lauf gerade anhängt
+        for (Object o : comps.toArray()) {
+            if (o instanceof LogComponent) {
+                out.add(freeze((LogComponent) o));
+            }
+        }
+        return out;
+    }
+
+    private Node freeze(LogComponent comp) {
+        if (comp instanceof StepLog) {
+            String htmlAppend = ((StepLog) comp).getHtmlAppend(); // einmal lesen, Fallback-Umschreibungen laufen parallel
+            List<String> imgs = (htmlAppend != null && htmlAppend.indexOf("<img") >= 0)
+                    ? extractImgSrcs(htmlAppend) : java.util.Collections.<String>emptyList();
+            return new Node(comp, imgs, java.util.Collections.<Node>emptyList());
+        }
+        return new Node(comp, java.util.Collections.<String>emptyList(), freeze(comp.getChildren()));
+    }
+
+    /** Alle Bildquellen in genau der Reihenfolge, in der renderComponentRecursive sie zeichnet. */
+    private List<String> collectImageSrcs(List<Node> tree) {
+        List<String> out = new ArrayList<String>();
+        for (Node node : tree) {
+            collectImageSrcs(node, out);
+        }
+        return out;
+    }
+
+    private void collectImageSrcs(Node node, List<String> out) {
+        out.addAll(node.imageSrcs);
+        for (Node child : node.children) {
+            collectImageSrcs(child, out);
+        }
+    }
+
+    /** Carry page metrics + margins around cleanly. */
+    private static final class PageBox {
+        PDPage page; // aktuelle Seite, wird bei Seitenumbruch ersetzt
+        final float pageWidth;
+        final float pageHeight;
+        final float contentWidth;
+        final float left;
+        final float right;
+        final float top;
+        final float bottom;
+
+        PageBox(PDPage page, float pageWidth, float pageHeight, float contentWidth,
+                float left, float right, float top, float bottom) {
+            this.page = page;
+            this.pageWidth = pageWidth;
+            this.pageHeight = pageHeight;
+            this.contentWidth = contentWidth;
+            this.left = left;
+            this.right = right;
+            this.top = top;
+            this.bottom = bottom;
+        }
+    }
+
+    private void renderComponentRecursive(PDDocument pdf,
+                                          PDPageContentStream[] content,
+                                          Node node,
+                                          PDOutlineItem currentToc,
+                                          PageBox pg,
+                                          float[] y,
+                                          ReportImagePrefetcher images,
+                                          int indent) throws IOException {
+
+        final PDFStyle style = (indent == 0) ? PDFStyle.header(16)
+                : (indent == 1) ? PDFStyle.header(13)
+                : PDFStyle.normal();
+
+        // Falls nicht genug Platz bleibt: neue Seite
+        ensureSpaceOrNewPage(pdf, content, pg, y, style.size + style.spacing);
+
+        // Suite/TestCase-Titel oder Step-Zeile
+        LogComponent comp = node.comp;
+        if (node.isStep()) {
+            StepLog step = (StepLog) comp;
+
+            // 1) Zeile bauen (Phase + Content) und umbrechen
+            String line = step.getPhase() + ": " + normalize(step.getContent());
+            y[0] = drawWrapped(content[0], line, PDFStyle.normal(),
+                    pg.left + indent * 10f, y[0], pg.contentWidth - indent * 10f);
+
+            // 2) Optional: Bilder aus dem HTML-Anhang (<img src="...">), wie beim Einfrieren angekündigt
+            for (int i = 0; i < node.imageSrcs.size(); i++) {
+                y[0] = drawImageInline(pdf, content, pg, y, images, indent);
+            }
+
+            return;
+        } else {
+            // Überschrift für Container (Suite/Case/…)
+            String title = (comp.getName() != null) ? comp.getName() : "";
+            y[0] = drawWrapped(content[0], normalize(title), style,
+                    pg.left + indent * 10f, y[0], pg.contentWidth - indent * 10f);
+        }
+
+        // Children
+        for (Node child : node.children) {
+            PDOutlineItem childToc = null;
+            if (!child.isStep() && child.comp.getName() != null) {
+                childToc = createOutlineItem(child.comp.getName(), pg.page);
+                if (currentToc != null) currentToc.addLast(childToc);
+                if (childToc != null) childToc.openNode();
+            }
+
+            renderComponentRecursive(pdf, content, child,
+                    (childToc != null ? childToc : currentToc),
+                    pg, y, images, indent + 1);
+        }
+    }
+
+    private void ensureSpaceOrNewPage(PDDocument pdf,
+                                      PDPageContentStream[] content,
+                                      PageBox pg,
+                                      float[] y,
+                                      float needed) throws IOException {
+        if (y[0] < pg.bottom + needed) {
+            // Seite schließen und neu beginnen
+            if (content[0] != null) content[0].close();
+            PDPage newPage = new PDPage(PDRectangle.A4);
+            pdf.addPage(newPage);
+            content[0] = new PDPageContentStream(pdf, newPage);
+            y[0] = pg.pageHeight - pg.top;
+            // Auch PageBox aktualisieren, damit Outline-Einträge auf die richtige Seite zeigen
+            pg.page = newPage;
+        }
+    }
+
+    /** Zeichnet einen Text mit einfachem Wortumbruch über die verfügbare Breite. */
+    private float drawWrapped(PDPageContentStream content,
+                              String text,
+                              PDFStyle style,
+                              float x,
+                              float y,
+                              float maxWidth) throws IOException {
+
+        if (text == null) text = "";
+        content.setFont(style.font, style.size);
+
+        java.util.List<String> lines = wrap(style.font, style.size, text, maxWidth);
+        for (int i = 0; i < lines.size(); i++) {
+            String ln = lines.get(i);
+            content.beginText();
+            content.newLineAtOffset(x + style.indent, y);
+            content.showText(ln);
+            content.endText();
+            y -= (style.size + style.spacing);
+        }
+        return y;
+    }
+
+    /** Primitive Wortwrap-Logik basierend auf PDFont.stringWidth. */
+    private java.util.List<String> wrap(org.apache.pdfbox.pdmodel.font.PDFont font,
+                                        float fontSize,
+                                        String text,
+                                        float maxWidth) throws IOException {
+        java.util.List<String> out = new java.util.ArrayList<String>();
+        String[] words = text.split("\\s+");
+        StringBuilder line = new StringBuilder();
+
+        for (int i = 0; i < words.length; i++) {
+            String w = words[i];
+            String cand = (line.length() == 0) ? w : (line.toString() + " " + w);
+            float wWidth = font.getStringWidth(cand) / 1000f * fontSize;
+            if (wWidth <= maxWidth) {
+                line.setLength(0);
+                line.append(cand);
+            } else {
+                if (line.length() > 0) {
+                    out.add(line.toString());
+                    line.setLength(0);
+                    line.append(w);
+                } else {
+                    // Wort länger als Zeile – brutaler Cut
+                    out.add(w);
+                }
+            }
+        }
+        if (line.length() > 0) out.add(line.toString());
+        if (out.isEmpty()) out.add(""); // nie leer zurückgeben
+        return out;
+    }
+
+    /** Extrahiert alle src-Werte aus <img ...> Tags im gegebenen HTML-Schnipsel. */
+    private java.util.List<String> extractImgSrcs(String html) {
+        java.util.List<String> list = new java.util.ArrayList<String>();
+        if (html == null) return list;
+        // sehr einfache Extraktion
+        java.util.regex.Matcher m = IMG_SRC.matcher(html);
+        while (m.find()) {
+            list.add(m.group(1));
+        }
+        return list;
+    }
+
+    /** Zeichnet das nächste vorbereitete Bild skaliert auf Seitenbreite. */
+    private float drawImageInline(PDDocument pdf,
+                                  PDPageContentStream[] content,
+                                  PageBox pg,
+                                  float[] y,
+                                  ReportImagePrefetcher images,
+                                  int indent) throws IOException {
+        java.awt.image.BufferedImage img = images.next();
+        if (img == null) return y[0];
+
+        org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject pdImg =
+                org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory.createFromImage(pdf, img);
+
+        // Skalierung: maximal contentWidth - indent
+        float maxW = pg.contentWidth - indent * 10f;
+        float scale = 1f;
+        if (pdImg.getWidth() > maxW) {
+            scale = maxW / pdImg.getWidth();
+        }
+        float drawW = pdImg.getWidth() * scale;
+        float drawH = pdImg.getHeight() * scale;
+
+        // Platz prüfen
+        ensureSpaceOrNewPage(pdf, content, pg, y, drawH + 6f);
+
+        float drawX = pg.left + indent * 10f;
+        float drawY = y[0] - drawH;
+
+        content[0].drawImage(pdImg, drawX, drawY, drawW, drawH);
+        y[0] = drawY - 6f; // kleiner Abstand nach unten
+        return y[0];
+    }
+
+    private PDOutlineItem createOutlineItem(String title, PDPage page) {
+        PDPageFitDestination dest = new PDPageFitDestination();
+        dest.setPage(page);
+        PDOutlineItem item = new PDOutlineItem();
+        item.setTitle(title);
+        item.setDestination(dest);
+        return item;
+    }
+
+    private String normalize(String text) {
+        return text.replace("✅", "[OK]")
+                .replace("❌", "[Fehler]")
+                .replace("🟢", "[Start]")
+                .replace("⏹", "[Stop]");
+    }
+}
@@ -0,0 +1,129 @@
+package de.bund.zrb.ui.components.log;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lädt und verkleinert die Bilder eines Reports parallel, in der Reihenfolge, in der der Writer sie braucht.
+ *
+ * Es sind höchstens {@code lookahead} Bilder gleichzeitig dekodiert (in Arbeit oder fertig, noch nicht abgeholt),
+ * damit hunderte Screenshots nicht gleichzeitig im Heap liegen.
+ */
+final class ReportImagePrefetcher implements AutoCloseable {
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    private final URL base;
+    private final int maxWidthPx;
+    private final Iterator<String> sources;
+    private final int lookahead;
+    private final ExecutorService pool;
+    private final Deque<Future<BufferedImage>> inFlight = new ArrayDeque<Future<BufferedImage>>();
+
+    /**
+     * @param srcs       alle Bildquellen in Zeichenreihenfolge
+     * @param base       Basis für relative Quellen (null = absolut bzw. Dateipfad)
+     * @param maxWidthPx breitere Bilder werden auf diese Breite verkleinert
+     * @param threads    Anzahl Decoder-Threads
+     */
+    ReportImagePrefetcher(List<String> srcs, URL base, int maxWidthPx, int threads) {
+        this.base = base;
+        this.maxWidthPx = Math.max(1, maxWidthPx);
+        this.sources = srcs.iterator();
+        int n = Math.max(1, threads);
+        this.lookahead = 2 * n;
+        this.pool = Executors.newFixedThreadPool(n, r -> {
+            Thread t = new Thread(r, "wd4j-report-image-" + THREADS.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        fill();
+    }
+
+    /**
+     * @return nächstes Bild der Reihenfolge, null wenn es nicht gelesen werden konnte (Warnung auf stderr)
+     * @throws IOException wenn der Writer mehr Bilder abholt als angekündigt
+     */
+    BufferedImage next() throws IOException {
+        Future<BufferedImage> f = inFlight.pollFirst();
+        if (f == null) {
+            throw new IOException("Keine weiteren Bilder angekündigt");
+        }
+        fill();
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("PDF-Export unterbrochen", e);
+        } catch (ExecutionException e) {
+            System.err.println("⚠ Bild für PDF-Export nicht lesbar: " + e.getCause());
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Future<BufferedImage> f : inFlight) {
+            f.cancel(true);
+        }
+        inFlight.clear();
+        pool.shutdownNow();
+    }
+
+    private void fill() {
+        while (inFlight.size() < lookahead && sources.hasNext()) {
+            final String src = sources.next();
+            inFlight.addLast(pool.submit(() -> load(src)));
+        }
+    }
+
+    private BufferedImage load(String src) throws IOException {
+        BufferedImage img = ImageIO.read(resolve(src));
+        if (img == null) {
+            throw new IOException("Unbekanntes Bildformat: " + src);
+        }
+        return downsample(img, maxWidthPx);
+    }
+
+    private URL resolve(String src) throws IOException {
+        try {
+            return (base != null) ? new URL(base, src) : new URL(src);
+        } catch (IOException ex) {
+            // vielleicht ist es ein Dateipfad
+            return new File(src).toURI().toURL();
+        }
+    }
+
+    /** Verkleinert auf maxWidthPx (Seitenverhältnis bleibt), ohne Alpha-Kanal. Kleinere Bilder unverändert. */
+    static BufferedImage downsample(BufferedImage img, int maxWidthPx) {
+        if (img.getWidth() <= maxWidthPx) {
+            return img;
+        }
+        int w = maxWidthPx;
+        int h = Math.max(1, Math.round(img.getHeight() * (w / (float) img.getWidth())));
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(img, 0, 0, w, h, java.awt.Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+}
@@ -92,6 +92,11 @@ public class SuiteLog implements LogComponent {
         this.success = Boolean.valueOf(success);
     }
 
+    /** @return {@code true}, wenn der Status explizit auf fehlgeschlagen gesetzt wurde */
+    public boolean isFailed() {
+        return success != null && !success.booleanValue();
+    }
+
     public void setError(String message) {
         // Comment: Store a plain-text error; escape on rendering
         this.errorMessage = (message != null) ? message : "";
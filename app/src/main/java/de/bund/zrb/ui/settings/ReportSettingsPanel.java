@@ -11,6 +11,8 @@ import java.util.Map;
 public final class ReportSettingsPanel implements SettingsSubPanel {
     private final JPanel root;
     private final JTextField tfReportDir;
+    private final JComboBox<String> cbScreenshotFormat;
+    private final JSpinner spScreenshotQuality;
 
     public ReportSettingsPanel() {
         root = new JPanel(new GridBagLayout());
@@ -29,6 +31,14 @@ public final class ReportSettingsPanel implements SettingsSubPanel {
         btBrowse.addActionListener(e -> chooseDirInto(tfReportDir));
         gb.gridx=1; gb.gridy=1; gb.anchor=GridBagConstraints.EAST; pnl.add(btBrowse, gb);
 
+        // Screenshots werden als PNG geholt und bei JPEG/WebP im Hintergrund umkodiert (WebP nur mit ImageIO-Plugin)
+        gb.gridx=0; gb.gridy=2; gb.anchor=GridBagConstraints.WEST; pnl.add(new JLabel("Screenshot-Format:"), gb);
+        cbScreenshotFormat = new JComboBox<>(new String[]{"png", "jpeg", "webp"});
+        gb.gridx=1; gb.gridy=2; gb.anchor=GridBagConstraints.EAST; pnl.add(cbScreenshotFormat, gb);
+        gb.gridx=0; gb.gridy=3; gb.anchor=GridBagConstraints.WEST; pnl.add(new JLabel("Qualität (0–100, JPEG/WebP):"), gb);
+        spScreenshotQuality = new JSpinner(new SpinnerNumberModel(85, 0, 100, 5));
+        gb.gridx=1; gb.gridy=3; gb.anchor=GridBagConstraints.EAST; pnl.add(spScreenshotQuality, gb);
+
         g.gridx=0; g.gridy=0; g.weightx=1; g.fill=GridBagConstraints.HORIZONTAL; root.add(pnl, g);
         g.gridy=1; g.weighty=1; g.fill=GridBagConstraints.BOTH; root.add(Box.createVerticalGlue(), g);
     }
@@ -40,12 +50,18 @@ public final class ReportSettingsPanel implements SettingsSubPanel {
     @Override public void loadFromSettings() {
         String reportDir = SettingsService.getInstance().get("reportBaseDir", String.class);
         tfReportDir.setText((reportDir != null && !reportDir.trim().isEmpty()) ? reportDir : "C:/Reports");
+        String format = SettingsService.getInstance().get("report.screenshotFormat", String.class);
+        cbScreenshotFormat.setSelectedItem((format != null && !format.trim().isEmpty()) ? format.trim() : "png");
+        Integer quality = SettingsService.getInstance().get("report.screenshotQuality", Integer.class);
+        spScreenshotQuality.setValue(quality != null ? quality : 85);
     }
 
     @Override public void putTo(Map<String, Object> out) throws IllegalArgumentException {
         String reportDir = tfReportDir.getText().trim();
         if (reportDir.isEmpty()) throw new IllegalArgumentException("Bitte ein Report-Verzeichnis angeben.");
         out.put("reportBaseDir", reportDir);
+        out.put("report.screenshotFormat", String.valueOf(cbScreenshotFormat.getSelectedItem()));
+        out.put("report.screenshotQuality", ((Number) spScreenshotQuality.getValue()).intValue());
     }
 
     private static GridBagConstraints gbc(){ GridBagConstraints gbc=new GridBagConstraints(); gbc.insets=new Insets(6,8,6,8); return gbc; }
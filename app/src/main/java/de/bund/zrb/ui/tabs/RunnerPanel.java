@@ -50,7 +50,17 @@ public class RunnerPanel extends JPanel {
             chooser.setSelectedFile(new File("test-report-" + date + ".pdf"));
             int result = chooser.showSaveDialog(this);
             if (result == JFileChooser.APPROVE_OPTION) {
-                logger.exportAsPdf(chooser.getSelectedFile());
+                // Export läuft im Hintergrund, das Log-Fenster bleibt bedienbar
+                downloadButton.setEnabled(false);
+                logger.exportAsPdfInBackground(chooser.getSelectedFile()).whenComplete((file, error) ->
+                        SwingUtilities.invokeLater(() -> {
+                            downloadButton.setEnabled(true);
+                            if (error != null) {
+                                error.printStackTrace();
+                                JOptionPane.showMessageDialog(this, "Fehler beim PDF-Export: " + error.getMessage(),
+                                        "Fehler", JOptionPane.ERROR_MESSAGE);
+                            }
+                        }));
             }
         });
 
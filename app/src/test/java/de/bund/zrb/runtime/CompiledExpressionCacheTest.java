@@ -0,0 +1,81 @@
+package de.bund.zrb.runtime;
+
+import de.bund.zrb.compiler.InMemoryJavaCompiler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class CompiledExpressionCacheTest {
+
+    private static final String CLASS_NAME = "UpperExpr";
+
+    private static String source(String suffix) {
+        return "import java.util.*;\n"
+                + "import java.util.function.*;\n"
+                + "public class " + CLASS_NAME + " implements Function<Object,Object> {\n"
+                + "  public Object apply(Object a) { return String.valueOf(((List<?>) a).get(0)).toUpperCase() + \"" + suffix + "\"; }\n"
+                + "}\n";
+    }
+
+    @Test
+    @DisplayName("Gleicher Quelltext wird nur einmal kompiliert, Warmstart lädt den Bytecode von der Platte")
+    void compilesOncePerSource() throws Exception {
+        assumeTrue(ToolProvider.getSystemJavaCompiler() != null, "kein JDK-Compiler verfügbar");
+        File dir = Files.createTempDirectory("wd4j-expr-cache").toFile();
+        try {
+            CompiledExpressionCache cache = new CompiledExpressionCache(new InMemoryJavaCompiler(), dir);
+            for (int i = 0; i < 100; i++) {
+                Function<Object, Object> f = cache.function(CLASS_NAME, source("!"));
+                assertEquals("ABC!", f.apply(Arrays.asList("abc")));
+            }
+            assertEquals(1, cache.getCompiles());
+            assertEquals(99, cache.getMemoryHits());
+
+            CompiledExpressionCache warm = new CompiledExpressionCache(new InMemoryJavaCompiler(), dir);
+            assertEquals("X!", warm.function(CLASS_NAME, source("!")).apply(Arrays.asList("x")));
+            assertEquals(0, warm.getCompiles());
+            assertEquals(1, warm.getDiskHits());
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    @DisplayName("Geänderter Quelltext wird neu kompiliert, verworfene Einträge verschwinden von der Platte")
+    void changedSourceIsRecompiledAndPruned() throws Exception {
+        assumeTrue(ToolProvider.getSystemJavaCompiler() != null, "kein JDK-Compiler verfügbar");
+        File dir = Files.createTempDirectory("wd4j-expr-cache").toFile();
+        try {
+            CompiledExpressionCache cache = new CompiledExpressionCache(new InMemoryJavaCompiler(), dir);
+            assertEquals("A!", cache.function(CLASS_NAME, source("!")).apply(Arrays.asList("a")));
+            assertEquals("A?", cache.function(CLASS_NAME, source("?")).apply(Arrays.asList("a")));
+            assertEquals(2, cache.getCompiles());
+            assertEquals(2, dir.listFiles().length);
+
+            cache.retainOnly(Collections.singleton(CompiledExpressionCache.hash(CLASS_NAME, source("?"))));
+            assertEquals(1, dir.listFiles().length);
+
+            cache.function(CLASS_NAME, source("!"));
+            assertEquals(3, cache.getCompiles());
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    private static void deleteRecursively(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File c : children) deleteRecursively(c);
+        }
+        f.delete();
+    }
+}
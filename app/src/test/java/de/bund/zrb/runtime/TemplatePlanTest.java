@@ -0,0 +1,110 @@
+package de.bund.zrb.runtime;
+
+import de.bund.zrb.expressions.domain.ExpressionFunction;
+import de.bund.zrb.expressions.domain.FunctionMetadata;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplatePlanTest {
+
+    @Test
+    @DisplayName("Literale, Variablen (mit Shadowing) und Template-Verweise wie bisher")
+    void literalsVariablesAndTemplates() throws Exception {
+        RecordingRegistry reg = new RecordingRegistry();
+        Map<String, String> root = new LinkedHashMap<String, String>();
+        root.put("user", "root-user");
+        root.put("field", "az");
+        Map<String, String> caseVars = new LinkedHashMap<String, String>();
+        caseVars.put("user", "case-user");
+        caseVars.put("empty", "");
+        Map<String, String> templates = new LinkedHashMap<String, String>();
+        templates.put("OTP", "{{otp({{user}})}}");
+        templates.put("plain", "fix");
+        ValueScope scope = scope(root, caseVars, templates, reg);
+
+        assertEquals("input[name=\"az\"] / case-user", ActionRuntimeEvaluator.evaluateActionValue("input[name=\"{{field}}\"] / {{user}}", scope));
+        assertEquals("Code: otp[case-user]", ActionRuntimeEvaluator.evaluateActionValue("Code: {{OTP}}", scope));
+        assertEquals("fix|", ActionRuntimeEvaluator.evaluateActionValue("{{plain}}|{{empty}}{{unknown}}", scope));
+        assertEquals("ohne Platzhalter", ActionRuntimeEvaluator.evaluateActionValue("ohne Platzhalter", scope));
+    }
+
+    @Test
+    @DisplayName("Verschachtelte Aufrufe: Argumente zuerst, Funktionen bei jeder Auswertung neu (lazy)")
+    void nestedCallsAreLazy() throws Exception {
+        RecordingRegistry reg = new RecordingRegistry();
+        ValueScope scope = scope(Collections.singletonMap("user", "u1"), null, null, reg);
+        String template = "{{wrap('x';{{otp({{user}})}})}}-{{otp({{user}})}}";
+
+        assertEquals("wrap[x,otp[u1]]-otp[u1]", ActionRuntimeEvaluator.evaluateActionValue(template, scope));
+        assertEquals("wrap[x,otp[u1]]-otp[u1]", ActionRuntimeEvaluator.evaluateActionValue(template, scope));
+        assertEquals(6, reg.calls.size(), "Funktionen werden bei jeder Auswertung neu aufgerufen");
+    }
+
+    @Test
+    @DisplayName("Builtins werden an die Registry gebunden und bei jeder Auswertung direkt aufgerufen")
+    void builtinsAreBoundAndInvokedDirectly() throws Exception {
+        File dir = Files.createTempDirectory("wd4j-expr").toFile();
+        try {
+            ExpressionRegistryImpl reg = new ExpressionRegistryImpl(dir);
+            assertNotNull(reg.getBuiltin("echo"));
+
+            ValueScope scope = scope(Collections.singletonMap("az", "4711"), null, null, reg);
+            assertEquals("4711 a|4711 a|b",
+                    ActionRuntimeEvaluator.evaluateActionValue("{{Echo({{az}};'a')}}|{{echo({{az}};'a')}}|{{Echo('b')}}", scope));
+            String year = new SimpleDateFormat("yyyy").format(new Date());
+            assertEquals(year, ActionRuntimeEvaluator.evaluateActionValue("{{Date('yyyy')}}", scope));
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+
+    private static ValueScope scope(Map<String, String> root, Map<String, String> caseVars,
+                                    Map<String, String> templates, ExpressionRegistry reg) {
+        return new ValueScope(root, null, caseVars, templates, null, null, reg);
+    }
+
+    /** Registry ohne Builtins: protokolliert jeden evaluate-Aufruf und liefert name[args]. */
+    private static final class RecordingRegistry implements ExpressionRegistry {
+        final List<String> calls = new ArrayList<String>();
+
+        public String evaluate(String key, List<String> params) {
+            String s = key + "[" + String.join(",", params) + "]";
+            calls.add(s);
+            return s;
+        }
+
+        public Set<String> getKeys() { return Collections.emptySet(); }
+        public Optional<String> getCode(String key) { return Optional.empty(); }
+        public void reload() { }
+        public void register(String key, String code) { }
+        public void remove(String key) { }
+        public void save() { }
+        public ExpressionFunction get(String name) { return null; }
+        public FunctionMetadata getMetadata(String key) { return null; }
+        public void setMetadata(String key, FunctionMetadata meta) { }
+    }
+
+    private static void deleteRecursively(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File c : children) deleteRecursively(c);
+        }
+        f.delete();
+    }
+}
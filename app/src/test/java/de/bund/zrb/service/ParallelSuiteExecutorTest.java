@@ -0,0 +1,146 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.model.TestCase;
+import de.bund.zrb.model.TestSuite;
+import de.bund.zrb.ui.components.log.LogComponent;
+import de.bund.zrb.ui.components.log.StepLog;
+import de.bund.zrb.ui.components.log.SuiteLog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSuiteExecutorTest {
+
+    @Test
+    @DisplayName("Jeder Testfall läuft genau einmal, Fehler werden gezählt")
+    void runsEveryCaseOnce() {
+        List<TestSuite> suites = suites(3, 7);
+        final Set<String> seen = ConcurrentHashMap.newKeySet();
+        final AtomicInteger duplicates = new AtomicInteger();
+        ParallelSuiteExecutor executor = new ParallelSuiteExecutor(4, workerNo -> new FakeWorker(0L) {
+            @Override
+            public List<LogComponent> runCase(TestSuite suite, TestCase testCase) {
+                if (!seen.add(testCase.getId())) duplicates.incrementAndGet();
+                return super.runCase(suite, testCase);
+            }
+        });
+        final List<ParallelSuiteExecutor.CaseResult> results = new ArrayList<ParallelSuiteExecutor.CaseResult>();
+        executor.addSink(results::add);
+
+        ParallelSuiteExecutor.RunSummary summary = executor.run(ParallelSuiteExecutor.casesOf(suites));
+
+        assertEquals(21, summary.getCases());
+        assertEquals(21, results.size());
+        assertEquals(0, duplicates.get());
+        assertEquals(3, summary.getFailed(), "je Suite schlägt der Fall 'fail' fehl");
+        assertEquals(0, summary.getSkipped());
+    }
+
+    @Test
+    @DisplayName("Suite-Setup läuft je Worker beim Suite-Wechsel und gehört zum ersten Testfall")
+    void suiteSetupPerWorker() {
+        ParallelSuiteExecutor executor = new ParallelSuiteExecutor(1, workerNo -> new FakeWorker(0L));
+        final List<ParallelSuiteExecutor.CaseResult> results = new ArrayList<ParallelSuiteExecutor.CaseResult>();
+        executor.addSink(results::add);
+
+        executor.run(ParallelSuiteExecutor.casesOf(suites(2, 2)));
+
+        assertEquals("setup S0", results.get(0).getLogs().get(0).getName());
+        assertEquals(1, results.get(1).getLogs().size());
+        assertEquals("setup S1", results.get(2).getLogs().get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Sinks werden nie gleichzeitig aufgerufen")
+    void sinksAreSerialized() {
+        final AtomicInteger inSink = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        ParallelSuiteExecutor executor = new ParallelSuiteExecutor(8, workerNo -> new FakeWorker(1L));
+        executor.addSink(result -> {
+            if (inSink.incrementAndGet() > 1) overlaps.incrementAndGet();
+            try {
+                Thread.sleep(1L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inSink.decrementAndGet();
+        });
+
+        executor.run(ParallelSuiteExecutor.casesOf(suites(4, 10)));
+
+        assertEquals(0, overlaps.get());
+    }
+
+    @Test
+    @DisplayName("Abbruch: keine weiteren Testfälle, Rest als nicht ausgeführt gezählt")
+    void stopSkipsRemainingCases() {
+        final ParallelSuiteExecutor[] executor = new ParallelSuiteExecutor[1];
+        executor[0] = new ParallelSuiteExecutor(2, workerNo -> new FakeWorker(5L));
+        executor[0].addSink(result -> executor[0].stop());
+
+        ParallelSuiteExecutor.RunSummary summary = executor[0].run(ParallelSuiteExecutor.casesOf(suites(1, 20)));
+
+        assertTrue(summary.getCases() <= 2, "höchstens die bereits laufenden Fälle");
+        assertEquals(20, summary.getCases() + summary.getSkipped());
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+
+    private static List<TestSuite> suites(int suites, int casesPerSuite) {
+        List<TestSuite> out = new ArrayList<TestSuite>();
+        for (int s = 0; s < suites; s++) {
+            List<TestCase> cases = new ArrayList<TestCase>();
+            for (int c = 0; c < casesPerSuite; c++) {
+                TestCase testCase = new TestCase(c == casesPerSuite - 1 ? "fail" : "case " + c, null);
+                testCase.setId("S" + s + "-C" + c);
+                cases.add(testCase);
+            }
+            TestSuite suite = new TestSuite("S" + s, cases);
+            suite.setId("S" + s);
+            out.add(suite);
+        }
+        return out;
+    }
+
+    /** Simuliert einen Browser-Testfall durch Warten; der Fall "fail" schlägt fehl. */
+    private static class FakeWorker implements ParallelSuiteExecutor.CaseWorker {
+        private final long caseMillis;
+
+        FakeWorker(long caseMillis) {
+            this.caseMillis = caseMillis;
+        }
+
+        @Override
+        public List<LogComponent> enterSuite(TestSuite suite) {
+            return Collections.<LogComponent>singletonList(new SuiteLog("setup " + suite.getName()));
+        }
+
+        @Override
+        public List<LogComponent> runCase(TestSuite suite, TestCase testCase) {
+            try {
+                Thread.sleep(caseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StepLog step = new StepLog("When", testCase.getName());
+            step.setStatus(!"fail".equals(testCase.getName()));
+            return Collections.<LogComponent>singletonList(step);
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package de.bund.zrb.ui.components.log;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportImagePrefetcherTest {
+
+    @Test
+    @DisplayName("Bilder kommen in Zeichenreihenfolge, große werden verkleinert, defekte übersprungen")
+    void deliversInOrderAndDownsamples() throws Exception {
+        Path dir = Files.createTempDirectory("wd4j-report");
+        try {
+            List<String> srcs = new ArrayList<String>();
+            for (int i = 0; i < 12; i++) {
+                int width = (i % 2 == 0) ? 2400 : 300 + i; // Breite kodiert die Position
+                BufferedImage img = new BufferedImage(width, 100 + i, BufferedImage.TYPE_INT_ARGB);
+                ImageIO.write(img, "png", dir.resolve("shot-" + i + ".png").toFile());
+                srcs.add("shot-" + i + ".png");
+            }
+            srcs.add(5, "missing.png");
+
+            try (ReportImagePrefetcher images = new ReportImagePrefetcher(srcs, dir.toUri().toURL(), 1000, 3)) {
+                for (int i = 0; i < 13; i++) {
+                    BufferedImage img = images.next();
+                    if (i == 5) {
+                        assertNull(img);
+                        continue;
+                    }
+                    int n = (i < 5) ? i : i - 1;
+                    if (n % 2 == 0) {
+                        assertEquals(1000, img.getWidth());
+                        assertEquals(Math.round((100 + n) * (1000f / 2400f)), img.getHeight());
+                    } else {
+                        assertEquals(300 + n, img.getWidth());
+                    }
+                }
+            }
+        } finally {
+            for (File f : dir.toFile().listFiles()) f.delete();
+            Files.delete(dir);
+        }
+    }
+}
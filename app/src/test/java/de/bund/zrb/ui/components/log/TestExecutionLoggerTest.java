@@ -0,0 +1,97 @@
+package de.bund.zrb.ui.components.log;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JEditorPane;
+import javax.swing.SwingUtilities;
+import javax.swing.text.Document;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestExecutionLoggerTest {
+
+    @Test
+    @DisplayName("Einträge werden in Reihenfolge an das Dokument angehängt")
+    void appendsInOrder() throws Exception {
+        JEditorPane pane = new JEditorPane();
+        TestExecutionLogger logger = new TestExecutionLogger(pane, 1000);
+
+        logger.append(new SuiteLog("Suite A"));
+        for (int i = 0; i < 20; i++) {
+            logger.append(new StepLog("When", "step " + i + ";"));
+        }
+        SwingUtilities.invokeAndWait(() -> { });
+
+        String text = text(pane);
+        assertTrue(text.contains("Suite A"));
+        int last = -1;
+        for (int i = 0; i < 20; i++) {
+            int pos = text.indexOf("step " + i + ";");
+            assertTrue(pos > last, "step " + i + " fehlt oder steht falsch");
+            last = pos;
+        }
+    }
+
+    @Test
+    @DisplayName("Im Fenster bleiben nur die letzten Blöcke, der Export enthält alles")
+    void keepsOnlyTailInView() throws Exception {
+        JEditorPane pane = new JEditorPane();
+        TestExecutionLogger logger = new TestExecutionLogger(pane, 50);
+
+        for (int i = 0; i < 500; i++) {
+            logger.append(new StepLog("When", "step " + i + ";"));
+            if (i % 100 == 99) SwingUtilities.invokeAndWait(() -> { });
+        }
+        SwingUtilities.invokeAndWait(() -> { });
+
+        String text = text(pane);
+        assertFalse(text.contains("step 0;"));
+        assertTrue(text.contains("step 499;"));
+        assertTrue(text.contains("step 450;"));
+        assertEquals(500, logger.drain().size());
+    }
+
+    @Test
+    @DisplayName("Leichter HTML-Report: Screenshots werden verlinkt statt eingebettet")
+    void htmlReportWithLinkedImages() throws Exception {
+        TestExecutionLogger logger = new TestExecutionLogger();
+        SuiteLog suite = new SuiteLog("Suite A");
+        StepLog shot = new StepLog("Then", "Screenshot");
+        shot.setHtmlAppend("<img src='images/shot-1.png' alt='Screenshot' style='max-width:100%'/>");
+        shot.setParent(suite);
+        suite.addChild(shot);
+        logger.append(suite);
+
+        Path dir = Files.createTempDirectory("wd4j-report");
+        Path html = dir.resolve("report.html");
+        try {
+            logger.exportAsHtml(html, true);
+            String linked = new String(Files.readAllBytes(html), StandardCharsets.UTF_8);
+            assertFalse(linked.contains("<img"));
+            assertTrue(linked.contains("<a href='images/shot-1.png'"));
+
+            logger.exportAsHtml(html, false);
+            assertTrue(new String(Files.readAllBytes(html), StandardCharsets.UTF_8).contains("<img src='images/shot-1.png'"));
+        } finally {
+            Files.deleteIfExists(html);
+            Files.delete(dir);
+        }
+    }
+
+    private static String text(JEditorPane pane) throws Exception {
+        final String[] out = new String[1];
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                Document doc = pane.getDocument();
+                out[0] = doc.getText(0, doc.getLength());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return out[0];
+    }
+}
@@ -8,7 +8,6 @@ import com.sun.jna.platform.win32.WinNT;
 import de.bund.zrb.manager.WDInputManager;
 import de.bund.zrb.manager.WDScriptManager;
 import de.bund.zrb.support.ScriptHelper;
-import de.bund.zrb.command.response.WDBrowsingContextResult;
 import de.bund.zrb.command.response.WDScriptResult;
 import de.bund.zrb.type.script.*;
 import de.bund.zrb.websocket.WDErrorResponse;
@@ -201,9 +200,8 @@ public class BrowserImpl implements Browser {
 
     private void fetchDefaultBrowsingContexts() {
         try {
-            WDBrowsingContextResult.GetTreeResult tree = webDriver.browsingContext().getTree();
-
-            tree.getContexts().forEach(info -> {
+            // Seedet zugleich den lokalen Context-Baum
+            webDriver.contexts().getTree(null, null).forEach(info -> {
                 String contextId = info.getContext().value();
                 String userContextId = info.getUserContext().value();
 
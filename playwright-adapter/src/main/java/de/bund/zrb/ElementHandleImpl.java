@@ -10,7 +10,7 @@ import de.bund.zrb.command.request.parameters.input.sourceActions.PauseAction;
 import de.bund.zrb.config.InputDelaysConfig;
 import de.bund.zrb.manager.WDInputManager;
 import de.bund.zrb.support.ActionabilityCheck;
-import de.bund.zrb.support.ActionabilityRequirement;
+import de.bund.zrb.support.ActionabilityWaiter;
 import de.bund.zrb.support.WDKeys;
 import de.bund.zrb.type.input.WDElementOrigin;
 import de.bund.zrb.type.script.*;
@@ -108,7 +108,14 @@ public class ElementHandleImpl extends JSHandleImpl implements ElementHandle {
         waitForActionability(options);
         scrollIntoViewIfNeeded(null);
         waitTwoAnimationFrames();
+        performClick(options);
+    }
 
+    /**
+     * Sends the pointer (and modifier) actions of a click without any actionability wait.
+     * Callers that already ran {@link ActionabilityWaiter} use this directly.
+     */
+    void performClick(ClickOptions options) {
         double dx = 0.0, dy = 0.0;
         if (options != null && options.position != null) {
             dx = options.position.x;
@@ -205,7 +212,7 @@ public class ElementHandleImpl extends JSHandleImpl implements ElementHandle {
                         "}",
                 /* await */ true,
                 target, args, getRemoteReference(),
-                WDResultOwnership.ROOT, null
+                WDResultOwnership.NONE, null
         );
         return WebDriverUtil.unwrap(r);
     }
@@ -225,7 +232,7 @@ public class ElementHandleImpl extends JSHandleImpl implements ElementHandle {
                         "}",
                 /* await */ true,
                 target, args, getRemoteReference(),
-                WDResultOwnership.ROOT, null
+                WDResultOwnership.NONE, null
         );
         return WebDriverUtil.unwrap(r);
     }
@@ -238,7 +245,7 @@ public class ElementHandleImpl extends JSHandleImpl implements ElementHandle {
 
         WDEvaluateResult macRes = webDriver.script().callFunction(
                 "function(){ try { return /Mac|iPhone|iPad|iPod/.test(navigator.platform); } catch(e){ return false; } }",
-                true, target, null, getRemoteReference(), WDResultOwnership.ROOT, null
+                true, target, null, getRemoteReference(), WDResultOwnership.NONE, null
         );
         boolean isMac = WebDriverUtil.asBoolean(macRes);
         String modKey = isMac ? WDKeys.META : WDKeys.CONTROL;
@@ -301,7 +308,7 @@ public class ElementHandleImpl extends JSHandleImpl implements ElementHandle {
                 "function(n){ return this.getAttribute(n); }",
                 /* await */ true,
                 target, args, getRemoteReference(),
-                WDResultOwnership.ROOT, null
+                WDResultOwnership.NONE, null
         );
         if (r instanceof WDEvaluateResult.WDEvaluateResultSuccess) {
             WDRemoteValue v = ((WDEvaluateResult.WDEvaluateResultSuccess) r).getResult();
@@ -358,7 +365,7 @@ public class ElementHandleImpl extends JSHandleImpl implements ElementHandle {
                         + "}",
                 /* await */ true,
                 target, null, getRemoteReference(),
-                WDResultOwnership.ROOT, null
+                WDResultOwnership.NONE, null
         );
         if (r instanceof WDEvaluateResult.WDEvaluateResultSuccess) {
             WDRemoteValue v = ((WDEvaluateResult.WDEvaluateResultSuccess) r).getResult();
@@ -463,7 +470,7 @@ public class ElementHandleImpl extends JSHandleImpl implements ElementHandle {
                 "function(sel){ return this.querySelector(sel); }",
                 /* await */ false,
                 target, args, getRemoteReference(),
-                WDResultOwnership.ROOT, null
+                WDResultOwnership.NONE, null
         );
         if (r instanceof WDEvaluateResult.WDEvaluateResultSuccess) {
             WDRemoteValue v = ((WDEvaluateResult.WDEvaluateResultSuccess) r).getResult();
@@ -481,7 +488,7 @@ public class ElementHandleImpl extends JSHandleImpl implements ElementHandle {
                 "function(sel){ return Array.from(this.querySelectorAll(sel)); }",
                 /* await */ false,
                 target, args, getRemoteReference(),
-                WDResultOwnership.ROOT, null
+                WDResultOwnership.NONE, null
         );
         if (r instanceof WDEvaluateResult.WDEvaluateResultSuccess) {
             WDRemoteValue v = ((WDEvaluateResult.WDEvaluateResultSuccess) r).getResult();
@@ -589,7 +596,7 @@ public class ElementHandleImpl extends JSHandleImpl implements ElementHandle {
                         "}",
                 /* await */ true,
                 target, args, getRemoteReference(),
-                WDResultOwnership.ROOT, null
+                WDResultOwnership.NONE, null
         );
         if (r instanceof WDEvaluateResult.WDEvaluateResultSuccess) {
             WDRemoteValue v = ((WDEvaluateResult.WDEvaluateResultSuccess) r).getResult();
@@ -722,20 +729,6 @@ public class ElementHandleImpl extends JSHandleImpl implements ElementHandle {
         return "";
     }
 
-    /** Return current bounding box as primitive array. */
-    private double[] getBoundingBoxNow() {
-        WDEvaluateResult res = webDriver.script().callFunction(
-                "function(){ const r=this.getBoundingClientRect(); return [r.x,r.y,r.width,r.height]; }",
-                false,
-                target,
-                null,
-                getRemoteReference(),
-                WDResultOwnership.NONE,
-                null
-        );
-        return WebDriverUtil.asDoubleArray(res);
-    }
-
     /** Wait two animation frames or time-based fallback when page is not visible. */
     private void waitTwoAnimationFrames() {
         webDriver.script().callFunction(
@@ -767,66 +760,15 @@ public class ElementHandleImpl extends JSHandleImpl implements ElementHandle {
         }
     }
 
-    /** Centralized actionability wait with configurable check set and timeout. */
+    /**
+     * Centralized actionability wait with configurable check set and timeout.
+     * Runs in-page (see {@link ActionabilityWaiter}): one round trip, element is scrolled into view if necessary.
+     */
     public void waitForActionability(ActionabilityCheck check, double timeout) {
-        EnumSet<ActionabilityRequirement> req = check.getRequirements();
-        long start = System.currentTimeMillis();
-
-        while (true) {
-            boolean ok = true;
-
-            if (req.contains(ActionabilityRequirement.VISIBLE)) {
-                boolean visible = WebDriverUtil.asBoolean(webDriver.script().callFunction(
-                        "function(){ const r=this.getBoundingClientRect();" +
-                                " return r.width>0 && r.height>0 && window.getComputedStyle(this).visibility!=='hidden'; }",
-                        true, target, null, getRemoteReference(), WDResultOwnership.NONE, null));
-                ok = ok && visible;
-            }
-
-            if (ok && req.contains(ActionabilityRequirement.ENABLED)) {
-                boolean enabled = WebDriverUtil.asBoolean(webDriver.script().callFunction(
-                        "function(){ return !this.disabled; }",
-                        true, target, null, getRemoteReference(), WDResultOwnership.NONE, null));
-                ok = ok && enabled;
-            }
-
-            if (ok && req.contains(ActionabilityRequirement.EDITABLE)) {
-                boolean editable = WebDriverUtil.asBoolean(webDriver.script().callFunction(
-                        "function(){ return (this instanceof HTMLInputElement || this instanceof HTMLTextAreaElement || this.isContentEditable) && !this.readOnly; }",
-                        true, target, null, getRemoteReference(), WDResultOwnership.NONE, null));
-                ok = ok && editable;
-            }
-
-            if (ok && req.contains(ActionabilityRequirement.RECEIVES_EVENTS)) {
-                boolean receives = WebDriverUtil.asBoolean(webDriver.script().callFunction(
-                        "function(){ const r=this.getBoundingClientRect(); return r.width>0 && r.height>0; }",
-                        true, target, null, getRemoteReference(), WDResultOwnership.NONE, null));
-                ok = ok && receives;
-            }
-
-            if (ok) {
-                if (req.contains(ActionabilityRequirement.STABLE)) {
-                    double[] last = getBoundingBoxNow();
-                    try { Thread.sleep(100); } catch (InterruptedException ignored) {}
-                    double[] now = getBoundingBoxNow();
-                    if (!java.util.Arrays.equals(last, now)) {
-                        ok = false;
-                    }
-                }
-            }
-
-            if (ok) {
-                if (req.contains(ActionabilityRequirement.VISIBLE)) {
-                    waitTwoAnimationFrames();
-                }
-                return;
-            }
-
-            if ((System.currentTimeMillis() - start) > timeout) {
-                throw new RuntimeException("Timeout waiting for actionability: " + check);
-            }
-
-            try { Thread.sleep(100); } catch (InterruptedException ignored) {}
+        WDRemoteValue.NodeRemoteValue node = ActionabilityWaiter.waitFor(
+                webDriver, target, getRemoteReference(), check, (long) Math.ceil(timeout));
+        if (node == null) {
+            throw new RuntimeException("Element is not attached to the DOM: " + check);
         }
     }
 
@@ -12,14 +12,17 @@ import de.bund.zrb.command.response.WDBrowsingContextResult;
 import de.bund.zrb.command.response.WDScriptResult;
 import de.bund.zrb.support.ActionabilityCheck;
 import de.bund.zrb.support.ActionabilityRequirement;
+import de.bund.zrb.support.ActionabilityWaiter;
 import de.bund.zrb.type.browsingContext.WDBrowsingContext;
 import de.bund.zrb.type.browsingContext.WDInfo;
 import de.bund.zrb.type.browsingContext.WDLocator;
 import de.bund.zrb.type.script.*;
 import de.bund.zrb.util.AdapterLocatorFactory;
+import de.bund.zrb.util.DomScripts;
 import de.bund.zrb.util.LocatorType;
 import de.bund.zrb.util.ScriptUtils;
 import de.bund.zrb.util.WebDriverUtil;
+import de.bund.zrb.websocket.WDDeadline;
 
 import java.nio.file.Path;
 import java.util.*;
@@ -69,33 +72,97 @@ public class LocatorImpl implements Locator {
             return;
         }
 
-        // Build WDLocator using explicit type if present (fallback to heuristic otherwise)
-        WDLocator<?> locator = AdapterLocatorFactory.create(explicitType, selector);
+        // Only the first match is used → let the browser stop (and serialize) after one node
+        java.util.List<WDRemoteValue.NodeRemoteValue> nodes = locate(1);
 
-        WDBrowsingContextResult.LocateNodesResult locateNodesResult =
-                page.getBrowser().getWebDriver().browsingContext().locateNodes(
-                        page.getBrowsingContextId(),
-                        locator,
-                        Integer.MAX_VALUE
-                );
+        if (nodes.isEmpty()) {
+            throw new RuntimeException("No nodes found for selector: " + selector);
+        }
 
-        java.util.List<WDRemoteValue.NodeRemoteValue> nodes = locateNodesResult.getNodes();
+        elementHandle = new ElementHandleImpl(page.getWebDriver(), nodes.get(0), new WDTarget.ContextTarget(page.getBrowsingContext()));
+    }
 
-        if (filterOptions != null) {
-            nodes = applyFilter(nodes);
+    /**
+     * Locates at most {@code maxNodeCount} nodes, {@code FilterOptions} included.
+     * Without filter BiDi locateNodes gets the limit directly; filters are evaluated in-page where possible
+     * ({@link DomScripts#FIND_ELEMENTS}), otherwise via {@link #applyFilter} which stops at the limit.
+     */
+    private List<WDRemoteValue.NodeRemoteValue> locate(int maxNodeCount) {
+        WDLocator<?> locator = AdapterLocatorFactory.create(explicitType, selector);
+        if (filterOptions == null) {
+            return webDriver.browsingContext()
+                    .locateNodes(page.getBrowsingContextId(), locator, maxNodeCount).getNodes();
         }
-
-        if (nodes.isEmpty()) {
-            throw new RuntimeException("No nodes found for selector: " + selector);
+        if (canFilterInPage(locator)) {
+            WDRemoteValue value = findElementsInPage(locator, maxNodeCount, false);
+            List<WDRemoteValue.NodeRemoteValue> nodes = new ArrayList<WDRemoteValue.NodeRemoteValue>();
+            if (value instanceof WDRemoteValue.ArrayRemoteValue) {
+                for (WDRemoteValue item : ((WDRemoteValue.ArrayRemoteValue) value).getValue()) {
+                    if (item instanceof WDRemoteValue.NodeRemoteValue) {
+                        nodes.add((WDRemoteValue.NodeRemoteValue) item);
+                    }
+                }
+            }
+            return nodes;
         }
+        List<WDRemoteValue.NodeRemoteValue> candidates = webDriver.browsingContext()
+                .locateNodes(page.getBrowsingContextId(), locator, Integer.MAX_VALUE).getNodes();
+        return applyFilter(candidates, maxNodeCount);
+    }
+
+    /** CSS/XPath with plain-text filters and CSS/XPath has/hasNot locators can be evaluated in-page. */
+    private boolean canFilterInPage(WDLocator<?> locator) {
+        return ActionabilityWaiter.supports(locator)
+                && (filterOptions == null
+                    || (isTextOrNull(filterOptions.hasText) && isTextOrNull(filterOptions.hasNotText)
+                        && nestedQuery(filterOptions.has) != null && nestedQuery(filterOptions.hasNot) != null));
+    }
 
-        WDRemoteValue.NodeRemoteValue node = nodes.get(0);
-        WDHandle handle = null;
-        if (node.getHandle() != null) {
-            handle = new WDHandle(node.getHandle().value());
+    private static boolean isTextOrNull(Object text) {
+        return text == null || text instanceof String;
+    }
+
+    /** @return {kind, query} for an unfiltered CSS/XPath {@code LocatorImpl}, {null, null} for none, null if unsupported */
+    static String[] nestedQuery(Locator nested) {
+        if (nested == null) {
+            return new String[]{null, null};
+        }
+        if (!(nested instanceof LocatorImpl) || ((LocatorImpl) nested).filterOptions != null) {
+            return null;
         }
+        LocatorImpl inner = (LocatorImpl) nested;
+        WDLocator<?> locator = AdapterLocatorFactory.create(inner.explicitType, inner.selector);
+        if (!ActionabilityWaiter.supports(locator)) {
+            return null;
+        }
+        return new String[]{queryKind(locator), String.valueOf(locator.getValue())};
+    }
 
-        elementHandle = new ElementHandleImpl(page.getWebDriver(), node, new WDTarget.ContextTarget(page.getBrowsingContext()));
+    private static String queryKind(WDLocator<?> locator) {
+        return locator instanceof WDLocator.XPathLocator ? "xpath" : "css";
+    }
+
+    private WDRemoteValue findElementsInPage(WDLocator<?> locator, int limit, boolean countOnly) {
+        List<Object> filter = new ArrayList<Object>();
+        if (filterOptions != null) {
+            String[] has = nestedQuery(filterOptions.has);
+            String[] hasNot = nestedQuery(filterOptions.hasNot);
+            filter.addAll(Arrays.<Object>asList(filterOptions.hasText, filterOptions.hasNotText,
+                    has[0], has[1], hasNot[0], hasNot[1]));
+        }
+        List<WDLocalValue> args = Arrays.asList(
+                WDLocalValue.fromObject(queryKind(locator)),
+                WDLocalValue.fromObject(String.valueOf(locator.getValue())),
+                WDLocalValue.fromObject(filter),
+                WDLocalValue.fromObject(limit),
+                WDLocalValue.fromObject(countOnly));
+        WDEvaluateResult result = webDriver.script().callFunction(DomScripts.FIND_ELEMENTS, false,
+                new WDTarget.ContextTarget(page.getBrowsingContext()), args, null, WDResultOwnership.NONE, null);
+        if (result instanceof WDEvaluateResult.WDEvaluateResultError) {
+            throw new RuntimeException("Locating nodes failed for selector: " + selector + " - "
+                    + ((WDEvaluateResult.WDEvaluateResultError) result).getExceptionDetails().getText());
+        }
+        return ((WDEvaluateResult.WDEvaluateResultSuccess) result).getResult();
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -104,12 +171,8 @@ public class LocatorImpl implements Locator {
 
     @Override
     public java.util.List<Locator> all() {
-        WDLocator<?> locator = AdapterLocatorFactory.create(explicitType, selector);
-        WDBrowsingContextResult.LocateNodesResult nodes = page.getBrowser().getWebDriver()
-                .browsingContext().locateNodes(page.getBrowsingContextId(), locator, Integer.MAX_VALUE);
-
         java.util.List<Locator> locators = new java.util.ArrayList<Locator>();
-        for (WDRemoteValue.NodeRemoteValue n : nodes.getNodes()) {
+        for (WDRemoteValue.NodeRemoteValue n : locate(Integer.MAX_VALUE)) {
             ElementHandleImpl eh = new ElementHandleImpl(webDriver, n, new WDTarget.ContextTarget(page.getBrowsingContext()));
 
             // Build a child Locator that already points to this handle
@@ -260,46 +323,63 @@ public class LocatorImpl implements Locator {
 
     @Override
     public void click(ClickOptions options) {
-        // Comment: Implement retry here and re-run BiDi locateNodes on every loop.
-        final long timeout = (options != null && options.timeout != null) ? options.timeout.longValue() : 30_000L;
-        final long deadline = System.currentTimeMillis() + timeout;
+        traced("click", () -> clickWithRetry(options));
+    }
 
-        // Convert existing options once and force-skip EH actionability (we do our own checks here)
-        ElementHandle.ClickOptions ehOpts = toHandleClickOptions(options);
-        try { ehOpts.setForce(true); } catch (Throwable ignored) { /* keep default if not available */ }
+    private void clickWithRetry(ClickOptions options) {
+        // Comment: Actionability is awaited in-page (one callFunction instead of locateNodes + one evaluate per check
+        // + sleep). CSS/XPath selectors are even resolved there; filtered locators are located via BiDi first.
+        // The deadline also bounds every BiDi command sent below (no fixed 30 s wait per command).
+        final long timeout = (options != null && options.timeout != null) ? options.timeout.longValue() : 30_000L;
+        final boolean force = options != null && Boolean.TRUE.equals(options.force);
+        final ElementHandle.ClickOptions ehOpts = toHandleClickOptions(options);
+        final WDTarget target = new WDTarget.ContextTarget(page.getBrowsingContext());
+        final WDLocator<?> locator = AdapterLocatorFactory.create(explicitType, selector);
+        final boolean locateInPage = filterOptions == null && ActionabilityWaiter.supports(locator);
 
         RuntimeException last = null;
 
-        while (System.currentTimeMillis() <= deadline) {
-            try {
-                // Always drop cached handle → trigger fresh BiDi locateNodes
-                this.elementHandle = null;
-                resolveElementHandle(); // performs browsingContext.locateNodes every time
-
-                // Minimal actionability: visible + enabled (keep it cheap and deterministic)
-                Boolean visible = WebDriverUtil.asBoolean(elementHandle.evaluate(
-                        "function(){ const s=window.getComputedStyle(this); const r=this.getBoundingClientRect();" +
-                                "return r.width>0 && r.height>0 && s.visibility!=='hidden' && s.display!=='none'; }"
-                ));
-                Boolean enabled = WebDriverUtil.asBoolean(elementHandle.evaluate(
-                        "function(){ return !this.disabled; }"
-                ));
-
-                if (Boolean.TRUE.equals(visible) && Boolean.TRUE.equals(enabled)) {
-                    elementHandle.click(ehOpts); // perform actual click (EH will not wait due to force=true)
-                    return;
+        try (WDDeadline.Scope scope = WDDeadline.after(timeout).enter()) {
+            final WDDeadline deadline = scope.deadline();
+            while (!deadline.isExpired()) {
+                try {
+                    // Always drop cached handle → the element is looked up again on every attempt
+                    this.elementHandle = null;
+
+                    if (force) {
+                        resolveElementHandle();
+                        elementHandle.click(ehOpts); // EH skips actionability due to force=true
+                        return;
+                    }
+
+                    WDRemoteValue.NodeRemoteValue node;
+                    if (locateInPage) {
+                        node = ActionabilityWaiter.waitFor(webDriver, target, locator,
+                                ActionabilityCheck.CLICK, deadline.remainingMillis());
+                    } else {
+                        resolveElementHandle(); // performs browsingContext.locateNodes
+                        node = ActionabilityWaiter.waitFor(webDriver, target,
+                                ScriptUtils.sharedRef(elementHandle.getRemoteValue()),
+                                ActionabilityCheck.CLICK, deadline.remainingMillis());
+                    }
+                    if (node != null) { // null: detached meanwhile → locate again after the backoff
+                        // Scrolling into view and the two-frame settle happen in-page (WAIT_FOR_ACTIONABLE)
+                        elementHandle = new ElementHandleImpl(page.getWebDriver(), node, target);
+                        elementHandle.performClick(ehOpts);
+                        return;
+                    }
+                } catch (RuntimeException ex) {
+                    // Keep last error; we will retry until deadline
+                    last = ex;
                 }
-            } catch (RuntimeException ex) {
-                // Keep last error; we will retry until deadline
-                last = ex;
-            }
 
-            // Short backoff before next re-locate
-            try {
-                Thread.sleep(100L);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException(ie);
+                // Short backoff before next attempt (never beyond the deadline)
+                try {
+                    Thread.sleep(Math.min(100L, deadline.remainingMillis()));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(ie);
+                }
             }
         }
 
@@ -320,15 +400,23 @@ public class LocatorImpl implements Locator {
     @Override
     public int count() {
         WDLocator<?> locator = AdapterLocatorFactory.create(explicitType, selector);
-        WDBrowsingContextResult.LocateNodesResult nodes = page.getBrowser().getWebDriver()
-                .browsingContext().locateNodes(page.getBrowsingContextId(), locator);
-        return nodes.getNodes().size();
+        if (canFilterInPage(locator)) {
+            // Count in-page: a number comes back instead of one serialized node per match
+            WDRemoteValue value = findElementsInPage(locator, 0, true);
+            if (value instanceof WDPrimitiveProtocolValue.NumberValue) {
+                return (int) Double.parseDouble(((WDPrimitiveProtocolValue.NumberValue) value).getValue());
+            }
+            throw new RuntimeException("Unexpected count result for selector: " + selector);
+        }
+        return locate(Integer.MAX_VALUE).size();
     }
 
     @Override
     public void dblclick(DblclickOptions options) {
-        resolveElementHandle();
-        elementHandle.dblclick(toHandleDblclickOptions(options));
+        traced("dblclick", () -> {
+            resolveElementHandle();
+            elementHandle.dblclick(toHandleDblclickOptions(options));
+        });
     }
 
     private static ElementHandle.DblclickOptions toHandleDblclickOptions(Locator.DblclickOptions src) {
@@ -403,8 +491,12 @@ public class LocatorImpl implements Locator {
 
     @Override
     public void fill(String value, Locator.FillOptions options) {
-        resolveElementHandle();
-        elementHandle.fill(value, toHandleFillOptions(options));
+        // timeout 0 / ohne Angabe → Standard-Timeout (WDDeadline)
+        final long timeout = (options != null && options.timeout != null) ? (long) Math.ceil(options.timeout) : 0L;
+        traced("fill", () -> WDDeadline.run(timeout, () -> {
+            resolveElementHandle();
+            elementHandle.fill(value, toHandleFillOptions(options));
+        }));
     }
 
     @Override
@@ -554,8 +646,10 @@ public class LocatorImpl implements Locator {
 
     @Override
     public void hover(HoverOptions options) {
-        resolveElementHandle();
-        elementHandle.hover(toHandleHoverOptions(options));
+        traced("hover", () -> {
+            resolveElementHandle();
+            elementHandle.hover(toHandleHoverOptions(options));
+        });
     }
 
     private static ElementHandle.HoverOptions toHandleHoverOptions(Locator.HoverOptions src) {
@@ -685,12 +779,11 @@ public class LocatorImpl implements Locator {
 
     @Override
     public Locator nth(int index) {
-        WDLocator<?> loc = AdapterLocatorFactory.create(explicitType, selector);
-        WDBrowsingContextResult.LocateNodesResult nodes = page.getBrowser().getWebDriver()
-                .browsingContext().locateNodes(page.getBrowsingContextId(), loc, Integer.MAX_VALUE);
-
-        List<WDRemoteValue.NodeRemoteValue> list = nodes.getNodes();
-        if (index < 0 || index >= list.size()) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("nth index " + index);
+        }
+        List<WDRemoteValue.NodeRemoteValue> list = locate(index + 1); // nodes behind index are not needed
+        if (index >= list.size()) {
             throw new IndexOutOfBoundsException("nth index " + index + " out of " + list.size());
         }
         WDRemoteValue.NodeRemoteValue n = list.get(index);
@@ -743,8 +836,10 @@ public class LocatorImpl implements Locator {
 
     @Override
     public void press(String key, PressOptions options) {
-        resolveElementHandle();
-        elementHandle.press(key, toHandlePressOptions(options));
+        traced("press", () -> {
+            resolveElementHandle();
+            elementHandle.press(key, toHandlePressOptions(options));
+        });
     }
 
     private static ElementHandle.PressOptions toHandlePressOptions(Locator.PressOptions src) {
@@ -907,14 +1002,16 @@ public class LocatorImpl implements Locator {
 
     @Override
     public void setChecked(boolean checked, SetCheckedOptions options) {
-        // ToDo: Use Options
-        resolveElementHandle();
-        WDScriptManager.DomAction action = checked ? WDScriptManager.DomAction.CHECK : WDScriptManager.DomAction.UNCHECK;
-        page.getBrowser().getScriptManager().executeDomAction(
-                new WDTarget.ContextTarget(page.getBrowsingContext()),
-                ScriptUtils.sharedRef(elementHandle.getRemoteValue()),
-                action
-        );
+        traced(checked ? "check" : "uncheck", () -> {
+            // ToDo: Use Options
+            resolveElementHandle();
+            WDScriptManager.DomAction action = checked ? WDScriptManager.DomAction.CHECK : WDScriptManager.DomAction.UNCHECK;
+            page.getBrowser().getScriptManager().executeDomAction(
+                    new WDTarget.ContextTarget(page.getBrowsingContext()),
+                    ScriptUtils.sharedRef(elementHandle.getRemoteValue()),
+                    action
+            );
+        });
     }
 
     @Override
@@ -970,8 +1067,10 @@ public class LocatorImpl implements Locator {
      */
     @Override
     public void type(String text, TypeOptions options) {
-        resolveElementHandle();
-        elementHandle.type(text, toHandleTypeOptions(options));
+        traced("type", () -> {
+            resolveElementHandle();
+            elementHandle.type(text, toHandleTypeOptions(options));
+        });
     }
 
     private static ElementHandle.TypeOptions toHandleTypeOptions(Locator.TypeOptions src) {
@@ -1200,10 +1299,13 @@ public class LocatorImpl implements Locator {
         return new WDTarget.RealmTarget(realm);
     }
 
-    private List<WDRemoteValue.NodeRemoteValue> applyFilter(List<WDRemoteValue.NodeRemoteValue> nodes) {
+    private List<WDRemoteValue.NodeRemoteValue> applyFilter(List<WDRemoteValue.NodeRemoteValue> nodes, int limit) {
         List<WDRemoteValue.NodeRemoteValue> result = new ArrayList<>();
 
         for (WDRemoteValue.NodeRemoteValue node : nodes) {
+            if (result.size() >= limit) {
+                break; // every filter costs round trips per node → stop once enough matched
+            }
             boolean include = true;
 
             // Filter: hasText
@@ -1274,6 +1376,11 @@ public class LocatorImpl implements Locator {
         return result.getNodes();
     }
 
+    /** Records the action in the trace while tracing is on (see {@code BrowserContext.tracing()}). */
+    private void traced(String action, Runnable body) {
+        webDriver.trace().call("locator." + action, page.getBrowsingContextId(), selector, body);
+    }
+
     private void sleepQuietly(long millis) {
         try {
             Thread.sleep(millis);
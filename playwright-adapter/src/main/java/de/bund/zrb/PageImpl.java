@@ -8,6 +8,13 @@ import de.bund.zrb.command.request.parameters.browsingContext.CreateType;
 import de.bund.zrb.event.*;
 import de.bund.zrb.ext.WDPageExtension;
 import de.bund.zrb.ext.WDPageExtensionSupport;
+import de.bund.zrb.support.ActionabilityRequirement;
+import de.bund.zrb.support.ActionabilityWaiter;
+import de.bund.zrb.support.EventWaiter;
+import de.bund.zrb.support.NetworkRoutes;
+import de.bund.zrb.support.PageSignal;
+import de.bund.zrb.support.Base64Streams;
+import de.bund.zrb.support.ScreenshotEncoder;
 import de.bund.zrb.support.ScreenshotPreprocessor;
 import de.bund.zrb.type.browsingContext.WDNavigationInfo;
 import de.bund.zrb.type.script.*;
@@ -15,10 +22,10 @@ import de.bund.zrb.support.PlaywrightResponse;
 import de.bund.zrb.support.ScriptHelper;
 import de.bund.zrb.command.response.WDBrowsingContextResult;
 import de.bund.zrb.command.response.WDScriptResult;
-import de.bund.zrb.type.browser.WDClientWindow;
 import de.bund.zrb.type.browsingContext.WDInfo;
 import de.bund.zrb.type.browsingContext.WDLocator;
 import de.bund.zrb.util.AdapterLocatorFactory;
+import de.bund.zrb.util.DomScripts;
 import de.bund.zrb.util.LocatorType;
 import de.bund.zrb.util.WebDriverUtil;
 import de.bund.zrb.websocket.WDEventNames;
@@ -27,7 +34,11 @@ import de.bund.zrb.type.browser.WDUserContext;
 import de.bund.zrb.type.browsingContext.WDBrowsingContext;
 import de.bund.zrb.type.session.WDSubscription;
 import de.bund.zrb.type.session.WDSubscriptionRequest;
+import de.bund.zrb.websocket.WDDeadline;
+import de.bund.zrb.websocket.WDErrorResponse;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.function.BooleanSupplier;
@@ -39,7 +50,15 @@ public class PageImpl implements Page, WDPageExtension {
     private final WDBrowsingContext browsingContext; // aka. browsing context or navigable in WebDriver BiDi
     private final WDUserContext userContextId; // aka. simply as contextId in CDP - default is "default"
     private boolean isClosed;
-    private String url;
+    private volatile String url;
+
+    // Navigation/Load/Response dieser Page: einmal abonniert (erstes waitFor*), bis close() – weckt wartende Threads
+    private static final String[] ACTIVITY_EVENTS = {
+            WDEventNames.NAVIGATION_COMMITTED.getName(), WDEventNames.FRAGMENT_NAVIGATED.getName(),
+            WDEventNames.HISTORY_UPDATED.getName(), WDEventNames.DOM_CONTENT_LOADED.getName(),
+            WDEventNames.LOAD.getName(), WDEventNames.RESPONSE_COMPLETED.getName()
+    };
+    private final PageSignal activity = new PageSignal(this::subscribeActivity, this::unsubscribeActivity, this::trackUrl);
 
     private final BrowserImpl browser;
     private final WebDriver webDriver;
@@ -52,7 +71,11 @@ public class PageImpl implements Page, WDPageExtension {
 
     private List<WDScriptResult.AddPreloadScriptResult> addPreloadScriptResults = new ArrayList<>();
 
+    // Bildformate, die der Browser für captureScreenshot abgelehnt hat (werden lokal aus PNG umkodiert)
+    private final Set<String> unsupportedImageFormats = java.util.concurrent.ConcurrentHashMap.newKeySet();
+
     private final WDPageExtensionSupport extension = new WDPageExtensionSupport(this);
+    private NetworkRoutes routes; // lazy, see routes()
 
     // --- Adapter-Mapping je Eventtyp (extern -> interner Adapter) ---
     private final java.util.Map<java.util.function.Consumer<Response>,      java.util.function.Consumer<Object>> respAdapters        = new java.util.concurrent.ConcurrentHashMap<>();
@@ -628,10 +651,7 @@ public class PageImpl implements Page, WDPageExtension {
             WDBrowsingContextEvent.NavigationStarted started = as(ev, WDBrowsingContextEvent.NavigationStarted.class);
             if (started != null) {
                 WDNavigationInfo navInfo = started.getParams();
-                WDBrowsingContextResult.GetTreeResult tree =
-                        webDriver.browsingContext().getTree(navInfo.getContext(), 1L);
-
-                for (WDInfo info : tree.getContexts()) {
+                for (WDInfo info : webDriver.contexts().getTree(navInfo.getContext().value(), 1L)) {
                     if (info.getParent() != null) {
                         Frame frame = new FrameImpl(
                                 browser, this,
@@ -800,6 +820,15 @@ public class PageImpl implements Page, WDPageExtension {
     @Override
     public void close() {
         isClosed = true;
+        try {
+            activity.close();
+        } catch (RuntimeException e) {
+            System.err.println("[WARN] Could not remove page listeners: " + e.getMessage());
+        }
+        NetworkRoutes r = routes;
+        if (r != null) {
+            r.close();
+        }
         browser.getWebDriver().browsingContext().close(getBrowsingContextId());
 //        browser.getPages().remove(pageId);
     }
@@ -904,11 +933,16 @@ public class PageImpl implements Page, WDPageExtension {
 
     @Override
     public Object evaluate(String expression, Object arg) {
-        return evaluateHandle(expression, arg).jsonValue();
+        // Only the value is needed → no handle, nothing to disown later
+        return evaluateHandle(expression, arg, WDResultOwnership.NONE).jsonValue();
     }
 
     @Override
     public JSHandle evaluateHandle(String expression, Object arg) {
+        return evaluateHandle(expression, arg, WDResultOwnership.ROOT);
+    }
+
+    private JSHandle evaluateHandle(String expression, Object arg, WDResultOwnership ownership) {
         WDEvaluateResult result;
         WDTarget target = new WDTarget.ContextTarget(browsingContext); // oder RealmTarget
 
@@ -924,7 +958,7 @@ public class PageImpl implements Page, WDPageExtension {
                     target,
                     args,
                     null, // thisObject
-                    WDResultOwnership.ROOT,
+                    ownership,
                     null // serializationOptions
             );
         } else {
@@ -933,7 +967,7 @@ public class PageImpl implements Page, WDPageExtension {
                     expression,
                     target,
                     true,
-                    WDResultOwnership.ROOT,
+                    ownership,
                     null // sandbox
             );
         }
@@ -1014,24 +1048,14 @@ public class PageImpl implements Page, WDPageExtension {
     @Override
     public List<Frame> frames() {
         List<Frame> frames = new ArrayList<>();
-        WDBrowsingContextResult.GetTreeResult tree = webDriver.browsingContext().getTree(browsingContext, Long.MAX_VALUE);
-        Collection<WDInfo> infos = tree.getContexts();
-        for(WDInfo info : infos) {
-            WDBrowsingContext context = info.getContext();
-            WDClientWindow clientWindow = info.getClientWindow();
-            WDBrowsingContext originalOpener = info.getOriginalOpener();
-            String url1 = info.getUrl();
-            WDUserContext userContext = info.getUserContext();
-            WDBrowsingContext parent = info.getParent();
-            Collection<WDInfo> children = info.getChildren();
-
-            if(parent != null) { // ToDo: Check if this is correct (all children frames only?)
-                if(browsingContext.equals(parent)) {
-                    frames.add(new FrameImpl(browser, this, userContext, clientWindow, url1, children));
-                }
-                else {
-                    throw new PlaywrightException("Parent context does not correspond to the sub frame's context.");
-                }
+        // Direkte Kind-Frames aus dem lokalen Context-Baum (kein getTree-Roundtrip)
+        for (WDInfo root : webDriver.contexts().getTree(getBrowsingContextId(), 1L)) {
+            if (root.getChildren() == null) {
+                continue;
+            }
+            for (WDInfo info : root.getChildren()) {
+                frames.add(new FrameImpl(browser, this, info.getUserContext(), info.getClientWindow(), info.getUrl(),
+                        info.getChildren()));
             }
         }
         return frames;
@@ -1152,14 +1176,16 @@ public class PageImpl implements Page, WDPageExtension {
 
     @Override
     public Response goBack(GoBackOptions options) {
-        browser.getWebDriver().browsingContext().traverseHistory(getBrowsingContextId(), -1);
+        webDriver.trace().call("page.goBack", getBrowsingContextId(), null,
+                () -> browser.getWebDriver().browsingContext().traverseHistory(getBrowsingContextId(), -1));
 
         return null; // ToDo: Echte Response zurückgeben
     }
 
     @Override
     public Response goForward(GoForwardOptions options) {
-        browser.getWebDriver().browsingContext().traverseHistory(getBrowsingContextId(), 1);
+        webDriver.trace().call("page.goForward", getBrowsingContextId(), null,
+                () -> browser.getWebDriver().browsingContext().traverseHistory(getBrowsingContextId(), 1));
 
         return null; // ToDo: Echte Response zurückgeben
     }
@@ -1179,8 +1205,14 @@ public class PageImpl implements Page, WDPageExtension {
         }
         this.url = url;
 
-        // WebDriver BiDi Befehl senden
-        WDBrowsingContextResult.NavigateResult navigate = browser.getWebDriver().browsingContext().navigate(url, getBrowsingContextId());
+        // WebDriver BiDi Befehl senden (NavigateOptions.timeout begrenzt das Warten auf die Antwort)
+        WDBrowsingContextResult.NavigateResult navigate = webDriver.trace().call("page.navigate", getBrowsingContextId(), url, () -> {
+            if (options != null && options.timeout != null) { // 0 → Standard-Timeout (WDDeadline)
+                return WDDeadline.call((long) Math.ceil(options.timeout),
+                        () -> browser.getWebDriver().browsingContext().navigate(url, getBrowsingContextId()));
+            }
+            return browser.getWebDriver().browsingContext().navigate(url, getBrowsingContextId());
+        });
 
         return new PlaywrightResponse<WDBrowsingContextResult.NavigateResult>(navigate);
     }
@@ -1399,7 +1431,8 @@ public class PageImpl implements Page, WDPageExtension {
 
     @Override
     public Response reload(ReloadOptions options) {
-        browser.getWebDriver().browsingContext().reload(getBrowsingContextId());
+        webDriver.trace().call("page.reload", getBrowsingContextId(), null,
+                () -> browser.getWebDriver().browsingContext().reload(getBrowsingContextId()));
 
         return null; // ToDo: Echte Response zurückgeben
     }
@@ -1411,17 +1444,17 @@ public class PageImpl implements Page, WDPageExtension {
 
     @Override
     public void route(String url, Consumer<Route> handler, RouteOptions options) {
-
+        routes().add(url, handler, options != null ? options.times : null);
     }
 
     @Override
     public void route(Pattern url, Consumer<Route> handler, RouteOptions options) {
-
+        routes().add(url, handler, options != null ? options.times : null);
     }
 
     @Override
     public void route(Predicate<String> url, Consumer<Route> handler, RouteOptions options) {
-
+        routes().add(url, handler, options != null ? options.times : null);
     }
 
     @Override
@@ -1465,8 +1498,8 @@ public class PageImpl implements Page, WDPageExtension {
      * </ul>
      *
      * <p>
-     * Diese Features werden durch JavaScript-Injection umgesetzt. Nach dem Screenshot musst du
-     * {@link #restorePreprocessingStyles()} aufrufen, um die Seite wieder in den Ursprungszustand zu bringen.
+     * Diese Features werden zusammen mit dem Warten auf Fonts/Rendering in einem einzigen Skript-Aufruf umgesetzt
+     * ({@link ScreenshotPreprocessor#PREPARE}) und nach der Aufnahme ohne Warten wieder entfernt.
      *
      * @param options die Screenshot-Optionen (können {@code null} sein)
      * @return das Screenshot-Bild als Byte-Array (PNG oder JPEG, je nach {@code type})
@@ -1474,30 +1507,103 @@ public class PageImpl implements Page, WDPageExtension {
      */
     @Override
     public byte[] screenshot(ScreenshotOptions options) {
-        if(options != null) {
-            waitForActionabilityBeforeScreenshot(options.timeout != null ? options.timeout : 3000);
-        } else  {
-            waitForActionabilityBeforeScreenshot(3000);
+        byte[] imageBytes = captureScreenshot(options).toBytes();
+
+        // Speichere auf Disk, falls Pfad gesetzt
+        if (options != null && options.path != null) {
+            try {
+                java.nio.file.Files.write(options.path, imageBytes);
+            } catch (java.io.IOException e) {
+                throw new PlaywrightException("Failed to write screenshot to: " + options.path, e);
+            }
         }
-        // ---------------------------------------------------------------
-        // Playwright-like Preprocessing (optional)
-        // ---------------------------------------------------------------
-        if (options != null) {
-            ScreenshotPreprocessor.Evaluator evaluator = script -> this.evaluate(script, null);
 
-            if (options.animations == ScreenshotAnimations.DISABLED) {
-                ScreenshotPreprocessor.disableAnimations(evaluator);
+        return imageBytes;
+    }
+
+    /**
+     * Wie {@link #screenshot(ScreenshotOptions)}, dekodiert das Bild aber blockweise direkt in {@code out}, ohne es
+     * als {@code byte[]} zu halten. {@code options.path} wird ignoriert.
+     *
+     * @return Anzahl geschriebener Bytes
+     * @throws PlaywrightException wenn das Schreiben fehlschlägt oder der BiDi-Befehl scheitert
+     */
+    public long screenshot(ScreenshotOptions options, OutputStream out) {
+        CapturedScreenshot capture = captureScreenshot(options);
+        try {
+            if (capture.reencodeAs == null) {
+                return Base64Streams.decode(capture.data, out);
             }
+            byte[] imageBytes = capture.toBytes();
+            out.write(imageBytes);
+            return imageBytes.length;
+        } catch (IOException e) {
+            throw new PlaywrightException("Failed to write screenshot", e);
+        }
+    }
 
-            if (options.caret == ScreenshotCaret.HIDE) {
-                ScreenshotPreprocessor.hideCaret(evaluator);
+    /**
+     * Wie {@link #screenshot(ScreenshotOptions, OutputStream)}, schreibt über einen {@link java.nio.channels.FileChannel}
+     * direkt in {@code file}.
+     *
+     * @return Anzahl geschriebener Bytes
+     */
+    public long screenshot(ScreenshotOptions options, Path file) {
+        CapturedScreenshot capture = captureScreenshot(options);
+        try {
+            if (capture.reencodeAs == null) {
+                return Base64Streams.decodeToFile(capture.data, file);
             }
+            byte[] imageBytes = capture.toBytes();
+            java.nio.file.Files.write(file, imageBytes);
+            return imageBytes.length;
+        } catch (IOException e) {
+            throw new PlaywrightException("Failed to write screenshot to: " + file, e);
+        }
+    }
+
+    private CapturedScreenshot captureScreenshot(ScreenshotOptions options) {
+        // ---------------------------------------------------------------
+        // Playwright-like Preprocessing + Settling in einem Skript-Aufruf
+        // ---------------------------------------------------------------
+        WDTarget target = new WDTarget.ContextTarget(browsingContext);
+        long maxWaitMs = Math.max(1000L, (long) (options != null && options.timeout != null ? options.timeout : 3000));
+        String restoreToken = ScreenshotPreprocessor.prepare(webDriver, target,
+                options != null && options.animations == ScreenshotAnimations.DISABLED,
+                options != null && options.caret == ScreenshotCaret.HIDE,
+                options != null ? maskSpecs(options.mask) : null,
+                options != null ? options.maskColor : null,
+                maxWaitMs);
+        try {
+            return captureScreenshotData(options);
+        } finally {
+            ScreenshotPreprocessor.restoreAsync(webDriver, target, restoreToken);
+        }
+    }
 
-            if (options.mask != null && !options.mask.isEmpty()) {
-                ScreenshotPreprocessor.applyMask(options.mask, options.maskColor, evaluator);
+    /**
+     * CSS/XPath-Masken werden im Browser aufgelöst (alle Treffer), andere Locators vorab über ihre Bounding-Box.
+     */
+    private static List<List<Object>> maskSpecs(List<Locator> mask) {
+        if (mask == null || mask.isEmpty()) {
+            return null;
+        }
+        List<List<Object>> specs = new ArrayList<List<Object>>();
+        for (Locator locator : mask) {
+            String[] query = LocatorImpl.nestedQuery(locator);
+            if (query != null && query[0] != null) {
+                specs.add(Arrays.<Object>asList(query[0], query[1]));
+            } else if (locator != null) {
+                BoundingBox box = locator.boundingBox();
+                if (box != null) {
+                    specs.add(Arrays.<Object>asList(box.x, box.y, box.width, box.height));
+                }
             }
         }
+        return specs;
+    }
 
+    private CapturedScreenshot captureScreenshotData(ScreenshotOptions options) {
         // ---------------------------------------------------------------
         // Standard Screenshot BiDi
         // ---------------------------------------------------------------
@@ -1509,18 +1615,6 @@ public class PageImpl implements Page, WDPageExtension {
             origin = CaptureScreenshotParameters.Origin.DOCUMENT;
         }
 
-        // ImageFormat bestimmen: type + optional quality
-        CaptureScreenshotParameters.ImageFormat imageFormat = null;
-        if (options != null && options.type != null) {
-            String type = options.type.name().toLowerCase();
-            if ("jpeg".equals(type) && options.quality != null) {
-                float quality = options.quality.floatValue() / 100.0f; // Playwright: 0..1
-                imageFormat = new CaptureScreenshotParameters.ImageFormat(type, quality);
-            } else {
-                imageFormat = new CaptureScreenshotParameters.ImageFormat(type);
-            }
-        }
-
         // Clip bestimmen, falls gesetzt
         CaptureScreenshotParameters.ClipRectangle clip = null;
         if (options != null && options.clip != null) {
@@ -1532,29 +1626,57 @@ public class PageImpl implements Page, WDPageExtension {
             );
         }
 
-        // Screenshot ausführen
-        WDBrowsingContextResult.CaptureScreenshotResult result =
-                browser.getWebDriver().browsingContext().captureScreenshot(context, origin, imageFormat, clip);
+        // Format aushandeln: type + optional quality als MIME-Typ anfragen; kennt der Browser das Format nicht,
+        // wird PNG geholt und lokal umkodiert (und das Format für diese Seite nicht mehr angefragt)
+        String type = (options != null && options.type != null) ? options.type.name().toLowerCase(Locale.ROOT) : "png";
+        Float quality = ("jpeg".equals(type) && options.quality != null)
+                ? options.quality.floatValue() / 100.0f // Playwright: 0..100, BiDi: 0..1
+                : null;
 
-        byte[] imageBytes = Base64.getDecoder().decode(result.getData());
-
-        // Speichere auf Disk, falls Pfad gesetzt
-        if (options != null && options.path != null) {
+        if (!"png".equals(type) && !unsupportedImageFormats.contains(type)) {
+            CaptureScreenshotParameters.ImageFormat imageFormat = (quality != null)
+                    ? new CaptureScreenshotParameters.ImageFormat("image/" + type, quality)
+                    : new CaptureScreenshotParameters.ImageFormat("image/" + type);
             try {
-                java.nio.file.Files.write(options.path, imageBytes);
-            } catch (java.io.IOException e) {
-                throw new PlaywrightException("Failed to write screenshot to: " + options.path, e);
+                return new CapturedScreenshot(browser.getWebDriver().browsingContext()
+                        .captureScreenshot(context, origin, imageFormat, clip).getData(), null, null);
+            } catch (WDErrorResponse e) {
+                if (!"unsupported operation".equals(e.getError()) && !"invalid argument".equals(e.getError())) {
+                    throw e;
+                }
+                unsupportedImageFormats.add(type);
             }
         }
 
-        return imageBytes;
+        String data = browser.getWebDriver().browsingContext().captureScreenshot(context, origin, null, clip).getData();
+        return new CapturedScreenshot(data, "png".equals(type) ? null : type, quality);
+    }
+
+    /**
+     * Base64-Daten eines Screenshots; {@code reencodeAs != null}, wenn der Browser das Format nicht liefern konnte.
+     */
+    private static final class CapturedScreenshot {
+        final String data;
+        final String reencodeAs;
+        final Float quality;
+
+        CapturedScreenshot(String data, String reencodeAs, Float quality) {
+            this.data = data;
+            this.reencodeAs = reencodeAs;
+            this.quality = quality;
+        }
+
+        byte[] toBytes() {
+            byte[] bytes = Base64.getDecoder().decode(data);
+            return reencodeAs != null ? ScreenshotEncoder.reencode(bytes, reencodeAs, quality) : bytes;
+        }
     }
 
     /**
      * Entfernt ALLE Preprocessing-Styles & Masken, die durch Screenshot-Optionen gesetzt wurden.
      */
     public void restorePreprocessingStyles() {
-        ScreenshotPreprocessor.restore(script -> this.evaluate(script, null));
+        ScreenshotPreprocessor.restoreAll(webDriver, new WDTarget.ContextTarget(browsingContext));
     }
 
     @Override
@@ -1699,22 +1821,39 @@ public class PageImpl implements Page, WDPageExtension {
 
     @Override
     public void unrouteAll() {
+        routes().removeAll();
+    }
 
+    /** Page routes run first and fall back to the routes of the browser context. */
+    private synchronized NetworkRoutes routes() {
+        if (routes == null) {
+            NetworkRoutes parent = null;
+            try {
+                BrowserContext context = context();
+                if (context instanceof UserContextImpl) {
+                    parent = ((UserContextImpl) context).routes();
+                }
+            } catch (IllegalStateException ignored) {
+                // Page ohne bekannten UserContext: nur Page-Routen
+            }
+            routes = new NetworkRoutes(webDriver, getBrowsingContextId(), parent, null);
+        }
+        return routes;
     }
 
     @Override
     public void unroute(String url, Consumer<Route> handler) {
-
+        routes().remove(url, handler);
     }
 
     @Override
     public void unroute(Pattern url, Consumer<Route> handler) {
-
+        routes().remove(url, handler);
     }
 
     @Override
     public void unroute(Predicate<String> url, Consumer<Route> handler) {
-
+        routes().remove(url, handler);
     }
 
     @Override
@@ -1744,88 +1883,37 @@ public class PageImpl implements Page, WDPageExtension {
 
     @Override
     public Download waitForDownload(WaitForDownloadOptions options, Runnable callback) {
-        final Download[] result = new Download[1];
-
-        Consumer<Download> listener = download -> result[0] = download;
-
-        this.onDownload(listener);
-
-        if (callback != null) {
-            callback.run();
-        }
-
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (result[0] == null && System.currentTimeMillis() - start < timeout) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-
-        this.offDownload(listener);
-
-        if (result[0] == null) {
-            throw new PlaywrightException("Timeout exceeded while waiting for download");
-        }
-
-        return result[0];
+        return EventWaiter.<Download>waitFor(this::onDownload, this::offDownload, null, callback, timeout, "download");
     }
 
     @Override
     public FileChooser waitForFileChooser(WaitForFileChooserOptions options, Runnable callback) {
-        final FileChooser[] result = new FileChooser[1];
-
-        Consumer<FileChooser> listener = fileChooser -> result[0] = fileChooser;
-
-        this.onFileChooser(listener);
-
-        if (callback != null) {
-            callback.run();
-        }
-
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (result[0] == null && System.currentTimeMillis() - start < timeout) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-
-        this.offFileChooser(listener);
-
-        if (result[0] == null) {
-            throw new PlaywrightException("Timeout exceeded while waiting for file chooser");
-        }
-
-        return result[0];
+        return EventWaiter.<FileChooser>waitFor(this::onFileChooser, this::offFileChooser, null, callback, timeout, "file chooser");
     }
 
     @Override
     public JSHandle waitForFunction(String expression, Object arg, WaitForFunctionOptions options) {
-        long timeout = options != null &&  options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (System.currentTimeMillis() - start < timeout) {
-            Object result = this.evaluate(expression, arg);
-            if (result instanceof Boolean && (Boolean) result) {
-                return evaluateHandle(expression, arg);
-            }
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        long timeout = WDDeadline.effectiveTimeout(
+                options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 0L);
+        // Polling runs in-page (rAF / MutationObserver), the result arrives with the one and only response
+        final String pageFunction = WebDriverUtil.isFunctionExpression(expression) ? expression : "() => (" + expression + ")";
+        final WDTarget target = new WDTarget.ContextTarget(browsingContext);
+        final List<WDLocalValue> args = Arrays.asList(WDLocalValue.fromObject(arg), WDLocalValue.fromObject(timeout));
+
+        WDEvaluateResult result = WDDeadline.call(timeout + 1_000L,
+                () -> webDriver.script().callFunction(DomScripts.waitForFunction(pageFunction), true, target, args,
+                        null, WDResultOwnership.ROOT, null));
+        if (result instanceof WDEvaluateResult.WDEvaluateResultSuccess) {
+            return new JSHandleImpl(webDriver, ((WDEvaluateResult.WDEvaluateResultSuccess) result).getResult(), target);
         }
-
-        throw new PlaywrightException("Timeout exceeded while waiting for function");
+        String text = result instanceof WDEvaluateResult.WDEvaluateResultError
+                ? ((WDEvaluateResult.WDEvaluateResultError) result).getExceptionDetails().getText() : String.valueOf(result);
+        if (text != null && text.contains("waitForFunction: timeout")) {
+            throw new PlaywrightException("Timeout exceeded while waiting for function");
+        }
+        throw new PlaywrightException("waitForFunction failed: " + text);
     }
 
     @Override
@@ -1835,33 +1923,9 @@ public class PageImpl implements Page, WDPageExtension {
 
     @Override
     public Response waitForNavigation(WaitForNavigationOptions options, Runnable callback) {
-        final Response[] responseHolder = new Response[1];
-        Consumer<Page> listener = page -> responseHolder[0] = new PlaywrightResponse<>(null);
-
-        this.onLoad(listener);
-
-        if (callback != null) {
-            callback.run();
-        }
-
-        // Wait until navigation event received
-        long timeout = options != null &&  options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-        while (responseHolder[0] == null && System.currentTimeMillis() - start < timeout) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
-
-        this.offLoad(listener);
-
-        if (responseHolder[0] == null) {
-            throw new PlaywrightException("Timeout exceeded while waiting for navigation");
-        }
-
-        return responseHolder[0];
+        long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
+        EventWaiter.<Page>waitFor(this::onLoad, this::offLoad, null, callback, timeout, "navigation");
+        return new PlaywrightResponse<>(null);
     }
 
     @Override
@@ -1871,295 +1935,133 @@ public class PageImpl implements Page, WDPageExtension {
 
     @Override
     public Request waitForRequest(String urlOrPredicate, WaitForRequestOptions options, Runnable callback) {
-        final Request[] result = new Request[1];
-
-        Consumer<Request> listener = request -> {
-            if (request.url().equals(urlOrPredicate)) {
-                result[0] = request;
-            }
-        };
-
-        this.onRequest(listener);
-
-        if (callback != null) {
-            callback.run();
-        }
-
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (result[0] == null && System.currentTimeMillis() - start < timeout) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-
-        this.offRequest(listener);
-
-        if (result[0] == null) {
-            throw new PlaywrightException("Timeout exceeded while waiting for request: " + urlOrPredicate);
-        }
-
-        return result[0];
+        return EventWaiter.<Request>waitFor(this::onRequest, this::offRequest,
+                request -> request.url().equals(urlOrPredicate), callback, timeout, "request: " + urlOrPredicate);
     }
 
 
     @Override
     public Request waitForRequest(Pattern urlPattern, WaitForRequestOptions options, Runnable callback) {
-        final Request[] result = new Request[1];
-
-        Consumer<Request> listener = request -> {
-            if (urlPattern.matcher(request.url()).matches()) {
-                result[0] = request;
-            }
-        };
-
-        this.onRequest(listener);
-
-        if (callback != null) {
-            callback.run();
-        }
-
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (result[0] == null && System.currentTimeMillis() - start < timeout) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-
-        this.offRequest(listener);
-
-        if (result[0] == null) {
-            throw new PlaywrightException("Timeout exceeded while waiting for request matching pattern: " + urlPattern.pattern());
-        }
-
-        return result[0];
+        return EventWaiter.<Request>waitFor(this::onRequest, this::offRequest,
+                request -> urlPattern.matcher(request.url()).matches(), callback, timeout,
+                "request matching pattern: " + urlPattern.pattern());
     }
 
     @Override
     public Request waitForRequest(Predicate<Request> requestPredicate, WaitForRequestOptions options, Runnable callback) {
-        final Request[] result = new Request[1];
-
-        Consumer<Request> listener = request -> {
-            if (requestPredicate.test(request)) {
-                result[0] = request;
-            }
-        };
-
-        this.onRequest(listener);
-
-        if (callback != null) {
-            callback.run();
-        }
-
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (result[0] == null && System.currentTimeMillis() - start < timeout) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-
-        this.offRequest(listener);
-
-        if (result[0] == null) {
-            throw new PlaywrightException("Timeout exceeded while waiting for request with predicate");
-        }
-
-        return result[0];
+        return EventWaiter.<Request>waitFor(this::onRequest, this::offRequest, requestPredicate, callback, timeout,
+                "request with predicate");
     }
 
     @Override
     public Request waitForRequestFinished(WaitForRequestFinishedOptions options, Runnable callback) {
-        final Request[] result = new Request[1];
-
-        Consumer<Request> listener = request -> result[0] = request;
-
-        this.onRequestFinished(listener);
-
-        if (callback != null) {
-            callback.run();
-        }
-
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (result[0] == null && System.currentTimeMillis() - start < timeout) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-
-        this.offRequestFinished(listener);
-
-        if (result[0] == null) {
-            throw new PlaywrightException("Timeout exceeded while waiting for request to finish");
-        }
-
-        return result[0];
+        return EventWaiter.<Request>waitFor(this::onRequestFinished, this::offRequestFinished, null, callback, timeout,
+                "request to finish");
     }
 
     @Override
     public Response waitForResponse(String urlOrPredicate, WaitForResponseOptions options, Runnable callback) {
-        final Response[] result = new Response[1];
-
-        Consumer<Response> listener = response -> {
-            if (response.url().equals(urlOrPredicate)) {
-                result[0] = response;
-            }
-        };
-
-        this.onResponse(listener);
-
-        if (callback != null) {
-            callback.run();
-        }
-
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (result[0] == null && System.currentTimeMillis() - start < timeout) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-
-        this.offResponse(listener);
-
-        if (result[0] == null) {
-            throw new PlaywrightException("Timeout exceeded while waiting for response: " + urlOrPredicate);
-        }
-
-        return result[0];
+        return EventWaiter.<Response>waitFor(this::onResponse, this::offResponse,
+                response -> response.url().equals(urlOrPredicate), callback, timeout, "response: " + urlOrPredicate);
     }
 
     @Override
     public Response waitForResponse(Pattern urlPattern, WaitForResponseOptions options, Runnable callback) {
-        final Response[] result = new Response[1];
-
-        Consumer<Response> listener = response -> {
-            if (urlPattern.matcher(response.url()).matches()) {
-                result[0] = response;
-            }
-        };
-
-        this.onResponse(listener);
-
-        if (callback != null) {
-            callback.run();
-        }
-
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (result[0] == null && System.currentTimeMillis() - start < timeout) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-
-        this.offResponse(listener);
-
-        if (result[0] == null) {
-            throw new PlaywrightException("Timeout exceeded while waiting for response matching pattern: " + urlPattern.pattern());
-        }
-
-        return result[0];
+        return EventWaiter.<Response>waitFor(this::onResponse, this::offResponse,
+                response -> urlPattern.matcher(response.url()).matches(), callback, timeout,
+                "response matching pattern: " + urlPattern.pattern());
     }
 
     @Override
     public Response waitForResponse(Predicate<Response> responsePredicate, WaitForResponseOptions options, Runnable callback) {
-        final Response[] result = new Response[1];
-
-        Consumer<Response> listener = response -> {
-            if (responsePredicate.test(response)) {
-                result[0] = response;
-            }
-        };
-
-        this.onResponse(listener);
-
-        if (callback != null) {
-            callback.run();
-        }
-
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (result[0] == null && System.currentTimeMillis() - start < timeout) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-
-        this.offResponse(listener);
-
-        if (result[0] == null) {
-            throw new PlaywrightException("Timeout exceeded while waiting for response with predicate");
-        }
-
-        return result[0];
+        return EventWaiter.<Response>waitFor(this::onResponse, this::offResponse, responsePredicate, callback, timeout,
+                "response with predicate");
     }
 
     @Override
     public ElementHandle waitForSelector(String selector, WaitForSelectorOptions options) {
-        long timeout = options != null &&  options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-
-        long start = System.currentTimeMillis();
-        while (System.currentTimeMillis() - start < timeout) {
-            ElementHandle handle = querySelector(selector, null);
-            if (handle != null) {
-                return handle;
+        long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
+        LocatorType type = AdapterLocatorFactory.inferType(selector);
+        WDLocator<?> locator = AdapterLocatorFactory.create(type, AdapterLocatorFactory.stripKnownPrefix(selector));
+        EnumSet<ActionabilityRequirement> requirements = options != null && options.state == WaitForSelectorState.VISIBLE
+                ? EnumSet.of(ActionabilityRequirement.VISIBLE)
+                : EnumSet.noneOf(ActionabilityRequirement.class);
+        WDTarget.ContextTarget target = new WDTarget.ContextTarget(browsingContext);
+
+        try (WDDeadline.Scope scope = WDDeadline.after(timeout).enter()) {
+            if (ActionabilityWaiter.supports(locator)) {
+                // CSS/XPath: resolved and awaited in-page, answers as soon as the node appears
+                WDRemoteValue.NodeRemoteValue node = ActionabilityWaiter.waitFor(webDriver, target, locator,
+                        requirements, scope.deadline().remainingMillis(), "selector: " + selector);
+                return new ElementHandleImpl(webDriver, node, target);
             }
-            try {
-                Thread.sleep(50); // Poll alle 50 ms
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            // Other locators (text, role, ...) are located via BiDi, re-checked whenever the DOM changes.
+            // The mutation sequence is read before each query, so a change between query and wait is not lost.
+            String seen = awaitDomMutation(target, "", 0L);
+            while (!scope.deadline().isExpired()) {
+                ElementHandle handle = querySelector(selector, null);
+                if (handle != null && (requirements.isEmpty() || handle.isVisible())) {
+                    return handle;
+                }
+                seen = awaitDomMutation(target, seen, Math.max(0L, scope.deadline().remainingMillis() - 200L));
             }
+        } catch (PlaywrightException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new PlaywrightException(e.getMessage(), e);
         }
         throw new PlaywrightException("Timeout exceeded while waiting for selector: " + selector);
     }
 
 
+    /**
+     * Waits in-page until the DOM mutation sequence differs from {@code since} (or the timeout elapsed).
+     * An empty {@code since} only arms the observer and returns the current sequence.
+     */
+    private String awaitDomMutation(WDTarget target, String since, long timeoutMillis) {
+        WDEvaluateResult result = webDriver.script().callFunction(DomScripts.WAIT_FOR_DOM_MUTATION, true, target,
+                Arrays.asList(WDLocalValue.fromObject(since), WDLocalValue.fromObject(timeoutMillis)));
+        if (result instanceof WDEvaluateResult.WDEvaluateResultSuccess) {
+            WDRemoteValue value = ((WDEvaluateResult.WDEvaluateResultSuccess) result).getResult();
+            if (value instanceof WDPrimitiveProtocolValue.StringValue) {
+                return ((WDPrimitiveProtocolValue.StringValue) value).getValue();
+            }
+        }
+        return ""; // e.g. navigation during the wait: re-arm on the next call
+    }
+
     @Override
     public void waitForCondition(BooleanSupplier condition, WaitForConditionOptions options) {
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (System.currentTimeMillis() - start < timeout) {
-            if (condition.getAsBoolean()) {
-                return;
-            }
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+        if (condition.getAsBoolean()) {
+            return; // already true: no subscription, no round trip
+        }
+        // Re-check whenever something happens on the page; the growing fallback interval only covers state changes
+        // that produce no BiDi event (e.g. purely Java-side conditions).
+        activity.ensureSubscribed();
+        try {
+            WDDeadline deadline = WDDeadline.after(timeout);
+            long seen = activity.version();
+            long backoff = 50L;
+            while (true) {
+                if (condition.getAsBoolean()) {
+                    return;
+                }
+                if (deadline.isExpired()) {
+                    break;
+                }
+                seen = activity.awaitChange(seen, Math.max(1L, Math.min(backoff, deadline.remainingMillis())));
+                backoff = Math.min(backoff * 2, 1_000L);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
 
         throw new PlaywrightException("Timeout exceeded while waiting for condition");
@@ -2178,128 +2080,111 @@ public class PageImpl implements Page, WDPageExtension {
     @Override
     public void waitForURL(String expectedUrl, WaitForURLOptions options) {
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (System.currentTimeMillis() - start < timeout) {
-            String currentUrl = this.url();
-            if (currentUrl != null && currentUrl.equals(expectedUrl)) {
-                return;
-            }
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-
-        throw new PlaywrightException("Timeout exceeded while waiting for URL: " + expectedUrl);
+        awaitUrl(url -> url.equals(expectedUrl), timeout, "URL: " + expectedUrl);
     }
 
     @Override
     public void waitForURL(Pattern expectedUrlPattern, WaitForURLOptions options) {
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (System.currentTimeMillis() - start < timeout) {
-            String currentUrl = this.url();
-            if (currentUrl != null && expectedUrlPattern.matcher(currentUrl).matches()) {
-                return;
-            }
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-
-        throw new PlaywrightException("Timeout exceeded while waiting for URL pattern: " + expectedUrlPattern.pattern());
+        awaitUrl(url -> expectedUrlPattern.matcher(url).matches(), timeout, "URL pattern: " + expectedUrlPattern.pattern());
     }
 
     @Override
     public void waitForURL(Predicate<String> urlPredicate, WaitForURLOptions options) {
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
+        awaitUrl(urlPredicate, timeout, "URL with predicate");
+    }
 
-        while (System.currentTimeMillis() - start < timeout) {
-            String currentUrl = this.url();
-            if (currentUrl != null && urlPredicate.test(currentUrl)) {
-                return;
-            }
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+    /**
+     * Follows the URL of this page via navigation events (commit, fragment, history API, load) and returns as soon
+     * as it matches. The known URL is checked first; only if it does not match yet, the page's long-lived
+     * navigation subscription is set up (once per page) and the URL is read from the context tree, so a
+     * navigation that finished before the subscription is not missed.
+     */
+    private void awaitUrl(Predicate<String> matches, long timeout, String what) {
+        WDDeadline deadline = WDDeadline.after(timeout);
+        if (urlMatches(matches, this.url)) {
+            return;
+        }
+        long seen = activity.version();
+        activity.ensureSubscribed();
+        String known = webDriver.contexts().getUrl(getBrowsingContextId()); // event-maintained mirror
+        if (urlMatches(matches, known)) {
+            this.url = known;
+            return;
+        }
+        try {
+            while (!urlMatches(matches, this.url)) {
+                if (deadline.isExpired()) {
+                    throw new PlaywrightException("Timeout " + timeout + "ms exceeded while waiting for " + what);
+                }
+                seen = activity.awaitChange(seen, deadline.remainingMillis());
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlaywrightException("Interrupted while waiting for " + what);
         }
-
-        throw new PlaywrightException("Timeout exceeded while waiting for URL with predicate");
     }
 
-    @Override
-    public WebSocket waitForWebSocket(WaitForWebSocketOptions options, Runnable callback) {
-        final WebSocket[] result = new WebSocket[1];
-        Consumer<WebSocket> listener = ws -> result[0] = ws;
+    private static boolean urlMatches(Predicate<String> matches, String url) {
+        return url != null && matches.test(url);
+    }
 
-        this.onWebSocket(listener);
+    private void subscribeActivity(Consumer<Object> listener) {
+        webDriver.addEventListener(new WDSubscriptionRequest(Arrays.asList(ACTIVITY_EVENTS),
+                Collections.singletonList(new WDBrowsingContext(getBrowsingContextId()))), listener);
+    }
 
-        if (callback != null) {
-            callback.run();
+    private void unsubscribeActivity(Consumer<Object> listener) {
+        for (String event : ACTIVITY_EVENTS) {
+            webDriver.removeEventListener(event, getBrowsingContextId(), listener);
         }
+    }
 
-        long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (result[0] == null && System.currentTimeMillis() - start < timeout) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
+    private void trackUrl(Object ev) {
+        String navigated = navigatedUrl(ev);
+        if (navigated != null) {
+            this.url = navigated;
         }
+    }
 
-        this.offWebSocket(listener);
-
-        if (result[0] == null) {
-            throw new PlaywrightException("Timeout exceeded while waiting for WebSocket");
+    /** @return URL of a navigation event for this page, otherwise {@code null} */
+    private String navigatedUrl(Object ev) {
+        WDBrowsingContextEvent.HistoryUpdated history = as(ev, WDBrowsingContextEvent.HistoryUpdated.class);
+        if (history != null) {
+            WDBrowsingContextEvent.HistoryUpdated.HistoryUpdatedParameters params = history.getParams();
+            return params != null && params.getContext() != null
+                    && getBrowsingContextId().equals(params.getContext().value()) ? params.getUrl() : null;
         }
+        WDNavigationInfo info = null;
+        WDBrowsingContextEvent.NavigationCommitted committed = as(ev, WDBrowsingContextEvent.NavigationCommitted.class);
+        if (committed != null) {
+            info = committed.getParams();
+        } else {
+            WDBrowsingContextEvent.FragmentNavigated fragment = as(ev, WDBrowsingContextEvent.FragmentNavigated.class);
+            if (fragment != null) {
+                info = fragment.getParams();
+            } else {
+                WDBrowsingContextEvent.Load load = as(ev, WDBrowsingContextEvent.Load.class);
+                if (load != null) {
+                    info = load.getParams();
+                }
+            }
+        }
+        return info != null && info.getContext() != null
+                && getBrowsingContextId().equals(info.getContext().value()) ? info.getUrl() : null;
+    }
 
-        return result[0];
+    @Override
+    public WebSocket waitForWebSocket(WaitForWebSocketOptions options, Runnable callback) {
+        long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
+        return EventWaiter.<WebSocket>waitFor(this::onWebSocket, this::offWebSocket, null, callback, timeout, "WebSocket");
     }
 
     @Override
     public Worker waitForWorker(WaitForWorkerOptions options, Runnable callback) {
-        final Worker[] result = new Worker[1];
-        Consumer<Worker> listener = worker -> result[0] = worker;
-
-        this.onWorker(listener);
-
-        if (callback != null) {
-            callback.run();
-        }
-
         long timeout = options != null && options.timeout != null ? (long) options.timeout.doubleValue() : 30_000L;
-        long start = System.currentTimeMillis();
-
-        while (result[0] == null && System.currentTimeMillis() - start < timeout) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-
-        this.offWorker(listener);
-
-        if (result[0] == null) {
-            throw new PlaywrightException("Timeout exceeded while waiting for Worker");
-        }
-
-        return result[0];
+        return EventWaiter.<Worker>waitFor(this::onWorker, this::offWorker, null, callback, timeout, "Worker");
     }
 
     @Override
@@ -2366,45 +2251,4 @@ public class PageImpl implements Page, WDPageExtension {
         return null;
     }
 
-    /** Wartet rAF*2 + Fonts.ready (falls vorhanden). Kein JSHandle, kein Polling. */
-    private void waitForActionabilityBeforeScreenshot(double timeoutMs) {
-        long cap = Math.max(1000L, (long) timeoutMs); // defensiv
-        List<WDLocalValue> args = Collections.singletonList(WDLocalValue.fromObject(cap));
-
-        // Einmalige Promise, die nach Fonts.ready (wenn vorhanden) und 2 rAF auflöst.
-        webDriver.script().callFunction(
-                "function(maxMs){"
-                        + "  const deadline = Date.now() + (typeof maxMs==='number' ? maxMs : 5000);"
-                        + "  return new Promise((resolve)=>{"
-                        + "    const finish = ()=>resolve();"
-                        + "    const twoRaf = ()=>{"
-                        + "      try{"
-                        + "        if (document.visibilityState==='visible' && typeof requestAnimationFrame==='function'){"
-                        + "          requestAnimationFrame(()=>requestAnimationFrame(finish));"
-                        + "        } else { setTimeout(finish,50); }"
-                        + "      } catch(_) { setTimeout(finish,50); }"
-                        + "    };"
-                        + "    const afterFonts = ()=>{"
-                        + "      try {"
-                        + "        if (document.fonts && document.fonts.ready && typeof document.fonts.ready.then==='function'){"
-                        + "          // Fonts stabilisieren das Layout; nicht unendlich warten:"
-                        + "          let timed = false;"
-                        + "          const t = setTimeout(()=>{ if(!timed){ timed=true; twoRaf(); } }, Math.max(0, deadline - Date.now()));"
-                        + "          document.fonts.ready.then(()=>{ if(!timed){ timed=true; clearTimeout(t); twoRaf(); } }, ()=>{ if(!timed){ timed=true; clearTimeout(t); twoRaf(); } });"
-                        + "        } else { twoRaf(); }"
-                        + "      } catch(_) { twoRaf(); }"
-                        + "    };"
-                        + "    afterFonts();"
-                        + "  });"
-                        + "}",
-                /* awaitPromise */ true,
-                new WDTarget.ContextTarget(browsingContext),
-                args,
-                null,
-                WDResultOwnership.NONE,
-                null
-        );
-    }
-
-
 }
@@ -7,9 +7,12 @@ import com.microsoft.playwright.options.FunctionCallback;
 import com.microsoft.playwright.options.Geolocation;
 import de.bund.zrb.ext.WDContextExtension;
 import de.bund.zrb.ext.WDContextExtensionSupport;
+import de.bund.zrb.support.NetworkRoutes;
 import de.bund.zrb.support.Pages;
+import de.bund.zrb.testing.TracingImpl;
 import de.bund.zrb.type.browser.WDUserContext;
 import de.bund.zrb.type.browser.WDUserContextInfo;
+import de.bund.zrb.type.browsingContext.WDInfo;
 
 import java.nio.file.Path;
 import java.util.*;
@@ -33,6 +36,8 @@ public class UserContextImpl implements BrowserContext, WDContextExtension {
     private final Map<Consumer<Request>,  Consumer<Page>> requestFailedWires    = new HashMap<Consumer<Request>,  Consumer<Page>>();
 
     private final WDContextExtensionSupport ctxExt = new WDContextExtensionSupport(this);
+    private final TracingImpl tracing;
+    private NetworkRoutes routes; // lazy, see routes()
 
     @Override
     public WDContextExtensionSupport wdCtxExt() {
@@ -42,6 +47,7 @@ public class UserContextImpl implements BrowserContext, WDContextExtension {
     public UserContextImpl(BrowserImpl browser) {
         this.browser = browser;
         this.pages = new Pages(browser, this);
+        this.tracing = new TracingImpl(browser.getWebDriver(), browser.browserType().name());
         WDUserContextInfo info = browser.getWebDriver().browser().createUserContext();
         userContext = info.getUserContext();
     }
@@ -49,6 +55,7 @@ public class UserContextImpl implements BrowserContext, WDContextExtension {
     public UserContextImpl(BrowserImpl browser, WDUserContext userContext) {
         this.browser = browser;
         this.pages = new Pages(browser, this);
+        this.tracing = new TracingImpl(browser.getWebDriver(), browser.browserType().name());
         this.userContext = userContext;
     }
 
@@ -200,6 +207,7 @@ public class UserContextImpl implements BrowserContext, WDContextExtension {
         if (!isClosed) {
             for (PageImpl page : pages) page.close();
             pages.clear();
+            if (routes != null) routes.close();
             isClosed = true;
         }
     }
@@ -213,9 +221,9 @@ public class UserContextImpl implements BrowserContext, WDContextExtension {
     @Override public CDPSession newCDPSession(Frame page) { return null; }
     @Override public List<Page> pages() { return (List<Page>) pages.asList(); }
     @Override public APIRequestContext request() { return null; }
-    @Override public void route(String url, Consumer<Route> handler, BrowserContext.RouteOptions options) { }
-    @Override public void route(Pattern url, Consumer<Route> handler, BrowserContext.RouteOptions options) { }
-    @Override public void route(Predicate<String> url, Consumer<Route> handler, BrowserContext.RouteOptions options) { }
+    @Override public void route(String url, Consumer<Route> handler, BrowserContext.RouteOptions options) { routes().add(url, handler, options != null ? options.times : null); }
+    @Override public void route(Pattern url, Consumer<Route> handler, BrowserContext.RouteOptions options) { routes().add(url, handler, options != null ? options.times : null); }
+    @Override public void route(Predicate<String> url, Consumer<Route> handler, BrowserContext.RouteOptions options) { routes().add(url, handler, options != null ? options.times : null); }
     @Override public void routeFromHAR(Path har, BrowserContext.RouteFromHAROptions options) { }
     @Override public void routeWebSocket(String url, Consumer<WebSocketRoute> handler) { }
     @Override public void routeWebSocket(Pattern url, Consumer<WebSocketRoute> handler) { }
@@ -226,16 +234,29 @@ public class UserContextImpl implements BrowserContext, WDContextExtension {
     @Override public void setGeolocation(Geolocation geolocation) { }
     @Override public void setOffline(boolean offline) { }
     @Override public String storageState(BrowserContext.StorageStateOptions options) { return ""; }
-    @Override public Tracing tracing() { return null; }
-    @Override public void unrouteAll() { }
-    @Override public void unroute(String url, Consumer<Route> handler) { }
-    @Override public void unroute(Pattern url, Consumer<Route> handler) { }
-    @Override public void unroute(Predicate<String> url, Consumer<Route> handler) { }
+    @Override public Tracing tracing() { return tracing; }
+    @Override public void unrouteAll() { routes().removeAll(); }
+    @Override public void unroute(String url, Consumer<Route> handler) { routes().remove(url, handler); }
+    @Override public void unroute(Pattern url, Consumer<Route> handler) { routes().remove(url, handler); }
+    @Override public void unroute(Predicate<String> url, Consumer<Route> handler) { routes().remove(url, handler); }
     @Override public void waitForCondition(BooleanSupplier condition, BrowserContext.WaitForConditionOptions options) { }
     @Override public ConsoleMessage waitForConsoleMessage(BrowserContext.WaitForConsoleMessageOptions options, Runnable callback) { return null; }
     @Override public Page waitForPage(BrowserContext.WaitForPageOptions options, Runnable callback) { return null; }
 
     public WDUserContext getUserContext() { return userContext; }
+
+    /** Routes of this context; the routes of its pages fall back to them. */
+    public synchronized NetworkRoutes routes() {
+        if (routes == null) {
+            final WebDriver webDriver = browser.getWebDriver();
+            routes = new NetworkRoutes(webDriver, null, null, contextId -> {
+                List<WDInfo> info = webDriver.contexts().getTree(contextId, 0L);
+                return !info.isEmpty() && info.get(0).getUserContext() != null
+                        && userContext.value().equals(info.get(0).getUserContext().value());
+            });
+        }
+        return routes;
+    }
     public void register(PageImpl page) { pages.add(page); }
     public double getDefaultTimeout() { return defaultTimeout; }
 
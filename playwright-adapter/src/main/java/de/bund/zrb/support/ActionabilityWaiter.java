@@ -0,0 +1,107 @@
+package de.bund.zrb.support;
+
+import de.bund.zrb.WebDriver;
+import de.bund.zrb.type.browsingContext.WDLocator;
+import de.bund.zrb.type.script.*;
+import de.bund.zrb.util.DomScripts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Wartet im Browser auf die Actionability eines Elements ({@link DomScripts#WAIT_FOR_ACTIONABLE}).
+ *
+ * Statt pro Versuch locateNodes + je ein callFunction pro {@link ActionabilityRequirement} + 100 ms Sleep zu senden,
+ * prüft die Seite selbst bei jedem Frame bzw. jeder DOM-Mutation und antwortet genau einmal mit dem Element.
+ */
+public final class ActionabilityWaiter {
+
+    /** Reserve für die Antwort, damit das Skript vor der Command-Deadline zurückkommt. */
+    private static final long RESPONSE_RESERVE_MILLIS = 200L;
+
+    private ActionabilityWaiter() {
+        // Prevent instantiation
+    }
+
+    /**
+     * @return {@code true}, wenn der Locator direkt im Browser aufgelöst werden kann (CSS oder XPath)
+     */
+    public static boolean supports(WDLocator<?> locator) {
+        return locator instanceof WDLocator.CssLocator || locator instanceof WDLocator.XPathLocator;
+    }
+
+    /**
+     * Löst den Locator im Browser auf (erster Treffer) und wartet, bis das Element die Anforderungen erfüllt.
+     *
+     * @return das Element als Node
+     * @throws RuntimeException wenn das Element bis zum Timeout nicht actionable wird
+     */
+    public static WDRemoteValue.NodeRemoteValue waitFor(WebDriver webDriver, WDTarget target, WDLocator<?> locator,
+                                                        ActionabilityCheck check, long timeoutMillis) {
+        return waitFor(webDriver, target, locator, check.getRequirements(), timeoutMillis, "actionability: " + check);
+    }
+
+    /**
+     * Wie {@link #waitFor(WebDriver, WDTarget, WDLocator, ActionabilityCheck, long)} mit beliebigen Anforderungen;
+     * eine leere Menge wartet nur darauf, dass der Selektor ein Element findet.
+     *
+     * @param what Beschreibung für die Timeout-Meldung
+     */
+    public static WDRemoteValue.NodeRemoteValue waitFor(WebDriver webDriver, WDTarget target, WDLocator<?> locator,
+                                                        EnumSet<ActionabilityRequirement> requirements,
+                                                        long timeoutMillis, String what) {
+        String kind = locator instanceof WDLocator.XPathLocator ? "xpath" : "css";
+        String query = String.valueOf(locator.getValue());
+        return call(webDriver, target, kind, query, null, requirements, timeoutMillis, what);
+    }
+
+    /**
+     * Wartet, bis das referenzierte Element die Anforderungen erfüllt.
+     *
+     * @return das Element als Node oder {@code null}, wenn es nicht mehr im DOM hängt
+     * @throws RuntimeException wenn das Element bis zum Timeout nicht actionable wird
+     */
+    public static WDRemoteValue.NodeRemoteValue waitFor(WebDriver webDriver, WDTarget target,
+                                                        WDRemoteReference.SharedReference element,
+                                                        ActionabilityCheck check, long timeoutMillis) {
+        return call(webDriver, target, null, null, element, check.getRequirements(), timeoutMillis,
+                "actionability: " + check);
+    }
+
+    private static WDRemoteValue.NodeRemoteValue call(WebDriver webDriver, WDTarget target, String kind, String query,
+                                                      WDLocalValue thisArg, EnumSet<ActionabilityRequirement> requirements,
+                                                      long timeoutMillis, String what) {
+        List<Object> names = new ArrayList<Object>(requirements.size());
+        for (ActionabilityRequirement requirement : requirements) {
+            names.add(requirement.name());
+        }
+        long inPageTimeout = Math.max(0L, timeoutMillis - RESPONSE_RESERVE_MILLIS);
+
+        List<WDLocalValue> args = Arrays.asList(
+                WDLocalValue.fromObject(kind),
+                WDLocalValue.fromObject(query),
+                WDLocalValue.fromObject(names),
+                WDLocalValue.fromObject(inPageTimeout));
+
+        WDEvaluateResult result = webDriver.script().callFunction(
+                DomScripts.WAIT_FOR_ACTIONABLE, true, target, args, thisArg, WDResultOwnership.NONE, null);
+
+        if (result instanceof WDEvaluateResult.WDEvaluateResultError) {
+            throw new RuntimeException("Script failed while waiting for " + what + ": "
+                    + ((WDEvaluateResult.WDEvaluateResultError) result).getExceptionDetails());
+        }
+        WDRemoteValue value = ((WDEvaluateResult.WDEvaluateResultSuccess) result).getResult();
+        if (value instanceof WDRemoteValue.NodeRemoteValue) {
+            return (WDRemoteValue.NodeRemoteValue) value;
+        }
+        String state = value instanceof WDPrimitiveProtocolValue.StringValue
+                ? ((WDPrimitiveProtocolValue.StringValue) value).getValue() : String.valueOf(value);
+        if ("detached".equals(state)) {
+            return null;
+        }
+        throw new RuntimeException("Timeout " + timeoutMillis + "ms waiting for " + what
+                + (state.startsWith("timeout: ") ? " (" + state.substring(9) + ")" : ""));
+    }
+}
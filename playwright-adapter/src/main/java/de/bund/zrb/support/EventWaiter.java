@@ -0,0 +1,105 @@
+package de.bund.zrb.support;
+
+import com.microsoft.playwright.PlaywrightException;
+import de.bund.zrb.websocket.WDDeadline;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Wartet auf das erste Event, das ein Prädikat erfüllt (Prädikat + Deadline + Completion-Future).
+ *
+ * Der Waiter wird selbst als Listener registriert und vervollständigt sein Future direkt im Event-Thread – der
+ * wartende Thread wacht genau einmal auf, statt alle 50 ms einen gemeinsamen Slot abzufragen.
+ *
+ * <pre>
+ * Request request = EventWaiter.waitFor(page::onRequest, page::offRequest,
+ *         r -> r.url().endsWith("/api"), callback, 30_000, "request");
+ * </pre>
+ *
+ * @param <T> Event-Typ
+ */
+public final class EventWaiter<T> implements Consumer<T> {
+
+    private final Predicate<? super T> predicate;
+    private final CompletableFuture<T> future = new CompletableFuture<T>();
+
+    public EventWaiter(Predicate<? super T> predicate) {
+        this.predicate = predicate != null ? predicate : t -> true;
+    }
+
+    /**
+     * Registriert einen Waiter, führt {@code callback} aus und wartet auf das erste passende Event.
+     *
+     * @param subscribe   z.B. {@code page::onRequest}
+     * @param unsubscribe z.B. {@code page::offRequest}, wird in jedem Fall aufgerufen
+     * @param what        Beschreibung für die Timeout-Meldung
+     * @throws PlaywrightException bei Timeout
+     */
+    public static <T> T waitFor(Consumer<Consumer<T>> subscribe, Consumer<Consumer<T>> unsubscribe,
+                                Predicate<? super T> predicate, Runnable callback, long timeoutMillis, String what) {
+        EventWaiter<T> waiter = new EventWaiter<T>(predicate);
+        subscribe.accept(waiter);
+        try {
+            if (callback != null) {
+                callback.run();
+            }
+            return waiter.await(timeoutMillis, what);
+        } finally {
+            unsubscribe.accept(waiter);
+        }
+    }
+
+    @Override
+    public void accept(T event) {
+        if (future.isDone()) {
+            return;
+        }
+        try {
+            if (predicate.test(event)) {
+                future.complete(event);
+            }
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /** Vervollständigt den Waiter ohne Event, z.B. wenn der Zielzustand schon vor dem ersten Event erreicht ist. */
+    public boolean complete(T value) {
+        return future.complete(value);
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    public CompletableFuture<T> future() {
+        return future;
+    }
+
+    /**
+     * Wartet höchstens {@code timeoutMillis}, bzw. bis zu einer früheren, im Thread aktiven {@link WDDeadline}.
+     *
+     * @throws PlaywrightException bei Timeout oder wenn das Prädikat eine Exception geworfen hat
+     */
+    public T await(long timeoutMillis, String what) {
+        try (WDDeadline.Scope scope = WDDeadline.after(timeoutMillis).enter()) {
+            return future.get(scope.deadline().remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new PlaywrightException("Timeout " + timeoutMillis + "ms exceeded while waiting for " + what);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlaywrightException("Interrupted while waiting for " + what);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new PlaywrightException("Failed while waiting for " + what, cause);
+        }
+    }
+}
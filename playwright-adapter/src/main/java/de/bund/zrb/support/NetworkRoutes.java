@@ -0,0 +1,291 @@
+package de.bund.zrb.support;
+
+import com.microsoft.playwright.Route;
+import de.bund.zrb.WebDriver;
+import de.bund.zrb.command.request.parameters.network.AddInterceptParameters;
+import de.bund.zrb.event.RequestImpl;
+import de.bund.zrb.event.WDNetworkEvent;
+import de.bund.zrb.testing.RouteImpl;
+import de.bund.zrb.type.browsingContext.WDBrowsingContext;
+import de.bund.zrb.type.network.WDIntercept;
+import de.bund.zrb.type.network.WDUrlPattern;
+import de.bund.zrb.type.session.WDSubscriptionRequest;
+import de.bund.zrb.websocket.WDEventNames;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Route registry of a page or a browser context ({@code Page.route} / {@code BrowserContext.route}).
+ *
+ * The URL patterns are compiled into a {@link RouteMatcher}; whatever can be expressed as BiDi URL pattern is pushed
+ * down to {@code network.addIntercept}, so requests no route matches are not blocked in the browser at all. Blocked
+ * requests are dispatched to the handlers on a dedicated pool – a handler that takes its time never stalls the
+ * WebSocket/event thread.
+ *
+ * Page routes run first; when none of them handles a request (no match or {@code fallback()}), the routes of the
+ * browser context get it, then the request continues unchanged.
+ */
+public class NetworkRoutes {
+
+    // intercept id → registry, only for active intercepts (removed with removeIntercept / close)
+    private static final Map<String, NetworkRoutes> OWNERS = new ConcurrentHashMap<String, NetworkRoutes>();
+    private static final int RETIRED_KEEP = 16;
+    private static final AtomicInteger THREADS = new AtomicInteger();
+    private static final ExecutorService HANDLERS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "wd4j-route-handler-" + THREADS.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final WebDriver webDriver;
+    private final String contextId;      // page routes; null = browser context routes
+    private final NetworkRoutes parent;  // browser context routes of a page, may be null
+    private final RouteMatcher<Handler> matcher = new RouteMatcher<Handler>();
+    private final Predicate<String> scope;
+    private final Consumer<Object> listener = this::onBeforeRequestSent;
+    // Zuletzt ersetzte Intercepts dieser Registry: Requests, die sie kurz vor dem Entfernen blockiert haben, kommen
+    // ggf. erst danach als Event an und müssen trotzdem bearbeitet werden. Begrenzt, gehört nur dieser Registry.
+    private final Map<String, Boolean> retired = Collections.synchronizedMap(new LinkedHashMap<String, Boolean>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > RETIRED_KEEP;
+        }
+    });
+
+    // guarded by this
+    private String interceptId;
+    private boolean subscribed;
+
+    /**
+     * @param contextId browsing context of a page, {@code null} for the routes of a browser context
+     * @param parent    routes that get the requests this registry does not handle, may be {@code null}
+     * @param scope     for browser context routes: whether a (frame) context id belongs to the browser context –
+     *                  their intercept is browser-wide, BiDi can only restrict it to top-level contexts
+     */
+    public NetworkRoutes(WebDriver webDriver, String contextId, NetworkRoutes parent, Predicate<String> scope) {
+        this.webDriver = webDriver;
+        this.contextId = contextId;
+        this.parent = parent;
+        this.scope = scope;
+    }
+
+    /** One registered {@code route(...)} call. */
+    static final class Handler {
+        final Consumer<Route> handler;
+        final AtomicInteger remaining; // null = unlimited
+
+        Handler(Consumer<Route> handler, Integer times) {
+            this.handler = handler;
+            this.remaining = times != null ? new AtomicInteger(times) : null;
+        }
+
+        /** @return {@code false} if the route is used up */
+        boolean acquire() {
+            return remaining == null || remaining.getAndDecrement() > 0;
+        }
+
+        boolean isUsedUp() {
+            return remaining != null && remaining.get() <= 0;
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Registration
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param url   {@code String} glob, {@link java.util.regex.Pattern} or {@code Predicate<String>}
+     * @param times how often the route is used, {@code null} = always
+     */
+    public synchronized void add(Object url, Consumer<Route> handler, Integer times) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Route handler must not be null");
+        }
+        matcher.add(url, new Handler(handler, times));
+        updateIntercept();
+    }
+
+    /** Removes the routes for {@code url} ({@code handler == null}: all handlers of that url). */
+    public synchronized void remove(Object url, Consumer<Route> handler) {
+        if (matcher.remove(url, handler != null ? h -> h.handler == handler : null)) {
+            updateIntercept();
+        }
+    }
+
+    public synchronized void removeAll() {
+        if (!matcher.isEmpty()) {
+            matcher.clear();
+            updateIntercept();
+        }
+    }
+
+    /**
+     * Page or browser context closed: removes the intercept and the event subscription and forgets all intercept ids.
+     */
+    public synchronized void close() {
+        matcher.clear();
+        String id = interceptId;
+        interceptId = null;
+        if (id != null) {
+            retire(id);
+        }
+        if (subscribed) {
+            subscribed = false;
+            try {
+                webDriver.removeEventListener(WDEventNames.BEFORE_REQUEST_SENT.getName(), contextId, listener);
+            } catch (RuntimeException ignored) {
+                // Verbindung bereits weg
+            }
+        }
+        retired.clear();
+    }
+
+    /**
+     * Re-registers the intercept with the patterns of the current routes (or removes it). The new intercept is added
+     * before the old one is removed, and requests blocked by a former intercept are still dispatched – nothing stays
+     * blocked while routes change.
+     */
+    private void updateIntercept() {
+        String old = interceptId;
+        interceptId = null;
+        if (!matcher.isEmpty()) {
+            if (!subscribed) {
+                webDriver.addEventListener(
+                        new WDSubscriptionRequest(WDEventNames.BEFORE_REQUEST_SENT.getName(), contextId, null), listener);
+                subscribed = true;
+            }
+            List<WDUrlPattern> patterns = matcher.interceptPatterns();
+            List<WDBrowsingContext> contexts = contextId != null
+                    ? Collections.singletonList(new WDBrowsingContext(contextId)) : null;
+            WDIntercept intercept = webDriver.network().addIntercept(
+                    Collections.singletonList(AddInterceptParameters.InterceptPhase.BEFORE_REQUEST_SENT),
+                    contexts, patterns).getIntercept();
+            interceptId = intercept.value();
+            OWNERS.put(interceptId, this);
+        }
+        if (old != null) {
+            retire(old);
+        }
+    }
+
+    /** Removes an intercept; afterwards it blocks nothing new, so only this registry needs to remember it. */
+    private void retire(String id) {
+        try {
+            webDriver.network().removeIntercept(id);
+        } catch (RuntimeException ignored) {
+            // Context bereits geschlossen – das Intercept ist damit ebenfalls weg
+        }
+        retired.put(id, Boolean.TRUE);
+        OWNERS.remove(id, this);
+    }
+
+    private NetworkRoutes ownerOf(WDIntercept intercept) {
+        if (intercept == null) {
+            return null;
+        }
+        NetworkRoutes owner = OWNERS.get(intercept.value());
+        return owner != null ? owner : retired.containsKey(intercept.value()) ? this : null;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Dispatch
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void onBeforeRequestSent(Object event) {
+        if (!(event instanceof WDNetworkEvent.BeforeRequestSent)) {
+            return;
+        }
+        final WDNetworkEvent.BeforeRequestSent request = (WDNetworkEvent.BeforeRequestSent) event;
+        WDNetworkEvent.BeforeRequestSent.BeforeRequestSentParametersWD params = request.getParams();
+        if (params == null || !params.isBlocked() || params.getIntercepts() == null) {
+            return;
+        }
+        // Jeder blockierte Request wird von genau einer Registry bearbeitet: der Page (reicht ggf. an ihren Context
+        // weiter), sonst dem Browser-Context, zu dem der Request gehört, sonst dem ersten Besitzer (nur fortsetzen).
+        NetworkRoutes responsible = null;
+        boolean inScope = false;
+        String ctx = params.getContext() != null ? params.getContext().value() : null;
+        for (WDIntercept intercept : params.getIntercepts()) {
+            NetworkRoutes owner = ownerOf(intercept);
+            if (owner == null) {
+                continue;
+            }
+            if (owner.contextId != null) {
+                responsible = owner;
+                inScope = true;
+                break;
+            }
+            boolean ownerInScope = owner.scope == null || (ctx != null && owner.scope.test(ctx));
+            if (responsible == null || (ownerInScope && !inScope)) {
+                responsible = owner;
+                inScope = ownerInScope;
+            }
+        }
+        if (responsible != this) {
+            return;
+        }
+        if (inScope) {
+            HANDLERS.execute(() -> dispatch(request, new RouteImpl.Overrides()));
+        } else {
+            String requestId = params.getRequest().getRequest().value();
+            HANDLERS.execute(() -> RouteImpl.continueRequest(webDriver, requestId, null));
+        }
+    }
+
+    /**
+     * Offers the request to the matching routes (last registered first); continues it if nobody handles it.
+     */
+    public void dispatch(WDNetworkEvent.BeforeRequestSent request, RouteImpl.Overrides overrides) {
+        String url = overrides.url != null ? overrides.url : request.getParams().getRequest().getUrl();
+        Iterator<Handler> handlers = matcher.match(url).iterator();
+        next(request, handlers, overrides);
+    }
+
+    private void next(WDNetworkEvent.BeforeRequestSent request, Iterator<Handler> handlers,
+                      RouteImpl.Overrides overrides) {
+        while (handlers.hasNext()) {
+            Handler handler = handlers.next();
+            if (!handler.acquire()) {
+                continue;
+            }
+            if (handler.isUsedUp()) {
+                retireHandler(handler);
+            }
+            RouteImpl route = new RouteImpl(webDriver, request.getParams().getRequest().getRequest().value(),
+                    new RequestImpl(request), overrides,
+                    o -> next(request, handlers, o));
+            try {
+                handler.handler.accept(route);
+            } catch (RuntimeException e) {
+                System.err.println("[Route] Handler failed for " + route.request().url() + ": " + e.getMessage());
+                route.continueIfUnhandled();
+            }
+            return;
+        }
+        if (parent != null) {
+            parent.dispatch(request, overrides);
+        } else {
+            RouteImpl.continueRequest(webDriver, request.getParams().getRequest().getRequest().value(), overrides);
+        }
+    }
+
+    private void retireHandler(Handler handler) {
+        HANDLERS.execute(() -> {
+            synchronized (this) {
+                if (matcher.removeValue(handler)) {
+                    updateIntercept();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package de.bund.zrb.support;
+
+import java.util.function.Consumer;
+
+/**
+ * Langlebiges "auf der Seite hat sich etwas getan"-Signal für die waitFor*-Methoden einer Page.
+ *
+ * Die Event-Subscription wird beim ersten Bedarf einmal angelegt und bleibt bis {@link #close()} bestehen, statt bei
+ * jedem Warten mehrere blockierende {@code session.subscribe}/{@code unsubscribe} Round-Trips auszulösen. Jedes Event
+ * erhöht eine Versionsnummer; Wartende prüfen zuerst ihre Bedingung, merken sich die Version und warten nur, solange
+ * sich diese nicht geändert hat – ein Event zwischen Prüfung und Warten geht so nicht verloren.
+ *
+ * <pre>
+ * long seen = signal.version();
+ * while (!condition()) {
+ *     seen = signal.awaitChange(seen, remainingMillis);
+ * }
+ * </pre>
+ */
+public final class PageSignal implements Consumer<Object> {
+
+    private final Consumer<Consumer<Object>> subscribe;
+    private final Consumer<Consumer<Object>> unsubscribe;
+    private final Consumer<Object> onEvent;
+
+    private final Object lock = new Object();
+    private long version;          // guarded by lock
+    private boolean subscribed;    // guarded by this
+    private boolean closed;        // guarded by this
+
+    /**
+     * @param subscribe   registriert den Listener für alle relevanten Events (einmalig)
+     * @param unsubscribe entfernt ihn wieder, bei {@link #close()}
+     * @param onEvent     wird vor dem Wecken für jedes Event aufgerufen (z.B. URL nachführen), darf null sein
+     */
+    public PageSignal(Consumer<Consumer<Object>> subscribe, Consumer<Consumer<Object>> unsubscribe,
+                      Consumer<Object> onEvent) {
+        this.subscribe = subscribe;
+        this.unsubscribe = unsubscribe;
+        this.onEvent = onEvent;
+    }
+
+    @Override
+    public void accept(Object event) {
+        if (onEvent != null) {
+            onEvent.accept(event);
+        }
+        synchronized (lock) {
+            version++;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Legt die Subscription an, falls noch nicht geschehen. Nur der erste Aufruf kostet einen Round-Trip.
+     *
+     * @return true, wenn die Subscription mit diesem Aufruf angelegt wurde (Zustand danach erneut lesen)
+     */
+    public synchronized boolean ensureSubscribed() {
+        if (subscribed || closed) {
+            return false;
+        }
+        subscribe.accept(this);
+        subscribed = true;
+        return true;
+    }
+
+    /** @return aktuelle Version, vor dem Prüfen der Bedingung lesen */
+    public long version() {
+        synchronized (lock) {
+            return version;
+        }
+    }
+
+    /**
+     * Wartet, bis sich die Version gegenüber {@code seen} geändert hat, höchstens {@code timeoutMillis}.
+     *
+     * @return die nun aktuelle Version
+     */
+    public long awaitChange(long seen, long timeoutMillis) throws InterruptedException {
+        long end = System.nanoTime() + Math.max(0L, timeoutMillis) * 1_000_000L;
+        synchronized (lock) {
+            while (version == seen) {
+                long left = (end - System.nanoTime()) / 1_000_000L;
+                if (left <= 0) {
+                    break;
+                }
+                lock.wait(left);
+            }
+            return version;
+        }
+    }
+
+    /** Entfernt die Subscription (Page geschlossen); weitere {@link #ensureSubscribed()} sind wirkungslos. */
+    public synchronized void close() {
+        closed = true;
+        if (subscribed) {
+            subscribed = false;
+            unsubscribe.accept(this);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package de.bund.zrb.support;
+
+import de.bund.zrb.type.network.WDUrlPattern;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled set of route URL patterns (Playwright glob {@code String}, {@link Pattern} or {@link Predicate}).
+ *
+ * Every pattern is compiled once when it is added. Globs are additionally indexed by their literal prefix in a trie,
+ * so a URL is only tested against globs whose prefix it starts with; regexes, predicates and globs starting with a
+ * wildcard are tested always. Mutations build a new immutable snapshot, {@link #match} runs lock-free.
+ *
+ * Glob syntax (as in Playwright): {@code *} any characters except {@code /}, {@code **} any characters,
+ * {@code ?} a literal question mark, {@code {a,b}} alternatives, {@code \} escapes the next character.
+ *
+ * @param <T> route value, e.g. the handler
+ */
+public final class RouteMatcher<T> {
+
+    private final Object lock = new Object();
+    private final List<Entry<T>> entries = new ArrayList<Entry<T>>(); // guarded by lock, registration order
+    private long sequence;
+    private volatile Snapshot<T> snapshot = new Snapshot<T>(Collections.<Entry<T>>emptyList());
+
+    /**
+     * @param url {@code String} glob, {@link Pattern} or {@link Predicate Predicate&lt;String&gt;}
+     */
+    public void add(Object url, T value) {
+        Entry<T> entry = new Entry<T>(url, value);
+        synchronized (lock) {
+            entry.sequence = ++sequence;
+            entries.add(entry);
+            snapshot = new Snapshot<T>(entries);
+        }
+    }
+
+    /**
+     * Removes the routes registered for {@code url} whose value satisfies {@code filter} (all if {@code null}).
+     *
+     * @return {@code true} if something was removed
+     */
+    public boolean remove(Object url, Predicate<? super T> filter) {
+        synchronized (lock) {
+            boolean removed = false;
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                Entry<T> e = entries.get(i);
+                if (sameSource(e.source, url) && (filter == null || filter.test(e.value))) {
+                    entries.remove(i);
+                    removed = true;
+                }
+            }
+            if (removed) {
+                snapshot = new Snapshot<T>(entries);
+            }
+            return removed;
+        }
+    }
+
+    /** Removes one specific registration (e.g. a route whose {@code times} is used up). */
+    public boolean removeValue(T value) {
+        synchronized (lock) {
+            boolean removed = false;
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                if (entries.get(i).value == value) {
+                    entries.remove(i);
+                    removed = true;
+                }
+            }
+            if (removed) {
+                snapshot = new Snapshot<T>(entries);
+            }
+            return removed;
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            entries.clear();
+            snapshot = new Snapshot<T>(entries);
+        }
+    }
+
+    public boolean isEmpty() {
+        return snapshot.all.isEmpty();
+    }
+
+    /**
+     * @return Values of all routes matching {@code url}, last registered first (Playwright order)
+     */
+    public List<T> match(String url) {
+        Snapshot<T> s = snapshot;
+        if (s.all.isEmpty() || url == null) {
+            return Collections.emptyList();
+        }
+        List<Entry<T>> candidates = new ArrayList<Entry<T>>();
+        for (Entry<T> e : s.unindexed) {
+            if (e.matches(url)) {
+                candidates.add(e);
+            }
+        }
+        TrieNode<T> node = s.root;
+        for (int i = 0; node != null; i++) {
+            for (Entry<T> e : node.entries) {
+                if (e.matches(url)) {
+                    candidates.add(e);
+                }
+            }
+            node = i < url.length() ? node.children.get(url.charAt(i)) : null;
+        }
+        if (candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Collections.sort(candidates, (a, b) -> Long.compare(b.sequence, a.sequence));
+        List<T> out = new ArrayList<T>(candidates.size());
+        for (Entry<T> e : candidates) {
+            out.add(e.value);
+        }
+        return out;
+    }
+
+    /**
+     * URL patterns for {@code network.addIntercept} that cover every registered route, so requests no route can match
+     * are never blocked in the browser.
+     *
+     * @return Patterns or {@code null} if at least one route cannot be expressed (intercept everything)
+     */
+    public List<WDUrlPattern> interceptPatterns() {
+        Snapshot<T> s = snapshot;
+        Set<String> seen = new LinkedHashSet<String>();
+        List<WDUrlPattern> out = new ArrayList<WDUrlPattern>();
+        for (Entry<T> e : s.all) {
+            if (e.intercept == null) {
+                return null;
+            }
+            if (seen.add(e.interceptKey)) {
+                out.add(e.intercept);
+            }
+        }
+        return out;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /** Playwright glob → regex (whole URL). */
+    public static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder("^");
+        boolean inGroup = false;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '\\' && i + 1 < glob.length()) {
+                appendLiteral(regex, glob.charAt(++i));
+            } else if (c == '*') {
+                boolean deep = i + 1 < glob.length() && glob.charAt(i + 1) == '*';
+                if (deep) {
+                    i++;
+                    regex.append(".*");
+                } else {
+                    regex.append("[^/]*");
+                }
+            } else if (c == '{') {
+                inGroup = true;
+                regex.append("(?:");
+            } else if (c == '}' && inGroup) {
+                inGroup = false;
+                regex.append(')');
+            } else if (c == ',' && inGroup) {
+                regex.append('|');
+            } else {
+                appendLiteral(regex, c);
+            }
+        }
+        return Pattern.compile(regex.append('$').toString());
+    }
+
+    private static void appendLiteral(StringBuilder regex, char c) {
+        if ("\\^$.|?*+()[]{}/".indexOf(c) >= 0) {
+            regex.append('\\');
+        }
+        regex.append(c);
+    }
+
+    /** Literal characters up to the first wildcard, escape or group. */
+    static String literalPrefix(String glob) {
+        int end = 0;
+        while (end < glob.length() && "*{\\".indexOf(glob.charAt(end)) < 0) {
+            end++;
+        }
+        return glob.substring(0, end);
+    }
+
+    /** {@code scheme://host[:port]} part of a glob, if it is free of wildcards. */
+    private static WDUrlPattern toIntercept(String glob) {
+        String prefix = literalPrefix(glob);
+        if (prefix.equals(glob) && prefix.contains("://")) {
+            return new WDUrlPattern.WDUrlPatternString(glob);
+        }
+        int schemeEnd = prefix.indexOf("://");
+        if (schemeEnd <= 0) {
+            return null;
+        }
+        int hostEnd = prefix.indexOf('/', schemeEnd + 3);
+        if (hostEnd < 0) {
+            return null; // Host selbst enthält Wildcards
+        }
+        String protocol = prefix.substring(0, schemeEnd);
+        String authority = prefix.substring(schemeEnd + 3, hostEnd);
+        if (authority.isEmpty() || authority.contains("@") || authority.contains("?")) {
+            return null;
+        }
+        String host = authority;
+        String port = null;
+        int colon = authority.lastIndexOf(':');
+        if (colon > 0 && authority.indexOf(']') < colon) {
+            host = authority.substring(0, colon);
+            port = authority.substring(colon + 1);
+        }
+        return new WDUrlPattern.WDUrlPatternPattern(protocol, host, port, null, null);
+    }
+
+    private static boolean sameSource(Object a, Object b) {
+        if (a instanceof Pattern && b instanceof Pattern) {
+            Pattern p = (Pattern) a;
+            Pattern q = (Pattern) b;
+            return p.pattern().equals(q.pattern()) && p.flags() == q.flags();
+        }
+        return Objects.equals(a, b);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class Entry<T> {
+        final Object source;
+        final T value;
+        final Pattern regex;
+        final Predicate<String> predicate;
+        final String prefix; // null = not indexed
+        final WDUrlPattern intercept;
+        final String interceptKey;
+        long sequence;
+
+        @SuppressWarnings("unchecked")
+        Entry(Object url, T value) {
+            this.source = url;
+            this.value = value;
+            if (url instanceof String) {
+                String glob = (String) url;
+                this.regex = globToRegex(glob);
+                this.predicate = null;
+                String p = literalPrefix(glob);
+                this.prefix = p.isEmpty() ? null : p;
+                this.intercept = toIntercept(glob);
+            } else if (url instanceof Pattern) {
+                this.regex = (Pattern) url;
+                this.predicate = null;
+                this.prefix = null;
+                this.intercept = null;
+            } else if (url instanceof Predicate) {
+                this.regex = null;
+                this.predicate = (Predicate<String>) url;
+                this.prefix = null;
+                this.intercept = null;
+            } else {
+                throw new IllegalArgumentException("Unsupported route url: " + url);
+            }
+            this.interceptKey = intercept instanceof WDUrlPattern.WDUrlPatternString
+                    ? "s:" + ((WDUrlPattern.WDUrlPatternString) intercept).getPattern()
+                    : intercept instanceof WDUrlPattern.WDUrlPatternPattern
+                    ? "p:" + ((WDUrlPattern.WDUrlPatternPattern) intercept).getProtocol() + "://"
+                        + ((WDUrlPattern.WDUrlPatternPattern) intercept).getHostname() + ":"
+                        + ((WDUrlPattern.WDUrlPatternPattern) intercept).getPort()
+                    : null;
+        }
+
+        boolean matches(String url) {
+            if (predicate != null) {
+                return predicate.test(url);
+            }
+            // Pattern.find wie in Playwright (RegExp.test), Globs sind verankert
+            return regex.matcher(url).find();
+        }
+    }
+
+    private static final class TrieNode<T> {
+        final Map<Character, TrieNode<T>> children = new HashMap<Character, TrieNode<T>>();
+        final List<Entry<T>> entries = new ArrayList<Entry<T>>(1);
+    }
+
+    private static final class Snapshot<T> {
+        final List<Entry<T>> all;
+        final List<Entry<T>> unindexed = new ArrayList<Entry<T>>();
+        final TrieNode<T> root = new TrieNode<T>();
+
+        Snapshot(List<Entry<T>> entries) {
+            this.all = new ArrayList<Entry<T>>(entries);
+            for (Entry<T> e : all) {
+                if (e.prefix == null) {
+                    unindexed.add(e);
+                    continue;
+                }
+                TrieNode<T> node = root;
+                for (int i = 0; i < e.prefix.length(); i++) {
+                    char c = e.prefix.charAt(i);
+                    TrieNode<T> child = node.children.get(c);
+                    if (child == null) {
+                        child = new TrieNode<T>();
+                        node.children.put(c, child);
+                    }
+                    node = child;
+                }
+                node.entries.add(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package de.bund.zrb.support;
+
+import com.microsoft.playwright.PlaywrightException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Wandelt Screenshots lokal in ein anderes Format um (PNG → JPEG/WebP).
+ *
+ * Wird gebraucht, wenn der Browser das gewünschte Format nicht liefert (Firefox kennt nur PNG/JPEG) oder wenn
+ * Reports kleinere Bilder wollen. {@link #reencodeAsync} läuft auf einem eigenen Daemon-Thread, damit der
+ * Test-Thread nicht auf ImageIO wartet.
+ */
+public final class ScreenshotEncoder {
+
+    private static final ExecutorService ENCODER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "wd4j-screenshot-encoder");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ScreenshotEncoder() {
+        // Prevent instantiation
+    }
+
+    /**
+     * @param format z.B. {@code png}, {@code jpeg}, {@code webp} oder MIME-Typ {@code image/jpeg}
+     * @return Normalisierter Formatname ({@code jpg} → {@code jpeg}), {@code png} bei {@code null}
+     */
+    public static String normalize(String format) {
+        if (format == null || format.trim().isEmpty()) {
+            return "png";
+        }
+        String f = format.trim().toLowerCase(Locale.ROOT);
+        if (f.startsWith("image/")) {
+            f = f.substring("image/".length());
+        }
+        return "jpg".equals(f) ? "jpeg" : f;
+    }
+
+    /** @return Dateiendung inkl. Punkt, z.B. {@code .jpg} */
+    public static String extension(String format) {
+        String f = normalize(format);
+        return "jpeg".equals(f) ? ".jpg" : "." + f;
+    }
+
+    /**
+     * @return {@code true}, wenn ImageIO einen Writer für das Format hat (WebP nur mit Plugin)
+     */
+    public static boolean canEncode(String format) {
+        return ImageIO.getImageWritersByFormatName(normalize(format)).hasNext();
+    }
+
+    /**
+     * Kodiert das Bild neu.
+     *
+     * @param quality 0..1, nur für verlustbehaftete Formate; {@code null} = Writer-Default
+     * @throws PlaywrightException wenn das Bild nicht gelesen oder das Format nicht geschrieben werden kann
+     */
+    public static void reencode(byte[] image, String format, Float quality, OutputStream out) throws IOException {
+        String target = normalize(format);
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(image));
+        if (source == null) {
+            throw new PlaywrightException("Unsupported screenshot image data");
+        }
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(target);
+        if (!writers.hasNext()) {
+            throw new PlaywrightException("No image writer for format: " + target);
+        }
+        ImageWriter writer = writers.next();
+        // JPEG kann keinen Alphakanal
+        BufferedImage img = "jpeg".equals(target) ? withoutAlpha(source) : source;
+
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (quality != null && param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            String[] types = param.getCompressionTypes();
+            if (types != null && types.length > 0 && param.getCompressionType() == null) {
+                param.setCompressionType(types[0]);
+            }
+            param.setCompressionQuality(Math.max(0f, Math.min(1f, quality)));
+        }
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    public static byte[] reencode(byte[] image, String format, Float quality) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(image.length);
+        try {
+            reencode(image, format, quality, out);
+        } catch (IOException e) {
+            throw new PlaywrightException("Failed to re-encode screenshot as " + normalize(format), e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Kodiert das Bild im Hintergrund neu und schreibt es nach {@code target}.
+     *
+     * @return Future mit {@code target}, schlägt fehl, wenn Kodieren oder Schreiben scheitert
+     */
+    public static CompletableFuture<Path> reencodeAsync(final byte[] image, final String format, final Float quality,
+                                                        final Path target) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (OutputStream out = Files.newOutputStream(target)) {
+                reencode(image, format, quality, out);
+                return target;
+            } catch (IOException e) {
+                throw new PlaywrightException("Failed to write screenshot to: " + target, e);
+            }
+        }, ENCODER);
+    }
+
+    private static BufferedImage withoutAlpha(BufferedImage source) {
+        if (!source.getColorModel().hasAlpha()) {
+            return source;
+        }
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.drawImage(source, 0, 0, java.awt.Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+}
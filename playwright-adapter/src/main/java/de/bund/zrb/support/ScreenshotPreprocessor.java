@@ -1,113 +1,180 @@
 package de.bund.zrb.support;
 
-import com.microsoft.playwright.Locator;
+import de.bund.zrb.WebDriver;
 import de.bund.zrb.type.script.WDEvaluateResult;
+import de.bund.zrb.type.script.WDLocalValue;
+import de.bund.zrb.type.script.WDPrimitiveProtocolValue;
+import de.bund.zrb.type.script.WDRemoteValue;
+import de.bund.zrb.type.script.WDResultOwnership;
+import de.bund.zrb.type.script.WDTarget;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
- * Utility-Klasse für Playwright-ähnliche Screenshot-Preprocessing-Features
- * wie Animationen stoppen, Caret verstecken oder Masken setzen.
- * Alle Methoden sind stateless und können mehrfach verwendet werden.
+ * Playwright-ähnliches Screenshot-Preprocessing: Animationen stoppen, Caret verstecken, Masken setzen.
+ *
+ * Alle angeforderten Schritte laufen in EINEM Skript ({@link #PREPARE}), das anschließend im Browser auf Fonts und
+ * zwei Animation-Frames wartet. Ergebnis ist ein Restore-Token, mit dem genau diese Änderungen wieder entfernt werden
+ * ({@link #restoreAsync}) – ein maskierter, stabiler Screenshot kostet so einen Skript-Aufruf plus die Aufnahme.
  */
 public final class ScreenshotPreprocessor {
 
+    /**
+     * {@code function(animations, caret, masks, maskColor, maxMs)}; masks: Liste aus {@code [kind, query]}
+     * (css/xpath, alle Treffer) oder {@code [x, y, width, height]} (Viewport-Koordinaten).
+     * Liefert das Token oder {@code null}, wenn nichts geändert wurde.
+     */
+    public static final String PREPARE =
+            "function(animations, caret, masks, maskColor, maxMs) {" +
+            "  const token = '__pw_pre_' + Date.now().toString(36) + Math.random().toString(36).slice(2);" +
+            "  const deadline = Date.now() + (typeof maxMs === 'number' ? maxMs : 5000);" +
+            "  const head = document.head || document.documentElement;" +
+            "  let touched = false;" +
+            "  const addStyle = (id, css) => {" +
+            "    const style = document.createElement('style');" +
+            "    style.id = id;" +
+            "    style.setAttribute('data-pw-pre', token);" +
+            "    style.textContent = css;" +
+            "    head.appendChild(style);" +
+            "    touched = true;" +
+            "  };" +
+            "  if (animations) {" +
+            "    addStyle('__playwright_no_animations__'," +
+            "      '*, *::before, *::after { animation: none !important; transition: none !important; }');" +
+            "    try {" +
+            "      if (typeof document.getAnimations === 'function') {" +
+            "        document.getAnimations().forEach(a => {" +
+            "          try {" +
+            "            const t = a.effect && a.effect.getComputedTiming ? a.effect.getComputedTiming() : null;" +
+            "            if (t && t.endTime !== Infinity) a.finish(); else a.cancel();" +
+            "          } catch (_) {}" +
+            "        });" +
+            "      }" +
+            "    } catch (_) {}" +
+            "  }" +
+            "  if (caret) {" +
+            "    addStyle('__playwright_hide_caret__', '* { caret-color: transparent !important; }');" +
+            "  }" +
+            "  if (masks && masks.length) {" +
+            "    const boxes = [];" +
+            "    const add = el => { const r = el.getBoundingClientRect(); boxes.push([r.left, r.top, r.width, r.height]); };" +
+            "    masks.forEach(m => {" +
+            "      try {" +
+            "        if (m.length === 4) { boxes.push(m); return; }" +
+            "        if (m[0] === 'xpath') {" +
+            "          const res = document.evaluate(m[1], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "          for (let i = 0; i < res.snapshotLength; i++) add(res.snapshotItem(i));" +
+            "        } else {" +
+            "          document.querySelectorAll(m[1]).forEach(add);" +
+            "        }" +
+            "      } catch (_) {}" +
+            "    });" +
+            "    const parent = document.body || document.documentElement;" +
+            "    boxes.forEach(b => {" +
+            "      const overlay = document.createElement('div');" +
+            "      overlay.className = '__playwright_mask__';" +
+            "      overlay.setAttribute('data-pw-pre', token);" +
+            "      const s = overlay.style;" +
+            "      s.position = 'absolute';" +
+            "      s.left = (b[0] + window.scrollX) + 'px';" +
+            "      s.top = (b[1] + window.scrollY) + 'px';" +
+            "      s.width = b[2] + 'px';" +
+            "      s.height = b[3] + 'px';" +
+            "      s.backgroundColor = maskColor || '#FF00FF';" +
+            "      s.zIndex = '2147483647';" +
+            "      s.pointerEvents = 'none';" +
+            "      parent.appendChild(overlay);" +
+            "      touched = true;" +
+            "    });" +
+            "  }" +
+            // Settling: Fonts (begrenzt) und danach 2 rAF, damit Styles/Masken gerendert sind
+            "  return new Promise(resolve => {" +
+            "    const finish = () => resolve(touched ? token : null);" +
+            "    const twoRaf = () => {" +
+            "      try {" +
+            "        if (document.visibilityState === 'visible' && typeof requestAnimationFrame === 'function') {" +
+            "          requestAnimationFrame(() => requestAnimationFrame(finish));" +
+            "        } else { setTimeout(finish, 50); }" +
+            "      } catch (_) { setTimeout(finish, 50); }" +
+            "    };" +
+            "    try {" +
+            "      if (document.fonts && document.fonts.ready && typeof document.fonts.ready.then === 'function') {" +
+            "        let settled = false;" +
+            "        const once = () => { if (!settled) { settled = true; clearTimeout(t); twoRaf(); } };" +
+            "        const t = setTimeout(once, Math.max(0, deadline - Date.now()));" +
+            "        document.fonts.ready.then(once, once);" +
+            "      } else { twoRaf(); }" +
+            "    } catch (_) { twoRaf(); }" +
+            "  });" +
+            "}";
+
+    /** {@code function(token)}: entfernt die Änderungen eines Tokens, ohne Token alle Preprocessing-Elemente. */
+    public static final String RESTORE =
+            "function(token) {" +
+            "  const all = '[data-pw-pre], #__playwright_no_animations__, #__playwright_hide_caret__, .__playwright_mask__';" +
+            "  document.querySelectorAll(all).forEach(e => {" +
+            "    if (!token || e.getAttribute('data-pw-pre') === token) e.remove();" +
+            "  });" +
+            "}";
+
     private ScreenshotPreprocessor() {
         // Prevent instantiation
     }
 
     /**
-     * Fügt einen globalen CSS-Block ein, der alle CSS-Animationen & Transitionen deaktiviert.
+     * Wendet alle angeforderten Transformationen in einem Aufruf an und wartet im Browser auf Fonts und Rendering.
      *
-     * @param evaluateFunction Funktion, um JavaScript auszuführen
+     * @param masks Mask-Spezifikationen, siehe {@link #PREPARE}; {@code null} = keine
+     * @param maxMs Obergrenze für das Warten auf {@code document.fonts.ready}
+     * @return Restore-Token oder {@code null}, wenn nichts geändert wurde
+     * @throws RuntimeException wenn das Skript fehlschlägt
      */
-    public static void disableAnimations(Evaluator evaluateFunction) {
-        String script =
-                "(() => {" +
-                        "  const style = document.createElement('style');" +
-                        "  style.id = '__playwright_no_animations__';" +
-                        "  style.innerHTML = '* {" +
-                        "    animation: none !important;" +
-                        "    transition: none !important;" +
-                        "  }';" +
-                        "  document.head.appendChild(style);" +
-                        "})();";
-        evaluateFunction.evaluate(script);
-    }
+    public static String prepare(WebDriver webDriver, WDTarget target, boolean disableAnimations, boolean hideCaret,
+                                 List<List<Object>> masks, String maskColor, long maxMs) {
+        List<WDLocalValue> args = Arrays.asList(
+                WDLocalValue.fromObject(disableAnimations),
+                WDLocalValue.fromObject(hideCaret),
+                WDLocalValue.fromObject(masks != null ? masks : Collections.<List<Object>>emptyList()),
+                WDLocalValue.fromObject(maskColor),
+                WDLocalValue.fromObject(maxMs));
 
-    /**
-     * Fügt einen globalen CSS-Block ein, der den Text-Caret unsichtbar macht.
-     *
-     * @param evaluateFunction Funktion, um JavaScript auszuführen
-     */
-    public static void hideCaret(Evaluator evaluateFunction) {
-        String script =
-                "(() => {" +
-                        "  const style = document.createElement('style');" +
-                        "  style.id = '__playwright_hide_caret__';" +
-                        "  style.innerHTML = '* {" +
-                        "    caret-color: transparent !important;" +
-                        "  }';" +
-                        "  document.head.appendChild(style);" +
-                        "})();";
-        evaluateFunction.evaluate(script);
+        WDEvaluateResult result = webDriver.script().callFunction(
+                PREPARE, true, target, args, null, WDResultOwnership.NONE, null);
+
+        if (result instanceof WDEvaluateResult.WDEvaluateResultError) {
+            throw new RuntimeException("Screenshot preprocessing failed: "
+                    + ((WDEvaluateResult.WDEvaluateResultError) result).getExceptionDetails().getText());
+        }
+        WDRemoteValue value = ((WDEvaluateResult.WDEvaluateResultSuccess) result).getResult();
+        return value instanceof WDPrimitiveProtocolValue.StringValue
+                ? ((WDPrimitiveProtocolValue.StringValue) value).getValue()
+                : null;
     }
 
     /**
-     * Maskiert alle angegebenen Locators mit einer farbigen Overlay-Box.
-     *
-     * @param locators Liste der Locators
-     * @param maskColor CSS-Farbwert (z. B. #FF00FF)
-     * @param evaluateFunction Funktion, um JavaScript auszuführen
+     * Entfernt die Änderungen eines {@link #prepare}-Aufrufs, ohne auf die Antwort zu warten.
+     * Bei {@code token == null} passiert nichts.
      */
-    public static void applyMask(List<Locator> locators, String maskColor, Evaluator evaluateFunction) {
-        if (locators == null || locators.isEmpty()) {
+    public static void restoreAsync(WebDriver webDriver, WDTarget target, String token) {
+        if (token == null) {
             return;
         }
-        String safeMaskColor = maskColor != null ? maskColor : "#FF00FF";
-        for (Locator locator : locators) {
-            String script =
-                    "(() => {" +
-                            "  const el = document.querySelector('" + locator.toString() + "');" +
-                            "  if (!el) return;" +
-                            "  const rect = el.getBoundingClientRect();" +
-                            "  const overlay = document.createElement('div');" +
-                            "  overlay.style.position = 'absolute';" +
-                            "  overlay.style.left = rect.left + window.scrollX + 'px';" +
-                            "  overlay.style.top = rect.top + window.scrollY + 'px';" +
-                            "  overlay.style.width = rect.width + 'px';" +
-                            "  overlay.style.height = rect.height + 'px';" +
-                            "  overlay.style.backgroundColor = '" + safeMaskColor + "';" +
-                            "  overlay.style.zIndex = 2147483647;" +
-                            "  overlay.className = '__playwright_mask__';" +
-                            "  document.body.appendChild(overlay);" +
-                            "})();";
-            evaluateFunction.evaluate(script);
+        try {
+            webDriver.script().callFunctionAsync(RESTORE, false, target,
+                    Collections.singletonList(WDLocalValue.fromObject(token)), null, WDResultOwnership.NONE, null)
+                    .exceptionally(e -> null); // Seite ggf. schon navigiert – nichts mehr zu entfernen
+        } catch (RuntimeException ignored) {
+            // Verbindung weg
         }
     }
 
     /**
-     * Entfernt alle temporären Preprocessing-Styles & Masken.
-     *
-     * @param evaluateFunction Funktion, um JavaScript auszuführen
-     */
-    public static void restore(Evaluator evaluateFunction) {
-        String script =
-                "(() => {" +
-                        "  const s1 = document.getElementById('__playwright_no_animations__');" +
-                        "  if (s1) s1.remove();" +
-                        "  const s2 = document.getElementById('__playwright_hide_caret__');" +
-                        "  if (s2) s2.remove();" +
-                        "  document.querySelectorAll('.__playwright_mask__').forEach(e => e.remove());" +
-                        "})();";
-        evaluateFunction.evaluate(script);
-    }
-
-    /**
-     * Functional Interface für Evaluate-Calls.
+     * Entfernt alle temporären Preprocessing-Styles & Masken (auch die früherer Aufrufe).
      */
-    @FunctionalInterface
-    public interface Evaluator {
-        void evaluate(String script);
+    public static void restoreAll(WebDriver webDriver, WDTarget target) {
+        webDriver.script().callFunction(RESTORE, false, target,
+                Collections.singletonList(WDLocalValue.fromObject(null)), null, WDResultOwnership.NONE, null);
     }
 }
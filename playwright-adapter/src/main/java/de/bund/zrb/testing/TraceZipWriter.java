@@ -0,0 +1,252 @@
+package de.bund.zrb.testing;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import de.bund.zrb.service.WDTraceRecorder;
+import de.bund.zrb.support.TraceRingBuffer;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Turns binary trace records into a Playwright {@code trace.zip} ({@code trace.trace} as JSON lines,
+ * {@code trace.network}, screenshots under {@code resources/}). Runs on the export thread, never on the hot path.
+ */
+final class TraceZipWriter {
+
+    private static final Gson GSON = new Gson();
+    private static final int TRACE_VERSION = 7;
+    private static final int MAX_LOG_CHARS = 2_000;
+
+    /** Metadata of the recorded chunk. */
+    static final class Chunk {
+        String browserName;
+        String title;
+        long wallTime;      // ms since epoch at chunk start
+        long monotonicNanos; // System.nanoTime() at chunk start
+        Path resources;     // screenshots, may be null
+    }
+
+    private TraceZipWriter() {
+    }
+
+    static void write(Path target, Chunk chunk, List<TraceRingBuffer.Record> records) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(target))) {
+            zip.putNextEntry(new ZipEntry("trace.trace"));
+            Writer out = new OutputStreamWriter(zip, StandardCharsets.UTF_8); // nur flushen – schließt sonst den Zip-Stream
+            Map<String, String> resources = writeEvents(out, chunk, records);
+            out.flush();
+            zip.closeEntry();
+
+            zip.putNextEntry(new ZipEntry("trace.network"));
+            zip.closeEntry();
+
+            for (Map.Entry<String, String> resource : resources.entrySet()) {
+                Path file = chunk.resources != null ? chunk.resources.resolve(resource.getKey()) : null;
+                if (file == null || !Files.isRegularFile(file)) {
+                    continue;
+                }
+                zip.putNextEntry(new ZipEntry("resources/" + resource.getKey()));
+                Files.copy(file, zip);
+                zip.closeEntry();
+            }
+        }
+    }
+
+    /** @return Referenced resources (name → pageId) */
+    private static Map<String, String> writeEvents(Writer out, Chunk chunk, List<TraceRingBuffer.Record> records)
+            throws IOException {
+        JsonObject options = new JsonObject();
+        options.addProperty("version", TRACE_VERSION);
+        options.addProperty("type", "context-options");
+        options.addProperty("origin", "library");
+        options.addProperty("browserName", chunk.browserName);
+        options.addProperty("platform", System.getProperty("os.name"));
+        options.addProperty("wallTime", chunk.wallTime);
+        options.addProperty("monotonicTime", millis(chunk.monotonicNanos));
+        options.addProperty("sdkLanguage", "java");
+        if (chunk.title != null) {
+            options.addProperty("title", chunk.title);
+        }
+        options.add("options", new JsonObject());
+        line(out, options);
+
+        Map<String, String> resources = new HashMap<String, String>();
+        Map<Long, String> commandCalls = new HashMap<Long, String>(); // BiDi command id → callId
+        Deque<String> groups = new ArrayDeque<String>();
+        int groupIds = 0;
+
+        for (TraceRingBuffer.Record record : records) {
+            String payload = new String(record.getPayload(), StandardCharsets.UTF_8);
+            double time = millis(record.getNanoTime());
+            JsonObject event = new JsonObject();
+            switch (record.getType()) {
+                case WDTraceRecorder.BEFORE: {
+                    String[] parts = payload.split("\n", 3);
+                    String apiName = parts[0];
+                    int dot = apiName.indexOf('.');
+                    event.addProperty("type", "before");
+                    event.addProperty("callId", callId(record.getCallId()));
+                    event.addProperty("startTime", time);
+                    event.addProperty("apiName", apiName);
+                    event.addProperty("class", dot > 0 ? capitalize(apiName.substring(0, dot)) : "Page");
+                    event.addProperty("method", dot > 0 ? apiName.substring(dot + 1) : apiName);
+                    JsonObject params = new JsonObject();
+                    if (parts.length > 2 && !parts[2].isEmpty()) {
+                        params.addProperty(apiName.startsWith("page.") ? "url" : "selector", parts[2]);
+                    }
+                    event.add("params", params);
+                    if (parts.length > 1 && !parts[1].isEmpty()) {
+                        event.addProperty("pageId", pageId(parts[1]));
+                    }
+                    break;
+                }
+                case WDTraceRecorder.AFTER:
+                    event.addProperty("type", "after");
+                    event.addProperty("callId", callId(record.getCallId()));
+                    event.addProperty("endTime", time);
+                    if (!payload.isEmpty()) {
+                        JsonObject error = new JsonObject();
+                        error.addProperty("message", payload);
+                        event.add("error", error);
+                    }
+                    break;
+                case WDTraceRecorder.GROUP: {
+                    String id = "group@" + (++groupIds);
+                    groups.push(id);
+                    event.addProperty("type", "before");
+                    event.addProperty("callId", id);
+                    event.addProperty("startTime", time);
+                    event.addProperty("apiName", payload);
+                    event.addProperty("class", "Tracing");
+                    event.addProperty("method", "tracingGroup");
+                    event.add("params", new JsonObject());
+                    break;
+                }
+                case WDTraceRecorder.GROUP_END:
+                    if (groups.isEmpty()) {
+                        continue;
+                    }
+                    event.addProperty("type", "after");
+                    event.addProperty("callId", groups.pop());
+                    event.addProperty("endTime", time);
+                    break;
+                case WDTraceRecorder.SCREENSHOT: {
+                    String[] parts = payload.split("\n", 4);
+                    if (parts.length < 4) {
+                        continue;
+                    }
+                    resources.put(parts[1], parts[0]);
+                    event.addProperty("type", "screencast-frame");
+                    event.addProperty("pageId", pageId(parts[0]));
+                    event.addProperty("sha1", parts[1]);
+                    event.addProperty("width", Integer.parseInt(parts[2]));
+                    event.addProperty("height", Integer.parseInt(parts[3]));
+                    event.addProperty("timestamp", time);
+                    break;
+                }
+                case WDTraceRecorder.SENT: {
+                    JsonObject json = parse(payload);
+                    String call = record.getCallId() != 0 ? callId(record.getCallId()) : null;
+                    if (json != null && json.has("id") && json.get("id").isJsonPrimitive() && call != null) {
+                        commandCalls.put(json.get("id").getAsLong(), call);
+                    }
+                    if (call == null) {
+                        continue; // Kommandos außerhalb einer API-Aktion: nur über ihre Antwort sichtbar
+                    }
+                    log(event, call, time, "→ " + abbreviate(payload));
+                    break;
+                }
+                case WDTraceRecorder.RECEIVED: {
+                    JsonObject json = parse(payload);
+                    if (json != null && "event".equals(string(json, "type"))) {
+                        String method = string(json, "method");
+                        int dot = method != null ? method.indexOf('.') : -1;
+                        event.addProperty("type", "event");
+                        event.addProperty("time", time);
+                        event.addProperty("class", dot > 0 ? capitalize(method.substring(0, dot)) : "BiDi");
+                        event.addProperty("method", dot > 0 ? method.substring(dot + 1) : String.valueOf(method));
+                        JsonElement params = json.get("params");
+                        event.add("params", params != null ? params : new JsonObject());
+                    } else {
+                        String call = json != null && json.has("id") && json.get("id").isJsonPrimitive()
+                                ? commandCalls.remove(json.get("id").getAsLong()) : null;
+                        if (call == null) {
+                            continue;
+                        }
+                        log(event, call, time, "← " + abbreviate(payload));
+                    }
+                    break;
+                }
+                default:
+                    continue;
+            }
+            line(out, event);
+        }
+        return resources;
+    }
+
+    private static void log(JsonObject event, String callId, double time, String message) {
+        event.addProperty("type", "log");
+        event.addProperty("callId", callId);
+        event.addProperty("time", time);
+        event.addProperty("message", message);
+    }
+
+    private static JsonObject parse(String json) {
+        try {
+            JsonElement element = JsonParser.parseString(json);
+            return element.isJsonObject() ? element.getAsJsonObject() : null;
+        } catch (RuntimeException e) {
+            return null; // abgeschnittener Record
+        }
+    }
+
+    private static String string(JsonObject json, String key) {
+        JsonElement value = json.get(key);
+        return value instanceof JsonPrimitive ? value.getAsString() : null;
+    }
+
+    private static void line(Writer out, JsonObject event) throws IOException {
+        GSON.toJson(event, out);
+        out.write('\n');
+    }
+
+    private static String callId(int id) {
+        return "call@" + id;
+    }
+
+    static String pageId(String contextId) {
+        return "page@" + contextId;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+
+    private static String capitalize(String s) {
+        return s.isEmpty() ? s : Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    private static String abbreviate(String s) {
+        return s.length() <= MAX_LOG_CHARS ? s : s.substring(0, MAX_LOG_CHARS) + "… (" + s.length() + " chars)";
+    }
+}
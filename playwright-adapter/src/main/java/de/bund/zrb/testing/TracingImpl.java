@@ -1,13 +1,62 @@
 package de.bund.zrb.testing;
 
+import com.microsoft.playwright.PlaywrightException;
 import com.microsoft.playwright.Tracing;
+import de.bund.zrb.WebDriver;
+import de.bund.zrb.service.WDTraceRecorder;
+import de.bund.zrb.support.Base64Streams;
+import de.bund.zrb.support.TraceRingBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
- * NOT IMPLEMENTED YET
+ * Tracing on top of {@link WDTraceRecorder}: BiDi frames and API calls are recorded as binary records into a ring
+ * buffer while the test runs; {@link #stopChunk} copies the chunk out of the buffer and writes a Playwright-compatible
+ * {@code trace.zip} on a background thread ({@link #stop} waits for all pending exports).
+ *
+ * Screenshots ({@code StartOptions.screenshots}) are taken asynchronously after each top-level action, stored as files
+ * and only referenced from the trace records. Snapshots and sources are not supported.
  *
- * Tracing provides the ability to create a trace file that can be opened in the browser's DevTools performance panel.
+ * The recorder belongs to the WebDriver connection, i.e. one trace covers all contexts of the browser.
  */
 public class TracingImpl implements Tracing {
+
+    private static final ExecutorService EXPORTER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "wd4j-trace-exporter");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final long SCREENSHOT_SETTLE_MILLIS = 5_000L;
+    private static final long EXPORT_TIMEOUT_MILLIS = 60_000L;
+
+    private final WebDriver webDriver;
+    private final String browserName;
+
+    // guarded by this
+    private Path resources;
+    private long chunkMark = -1L;
+    private TraceZipWriter.Chunk chunk;
+    private String defaultTitle;
+    private final List<CompletableFuture<?>> pendingScreenshots = new ArrayList<CompletableFuture<?>>();
+    private final List<CompletableFuture<?>> pendingExports = new ArrayList<CompletableFuture<?>>();
+    private final AtomicInteger screenshotIds = new AtomicInteger();
+
+    public TracingImpl(WebDriver webDriver, String browserName) {
+        this.webDriver = webDriver;
+        this.browserName = browserName;
+    }
     /**
      * Start tracing.
      *
@@ -27,7 +76,21 @@ public class TracingImpl implements Tracing {
      */
     @Override
     public void start(StartOptions options) {
-        throw new UnsupportedOperationException("Not implemented yet");
+        WDTraceRecorder recorder = webDriver.trace();
+        synchronized (this) {
+            recorder.start();
+            try {
+                resources = Files.createTempDirectory("wd4j-trace-resources-");
+            } catch (IOException e) {
+                recorder.stop();
+                throw new PlaywrightException("Could not create trace resource directory", e);
+            }
+            if (options != null && Boolean.TRUE.equals(options.screenshots)) {
+                recorder.setAfterCallHook(this::captureScreenshot);
+            }
+            defaultTitle = options != null ? options.title : null;
+            beginChunk(defaultTitle);
+        }
     }
 
     /**
@@ -62,7 +125,12 @@ public class TracingImpl implements Tracing {
      */
     @Override
     public void startChunk(StartChunkOptions options) {
-        throw new UnsupportedOperationException("Not implemented yet");
+        synchronized (this) {
+            if (!webDriver.trace().isRecording()) {
+                throw new PlaywrightException("Tracing must be started before starting a chunk");
+            }
+            beginChunk(options != null && options.title != null ? options.title : defaultTitle);
+        }
     }
 
     /**
@@ -88,7 +156,7 @@ public class TracingImpl implements Tracing {
      */
     @Override
     public void group(String name, GroupOptions options) {
-        throw new UnsupportedOperationException("Not implemented yet");
+        webDriver.trace().group(name);
     }
 
     /**
@@ -98,7 +166,7 @@ public class TracingImpl implements Tracing {
      */
     @Override
     public void groupEnd() {
-        throw new UnsupportedOperationException("Not implemented yet");
+        webDriver.trace().groupEnd();
     }
 
     /**
@@ -109,7 +177,31 @@ public class TracingImpl implements Tracing {
      */
     @Override
     public void stop(StopOptions options) {
-        throw new UnsupportedOperationException("Not implemented yet");
+        List<CompletableFuture<?>> exports;
+        Path dir;
+        synchronized (this) {
+            if (!webDriver.trace().isRecording()) {
+                return;
+            }
+            if (chunkMark >= 0 && options != null && options.path != null) {
+                exportChunk(options.path);
+            }
+            chunkMark = -1L;
+            webDriver.trace().stop();
+            exports = new ArrayList<CompletableFuture<?>>(pendingExports);
+            pendingExports.clear();
+            dir = resources;
+            resources = null;
+        }
+        try {
+            for (CompletableFuture<?> export : exports) {
+                export.get(EXPORT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (Exception e) {
+            throw new PlaywrightException("Writing trace failed", e);
+        } finally {
+            deleteQuietly(dir);
+        }
     }
 
     /**
@@ -121,6 +213,118 @@ public class TracingImpl implements Tracing {
      */
     @Override
     public void stopChunk(StopChunkOptions options) {
-        throw new UnsupportedOperationException("Not implemented yet");
+        synchronized (this) {
+            if (chunkMark < 0) {
+                throw new PlaywrightException("Tracing chunk is not started");
+            }
+            if (options != null && options.path != null) {
+                exportChunk(options.path);
+            }
+            chunkMark = -1L;
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void beginChunk(String title) {
+        chunk = new TraceZipWriter.Chunk();
+        chunk.browserName = browserName;
+        chunk.title = title;
+        chunk.resources = resources;
+        chunk.wallTime = System.currentTimeMillis();
+        chunk.monotonicNanos = System.nanoTime();
+        chunkMark = webDriver.trace().mark();
+    }
+
+    /** Copies the chunk out of the ring buffer (fast) and writes the zip in the background. */
+    private void exportChunk(final Path path) {
+        awaitScreenshots();
+        final List<TraceRingBuffer.Record> records = webDriver.trace().records(chunkMark);
+        final TraceZipWriter.Chunk c = chunk;
+        if (webDriver.trace().getDropped() > 0) {
+            System.out.println("[WARN] Trace ring buffer overflowed, oldest records were dropped"
+                    + " (increase -Dwd4j.trace.bufferMb)");
+        }
+        pendingExports.add(CompletableFuture.runAsync(() -> {
+            try {
+                TraceZipWriter.write(path, c, records);
+            } catch (IOException e) {
+                throw new PlaywrightException("Could not write trace " + path, e);
+            }
+        }, EXPORTER));
+    }
+
+    private void awaitScreenshots() {
+        List<CompletableFuture<?>> pending;
+        synchronized (pendingScreenshots) {
+            pending = new ArrayList<CompletableFuture<?>>(pendingScreenshots);
+            pendingScreenshots.clear();
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]))
+                    .get(SCREENSHOT_SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (Exception ignored) {
+            // fehlende Screenshots machen den Trace nicht unbrauchbar
+        }
+    }
+
+    /** After-call hook: viewport screenshot, stored as file and recorded by reference. */
+    private void captureScreenshot(final int callId, final String contextId) {
+        final Path dir = resources;
+        if (contextId == null || dir == null) {
+            return;
+        }
+        CompletableFuture<?> future = webDriver.browsingContext().captureScreenshotAsync(contextId)
+                .thenAcceptAsync(result -> {
+                    String name = "screenshot-" + screenshotIds.incrementAndGet() + ".png";
+                    Path file = dir.resolve(name);
+                    try {
+                        Base64Streams.decodeToFile(result.getData(), file);
+                        int[] size = pngSize(file);
+                        webDriver.trace().screenshot(callId, contextId, name, size[0], size[1]);
+                    } catch (IOException ignored) {
+                        // Tracing beendet oder Platte voll – Screenshot entfällt
+                    }
+                }, EXPORTER);
+        synchronized (pendingScreenshots) {
+            pendingScreenshots.removeIf(CompletableFuture::isDone);
+            pendingScreenshots.add(future);
+        }
+    }
+
+    /** Width/height from the PNG IHDR chunk. */
+    private static int[] pngSize(Path file) throws IOException {
+        byte[] header = new byte[24];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read = 0;
+            while (read < header.length) {
+                int n = in.read(header, read, header.length - read);
+                if (n < 0) {
+                    return new int[]{0, 0};
+                }
+                read += n;
+            }
+        }
+        return new int[]{readInt(header, 16), readInt(header, 20)};
+    }
+
+    private static int readInt(byte[] b, int off) {
+        return ((b[off] & 0xFF) << 24) | ((b[off + 1] & 0xFF) << 16) | ((b[off + 2] & 0xFF) << 8) | (b[off + 3] & 0xFF);
+    }
+
+    private static void deleteQuietly(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            List<Path> paths = new ArrayList<Path>();
+            files.forEach(paths::add);
+            Collections.reverse(paths);
+            for (Path path : paths) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException ignored) {
+            // temp dir
+        }
     }
 }
@@ -36,4 +36,192 @@ public final class DomScripts {
                     + "    })();"
                     + "  });"
                     + "}";
+
+    /**
+     * Actionability-Runtime: löst den Selektor im Browser auf und wartet dort (rAF, MutationObserver, setTimeout als
+     * Fallback für Hintergrund-Tabs) bis alle geforderten {@code ActionabilityRequirement}s erfüllt sind – ein
+     * einziger BiDi-Call statt locateNodes + evaluate pro Prüfung + Sleep.
+     * Bei Zeiger-Aktionen (STABLE/RECEIVES_EVENTS) wird das Element wie bei {@code scrollIntoViewIfNeeded} in den
+     * Viewport gescrollt und vor der Antwort zwei Animation-Frames abgewartet.
+     *
+     * Argumente: kind ('css' | 'xpath' | null = Element ist {@code this}), query, requirements (Namen), timeout (ms).
+     * Ergebnis: das Element (node) oder ein String: 'detached' bzw. 'timeout: <Grund>'.
+     */
+    public static final String WAIT_FOR_ACTIONABLE =
+            "function(kind, query, requirements, timeout){"
+                    + "  const self=this; const need={};"
+                    + "  for (const r of requirements) need[r]=true;"
+                    + "  const find=()=>{"
+                    + "    if(kind==='css') return document.querySelector(query);"
+                    + "    if(kind==='xpath') return document.evaluate(query,document,null,XPathResult.FIRST_ORDERED_NODE_TYPE,null).singleNodeValue;"
+                    + "    return self;"
+                    + "  };"
+                    + "  let lastRect=null, reason='not attached', scrolled=false;"
+                    + "  const check=()=>{"
+                    + "    const el=find();"
+                    + "    if(!el||!el.isConnected){ lastRect=null; reason='not attached'; return kind?null:'detached'; }"
+                    + "    if(el.nodeType!==1){ reason='not an element'; return null; }"
+                    + "    const r=el.getBoundingClientRect();"
+                    + "    if(need.VISIBLE){"
+                    + "      const s=getComputedStyle(el);"
+                    + "      if(!(r.width>0&&r.height>0&&s.visibility!=='hidden'&&s.display!=='none')){ lastRect=null; reason='not visible'; return null; }"
+                    + "    }"
+                    + "    if(need.ENABLED&&(el.disabled||el.getAttribute('aria-disabled')==='true'||el.closest('fieldset[disabled]'))){ reason='not enabled'; return null; }"
+                    + "    if(need.EDITABLE){"
+                    + "      const field=el instanceof HTMLInputElement||el instanceof HTMLTextAreaElement||el instanceof HTMLSelectElement;"
+                    + "      if(!((field&&!el.readOnly)||el.isContentEditable)){ reason='not editable'; return null; }"
+                    + "    }"
+                    + "    if(need.STABLE||need.RECEIVES_EVENTS){"
+                    + "      if(!scrolled&&(r.top<0||r.left<0||r.bottom>innerHeight||r.right>innerWidth)){"
+                    + "        scrolled=true; el.scrollIntoView({block:'center',inline:'nearest'}); lastRect=null; reason='outside of viewport'; return null;"
+                    + "      }"
+                    + "      const cx=r.left+r.width/2, cy=r.top+r.height/2;"
+                    + "      if(cx<0||cy<0||cx>=innerWidth||cy>=innerHeight){"
+                    + "        el.scrollIntoView({block:'center',inline:'center'}); lastRect=null; reason='outside of viewport'; return null;"
+                    + "      }"
+                    + "    }"
+                    + "    if(need.STABLE){"
+                    + "      const key=r.left+','+r.top+','+r.width+','+r.height;"
+                    + "      if(lastRect!==key){ lastRect=key; reason='not stable'; return null; }"
+                    + "    }"
+                    + "    if(need.RECEIVES_EVENTS){"
+                    + "      const hit=document.elementFromPoint(r.left+r.width/2, r.top+r.height/2);"
+                    + "      if(!hit||!(hit===el||el.contains(hit))){ reason='obscured'+(hit?' by <'+hit.tagName.toLowerCase()+'>':''); return null; }"
+                    + "    }"
+                    + "    return el;"
+                    + "  };"
+                    + "  return new Promise(resolve=>{"
+                    + "    const end=Date.now()+timeout;"
+                    + "    let done=false, settling=false, pending=false, observer=null;"
+                    + "    const finish=v=>{ if(done) return; done=true; if(observer) observer.disconnect(); resolve(v); };"
+                    + "    const settle=el=>{"
+                    + "      if(typeof el==='string'||!(need.STABLE||need.RECEIVES_EVENTS)) return finish(el);"
+                    + "      settling=true; if(observer) observer.disconnect(); observer=null;"
+                    + "      if(document.visibilityState==='visible'&&typeof requestAnimationFrame==='function')"
+                    + "        requestAnimationFrame(()=>requestAnimationFrame(()=>finish(el)));"
+                    + "      else setTimeout(()=>finish(el), 50);"
+                    + "    };"
+                    + "    const tick=()=>{"
+                    + "      if(done||settling) return;"
+                    + "      const res=check();"
+                    + "      if(res) return settle(res);"
+                    + "      if(Date.now()>=end) return finish('timeout: '+reason);"
+                    + "      schedule();"
+                    + "    };"
+                    + "    const schedule=()=>{"
+                    + "      if(pending||done) return; pending=true;"
+                    + "      const run=()=>{ if(!pending) return; pending=false; tick(); };"
+                    + "      if(document.visibilityState==='visible'&&typeof requestAnimationFrame==='function') requestAnimationFrame(run);"
+                    + "      setTimeout(run, 100);"
+                    + "    };"
+                    + "    if(typeof MutationObserver==='function'){"
+                    + "      observer=new MutationObserver(schedule);"
+                    + "      observer.observe(document,{subtree:true,childList:true,attributes:true});"
+                    + "    }"
+                    + "    tick();"
+                    + "  });"
+                    + "}";
+
+    /**
+     * Waits until the DOM changed since a given mutation sequence and returns the current sequence (as string).
+     * Lets Java-side re-checks (e.g. BiDi locateNodes for text/role locators) run on change instead of on a timer.
+     *
+     * One MutationObserver per document counts the changes. The caller reads the sequence before it queries the DOM
+     * and passes it to the next wait, so a change between query and wait resolves the wait at once (no lost wakeup).
+     * {@code since = ''} only arms the observer; a new document (navigation) counts as a change.
+     *
+     * Arguments: since (string), timeout (ms).
+     */
+    public static final String WAIT_FOR_DOM_MUTATION =
+            "function(since, timeout){"
+                    + "  let s=window.__wd4jDomSeq;"
+                    + "  if(!s || s.doc!==document){"
+                    + "    s=window.__wd4jDomSeq={doc:document,n:0,waiters:[]};"
+                    + "    new MutationObserver(()=>{ s.n++; s.waiters.splice(0).forEach(w=>w()); })"
+                    + "      .observe(document,{subtree:true,childList:true,attributes:true,characterData:true});"
+                    + "    if(since!=='') since='stale';"
+                    + "  }"
+                    + "  const cur=()=>String(s.n);"
+                    + "  if(since==='' || since!==cur()) return Promise.resolve(cur());"
+                    + "  return new Promise(resolve=>{"
+                    + "    const done=()=>{ clearTimeout(timer); resolve(cur()); };"
+                    + "    const timer=setTimeout(()=>{ const i=s.waiters.indexOf(done); if(i>=0) s.waiters.splice(i,1); resolve(cur()); }, timeout);"
+                    + "    s.waiters.push(done);"
+                    + "  });"
+                    + "}";
+
+    /**
+     * Wraps a page function so that it is re-evaluated in-page on every animation frame / DOM mutation (100 ms
+     * timer in background tabs) until it returns a truthy value, which is then returned. Rejects on timeout.
+     *
+     * Arguments of the returned declaration: arg (passed to the function), timeout (ms).
+     *
+     * @param pageFunction function declaration, e.g. {@code () => window.ready}
+     */
+    public static String waitForFunction(String pageFunction) {
+        return "function(arg, timeout){"
+                + "  const fn=(" + pageFunction + ");"
+                + "  return new Promise((resolve, reject)=>{"
+                + "    const end=Date.now()+timeout;"
+                + "    let done=false, pending=false, observer=null;"
+                + "    const finish=(ok,v)=>{ if(done) return; done=true; if(observer) observer.disconnect(); ok?resolve(v):reject(v); };"
+                + "    const tick=async()=>{"
+                + "      if(done) return;"
+                + "      let v;"
+                + "      try { v=await fn(arg); } catch(e) { return finish(false,e); }"
+                + "      if(v) return finish(true,v);"
+                + "      if(Date.now()>=end) return finish(false,new Error('waitForFunction: timeout '+timeout+'ms exceeded'));"
+                + "      schedule();"
+                + "    };"
+                + "    const schedule=()=>{"
+                + "      if(pending||done) return; pending=true;"
+                + "      const run=()=>{ if(!pending) return; pending=false; tick(); };"
+                + "      if(document.visibilityState==='visible'&&typeof requestAnimationFrame==='function') requestAnimationFrame(run);"
+                + "      setTimeout(run, Math.min(100, Math.max(0, end-Date.now())));"
+                + "    };"
+                + "    if(typeof MutationObserver==='function'){"
+                + "      observer=new MutationObserver(schedule);"
+                + "      observer.observe(document,{subtree:true,childList:true,attributes:true,characterData:true});"
+                + "    }"
+                + "    tick();"
+                + "  });"
+                + "}";
+    }
+
+    /**
+     * Locator-Auswertung im Browser: CSS/XPath-Query plus {@code FilterOptions}, ohne alle Treffer zu serialisieren.
+     *
+     * Argumente: kind ('css' | 'xpath'), query, filter = [hasText, hasNotText, hasKind, hasQuery, hasNotKind,
+     * hasNotQuery] (jeweils null = kein Filter), limit (max. Anzahl Elemente), countOnly.
+     * Ergebnis: Array der ersten {@code limit} passenden Elemente bzw. deren Gesamtzahl bei countOnly.
+     * Text-Filter vergleichen wie {@code LocatorImpl.applyFilter}: innerText enthält den Text, ohne Groß/Klein.
+     */
+    public static final String FIND_ELEMENTS =
+            "function(kind, query, filter, limit, countOnly){"
+                    + "  const all=(k,q,root)=>{"
+                    + "    if(k==='xpath'){"
+                    + "      const it=document.evaluate(q,root,null,XPathResult.ORDERED_NODE_SNAPSHOT_TYPE,null); const out=[];"
+                    + "      for(let i=0;i<it.snapshotLength;i++) out.push(it.snapshotItem(i));"
+                    + "      return out;"
+                    + "    }"
+                    + "    return Array.from(root.querySelectorAll(q));"
+                    + "  };"
+                    + "  const any=(k,q,root)=>k==='xpath'"
+                    + "    ? !!document.evaluate(q,root,null,XPathResult.FIRST_ORDERED_NODE_TYPE,null).singleNodeValue"
+                    + "    : !!root.querySelector(q);"
+                    + "  const f=filter||[];"
+                    + "  const text=el=>(el.innerText||el.textContent||'').toLowerCase();"
+                    + "  const accept=el=>{"
+                    + "    if(f[0]!=null&&!text(el).includes(String(f[0]).toLowerCase())) return false;"
+                    + "    if(f[1]!=null&&text(el).includes(String(f[1]).toLowerCase())) return false;"
+                    + "    if(f[2]!=null&&!any(f[2],f[3],el)) return false;"
+                    + "    if(f[4]!=null&&any(f[4],f[5],el)) return false;"
+                    + "    return true;"
+                    + "  };"
+                    + "  const candidates=all(kind,query,document);"
+                    + "  if(countOnly){ let n=0; for(const el of candidates) if(accept(el)) n++; return n; }"
+                    + "  const out=[];"
+                    + "  for(const el of candidates){ if(out.length>=limit) break; if(accept(el)) out.push(el); }"
+                    + "  return out;"
+                    + "}";
 }
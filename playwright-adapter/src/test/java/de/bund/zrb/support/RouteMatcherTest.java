@@ -0,0 +1,126 @@
+package de.bund.zrb.support;
+
+import de.bund.zrb.type.network.WDUrlPattern;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouteMatcherTest {
+
+    private static boolean glob(String glob, String url) {
+        return RouteMatcher.globToRegex(glob).matcher(url).find();
+    }
+
+    @Test
+    public void testGlobToRegex() {
+        assertTrue(glob("**/*.png", "https://example.com/img/logo.png"));
+        assertFalse(glob("**/*.png", "https://example.com/img/logo.png?v=1"));
+
+        // * bleibt innerhalb eines Pfadsegments, ** nicht
+        assertTrue(glob("https://example.com/*.js", "https://example.com/app.js"));
+        assertFalse(glob("https://example.com/*.js", "https://example.com/lib/app.js"));
+        assertTrue(glob("https://example.com/**.js", "https://example.com/lib/app.js"));
+
+        // {a,b} Alternativen, ? und . sind Literale, \ escaped
+        assertTrue(glob("**/*.{png,jpg}", "https://example.com/a.jpg"));
+        assertFalse(glob("**/*.{png,jpg}", "https://example.com/a.gif"));
+        assertTrue(glob("**/search?q=*", "https://example.com/search?q=x"));
+        assertFalse(glob("**/search?q=*", "https://example.com/searchXq=x"));
+        assertFalse(glob("**/a.js", "https://example.com/aXjs"));
+        assertTrue(glob("**/\\*.js", "https://example.com/*.js"));
+        assertFalse(glob("**/\\*.js", "https://example.com/app.js"));
+
+        // verankert: ganze URL
+        assertFalse(glob("https://example.com/", "https://example.com/index.html"));
+    }
+
+    @Test
+    public void testLiteralPrefix() {
+        assertEquals("https://example.com/api/", RouteMatcher.literalPrefix("https://example.com/api/*"));
+        assertEquals("https://", RouteMatcher.literalPrefix("https://{a,b}.example.com/"));
+        assertEquals("", RouteMatcher.literalPrefix("**/*.png"));
+        assertEquals("https://example.com/x", RouteMatcher.literalPrefix("https://example.com/x"));
+    }
+
+    @Test
+    public void testMatchUsesPrefixIndexAndReturnsLastRegisteredFirst() {
+        RouteMatcher<String> matcher = new RouteMatcher<String>();
+        matcher.add("https://example.com/api/**", "api");
+        matcher.add("https://example.com/**", "site");
+        matcher.add("https://other.org/**", "other");
+        matcher.add("**/*.json", "json");
+        matcher.add(Pattern.compile("users/\\d+"), "regex");
+        matcher.add((Predicate<String>) url -> url.endsWith("/42"), "predicate");
+
+        assertEquals(Arrays.asList("predicate", "regex", "site", "api"),
+                matcher.match("https://example.com/api/users/42"));
+        assertEquals(Arrays.asList("json", "site"), matcher.match("https://example.com/data.json"));
+        assertEquals(Collections.singletonList("json"), matcher.match("https://cdn.net/data.json"));
+        assertEquals(Collections.singletonList("other"), matcher.match("https://other.org/"));
+        assertEquals(Collections.emptyList(), matcher.match("https://example.co"));
+        assertEquals(Collections.emptyList(), matcher.match(null));
+    }
+
+    @Test
+    public void testRemove() {
+        RouteMatcher<String> matcher = new RouteMatcher<String>();
+        matcher.add("**/*.png", "a");
+        matcher.add("**/*.png", "b");
+        matcher.add(Pattern.compile("x"), "c");
+
+        assertTrue(matcher.remove("**/*.png", "a"::equals));
+        assertEquals(Collections.singletonList("b"), matcher.match("https://e.com/i.png"));
+        assertTrue(matcher.remove(Pattern.compile("x"), null)); // gleicher Ausdruck, andere Instanz
+        assertFalse(matcher.remove("**/*.gif", null));
+        assertTrue(matcher.removeValue("b"));
+        assertTrue(matcher.isEmpty());
+    }
+
+    @Test
+    public void testInterceptPatterns() {
+        RouteMatcher<String> matcher = new RouteMatcher<String>();
+        matcher.add("https://example.com/api/**", "a");
+        matcher.add("https://example.com:8443/**", "b");
+        matcher.add("https://example.com/login", "c");
+        matcher.add("https://example.com/api/*.json", "d"); // gleiches Host-Pattern wie "a"
+
+        List<WDUrlPattern> patterns = matcher.interceptPatterns();
+        assertNotNull(patterns);
+        assertEquals(3, patterns.size());
+
+        WDUrlPattern.WDUrlPatternPattern host = (WDUrlPattern.WDUrlPatternPattern) patterns.get(0);
+        assertEquals("https", host.getProtocol());
+        assertEquals("example.com", host.getHostname());
+        assertNull(host.getPort());
+
+        WDUrlPattern.WDUrlPatternPattern withPort = (WDUrlPattern.WDUrlPatternPattern) patterns.get(1);
+        assertEquals("example.com", withPort.getHostname());
+        assertEquals("8443", withPort.getPort());
+
+        assertEquals("https://example.com/login", ((WDUrlPattern.WDUrlPatternString) patterns.get(2)).getPattern());
+    }
+
+    @Test
+    public void testInterceptPatternsAreNullWhenARouteCannotBeExpressed() {
+        RouteMatcher<String> wildcardHost = new RouteMatcher<String>();
+        wildcardHost.add("https://example.com/**", "a");
+        wildcardHost.add("https://*.example.com/**", "b");
+        assertNull(wildcardHost.interceptPatterns());
+
+        RouteMatcher<String> regex = new RouteMatcher<String>();
+        regex.add(Pattern.compile("\\.png$"), "a");
+        assertNull(regex.interceptPatterns());
+
+        RouteMatcher<String> anyUrl = new RouteMatcher<String>();
+        anyUrl.add("**/*", "a");
+        assertNull(anyUrl.interceptPatterns());
+
+        assertEquals(Collections.emptyList(), new RouteMatcher<String>().interceptPatterns());
+    }
+}
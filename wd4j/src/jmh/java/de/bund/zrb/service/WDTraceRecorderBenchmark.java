@@ -0,0 +1,110 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.WDWebSocketImpl;
+import de.bund.zrb.WDWebSocketManagerImpl;
+import de.bund.zrb.api.WDCommand;
+import de.bund.zrb.api.WebSocketFrame;
+import de.bund.zrb.command.request.WDScriptRequest;
+import de.bund.zrb.type.browsingContext.WDBrowsingContext;
+import de.bund.zrb.type.script.WDTarget;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Per-action overhead of {@link WDTraceRecorder}: one traced API call that sends one command through the
+ * {@link WDWebSocketManagerImpl} and receives its response (the frames of a typical {@code locator.click}), with
+ * tracing off and on. The socket is a stub that drops sent frames and only invokes the frame listeners, so the
+ * difference between both runs is the recorder's own cost (the command's JSON serialization is in both).
+ *
+ * Run with: {@code gradlew :wd4j:jmh -PjmhArgs="WDTraceRecorderBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WDTraceRecorderBenchmark {
+
+    private static final String CONTEXT = "6B1F3E2A-90C4-4C55-9E41-0F2D3C4B5A69";
+    private static final String RESPONSE = "{\"type\":\"success\",\"id\":4711,\"result\":{\"type\":\"success\","
+            + "\"result\":{\"type\":\"undefined\"},\"realm\":\"4a6f1c2e-77d1-4a0b-9b85-3f0c2d1e6a90\"}}";
+
+    @Param({"off", "on"})
+    public String tracing;
+
+    private StubSocket socket;
+    private WDWebSocketManagerImpl manager;
+    private WDTraceRecorder recorder;
+    private WDCommand command;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("deprecation") // WDWebSocketManagerImpl(WDWebSocketImpl) ist der einzige Konstruktor
+    public void setUp() {
+        socket = new StubSocket();
+        manager = new WDWebSocketManagerImpl(socket);
+        manager.setOutboundWriter(null); // direkt senden, ohne Writer-Thread
+        recorder = new WDTraceRecorder(socket, manager);
+        command = new WDScriptRequest.CallFunction("function(el){el.click()}", true,
+                new WDTarget.ContextTarget(new WDBrowsingContext(CONTEXT)));
+        if ("on".equals(tracing)) {
+            recorder.start();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        recorder.stop();
+    }
+
+    @Benchmark
+    public Object tracedAction() {
+        return recorder.call("locator.click", CONTEXT, "#submit", () -> {
+            manager.send(command);
+            socket.receive(RESPONSE);
+            return RESPONSE;
+        });
+    }
+
+    /** Socket without a connection: drops sent frames, delivers injected frames to the listeners. */
+    private static final class StubSocket extends WDWebSocketImpl {
+        final List<Consumer<WebSocketFrame>> received = new CopyOnWriteArrayList<Consumer<WebSocketFrame>>();
+
+        StubSocket() {
+            super(URI.create("ws://localhost:1/session"));
+        }
+
+        @Override public void send(String jsonCommand) { }
+        @Override public void send(List<String> jsonCommands) { }
+        @Override public void onFrameReceived(Consumer<WebSocketFrame> handler) { received.add(handler); }
+        @Override public void offFrameReceived(Consumer<WebSocketFrame> handler) { received.remove(handler); }
+        @Override public boolean isClosed() { return false; }
+
+        void receive(final String text) {
+            WebSocketFrame frame = new WebSocketFrame() {
+                @Override public byte[] binary() { return null; }
+                @Override public String text() { return text; }
+            };
+            for (Consumer<WebSocketFrame> listener : received) {
+                listener.accept(frame);
+            }
+        }
+    }
+}
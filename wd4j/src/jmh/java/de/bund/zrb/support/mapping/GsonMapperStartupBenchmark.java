@@ -0,0 +1,48 @@
+package de.bund.zrb.support.mapping;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reflections.Reflections;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the Gson mapper: compile-time {@link GsonAdapterIndex} vs. the former Reflections classpath scan.
+ * Every measurement runs in a fresh JVM (single shot, no warmup), so class loading is part of the result.
+ * Each fork yields exactly one sample, hence 5 forks instead of the usual {@code @Fork(1)}.
+ *
+ * Run with: {@code gradlew :wd4j:jmh -PjmhArgs=GsonMapperStartupBenchmark}
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class GsonMapperStartupBenchmark {
+
+    @Benchmark
+    public Gson generatedIndex() {
+        return GsonMapperFactory.createGson();
+    }
+
+    @Benchmark
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Gson legacyReflectionsScan() {
+        // Behavior of the former GsonMapperFactory: two full scans of de.bund.zrb
+        GsonBuilder builder = new GsonBuilder();
+        for (Class<? extends StringWrapper> clazz : new Reflections(GsonMapperFactory.PACKAGE).getSubTypesOf(StringWrapper.class)) {
+            builder.registerTypeAdapter(clazz, new StringWrapperAdapter(clazz));
+        }
+        for (Class<? extends EnumWrapper> clazz : new Reflections(GsonMapperFactory.PACKAGE).getSubTypesOf(EnumWrapper.class)) {
+            builder.registerTypeAdapter(clazz, new EnumWrapperAdapter(clazz));
+        }
+        return builder.create();
+    }
+}
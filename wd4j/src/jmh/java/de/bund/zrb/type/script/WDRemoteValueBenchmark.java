@@ -0,0 +1,164 @@
+package de.bund.zrb.type.script;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import de.bund.zrb.support.mapping.EnumWrapper;
+import de.bund.zrb.support.mapping.GsonMapperFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialization of large {@code script.callFunction} results: streaming {@link WDRemoteValueReader} vs. the former
+ * tree-based {@code JsonDeserializer}. Run with {@code -prof gc} to compare allocation per operation.
+ *
+ * Payloads:
+ *  - table: array of 500 row objects with 8 columns (string/number/boolean/null)
+ *  - dom:   serialized DOM subtree (node values with attributes and children, maxDomDepth 6, fan-out 4)
+ *
+ * Run with: {@code gradlew :wd4j:jmh -PjmhArgs="WDRemoteValueBenchmark -prof gc"}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WDRemoteValueBenchmark {
+
+    @Param({"table", "dom"})
+    public String payload;
+
+    private String json;
+    private Gson streaming;
+    private Gson legacy;
+
+    @Setup
+    public void setUp() {
+        this.json = "table".equals(payload) ? table(500, 8) : node(6, 4, new int[]{0}).toString();
+        this.streaming = GsonMapperFactory.getGson();
+        // User registered adapters take precedence over @JsonAdapter on WDRemoteValue
+        this.legacy = GsonMapperFactory.getGson().newBuilder()
+                .registerTypeAdapter(WDRemoteValue.class, new LegacyRemoteValueDeserializer())
+                .create();
+    }
+
+    @Benchmark
+    public WDRemoteValue streamingReader() {
+        return streaming.fromJson(json, WDRemoteValue.class);
+    }
+
+    @Benchmark
+    public WDRemoteValue legacyTreeDeserializer() {
+        return legacy.fromJson(json, WDRemoteValue.class);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Payloads
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static String table(int rows, int columns) {
+        StringBuilder sb = new StringBuilder("{\"type\":\"array\",\"value\":[");
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) sb.append(',');
+            sb.append("{\"type\":\"object\",\"value\":[");
+            for (int c = 0; c < columns; c++) {
+                if (c > 0) sb.append(',');
+                sb.append("[\"column").append(c).append("\",");
+                switch (c % 4) {
+                    case 0:
+                        sb.append("{\"type\":\"string\",\"value\":\"Zeile ").append(r).append(" Spalte ").append(c).append("\"}");
+                        break;
+                    case 1:
+                        sb.append("{\"type\":\"number\",\"value\":").append(r * 31 + c).append(".25}");
+                        break;
+                    case 2:
+                        sb.append("{\"type\":\"boolean\",\"value\":").append(r % 2 == 0).append('}');
+                        break;
+                    default:
+                        sb.append("{\"type\":\"null\"}");
+                }
+                sb.append(']');
+            }
+            sb.append("]}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static StringBuilder node(int depth, int fanOut, int[] counter) {
+        int id = counter[0]++;
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"type\":\"node\",\"sharedId\":\"f.1.d.1.e.").append(id).append("\",\"value\":{")
+                .append("\"nodeType\":1,\"childNodeCount\":").append(depth > 0 ? fanOut : 0)
+                .append(",\"localName\":\"div\",\"namespaceURI\":\"http://www.w3.org/1999/xhtml\"")
+                .append(",\"attributes\":{\"id\":\"n").append(id).append("\",\"class\":\"row cell-").append(id % 7)
+                .append("\",\"data-testid\":\"item-").append(id).append("\"}");
+        if (depth > 0) {
+            sb.append(",\"children\":[");
+            for (int i = 0; i < fanOut; i++) {
+                if (i > 0) sb.append(',');
+                if (depth == 1) {
+                    sb.append("{\"type\":\"node\",\"sharedId\":\"f.1.d.1.e.t").append(counter[0]++)
+                            .append("\",\"value\":{\"nodeType\":3,\"childNodeCount\":0,\"nodeValue\":\"Text ")
+                            .append(i).append("\"}}");
+                } else {
+                    sb.append(node(depth - 1, fanOut, counter));
+                }
+            }
+            sb.append(']');
+        }
+        return sb.append("}}");
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Former WDRemoteValue.WDRemoteValueAdapter (deserialization part)
+    // -----------------------------------------------------------------------------------------------------------------
+
+    static final class LegacyRemoteValueDeserializer implements JsonDeserializer<WDRemoteValue> {
+        @Override
+        public WDRemoteValue deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
+            JsonObject jsonObject = json.getAsJsonObject();
+            String type = jsonObject.get("type").getAsString();
+            if (EnumWrapper.contains(WDPrimitiveProtocolValue.Type.class, type)) {
+                return context.deserialize(jsonObject, WDPrimitiveProtocolValue.class);
+            }
+            switch (type) {
+                case "array":
+                    return context.deserialize(jsonObject, WDRemoteValue.ArrayRemoteValue.class);
+                case "object":
+                    JsonArray valueArray = jsonObject.getAsJsonArray("value");
+                    Map<WDRemoteValue, WDRemoteValue> objectMap = new HashMap<>();
+                    for (JsonElement entry : valueArray) {
+                        JsonArray keyValuePair = entry.getAsJsonArray();
+                        WDRemoteValue key = new WDPrimitiveProtocolValue.StringValue(keyValuePair.get(0).getAsString());
+                        WDRemoteValue value = context.deserialize(keyValuePair.get(1), WDRemoteValue.class);
+                        objectMap.put(key, value);
+                    }
+                    return new WDRemoteValue.ObjectRemoteValue(null, null, objectMap);
+                case "node":
+                    return context.deserialize(jsonObject, WDRemoteValue.NodeRemoteValue.class);
+                default:
+                    throw new JsonParseException("Type not covered by benchmark: " + type);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package de.bund.zrb.websocket;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import de.bund.zrb.api.WDCommandResponse;
+import de.bund.zrb.service.WDEventDispatcher;
+import de.bund.zrb.support.mapping.GsonMapperFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Compares the former double-parse routing (response listener + event listener, error frames parsed a third time)
+ * with the single-pass {@link WDFrameRouter} on recorded frame mixes.
+ *
+ * Run with: {@code gradlew :wd4j:jmh -PjmhArgs=WDFrameRouterBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WDFrameRouterBenchmark {
+
+    @Param({"event-heavy", "response-heavy"})
+    public String mix;
+
+    private final Gson gson = GsonMapperFactory.getGson();
+
+    private List<String> frames;
+    private WDEventDispatcher eventSink;
+    private Consumer<WDCommandResponse<?>> responseSink;
+    private WDFrameRouter router;
+
+    @Setup
+    public void setUp(final Blackhole blackhole) throws IOException {
+        this.frames = readFrames("/frames/" + mix + ".jsonl");
+        this.eventSink = new WDEventDispatcher() {
+            @Override
+            public void processEvent(JsonObject jsonMessage) {
+                blackhole.consume(jsonMessage);
+            }
+        };
+        this.responseSink = new Consumer<WDCommandResponse<?>>() {
+            @Override
+            public void accept(WDCommandResponse<?> response) {
+                blackhole.consume(response);
+            }
+        };
+        this.router = new WDFrameRouter(id -> responseSink);
+        this.router.addEventDispatcher(eventSink);
+    }
+
+    @Benchmark
+    public void singlePassRouter() {
+        for (int i = 0; i < frames.size(); i++) {
+            router.route(frames.get(i));
+        }
+    }
+
+    @Benchmark
+    public void legacyDoubleParse() {
+        for (int i = 0; i < frames.size(); i++) {
+            String text = frames.get(i);
+            legacyResponseListener(text);
+            legacyEventListener(text);
+        }
+    }
+
+    // Behavior of the former WDWebSocketManagerImpl.ensureDispatcherListenerRegistered() listener
+    private void legacyResponseListener(String text) {
+        JsonObject json = gson.fromJson(text, JsonObject.class);
+        if (json == null || !json.has("id")) {
+            return;
+        }
+        final int id = json.get("id").getAsInt();
+        WDCommandResponse<?> response;
+        if (json.has("type") && "error".equals(json.get("type").getAsString())) {
+            // Third parse of the frame (the former reflective mapping is not accessible on Java 9+)
+            JsonObject error = gson.fromJson(text, JsonObject.class);
+            response = new WDErrorResponse(id, error.get("error").getAsString(), error.get("message").getAsString(),
+                    error.has("stacktrace") ? error.get("stacktrace").getAsString() : null);
+        } else {
+            final String type = json.has("type") ? json.get("type").getAsString() : null;
+            final JsonElement resultElement = json.get("result");
+            response = new WDCommandResponse<Object>() {
+                @Override
+                public String getType() {
+                    return type;
+                }
+
+                @Override
+                public int getId() {
+                    return id;
+                }
+
+                @Override
+                public Object getResult() {
+                    return resultElement;
+                }
+            };
+        }
+        responseSink.accept(response);
+    }
+
+    // Behavior of the former WDWebSocketManagerImpl.registerEventListener() listener
+    private void legacyEventListener(String text) {
+        JsonObject json = gson.fromJson(text, JsonObject.class);
+        if (json.has("method")) {
+            eventSink.processEvent(json);
+        }
+    }
+
+    private static List<String> readFrames(String resource) throws IOException {
+        List<String> frames = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                WDFrameRouterBenchmark.class.getResourceAsStream(resource), StandardCharsets.UTF_8));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    frames.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return frames;
+    }
+}
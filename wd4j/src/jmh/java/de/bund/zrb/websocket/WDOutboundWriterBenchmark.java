@@ -0,0 +1,141 @@
+package de.bund.zrb.websocket;
+
+import com.google.gson.Gson;
+import de.bund.zrb.WDWebSocketImpl;
+import de.bund.zrb.api.WDCommand;
+import de.bund.zrb.command.request.WDScriptRequest;
+import de.bund.zrb.support.mapping.GsonMapperFactory;
+import de.bund.zrb.type.browsingContext.WDBrowsingContext;
+import de.bund.zrb.type.script.WDLocalValue;
+import de.bund.zrb.type.script.WDPrimitiveProtocolValue;
+import de.bund.zrb.type.script.WDTarget;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound path under concurrent senders: {@link WDOutboundWriter} (batched, reusable serialization buffer) vs. the
+ * former one {@code gson.toJson} + {@code send} per command. Client and server talk over a loopback WebSocket; the
+ * server only counts frames. Frames per flush are printed at the end of each trial.
+ *
+ * Run with: {@code gradlew :wd4j:jmh -PjmhArgs="WDOutboundWriterBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class WDOutboundWriterBenchmark {
+
+    @Param({"direct", "batched"})
+    public String mode;
+
+    private final Gson gson = GsonMapperFactory.getGson();
+    private CountingServer server;
+    private WDWebSocketImpl webSocket;
+    private WDOutboundWriter writer;
+    private final AtomicLong sent = new AtomicLong();
+
+    private static final int BURST = 16;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new CountingServer();
+        server.start();
+        server.started.await(10, TimeUnit.SECONDS);
+        webSocket = new WDWebSocketImpl(URI.create("ws://127.0.0.1:" + server.getPort()), 60_000.0);
+        writer = "batched".equals(mode) ? new WDOutboundWriter(gson, webSocket::send, null, 32, 0) : null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (writer != null) {
+            writer.close();
+            System.out.printf("%n[batched] flushes=%d frames=%d avg frames/flush=%.2f max=%d%n",
+                    writer.getFlushCount(), writer.getFrameCount(),
+                    writer.getAverageFramesPerFlush(), writer.getMaxFramesPerFlush());
+        }
+        webSocket.close();
+        server.stop(1000);
+    }
+
+    /**
+     * Closed loop: each invocation sends a burst and waits until the server has received everything sent so far,
+     * otherwise the unbounded client write queue would just grow.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void sendBurst() {
+        for (int i = 0; i < BURST; i++) {
+            WDCommand command = new WDScriptRequest.CallFunction(
+                    "(a, b) => a + b", true, new WDTarget.ContextTarget(new WDBrowsingContext("ctx-1")),
+                    Arrays.<WDLocalValue>asList(new WDPrimitiveProtocolValue.StringValue("abc"),
+                            new WDPrimitiveProtocolValue.NumberValue("42")));
+            if (writer != null) {
+                writer.enqueue(command);
+            } else {
+                webSocket.send(gson.toJson(command));
+            }
+        }
+        long target = sent.addAndGet(BURST);
+        while (server.received.get() < target) {
+            Thread.yield();
+        }
+    }
+
+    static final class CountingServer extends WebSocketServer {
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicLong received = new AtomicLong();
+
+        CountingServer() {
+            super(new InetSocketAddress("127.0.0.1", 0));
+            setReuseAddr(true);
+        }
+
+        @Override
+        public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        }
+
+        @Override
+        public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            received.incrementAndGet();
+        }
+
+        @Override
+        public void onError(WebSocket conn, Exception ex) {
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+    }
+}
@@ -3,11 +3,13 @@ package de.bund.zrb;
 import de.bund.zrb.api.WDWebSocket;
 import de.bund.zrb.api.WebSocketFrame;
 import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.framing.Framedata;
 import org.java_websocket.handshake.ServerHandshake;
 
 import java.net.URI;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -18,16 +20,39 @@ import java.util.function.Predicate;
  *
  */
 public class WDWebSocketImpl implements WDWebSocket {
-    private WebSocketClient webSocketClient;
-    private boolean isClosed = false;
+    private volatile WebSocketClient webSocketClient;
+    private volatile boolean isClosed = false;
     private String url;
 
+    // Reconnect bei unerwartetem Verbindungsabbruch, konfigurierbar über System Properties:
+    //  - wd4j.ws.reconnect.maxAttempts (int)  Anzahl Versuche, Default 0 = kein Reconnect
+    //  - wd4j.ws.reconnect.backoffMs   (long) Wartezeit vor dem ersten Versuch (verdoppelt sich), Default 500
+    private static final long MAX_RECONNECT_BACKOFF_MILLIS = 10_000L;
+    private volatile int reconnectMaxAttempts = Integer.getInteger("wd4j.ws.reconnect.maxAttempts", 0);
+    private volatile long reconnectBackoffMillis = Long.getLong("wd4j.ws.reconnect.backoffMs", 500L);
+    private volatile boolean reconnecting = false;
+    private volatile long lastReconnectLatencyMillis = -1L;
+    private final AtomicInteger reconnectCount = new AtomicInteger();
+    private final List<Consumer<WDWebSocketImpl>> onReconnectingListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<WDWebSocketImpl>> onReconnectedListeners = new CopyOnWriteArrayList<>();
+
     private final List<Consumer<WDWebSocket>> onCloseListeners = new CopyOnWriteArrayList<>();
     private final List<Consumer<WebSocketFrame>> onFrameReceivedListeners = new CopyOnWriteArrayList<>();
     private final List<Consumer<WebSocketFrame>> onFrameSentListeners = new CopyOnWriteArrayList<>();
     private final List<Consumer<String>> onSocketErrorListeners = new CopyOnWriteArrayList<>();
     private double timeout = 30_000.0; // in ms
 
+    // Gesetzt, solange der aktuelle Thread einen empfangenen Frame an die Listener verteilt (WebSocket-Lese-Thread)
+    private static final ThreadLocal<Boolean> RECEIVING = new ThreadLocal<Boolean>();
+
+    /**
+     * @return true, wenn der aktuelle Thread gerade einen empfangenen Frame ausliefert. Er darf dann nicht auf eine
+     *         Antwort warten – die müsste er selbst lesen.
+     */
+    public static boolean isReceiveThread() {
+        return RECEIVING.get() != null;
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     /// **WebSocket-Event-Listener**
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -80,6 +105,31 @@ public class WDWebSocketImpl implements WDWebSocket {
         webSocketClient.send(jsonCommand); // Nachricht senden
     }
 
+    /**
+     * Sendet mehrere Nachrichten (je ein Text-Frame) in einem Schreibvorgang an den Client.
+     * Wird vom {@link de.bund.zrb.websocket.WDOutboundWriter} genutzt; Reihenfolge bleibt erhalten.
+     */
+    public void send(List<String> jsonCommands) {
+        if (isClosed) {
+            throw new RuntimeException("Cannot send message: WebSocket is closed.");
+        }
+
+        List<Framedata> frames = new ArrayList<>(jsonCommands.size());
+        for (String jsonCommand : jsonCommands) {
+            frames.addAll(webSocketClient.getDraft().createFrames(jsonCommand, true));
+        }
+        webSocketClient.sendFrame(frames);
+
+        boolean log = Boolean.getBoolean("wd4j.log.websocket");
+        for (String jsonCommand : jsonCommands) {
+            if (log) {
+                System.out.println("[WebSocket] Message sent: " + jsonCommand);
+            }
+            WebSocketFrameImpl frame = new WebSocketFrameImpl(jsonCommand);
+            onFrameSentListeners.forEach(listener -> listener.accept(frame));
+        }
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     /// **WebSocket-Frames Implementierung**
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -124,7 +174,11 @@ public class WDWebSocketImpl implements WDWebSocket {
 
     public WDWebSocketImpl(URI uri) {
         this.url = uri.toString();
-        webSocketClient = new WebSocketClient(uri) {
+        webSocketClient = createClient(uri);
+    }
+
+    private WebSocketClient createClient(URI uri) {
+        return new WebSocketClient(uri) {
             @Override
             public void onOpen(ServerHandshake handshakedata) {
                 if (Boolean.getBoolean("wd4j.log.browser")) {
@@ -140,17 +194,29 @@ public class WDWebSocketImpl implements WDWebSocket {
                 try {
                     WebSocketFrameImpl frame = new WebSocketFrameImpl(message);
 
+                    RECEIVING.set(Boolean.TRUE);
                     onFrameReceivedListeners.forEach(listener -> listener.accept(frame));
                 } catch (Exception e) {
                     onSocketErrorListeners.forEach(listener -> listener.accept("Error processing WebSocket message: " + e.getMessage()));
+                } finally {
+                    RECEIVING.remove();
                 }
             }
 
             @Override
             public void onClose(int code, String reason, boolean remote) {
-                isClosed = true;
+                if (this != webSocketClient) {
+                    return; // Fehlgeschlagener Reconnect-Versuch oder bereits ersetzter Client
+                }
                 System.out.println("WebSocket closed. Code: " + code + ", Reason: " + reason);
 
+                // Unerwarteter Abbruch: Verbindung neu aufbauen statt endgültig zu schließen
+                if (!isClosed && reconnectMaxAttempts > 0) {
+                    startReconnect();
+                    return;
+                }
+                isClosed = true;
+
                 // Alle registrierten `onClose`-Listener mit `this` benachrichtigen
                 onCloseListeners.forEach(listener -> listener.accept(WDWebSocketImpl.this));
             }
@@ -187,6 +253,109 @@ public class WDWebSocketImpl implements WDWebSocket {
         }
     }
 
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    /// **Reconnect**
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Wird aufgerufen, sobald die Verbindung unerwartet abgebrochen ist und ein Reconnect beginnt.
+     * Listener bleiben über den Reconnect hinweg registriert.
+     */
+    public void onReconnecting(Consumer<WDWebSocketImpl> handler) {
+        onReconnectingListeners.add(handler);
+    }
+
+    public void offReconnecting(Consumer<WDWebSocketImpl> handler) {
+        onReconnectingListeners.remove(handler);
+    }
+
+    /**
+     * Wird auf dem Reconnect-Thread aufgerufen, nachdem die neue Verbindung steht (z.B. um Subscriptions zu erneuern).
+     * Schlagen alle Versuche fehl, werden stattdessen die {@link #onClose(Consumer)}-Listener benachrichtigt.
+     */
+    public void onReconnected(Consumer<WDWebSocketImpl> handler) {
+        onReconnectedListeners.add(handler);
+    }
+
+    public void offReconnected(Consumer<WDWebSocketImpl> handler) {
+        onReconnectedListeners.remove(handler);
+    }
+
+    /**
+     * Aktiviert den automatischen Reconnect (überschreibt wd4j.ws.reconnect.*).
+     *
+     * @param maxAttempts   Anzahl Versuche, 0 = kein Reconnect
+     * @param backoffMillis Wartezeit vor dem ersten Versuch, verdoppelt sich pro Versuch (max. 10 s)
+     */
+    public void setReconnectPolicy(int maxAttempts, long backoffMillis) {
+        this.reconnectMaxAttempts = Math.max(0, maxAttempts);
+        this.reconnectBackoffMillis = Math.max(0L, backoffMillis);
+    }
+
+    public boolean isReconnecting() {
+        return reconnecting;
+    }
+
+    /** @return Anzahl erfolgreicher Reconnects */
+    public int getReconnectCount() {
+        return reconnectCount.get();
+    }
+
+    /** @return Dauer vom Verbindungsabbruch bis zur neuen Verbindung beim letzten Reconnect, -1 = noch keiner */
+    public long getLastReconnectLatencyMillis() {
+        return lastReconnectLatencyMillis;
+    }
+
+    private synchronized void startReconnect() {
+        if (reconnecting) {
+            return;
+        }
+        reconnecting = true;
+        final long lostAt = System.currentTimeMillis();
+        onReconnectingListeners.forEach(listener -> listener.accept(this));
+
+        Thread thread = new Thread(() -> reconnect(lostAt), "wd4j-reconnect");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void reconnect(long lostAt) {
+        URI uri = URI.create(url);
+        long backoff = reconnectBackoffMillis;
+        for (int attempt = 1; attempt <= reconnectMaxAttempts && !isClosed; attempt++) {
+            try {
+                Thread.sleep(backoff);
+                WebSocketClient client = createClient(uri);
+                client.setConnectionLostTimeout(webSocketClient.getConnectionLostTimeout());
+                if (client.connectBlocking((long) timeout, TimeUnit.MILLISECONDS)) {
+                    if (isClosed) { // close() während des Verbindungsaufbaus
+                        client.close();
+                        break;
+                    }
+                    webSocketClient = client;
+                    lastReconnectLatencyMillis = System.currentTimeMillis() - lostAt;
+                    reconnectCount.incrementAndGet();
+                    System.out.println("[INFO] WebSocket reconnected after " + lastReconnectLatencyMillis
+                            + " ms (attempt " + attempt + ")");
+                    reconnecting = false;
+                    onReconnectedListeners.forEach(listener -> listener.accept(this));
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                onSocketErrorListeners.forEach(listener -> listener.accept("Reconnect attempt failed: " + e.getMessage()));
+            }
+            System.out.println("[WARN] WebSocket reconnect attempt " + attempt + " failed.");
+            backoff = Math.min(Math.max(backoff * 2, 100L), MAX_RECONNECT_BACKOFF_MILLIS);
+        }
+
+        reconnecting = false;
+        isClosed = true;
+        onCloseListeners.forEach(listener -> listener.accept(WDWebSocketImpl.this));
+    }
+
     public boolean isConnected() {
         return webSocketClient.isOpen();
     }
@@ -2,23 +2,33 @@ package de.bund.zrb;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonSyntaxException;
-import de.bund.zrb.api.WebSocketFrame;
 import de.bund.zrb.service.WDEventDispatcher;
 import de.bund.zrb.support.mapping.GsonMapperFactory;
 import de.bund.zrb.api.WDCommand;
 import de.bund.zrb.api.WDCommandResponse;
+import de.bund.zrb.websocket.WDDeadline;
 import de.bund.zrb.websocket.WDErrorResponse;
+import de.bund.zrb.websocket.WDFrameRouter;
+import de.bund.zrb.websocket.WDOutboundWriter;
+import de.bund.zrb.websocket.WDPendingRequests;
+import de.bund.zrb.websocket.WDTimeoutException;
 import de.bund.zrb.api.WDWebSocketManager;
 
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 public class WDWebSocketManagerImpl implements WDWebSocketManager {
@@ -48,11 +58,58 @@ public class WDWebSocketManagerImpl implements WDWebSocketManager {
                MAX_RETRY_WINDOW_MILLIS != null && MAX_RETRY_WINDOW_MILLIS > 0L;
     }
 
-    // Dispatcher: key = commandId, value = callback for this command
-    private final Map<Integer, Consumer<WDCommandResponse<?>>> responseDispatcher =
-            new ConcurrentHashMap<Integer, Consumer<WDCommandResponse<?>>>();
+    // Timeout pro Command, sofern keine WDDeadline im aufrufenden Thread aktiv ist:
+    //  - wd4j.command.timeoutMs  (long) Default 30000
+    private static final long DEFAULT_TIMEOUT_MILLIS = WDDeadline.DEFAULT_TIMEOUT_MILLIS;
+    // Zusätzliche Wartezeit in await(), damit der Ablauf-Timer (nicht get()) den Timeout meldet
+    private static final long EXPIRY_GRACE_MILLIS = 50L;
+    private static final ScheduledThreadPoolExecutor EXPIRY_TIMER = createExpiryTimer();
+
+    private static ScheduledThreadPoolExecutor createExpiryTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "wd4j-command-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.setRemoveOnCancelPolicy(true); // beantwortete Commands nicht bis zum Ablauf im Timer halten
+        return timer;
+    }
 
-    private volatile boolean dispatcherListenerRegistered = false;
+    // Metrik: Timeouts je BiDi-Methode
+    private final ConcurrentHashMap<String, LongAdder> timeoutsByMethod = new ConcurrentHashMap<String, LongAdder>();
+
+    // Dispatcher: key = commandId (primitiv), value = callback for this command
+    private final WDPendingRequests<Consumer<WDCommandResponse<?>>> responseDispatcher =
+            new WDPendingRequests<Consumer<WDCommandResponse<?>>>();
+
+    // Zentraler Listener: parst jeden Frame genau einmal und verteilt ihn an Dispatcher bzw. Events
+    private final WDFrameRouter frameRouter = new WDFrameRouter(responseDispatcher::get);
+
+    // Optionales Batching ausgehender Commands (wd4j.ws.batch.*), null = ein send() pro Command
+    private volatile WDOutboundWriter outboundWriter;
+
+    // Reconnect (wd4j.ws.reconnect.*, siehe WDWebSocketImpl): Commands ohne Antwort beim Abbruch
+    //  - wd4j.ws.reconnect.inFlight  FAIL (Default): Future schlägt sofort fehl
+    //                                RETRY: nach dem Reconnect erneut senden (nur für idempotente Abläufe sinnvoll)
+    // Während des Reconnects gesendete Commands werden zurückgehalten und danach in Reihenfolge gesendet.
+    private final boolean retryInFlight = "RETRY".equalsIgnoreCase(System.getProperty("wd4j.ws.reconnect.inFlight", "FAIL"));
+    private final Object reconnectLock = new Object();
+    private volatile boolean holding; // guarded by reconnectLock (write)
+    private volatile Thread resumeThread;
+    private final List<WDCommand> heldCommands = new ArrayList<WDCommand>();
+    private final List<PendingCommand<?>> retryAfterReconnect = new ArrayList<PendingCommand<?>>();
+    private final List<Runnable> resumeHandlers = new CopyOnWriteArrayList<Runnable>();
+    private final AtomicLong lostCommands = new AtomicLong();
+    private volatile CommandObserver commandObserver;
+
+    /** Beobachtet ausgehende Commands, z.B. für den Trace-Recorder. */
+    public interface CommandObserver {
+        /** Auf dem aufrufenden Thread, bevor der Command gesendet oder (Reconnect) zurückgehalten wird. */
+        void dispatching(WDCommand command);
+
+        /** Nach dem Schreiben auf den Socket mit dem gesendeten JSON; bei Batching auf dem Thread, der flusht. */
+        void written(WDCommand command, String json);
+    }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -62,6 +119,14 @@ public class WDWebSocketManagerImpl implements WDWebSocketManager {
     @Deprecated // since WebSocketConnection should not be a singleton anymore?
     public WDWebSocketManagerImpl(WDWebSocketImpl webSocket) {
         this.webSocket = webSocket;
+        webSocket.onFrameReceived(frameRouter);
+        this.outboundWriter = WDOutboundWriter.fromSystemProperties(gson, webSocket::send, this::failCommand);
+        if (outboundWriter != null) {
+            outboundWriter.setOnWritten(this::commandWritten);
+        }
+        webSocket.onReconnecting(ws -> onConnectionLost());
+        webSocket.onReconnected(ws -> onConnectionRestored());
+        webSocket.onClose(ws -> onConnectionClosed());
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -72,83 +137,338 @@ public class WDWebSocketManagerImpl implements WDWebSocketManager {
      * @param command Das Command-Objekt, das gesendet werden soll.
      */
     public void send(WDCommand command) {
+        dispatch(command, null);
+    }
+
+    private void dispatch(WDCommand command, PendingCommand<?> pending) {
         if (webSocket.isClosed()) { // ToDo: Find a better solution, the problem is a new connection removes all listeners
             throw new RuntimeException("WebSocket connection is closed. Please reestablish the connection.");
 //            this.webSocket = WebSocketImpl.getInstance();
 //            registerEventListener(eventDispatcher);
         }
+        CommandObserver observer = commandObserver;
+        if (observer != null) {
+            observer.dispatching(command);
+        }
+        if (holding && Thread.currentThread() != resumeThread) {
+            synchronized (reconnectLock) {
+                if (holding) {
+                    heldCommands.add(command); // Reconnect läuft: nach dem Resume senden
+                    return;
+                }
+            }
+        }
+        if (pending != null) {
+            pending.written = true; // zählt ab jetzt als "in flight" für einen Verbindungsabbruch
+        }
+        sendNow(command);
+    }
+
+    private void sendNow(WDCommand command) {
+        WDOutboundWriter writer = outboundWriter;
+        if (writer != null) {
+            writer.enqueue(command); // Serialisierung + Versand gebündelt im Writer
+            return;
+        }
         String jsonCommand = gson.toJson(command);
         webSocket.send(jsonCommand); // Nachricht senden
+        commandWritten(command, jsonCommand);
+    }
+
+    private void commandWritten(Object command, String json) {
+        CommandObserver observer = commandObserver;
+        if (observer != null && command instanceof WDCommand) {
+            observer.written((WDCommand) command, json);
+        }
+    }
+
+    /** Setzt (oder mit {@code null} entfernt) den Beobachter für ausgehende Commands. */
+    public void setCommandObserver(CommandObserver observer) {
+        this.commandObserver = observer;
     }
 
     /**
-     * Sendet einen Befehl und wartet auf die Antwort.
-     * receive nutzt den Dispatcher (Map<id, callback>), um die Antwort zu liefern.
-     *
-     * @param command      Der Befehl, der gesendet wird.
-     * @param responseType Die Klasse des erwarteten DTOs.
-     * @param <T>          Der Typ der Antwort.
-     * @return Ein deserialisiertes DTO der Klasse `T`.
+     * Aktiviert (oder mit {@code null} deaktiviert) das Bündeln ausgehender Commands.
+     * Der bisherige Writer wird geschlossen, noch wartende Commands werden dabei gesendet.
      */
-    public <T> T sendAndWaitForResponse(final WDCommand command, final Type responseType) {
-        final CompletableFuture<WDCommandResponse<?>> future = new CompletableFuture<WDCommandResponse<?>>();
+    public void setOutboundWriter(WDOutboundWriter writer) {
+        WDOutboundWriter previous = this.outboundWriter;
+        if (writer != null) {
+            writer.setOnWritten(this::commandWritten);
+        }
+        this.outboundWriter = writer;
+        if (previous != null && previous != writer) {
+            previous.close();
+        }
+    }
 
-        // Lambda, die auf die finale Antwort reagiert (wird von receive/Dispatcher aufgerufen)
-        receive(command, new Consumer<WDCommandResponse<?>>() {
-            @Override
-            public void accept(WDCommandResponse<?> response) {
-                if (!future.isDone()) {
-                    future.complete(response);
-                }
-            }
-        });
+    /**
+     * Erzeugt einen Writer, der direkt auf diesen WebSocket schreibt und fehlgeschlagene Commands
+     * an das jeweilige Future meldet.
+     */
+    public WDOutboundWriter createOutboundWriter(int maxBatch, long maxDelayMillis) {
+        return new WDOutboundWriter(gson, webSocket::send, this::failCommand, maxBatch, maxDelayMillis);
+    }
 
-        // Befehl senden
-        send(command);
+    /** @return aktiver Writer (für Metriken) oder {@code null}, wenn ohne Batching gesendet wird */
+    public WDOutboundWriter getOutboundWriter() {
+        return outboundWriter;
+    }
 
-        try {
-            WDCommandResponse<?> response = future.get(30, TimeUnit.SECONDS);
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Reconnect
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-            // Fehler: hier prüfen und ggf. Exception werfen
-            if (response instanceof WDErrorResponse) {
-                throw (WDErrorResponse) response;
+    /**
+     * Registriert eine Aktion, die nach einem Reconnect vor allen zurückgehaltenen Commands ausgeführt wird
+     * (z.B. {@code WDSessionManager#resumeSession}). Läuft auf dem Reconnect-Thread und darf blockierend senden.
+     * Wirft ein Handler eine Exception, gilt die Session als nicht wiederhergestellt: zurückgehaltene und zu
+     * wiederholende Commands werden dann mit dieser Ursache abgebrochen statt an eine tote Session gesendet.
+     */
+    public void addResumeHandler(Runnable handler) {
+        resumeHandlers.add(handler);
+    }
+
+    /**
+     * @return Anzahl der Timeouts je BiDi-Methode (Momentaufnahme), z.B. {@code script.callFunction -> 3}
+     */
+    public Map<String, Long> getTimeoutCounts() {
+        Map<String, Long> counts = new TreeMap<String, Long>();
+        for (Map.Entry<String, LongAdder> e : timeoutsByMethod.entrySet()) {
+            counts.put(e.getKey(), e.getValue().sum());
+        }
+        return counts;
+    }
+
+    /** @return Anzahl der Commands, die wegen eines Verbindungsabbruchs ohne Antwort fehlgeschlagen sind */
+    public long getLostCommandCount() {
+        return lostCommands.get();
+    }
+
+    /** @return Anzahl erfolgreicher Reconnects */
+    public int getReconnectCount() {
+        return webSocket.getReconnectCount();
+    }
+
+    /** @return Dauer des letzten Reconnects in ms (Abbruch bis neue Verbindung), -1 = noch keiner */
+    public long getLastReconnectLatencyMillis() {
+        return webSocket.getLastReconnectLatencyMillis();
+    }
+
+    private void onConnectionLost() {
+        synchronized (reconnectLock) {
+            holding = true;
+            final RuntimeException lost = new RuntimeException("WebSocket connection lost before a response was received.");
+            responseDispatcher.forEach(handler -> {
+                if (!(handler instanceof PendingCommand)) {
+                    return;
+                }
+                PendingCommand<?> pending = (PendingCommand<?>) handler;
+                if (!pending.written) {
+                    return; // zurückgehalten oder noch nicht gesendet
+                }
+                if (retryInFlight) {
+                    retryAfterReconnect.add(pending);
+                } else if (pending.completeExceptionally(lost)) {
+                    lostCommands.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private void onConnectionRestored() {
+        RuntimeException resumeFailure = null;
+        resumeThread = Thread.currentThread();
+        try {
+            for (Runnable handler : resumeHandlers) {
+                try {
+                    handler.run();
+                } catch (RuntimeException e) {
+                    System.err.println("[WARN] Resume after reconnect failed: " + e.getMessage());
+                    if (resumeFailure == null) {
+                        resumeFailure = e;
+                    }
+                }
             }
+        } finally {
+            resumeThread = null;
+        }
 
-            // String-Spezialfall: gesamte Response als JSON zurückgeben
-            if (responseType == String.class) {
-                @SuppressWarnings("unchecked")
-                T asString = (T) gson.toJson(response);
-                return asString;
+        synchronized (reconnectLock) {
+            if (resumeFailure != null) {
+                failHeld(new RuntimeException("Session could not be resumed after reconnect: "
+                        + resumeFailure.getMessage(), resumeFailure));
+                return;
             }
+            for (PendingCommand<?> pending : retryAfterReconnect) {
+                if (!pending.isDone()) {
+                    sendHeld(pending.command);
+                }
+            }
+            retryAfterReconnect.clear();
+            for (WDCommand command : heldCommands) {
+                sendHeld(command);
+            }
+            heldCommands.clear();
+            holding = false;
+        }
+    }
 
-            Object result = response.getResult();
-            if (result == null) {
-                throw new RuntimeException("Response does not contain a 'result' field.");
+    // Reconnect endgültig gescheitert (oder close() während des Reconnects)
+    private void onConnectionClosed() {
+        synchronized (reconnectLock) {
+            if (!holding) {
+                return;
             }
+            failHeld(new RuntimeException("WebSocket connection is closed. Please reestablish the connection."));
+        }
+    }
 
-            if (result instanceof JsonElement) {
-                return gson.fromJson((JsonElement) result, responseType);
+    // Aufrufer halten reconnectLock: zurückgehaltene und zu wiederholende Commands abbrechen, Halten beenden
+    private void failHeld(RuntimeException cause) {
+        for (PendingCommand<?> pending : retryAfterReconnect) {
+            if (pending.completeExceptionally(cause)) {
+                lostCommands.incrementAndGet();
             }
+        }
+        retryAfterReconnect.clear();
+        for (WDCommand command : heldCommands) {
+            lostCommands.incrementAndGet();
+            failCommand(command, cause);
+        }
+        heldCommands.clear();
+        holding = false;
+    }
+
+    private void sendHeld(WDCommand command) {
+        Consumer<WDCommandResponse<?>> pending = responseDispatcher.get(command.getId());
+        if (pending instanceof PendingCommand) {
+            ((PendingCommand<?>) pending).written = true;
+        }
+        try {
+            sendNow(command);
+        } catch (RuntimeException e) {
+            failCommand(command, e);
+        }
+    }
+
+    // Schreibfehler eines Batches: offenes Future des Commands sofort fehlschlagen lassen statt Timeout
+    private void failCommand(Object command, RuntimeException e) {
+        if (!(command instanceof WDCommand)) {
+            return;
+        }
+        Consumer<WDCommandResponse<?>> pending = responseDispatcher.get(((WDCommand) command).getId());
+        if (pending instanceof CompletableFuture) {
+            ((CompletableFuture<?>) pending).completeExceptionally(e);
+        } else {
+            System.err.println("[WARN] Failed to send command " + ((WDCommand) command).getId() + ": " + e.getMessage());
+        }
+    }
 
-            // Fallback: map result via JSON
-            return gson.fromJson(gson.toJson(result), responseType);
+    /**
+     * Sendet einen Befehl und wartet auf die Antwort.
+     * Dünner Wrapper über {@link #sendAsync(WDCommand, Type)} und {@link #await(CompletableFuture)}.
+     *
+     * @param command      Der Befehl, der gesendet wird.
+     * @param responseType Die Klasse des erwarteten DTOs.
+     * @param <T>          Der Typ der Antwort.
+     * @return Ein deserialisiertes DTO der Klasse `T`.
+     */
+    public <T> T sendAndWaitForResponse(final WDCommand command, final Type responseType) {
+        return await(this.<T>sendAsync(command, responseType));
+    }
 
+    /**
+     * Sendet einen Befehl, ohne den Aufrufer zu blockieren.
+     * Das Future wird auf dem WebSocket-Thread abgeschlossen: mit dem deserialisierten DTO oder
+     * ausnahmebehaftet mit einer {@link WDErrorResponse}. Ein Abbruch (cancel) entfernt den Eintrag
+     * aus der Dispatcher-Map.
+     *
+     * @param command      Der Befehl, der gesendet wird.
+     * @param responseType Die Klasse des erwarteten DTOs.
+     * @param <T>          Der Typ der Antwort.
+     * @return Future mit dem deserialisierten DTO der Klasse `T`.
+     */
+    @Override
+    public <T> CompletableFuture<T> sendAsync(final WDCommand command, final Type responseType) {
+        // Ein Objekt pro Command: Future und Dispatcher-Callback zugleich
+        WDDeadline deadline = WDDeadline.currentOr(DEFAULT_TIMEOUT_MILLIS);
+        PendingCommand<T> pending = new PendingCommand<T>(command, responseType, deadline);
+        if (deadline.isExpired()) {
+            pending.expire(); // Budget schon verbraucht: gar nicht erst senden
+            return pending;
+        }
+        responseDispatcher.put(pending.commandId, pending);
+        pending.scheduleExpiry();
+
+        try {
+            dispatch(command, pending);
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+        }
+        return pending;
+    }
+
+    /**
+     * Wartet auf ein von {@link #sendAsync(WDCommand, Type)} geliefertes Future, höchstens bis zur Deadline des
+     * Commands. Ohne {@link WDDeadline}-Scope gilt der Standard-Timeout {@code wd4j.command.timeoutMs}.
+     *
+     * @param pending Das Future des gesendeten Befehls.
+     * @param <T>     Der Typ der Antwort.
+     * @return Das deserialisierte DTO.
+     * @throws WDErrorResponse wenn der Browser mit einem Fehler antwortet.
+     * @throws WDTimeoutException wenn die Deadline abläuft.
+     */
+    @Override
+    public <T> T await(CompletableFuture<T> pending) {
+        long waitMillis = (pending instanceof PendingCommand)
+                ? ((PendingCommand<?>) pending).deadline.remainingMillis() + EXPIRY_GRACE_MILLIS
+                : WDDeadline.currentOr(DEFAULT_TIMEOUT_MILLIS).remainingMillis();
+        try {
+            return pending.get(waitMillis, TimeUnit.MILLISECONDS);
         } catch (TimeoutException e) {
-            responseDispatcher.remove(command.getId());
-            throw new RuntimeException("Timeout while waiting for response.", e);
+            pending.cancel(false);
+            String method = (pending instanceof PendingCommand) ? ((PendingCommand<?>) pending).command.getName() : null;
+            throw new WDTimeoutException(method, waitMillis);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            responseDispatcher.remove(command.getId());
+            pending.cancel(false);
             throw new RuntimeException("Interrupted while waiting for response.", e);
         } catch (ExecutionException e) {
-            responseDispatcher.remove(command.getId());
-            if (e.getCause() instanceof WDErrorResponse) {
-                throw (WDErrorResponse) e.getCause();
+            if (e.getCause() instanceof RuntimeException) {
+                // WDErrorResponse, WDTimeoutException und Mapping-Fehler unverändert weiterreichen
+                throw (RuntimeException) e.getCause();
             }
             throw new RuntimeException("Error while waiting for response.", e);
         }
     }
 
+    private <T> T mapResponse(WDCommandResponse<?> response, Type responseType) {
+        // Fehler: hier prüfen und ggf. Exception werfen
+        if (response instanceof WDErrorResponse) {
+            throw (WDErrorResponse) response;
+        }
+
+        // String-Spezialfall: gesamte Response als JSON zurückgeben
+        if (responseType == String.class) {
+            @SuppressWarnings("unchecked")
+            T asString = (T) gson.toJson(response);
+            return asString;
+        }
+
+        Object result = response.getResult();
+        if (result == null) {
+            throw new RuntimeException("Response does not contain a 'result' field.");
+        }
+
+        if (result instanceof JsonElement) {
+            return gson.fromJson((JsonElement) result, responseType);
+        }
+
+        // Fallback: map result via JSON
+        return gson.fromJson(gson.toJson(result), responseType);
+    }
+
     /**
      * Registriert einen Callback in der Dispatcher-Map.
      * Der zentrale WebSocket-Listener ruft diesen Callback anhand der id auf.
@@ -176,28 +496,12 @@ public class WDWebSocketManagerImpl implements WDWebSocketManager {
         Consumer<WDCommandResponse<?>> dispatcherCallback = new Consumer<WDCommandResponse<?>>() {
             @Override
             public void accept(WDCommandResponse<?> response) {
-                // Retry-Handling nur für Errors und nur wenn aktiviert
-                if (response instanceof WDErrorResponse && retryEnabled()) {
-                    long now = System.currentTimeMillis();
-                    long age = now - command.getFirstTimestamp();
-                    int retries = command.getRetryCount();
-
-                    boolean maxCountReached = retries >= MAX_RETRY_COUNT;
-                    boolean maxAgeReached = age >= MAX_RETRY_WINDOW_MILLIS;
-
-                    // Solange nicht beide Limits erreicht → retry und NICHT benachrichtigen
-                    if (!(maxCountReached && maxAgeReached)) {
-                        command.incrementRetryCount();
-                        String retryJson = gson.toJson(command);
-                        webSocket.send(retryJson);
-                        return; // Fehler unterdrücken
-                    }
-                    // An dieser Stelle: finaler Fehler, weiter unten normal behandeln
+                if (retryOnError(command, response)) {
+                    return; // Fehler unterdrücken
                 }
-                // Wenn Retry deaktiviert => sofortiger Fehler-Durchlass
 
                 // Finale Antwort oder finaler Fehler: Dispatcher-Aufräumen
-                responseDispatcher.remove(commandId);
+                responseDispatcher.remove(commandId, this);
 
                 if (responseHandler != null) {
                     responseHandler.accept(response);
@@ -212,107 +516,111 @@ public class WDWebSocketManagerImpl implements WDWebSocketManager {
         // In Sprungtabelle eintragen
         responseDispatcher.put(commandId, dispatcherCallback);
 
-        // Sicherstellen, dass der zentrale Listener registriert ist
-        ensureDispatcherListenerRegistered();
-
         return future;
     }
 
     /**
-     * Registriert einmalig einen zentralen Listener, der alle Frames entgegennimmt
-     * und anhand der id an responseDispatcher verteilt.
+     * Retry-Handling für Fehlerantworten (nur wenn per System Property aktiviert).
+     * Solange NICHT beide Limits erreicht sind, wird der Command erneut gesendet.
+     *
+     * @return {@code true}, wenn der Command erneut gesendet wurde und die Antwort zu unterdrücken ist.
      */
-    private void ensureDispatcherListenerRegistered() {
-        if (dispatcherListenerRegistered) {
-            return;
+    private boolean retryOnError(WDCommand command, WDCommandResponse<?> response) {
+        if (!(response instanceof WDErrorResponse) || !retryEnabled()) {
+            return false; // Wenn Retry deaktiviert => sofortiger Fehler-Durchlass
+        }
+        long age = System.currentTimeMillis() - command.getFirstTimestamp();
+        boolean maxCountReached = command.getRetryCount() >= MAX_RETRY_COUNT;
+        boolean maxAgeReached = age >= MAX_RETRY_WINDOW_MILLIS;
+        if (maxCountReached && maxAgeReached) {
+            return false; // finaler Fehler
+        }
+        command.incrementRetryCount();
+        sendNow(command);
+        return true;
+    }
+
+    /**
+     * Offener Command aus {@link #sendAsync(WDCommand, Type)}: Future und Dispatcher-Callback in einem Objekt,
+     * damit pro Command nur eine Allokation anfällt. Abbruch oder Fehler entfernen den Eintrag aus der Tabelle.
+     */
+    private final class PendingCommand<T> extends CompletableFuture<T> implements Consumer<WDCommandResponse<?>> {
+        private final WDCommand command;
+        private final Type responseType;
+        private final int commandId;
+        private final WDDeadline deadline;
+        private volatile ScheduledFuture<?> expiry;
+        private volatile boolean written; // an den Socket übergeben (nicht zurückgehalten)
+
+        PendingCommand(WDCommand command, Type responseType, WDDeadline deadline) {
+            this.command = command;
+            this.responseType = responseType;
+            this.commandId = command.getId();
+            this.deadline = deadline;
+        }
+
+        void scheduleExpiry() {
+            expiry = EXPIRY_TIMER.schedule(this::expire, deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+            if (isDone()) {
+                cancelExpiry(); // Antwort kam schneller als das Scheduling
+            }
         }
-        synchronized (this) {
-            if (dispatcherListenerRegistered) {
+
+        // Deadline erreicht: Future fehlschlagen lassen und Eintrag aus der Tabelle entfernen
+        void expire() {
+            // Erst zählen, dann abschließen: wartende Aufrufer sehen die Metrik bereits aktualisiert
+            LongAdder timeouts = timeoutsByMethod.computeIfAbsent(command.getName(), k -> new LongAdder());
+            timeouts.increment();
+            if (!completeExceptionally(new WDTimeoutException(command.getName(), deadline.getTimeoutMillis()))) {
+                timeouts.decrement(); // Antwort kam zuvor
+            }
+        }
+
+        private void cancelExpiry() {
+            ScheduledFuture<?> scheduled = expiry;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+
+        @Override
+        public void accept(WDCommandResponse<?> response) {
+            if (retryOnError(command, response)) {
                 return;
             }
+            responseDispatcher.remove(commandId, this);
+            cancelExpiry();
+            try {
+                complete(WDWebSocketManagerImpl.this.<T>mapResponse(response, responseType));
+            } catch (RuntimeException e) {
+                super.completeExceptionally(e);
+            }
+        }
 
-            webSocket.onFrameReceived(new Consumer<WebSocketFrame>() {
-                @Override
-                public void accept(WebSocketFrame frame) {
-                    try {
-                        String text = frame.text();
-                        JsonObject json = gson.fromJson(text, JsonObject.class);
-                        if (json == null || !json.has("id")) {
-                            // Events ohne id werden woanders behandelt (registerEventListener)
-                            return;
-                        }
-
-                        int id = json.get("id").getAsInt();
-                        Consumer<WDCommandResponse<?>> callback = responseDispatcher.get(id);
-                        if (callback == null) {
-                            // Kein wartender Empfänger für diese id
-                            return;
-                        }
-
-                        WDCommandResponse<?> response;
-
-                        if (json.has("type") && "error".equals(json.get("type").getAsString())) {
-                            // Fehlerantwort
-                            response = gson.fromJson(text, WDErrorResponse.class);
-                        } else {
-                            // Generische Response mit type/result
-                            final String type = json.has("type") ? json.get("type").getAsString() : null;
-                            final int responseId = id;
-                            final JsonElement resultElement = json.get("result");
-
-                            response = new WDCommandResponse<Object>() {
-                                @Override
-                                public String getType() {
-                                    return type;
-                                }
-
-                                @Override
-                                public int getId() {
-                                    return responseId;
-                                }
-
-                                @Override
-                                public Object getResult() {
-                                    return resultElement;
-                                }
-                            };
-                        }
-
-                        // Übergabe an den für diese id registrierten Handler
-                        callback.accept(response);
-
-                    } catch (JsonSyntaxException e) {
-                        System.out.println("[ERROR] JSON Parsing-Fehler: " + e.getMessage());
-                    }
-                }
-            });
+        @Override
+        public boolean completeExceptionally(Throwable ex) {
+            responseDispatcher.remove(commandId, this);
+            cancelExpiry();
+            return super.completeExceptionally(ex);
+        }
 
-            dispatcherListenerRegistered = true;
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            responseDispatcher.remove(commandId, this);
+            cancelExpiry();
+            return super.cancel(mayInterruptIfRunning);
         }
     }
 
     /**
      * Registriert einen Event-Listener, der auf eingehende Events reagiert.
+     * Die Frames werden vom gemeinsamen {@link WDFrameRouter} nur einmal geparst.
      *
      * @param eventDispatcher Der EventDispatcher, der die Events verarbeitet.
      */
     @Override
     public void registerEventListener(WDEventDispatcher eventDispatcher) {
-        webSocket.onFrameReceived(frame -> {
-            try {
-                JsonObject json = gson.fromJson(frame.text(), JsonObject.class);
-
-                // Prüfen, ob es sich um ein Event handelt (kein "id"-Feld)
-                if (json.has("method")) {
-                    if (Boolean.getBoolean("wd4j.debug")) {
-                        System.out.println("[DEBUG] WebSocketManager detected event: " + json.get("method").getAsString());
-                    }
-                    eventDispatcher.processEvent(json); // 🔥 Event an Dispatcher weitergeben
-                }
-            } catch (JsonSyntaxException e) {
-                System.err.println("[ERROR] Failed to parse WebSocket event: " + e.getMessage());
-            }
-        });
+        frameRouter.addEventDispatcher(eventDispatcher);
     }
 
     public boolean isConnected() {
@@ -2,12 +2,23 @@ package de.bund.zrb;
 
 import de.bund.zrb.api.WDWebSocketManager;
 import de.bund.zrb.command.response.WDSessionResult;
+import de.bund.zrb.event.WDBrowsingContextEvent;
+import de.bund.zrb.event.WDScriptEvent;
 import de.bund.zrb.manager.*;
 import de.bund.zrb.service.WDEventDispatcher;
+import de.bund.zrb.service.WDContextTree;
+import de.bund.zrb.service.WDRealmIndex;
+import de.bund.zrb.service.WDTraceRecorder;
+import de.bund.zrb.type.browsingContext.WDInfo;
+import de.bund.zrb.type.browsingContext.WDNavigationInfo;
 import de.bund.zrb.type.session.WDSubscription;
 import de.bund.zrb.type.session.WDSubscriptionRequest;
+import de.bund.zrb.websocket.WDEvent;
+import de.bund.zrb.websocket.WDEventNames;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 /**
@@ -43,6 +54,12 @@ public class WebDriver {
 
     private final WDEventDispatcher dispatcher;
 
+    private final WDRealmIndex realms;
+    private final WDContextTree contexts;
+    private final WDTraceRecorder trace;
+    // Abgeschlossen, sobald die Realm-Events abonniert sind; null = noch nicht begonnen
+    private final AtomicReference<CompletableFuture<Void>> realmSubscription = new AtomicReference<CompletableFuture<Void>>();
+
     // ToDo: Use WebSocket Interface instead of WebSocketImpl, here !!!
     public WebDriver(WDWebSocketImpl webSocketImpl) throws ExecutionException, InterruptedException {
         this(webSocketImpl, new WDEventDispatcher());
@@ -50,7 +67,8 @@ public class WebDriver {
 
     // ToDo: Use WebSocket Interface instead of WebSocketImpl, here !!!
     public WebDriver(WDWebSocketImpl webSocketImpl, WDEventDispatcher dispatcher) throws ExecutionException, InterruptedException {
-        this.webSocketManager = new WDWebSocketManagerImpl(webSocketImpl);
+        WDWebSocketManagerImpl webSocketManagerImpl = new WDWebSocketManagerImpl(webSocketImpl);
+        this.webSocketManager = webSocketManagerImpl;
 
         this.browser = new WDBrowserManager(webSocketManager);
         this.session = new WDSessionManager(webSocketManager);
@@ -64,6 +82,98 @@ public class WebDriver {
 
         this.dispatcher = dispatcher;
         webSocketManager.registerEventListener(dispatcher); // 🔥 Events aktivieren!
+        // Nach einem Reconnect (wd4j.ws.reconnect.*) Session prüfen/neu erstellen, dann die Subscriptions erneuern
+        webSocketManagerImpl.addResumeHandler(this::resumeSession);
+        // Realm-Index + Handles folgen script.realmCreated/realmDestroyed, abonniert erst bei Bedarf
+        this.realms = new WDRealmIndex(() -> script.getRealms().getRealms());
+        realms.setOnFirstUse(this::subscribeRealmEvents);
+        webSocketManagerImpl.addResumeHandler(realms::invalidate); // Events während der Unterbrechung verpasst
+        // Context-Baum folgt contextCreated/-Destroyed + Navigation, abonniert erst bei Bedarf
+        this.contexts = new WDContextTree(() -> browsingContext.getTree().getContexts());
+        contexts.setOnFirstUse(this::subscribeContextEvents);
+        webSocketManagerImpl.addResumeHandler(contexts::invalidate);
+        this.trace = new WDTraceRecorder(webSocketImpl, webSocketManagerImpl); // hängt sich erst bei start() an
+        // Handles sterben mit ihrem Realm: ab dem ersten Handle verfolgen (asynchron, da im WebSocket-Thread aufgerufen)
+        script.handles().setOnFirstTrack(() -> CompletableFuture.runAsync(this::subscribeRealmEvents));
+    }
+
+    private void resumeSession() {
+        WDSessionResult.NewResult renewed = session.resumeSession();
+        if (renewed != null) {
+            sessionId = renewed.getSessionId();
+        }
+    }
+
+    /** Abonniert die Realm-Events einmal; weitere Aufrufer warten, bis das Abo steht (sonst Seed vor dem Abo). */
+    private void subscribeRealmEvents() {
+        CompletableFuture<Void> subscribed = new CompletableFuture<Void>();
+        if (!realmSubscription.compareAndSet(null, subscribed)) {
+            realmSubscription.get().join();
+            return;
+        }
+        try {
+            addEventListener(new WDSubscriptionRequest(WDEventNames.REALM_CREATED.getName(), null, null),
+                    (Consumer<Object>) this::onRealmEvent);
+            addEventListener(new WDSubscriptionRequest(WDEventNames.REALM_DESTROYED.getName(), null, null),
+                    (Consumer<Object>) this::onRealmEvent);
+            addEventListener(new WDSubscriptionRequest(WDEventNames.CONTEXT_DESTROYED.getName(), null, null),
+                    (Consumer<Object>) this::onRealmEvent);
+            subscribed.complete(null);
+        } catch (RuntimeException e) {
+            realmSubscription.set(null); // nächster Zugriff versucht es erneut
+            subscribed.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void subscribeContextEvents() {
+        WDEventNames[] events = {
+                WDEventNames.CONTEXT_CREATED, WDEventNames.CONTEXT_DESTROYED, WDEventNames.NAVIGATION_COMMITTED,
+                WDEventNames.FRAGMENT_NAVIGATED, WDEventNames.HISTORY_UPDATED, WDEventNames.LOAD
+        };
+        for (WDEventNames event : events) {
+            addEventListener(new WDSubscriptionRequest(event.getName(), null, null), (Consumer<Object>) this::onContextEvent);
+        }
+    }
+
+    private void onContextEvent(Object event) {
+        if (event instanceof WDBrowsingContextEvent.Created) {
+            contexts.contextCreated(((WDBrowsingContextEvent.Created) event).getParams());
+        } else if (event instanceof WDBrowsingContextEvent.Destroyed) {
+            WDInfo info = ((WDBrowsingContextEvent.Destroyed) event).getParams();
+            if (info != null && info.getContext() != null) {
+                contexts.contextDestroyed(info.getContext().value());
+            }
+        } else if (event instanceof WDBrowsingContextEvent.HistoryUpdated) {
+            WDBrowsingContextEvent.HistoryUpdated.HistoryUpdatedParameters params =
+                    ((WDBrowsingContextEvent.HistoryUpdated) event).getParams();
+            if (params != null && params.getContext() != null) {
+                contexts.navigated(params.getContext().value(), params.getUrl());
+            }
+        } else if (event instanceof WDEvent && ((WDEvent<?>) event).getParams() instanceof WDNavigationInfo) {
+            // navigationCommitted, fragmentNavigated, load
+            WDNavigationInfo info = (WDNavigationInfo) ((WDEvent<?>) event).getParams();
+            if (info.getContext() != null) {
+                contexts.navigated(info.getContext().value(), info.getUrl());
+            }
+        }
+    }
+
+    private void onRealmEvent(Object event) {
+        if (event instanceof WDScriptEvent.RealmCreated) {
+            realms.realmCreated(((WDScriptEvent.RealmCreated) event).getRealmInfo());
+        } else if (event instanceof WDScriptEvent.RealmDestroyed) {
+            WDScriptEvent.RealmDestroyed.RealmDestroyedParameters params = ((WDScriptEvent.RealmDestroyed) event).getParams();
+            if (params != null) {
+                realms.realmDestroyed(params.getRealm());
+                script.handles().realmDestroyed(params.getRealm());
+            }
+        } else if (event instanceof WDBrowsingContextEvent.Destroyed) {
+            WDInfo info = ((WDBrowsingContextEvent.Destroyed) event).getParams();
+            if (info != null && info.getContext() != null) {
+                realms.contextDestroyed(info.getContext().value());
+            }
+        }
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -87,6 +197,27 @@ public class WebDriver {
         return browsingContext;
     }
 
+    /**
+     * @return Index realm → RealmInfo/context, per Events aktuell gehalten (erster Zugriff abonniert die Events)
+     */
+    public WDRealmIndex realms() {
+        return realms;
+    }
+
+    /**
+     * @return Lokaler Spiegel des Browsing-Context-Baums (erster Zugriff abonniert die Events und lädt den Baum)
+     */
+    public WDContextTree contexts() {
+        return contexts;
+    }
+
+    /**
+     * @return Trace-Recorder dieser Verbindung (inaktiv bis {@link WDTraceRecorder#start()})
+     */
+    public WDTraceRecorder trace() {
+        return trace;
+    }
+
     public WDScriptManager script() {
         return script;
     }
@@ -34,6 +34,14 @@ public interface WDCommand extends WDType {
 
     void incrementRetryCount();
 
+    /** Id of the traced API call that issued this command (0 = none); not part of the JSON. */
+    default int getTraceCallId() {
+        return 0;
+    }
+
+    default void setTraceCallId(int callId) {
+    }
+
     /**
      * Interface for command parameters.
      */
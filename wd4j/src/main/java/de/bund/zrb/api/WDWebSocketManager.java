@@ -3,6 +3,7 @@ package de.bund.zrb.api;
 import de.bund.zrb.service.WDEventDispatcher;
 
 import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
 
 public interface WDWebSocketManager {
 
@@ -16,6 +17,29 @@ public interface WDWebSocketManager {
      */
     <T> T sendAndWaitForResponse(WDCommand command, Type responseType);
 
+    /**
+     * Send the given command without blocking the caller.
+     * The future completes on the WebSocket thread, so dependent stages must not block (use the *Async stages with
+     * an executor for blocking work). Cancelling the future releases the pending response slot.
+     *
+     * @param command the command object to send
+     * @param responseType the expected response type (can be Class<T> or any Type)
+     * @param <T> the actual result object inside the WebDriver response wrapper
+     * @return future completed with the deserialized result or exceptionally with a WDErrorResponse
+     */
+    <T> CompletableFuture<T> sendAsync(WDCommand command, Type responseType);
+
+    /**
+     * Wait for a future returned by {@link #sendAsync(WDCommand, Type)} until the command's deadline
+     * (the caller's {@link de.bund.zrb.websocket.WDDeadline} or the default command timeout).
+     * A WDErrorResponse is rethrown unchanged, a timeout cancels the pending command.
+     *
+     * @param pending the pending command result
+     * @param <T> the result type
+     * @return the result object
+     */
+    <T> T await(CompletableFuture<T> pending);
+
     void registerEventListener(WDEventDispatcher eventDispatcher);
 
     /**
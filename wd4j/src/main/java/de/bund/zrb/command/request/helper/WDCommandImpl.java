@@ -2,8 +2,10 @@ package de.bund.zrb.command.request.helper;
 
 import de.bund.zrb.api.WDCommand;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class WDCommandImpl<T extends WDCommand.Params> implements WDCommand {
-    private static int commandCounter = 0; // Zählt Befehle für eindeutige IDs
+    private static final AtomicInteger commandCounter = new AtomicInteger(); // Zählt Befehle für eindeutige IDs
     private final int id;
     private final String method;
     protected T params;
@@ -12,6 +14,9 @@ public class WDCommandImpl<T extends WDCommand.Params> implements WDCommand {
     private final long firstTimestamp = System.currentTimeMillis();
     private int retryCount = 0;
 
+    // Tracing: auslösender API-Aufruf, auf dem aufrufenden Thread gesetzt (transient = nicht im JSON)
+    private transient int traceCallId;
+
     public WDCommandImpl(String method, T params) {
         this.method = method;
         this.params = params;
@@ -42,12 +47,23 @@ public class WDCommandImpl<T extends WDCommand.Params> implements WDCommand {
         retryCount++;
     }
 
+    @Override
+    public int getTraceCallId() {
+        return traceCallId;
+    }
+
+    @Override
+    public void setTraceCallId(int callId) {
+        this.traceCallId = callId;
+    }
+
     /**
      * Gibt eine neue eindeutige Command-ID zurück.
+     * Lock-frei, damit mehrere Test-Threads sich einen Zähler teilen können.
      *
      * @return Eine inkrementelle ID.
      */
-    private synchronized int getNextCommandId() {
-        return ++commandCounter;
+    private static int getNextCommandId() {
+        return commandCounter.incrementAndGet();
     }
 }
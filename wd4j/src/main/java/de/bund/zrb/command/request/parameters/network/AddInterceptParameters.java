@@ -10,16 +10,16 @@ import java.util.List;
 public class AddInterceptParameters implements WDCommand.Params {
     private final List<InterceptPhase> phases;
     private final List<WDBrowsingContext> contexts; //optional
-    private final List<WDUrlPattern> WDUrlPatterns; //optional
+    private final List<WDUrlPattern> urlPatterns; //optional
 
     public AddInterceptParameters(List<InterceptPhase> phases) {
         this(phases, null, null);
     }
 
-    public AddInterceptParameters(List<InterceptPhase> phases, List<WDBrowsingContext> contexts, List<WDUrlPattern> WDUrlPatterns) {
+    public AddInterceptParameters(List<InterceptPhase> phases, List<WDBrowsingContext> contexts, List<WDUrlPattern> urlPatterns) {
         this.phases = phases;
         this.contexts = contexts;
-        this.WDUrlPatterns = WDUrlPatterns;
+        this.urlPatterns = urlPatterns;
     }
 
     public List<InterceptPhase> getPhases() {
@@ -31,7 +31,7 @@ public class AddInterceptParameters implements WDCommand.Params {
     }
 
     public List<WDUrlPattern> getUrlPatterns() {
-        return WDUrlPatterns;
+        return urlPatterns;
     }
 
     public enum InterceptPhase implements EnumWrapper {
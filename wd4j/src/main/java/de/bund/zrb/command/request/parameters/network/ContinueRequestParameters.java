@@ -11,7 +11,7 @@ public class ContinueRequestParameters implements WDCommand.Params {
     private final WDRequest request;
     private final WDBytesValue body; // Optional
     private final List<CookieHeader> cookies; // Optional
-    private final List<WDHeader> WDHeaders; // Optional
+    private final List<WDHeader> headers; // Optional
     private final String method; // Optional
     private final String url;
 
@@ -19,11 +19,11 @@ public class ContinueRequestParameters implements WDCommand.Params {
         this(request, null, null, null, null, null);
     }
 
-    public ContinueRequestParameters(WDRequest request, WDBytesValue body, List<CookieHeader> cookies, List<WDHeader> WDHeaders, String method, String url) {
+    public ContinueRequestParameters(WDRequest request, WDBytesValue body, List<CookieHeader> cookies, List<WDHeader> headers, String method, String url) {
         this.request = request;
         this.body = body;
         this.cookies = cookies;
-        this.WDHeaders = WDHeaders;
+        this.headers = headers;
         this.method = method;
         this.url = url;
     }
@@ -41,7 +41,7 @@ public class ContinueRequestParameters implements WDCommand.Params {
     }
 
     public List<WDHeader> getHeaders() {
-        return WDHeaders;
+        return headers;
     }
 
     public String getMethod() {
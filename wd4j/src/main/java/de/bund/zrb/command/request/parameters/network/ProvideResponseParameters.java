@@ -12,7 +12,7 @@ public class ProvideResponseParameters implements WDCommand.Params {
     private final WDRequest request;
     private final WDBytesValue body; // Optional
     private final List<WDSetCookieHeader> cookies; // Optional
-    private final List<WDHeader> WDHeaders; // Optional
+    private final List<WDHeader> headers; // Optional
     private final String reasonPhrase; // Optional
     private final Integer statusCode; // Optional
 
@@ -24,7 +24,7 @@ public class ProvideResponseParameters implements WDCommand.Params {
         this.request = request;
         this.body = body;
         this.cookies = cookies;
-        this.WDHeaders = headers;
+        this.headers = headers;
         this.reasonPhrase = reasonPhrase;
         this.statusCode = statusCode;
     }
@@ -42,7 +42,7 @@ public class ProvideResponseParameters implements WDCommand.Params {
     }
 
     public List<WDHeader> getHeaders() {
-        return WDHeaders;
+        return headers;
     }
 
     public String getReasonPhrase() {
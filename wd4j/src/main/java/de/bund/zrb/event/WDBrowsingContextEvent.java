@@ -352,7 +352,7 @@ public class WDBrowsingContextEvent implements WDModule {
         public String toString() {
             return "NavigationCommitted{" +
                     "method='" + method + '\'' +
-                    ", params=" + params +
+                    ", params=" + getParams() +
                     '}';
         }
     }
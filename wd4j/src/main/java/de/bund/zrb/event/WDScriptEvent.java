@@ -4,7 +4,9 @@ import com.google.gson.JsonObject;
 import de.bund.zrb.command.request.WDScriptRequest;
 import de.bund.zrb.api.markerInterfaces.WDModule;
 import de.bund.zrb.type.script.WDChannel;
+import de.bund.zrb.support.mapping.GsonMapperFactory;
 import de.bund.zrb.type.script.WDRealm;
+import de.bund.zrb.type.script.WDRealmInfo;
 import de.bund.zrb.type.script.WDRemoteValue;
 import de.bund.zrb.type.script.WDSource;
 import de.bund.zrb.websocket.WDEvent;
@@ -84,8 +86,25 @@ public class WDScriptEvent implements WDModule {
     public static class RealmCreated extends WDEvent<RealmCreated.RealmCreatedParameters> {
         private String method = WDEventNames.REALM_CREATED.getName();
 
+        // script.realmCreated liefert eine vollständige RealmInfo (type, context, owners, ...)
+        private final transient JsonObject rawParams;
+        private transient volatile WDRealmInfo realmInfo;
+
         public RealmCreated(JsonObject json) {
             super(json, RealmCreatedParameters.class);
+            this.rawParams = json;
+        }
+
+        /**
+         * @return Die RealmInfo des neuen Realms (Window-Realm mit Context, Worker mit Owners, ...)
+         */
+        public WDRealmInfo getRealmInfo() {
+            WDRealmInfo result = realmInfo;
+            if (result == null && rawParams != null) {
+                result = GsonMapperFactory.getGson().fromJson(rawParams, WDRealmInfo.class);
+                realmInfo = result;
+            }
+            return result;
         }
 
         @Override
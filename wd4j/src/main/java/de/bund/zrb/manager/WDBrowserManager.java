@@ -8,6 +8,8 @@ import de.bund.zrb.type.browser.WDClientWindowInfo;
 import de.bund.zrb.type.browser.WDUserContextInfo;
 import de.bund.zrb.api.WDWebSocketManager;
 
+import java.util.concurrent.CompletableFuture;
+
 public class WDBrowserManager implements WDModule {
 
     private final WDWebSocketManager WDWebSocketManager;
@@ -29,22 +31,37 @@ public class WDBrowserManager implements WDModule {
      * Closes the browser.
      */
     public void closeBrowser() {
-        WDWebSocketManager.sendAndWaitForResponse(new WDBrowserRequest.Close(), WDEmptyResult.class);
+        WDWebSocketManager.await(closeBrowserAsync());
         System.out.println("Browser closed successfully.");
     }
 
+    /**
+     * Closes the browser without blocking the caller.
+     */
+    public CompletableFuture<WDEmptyResult> closeBrowserAsync() {
+        return WDWebSocketManager.sendAsync(new WDBrowserRequest.Close(), WDEmptyResult.class);
+    }
+
     /**
      * Creates a new user context in the browser aka. a new page in DevTools terminology.
      *
      * @return The created user context DTO.
      */
     public WDUserContextInfo createUserContext() {
-        WDUserContextInfo result =
-                WDWebSocketManager.sendAndWaitForResponse(new WDBrowserRequest.CreateUserContext(), WDUserContextInfo.class);
+        WDUserContextInfo result = WDWebSocketManager.await(createUserContextAsync());
         System.out.println("User context created: " + result.getUserContext().value());
         return result;
     }
 
+    /**
+     * Creates a new user context without blocking the caller.
+     *
+     * @return Future of the created user context DTO.
+     */
+    public CompletableFuture<WDUserContextInfo> createUserContextAsync() {
+        return WDWebSocketManager.sendAsync(new WDBrowserRequest.CreateUserContext(), WDUserContextInfo.class);
+    }
+
     /**
      * Retrieves the client windows of the browser.
      *
@@ -52,13 +69,21 @@ public class WDBrowserManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDBrowserResult.GetClientWindowsResult getClientWindows() {
-        WDBrowserResult.GetClientWindowsResult result =
-                WDWebSocketManager.sendAndWaitForResponse(new WDBrowserRequest.GetClientWindows(), WDBrowserResult.GetClientWindowsResult.class);
+        WDBrowserResult.GetClientWindowsResult result = WDWebSocketManager.await(getClientWindowsAsync());
 
         System.out.println("Client windows retrieved: " + result.getClientWindows());
         return result;
     }
 
+    /**
+     * Retrieves the client windows of the browser without blocking the caller.
+     *
+     * @return Future of the client windows.
+     */
+    public CompletableFuture<WDBrowserResult.GetClientWindowsResult> getClientWindowsAsync() {
+        return WDWebSocketManager.sendAsync(new WDBrowserRequest.GetClientWindows(), WDBrowserResult.GetClientWindowsResult.class);
+    }
+
 
     /**
      * Retrieves the user contexts available in the browser.
@@ -67,13 +92,21 @@ public class WDBrowserManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDBrowserResult.GetUserContextsResult getUserContexts() {
-        WDBrowserResult.GetUserContextsResult result =
-                WDWebSocketManager.sendAndWaitForResponse(new WDBrowserRequest.GetUserContexts(), WDBrowserResult.GetUserContextsResult.class);
+        WDBrowserResult.GetUserContextsResult result = WDWebSocketManager.await(getUserContextsAsync());
 
         System.out.println("User contexts retrieved: " + result.getUserContexts());
         return result;
     }
 
+    /**
+     * Retrieves the user contexts without blocking the caller.
+     *
+     * @return Future of the user contexts.
+     */
+    public CompletableFuture<WDBrowserResult.GetUserContextsResult> getUserContextsAsync() {
+        return WDWebSocketManager.sendAsync(new WDBrowserRequest.GetUserContexts(), WDBrowserResult.GetUserContextsResult.class);
+    }
+
 
     /**
      * Removes a user context from the browser.
@@ -82,10 +115,19 @@ public class WDBrowserManager implements WDModule {
      * @throws RuntimeException if the removal fails.
      */
     public void removeUserContext(String contextId) {
-        WDWebSocketManager.sendAndWaitForResponse(new WDBrowserRequest.RemoveUserContext(contextId), WDEmptyResult.class);
+        WDWebSocketManager.await(removeUserContextAsync(contextId));
         System.out.println("User context removed: " + contextId);
     }
 
+    /**
+     * Removes a user context without blocking the caller.
+     *
+     * @param contextId The ID of the user context to remove.
+     */
+    public CompletableFuture<WDEmptyResult> removeUserContextAsync(String contextId) {
+        return WDWebSocketManager.sendAsync(new WDBrowserRequest.RemoveUserContext(contextId), WDEmptyResult.class);
+    }
+
     /**
      * Sets the state of a client window.
      *
@@ -94,9 +136,19 @@ public class WDBrowserManager implements WDModule {
      * @throws RuntimeException if setting the state fails.
      */
     public WDClientWindowInfo setClientWindowState(String clientWindowId, String state) {
-        WDClientWindowInfo result = WDWebSocketManager.sendAndWaitForResponse(new WDBrowserRequest.SetClientWindowState(clientWindowId, state), WDClientWindowInfo.class);
+        WDClientWindowInfo result = WDWebSocketManager.await(setClientWindowStateAsync(clientWindowId, state));
         System.out.println("Client window state set: " + result.getClientWindow().value());
         return result;
     }
+
+    /**
+     * Sets the state of a client window without blocking the caller.
+     *
+     * @param clientWindowId The ID of the client window.
+     * @param state          The state to set (e.g., "minimized", "maximized").
+     */
+    public CompletableFuture<WDClientWindowInfo> setClientWindowStateAsync(String clientWindowId, String state) {
+        return WDWebSocketManager.sendAsync(new WDBrowserRequest.SetClientWindowState(clientWindowId, state), WDClientWindowInfo.class);
+    }
 }
 
@@ -13,8 +13,13 @@ import de.bund.zrb.type.browsingContext.WDLocator;
 import de.bund.zrb.type.script.WDRemoteReference;
 import de.bund.zrb.type.script.WDSerializationOptions;
 import de.bund.zrb.api.WDWebSocketManager;
+import de.bund.zrb.support.Base64Streams;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class WDBrowsingContextManager implements WDModule {
 
@@ -41,14 +46,28 @@ public class WDBrowsingContextManager implements WDModule {
      */
     // Required for Firefox ESR ?
     public WDBrowsingContextResult.CreateResult create() {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(createAsync());
+    }
+
+    /**
+     * Non-blocking variant of {@link #create()}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.CreateResult> createAsync() {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.Create(CreateType.TAB),
                 WDBrowsingContextResult.CreateResult.class
         );
     }
 
     public WDBrowsingContextResult.CreateResult create(CreateType type, WDBrowsingContext referenceContext, Boolean background, WDUserContext userContext) {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(createAsync(type, referenceContext, background, userContext));
+    }
+
+    /**
+     * Non-blocking variant of {@link #create(CreateType, WDBrowsingContext, Boolean, WDUserContext)}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.CreateResult> createAsync(CreateType type, WDBrowsingContext referenceContext, Boolean background, WDUserContext userContext) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.Create(type, referenceContext, background, userContext),
                 WDBrowsingContextResult.CreateResult.class
         );
@@ -61,14 +80,21 @@ public class WDBrowsingContextManager implements WDModule {
      * @return The response of the navigation command.
      */
     public WDBrowsingContextResult.NavigateResult navigate(String url, String contextId) {
+        return webSocketManager.await(navigateAsync(url, contextId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #navigate(String, String)}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.NavigateResult> navigateAsync(String url, String contextId) {
         if (contextId == null || contextId.isEmpty()) {
-            throw new IllegalStateException("Cannot navigate: contextId is null or empty!");
+            return WDFutures.failed(new IllegalStateException("Cannot navigate: contextId is null or empty!"));
         }
         if (url == null || url.isEmpty()) {
-            throw new IllegalArgumentException("Cannot navigate: URL is null or empty!");
+            return WDFutures.failed(new IllegalArgumentException("Cannot navigate: URL is null or empty!"));
         }
 
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.Navigate(url, contextId),
                 WDBrowsingContextResult.NavigateResult.class
         );
@@ -76,28 +102,56 @@ public class WDBrowsingContextManager implements WDModule {
 
 
     public WDBrowsingContextResult.GetTreeResult getTree() {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(getTreeAsync());
+    }
+
+    /**
+     * Non-blocking variant of {@link #getTree()}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.GetTreeResult> getTreeAsync() {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.GetTree(),
                 WDBrowsingContextResult.GetTreeResult.class
         );
     }
 
     public WDBrowsingContextResult.GetTreeResult getTree(String browsingContextId) {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(getTreeAsync(browsingContextId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getTree(String)}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.GetTreeResult> getTreeAsync(String browsingContextId) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.GetTree(new WDBrowsingContext(browsingContextId)),
                 WDBrowsingContextResult.GetTreeResult.class
         );
     }
 
     public WDBrowsingContextResult.GetTreeResult getTree(WDBrowsingContext context) {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(getTreeAsync(context));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getTree(WDBrowsingContext)}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.GetTreeResult> getTreeAsync(WDBrowsingContext context) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.GetTree(context),
                 WDBrowsingContextResult.GetTreeResult.class
         );
     }
 
     public WDBrowsingContextResult.GetTreeResult getTree(WDBrowsingContext context, Long depth) {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(getTreeAsync(context, depth));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getTree(WDBrowsingContext, Long)}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.GetTreeResult> getTreeAsync(WDBrowsingContext context, Long depth) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.GetTree(context, depth),
                 WDBrowsingContextResult.GetTreeResult.class
         );
@@ -110,7 +164,14 @@ public class WDBrowsingContextManager implements WDModule {
      * @throws RuntimeException if the activation fails.
      */
     public void activate(String contextId) {
-        webSocketManager.sendAndWaitForResponse(
+        webSocketManager.await(activateAsync(contextId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #activate(String)}.
+     */
+    public CompletableFuture<WDEmptyResult> activateAsync(String contextId) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.Activate(contextId),
                 WDEmptyResult.class
         );
@@ -124,7 +185,14 @@ public class WDBrowsingContextManager implements WDModule {
      * @return The screenshot as a base64-encoded string.
      */
     public WDBrowsingContextResult.CaptureScreenshotResult captureScreenshot(String contextId) {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(captureScreenshotAsync(contextId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #captureScreenshot(String)}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.CaptureScreenshotResult> captureScreenshotAsync(String contextId) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.CaptureScreenshot(contextId),
                 WDBrowsingContextResult.CaptureScreenshotResult.class
         );
@@ -137,12 +205,40 @@ public class WDBrowsingContextManager implements WDModule {
      * @return The screenshot as a base64-encoded string.
      */
     public WDBrowsingContextResult.CaptureScreenshotResult captureScreenshot(WDBrowsingContext context, CaptureScreenshotParameters.Origin origin, CaptureScreenshotParameters.ImageFormat format, CaptureScreenshotParameters.ClipRectangle clip) {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(captureScreenshotAsync(context, origin, format, clip));
+    }
+
+    /**
+     * Non-blocking variant of {@link #captureScreenshot(WDBrowsingContext, CaptureScreenshotParameters.Origin, CaptureScreenshotParameters.ImageFormat, CaptureScreenshotParameters.ClipRectangle)}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.CaptureScreenshotResult> captureScreenshotAsync(WDBrowsingContext context, CaptureScreenshotParameters.Origin origin, CaptureScreenshotParameters.ImageFormat format, CaptureScreenshotParameters.ClipRectangle clip) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.CaptureScreenshot(context, origin, format, clip),
                 WDBrowsingContextResult.CaptureScreenshotResult.class
         );
     }
 
+    /**
+     * Captures a screenshot and decodes it chunk by chunk into {@code out}, without building the decoded image as
+     * {@code byte[]}.
+     *
+     * @return Number of image bytes written
+     * @throws IOException if writing to {@code out} fails
+     */
+    public long captureScreenshotTo(WDBrowsingContext context, CaptureScreenshotParameters.Origin origin, CaptureScreenshotParameters.ImageFormat format, CaptureScreenshotParameters.ClipRectangle clip, OutputStream out) throws IOException {
+        return Base64Streams.decode(captureScreenshot(context, origin, format, clip).getData(), out);
+    }
+
+    /**
+     * Captures a screenshot and decodes it directly into {@code file} (via {@link java.nio.channels.FileChannel}).
+     *
+     * @return Number of image bytes written
+     * @throws IOException if writing the file fails
+     */
+    public long captureScreenshotTo(WDBrowsingContext context, CaptureScreenshotParameters.Origin origin, CaptureScreenshotParameters.ImageFormat format, CaptureScreenshotParameters.ClipRectangle clip, Path file) throws IOException {
+        return Base64Streams.decodeToFile(captureScreenshot(context, origin, format, clip).getData(), file);
+    }
+
     /**
      * Closes the given browsing context.
      *
@@ -150,7 +246,14 @@ public class WDBrowsingContextManager implements WDModule {
      * @throws RuntimeException if the close operation fails.
      */
     public void close(String contextId) {
-        webSocketManager.sendAndWaitForResponse(
+        webSocketManager.await(closeAsync(contextId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #close(String)}.
+     */
+    public CompletableFuture<WDEmptyResult> closeAsync(String contextId) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.Close(contextId, null),
                 WDEmptyResult.class
         );
@@ -164,7 +267,14 @@ public class WDBrowsingContextManager implements WDModule {
      * @throws RuntimeException if the close operation fails.
      */
     public void close(String contextId, Boolean prompt) {
-        webSocketManager.sendAndWaitForResponse(
+        webSocketManager.await(closeAsync(contextId, prompt));
+    }
+
+    /**
+     * Non-blocking variant of {@link #close(String, Boolean)}.
+     */
+    public CompletableFuture<WDEmptyResult> closeAsync(String contextId, Boolean prompt) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.Close(contextId, prompt),
                 WDEmptyResult.class
         );
@@ -180,7 +290,14 @@ public class WDBrowsingContextManager implements WDModule {
      * @throws RuntimeException if handling the prompt fails.
      */
     public void handleUserPrompt(String contextId, Boolean accept, String userText) {
-        webSocketManager.sendAndWaitForResponse(
+        webSocketManager.await(handleUserPromptAsync(contextId, accept, userText));
+    }
+
+    /**
+     * Non-blocking variant of {@link #handleUserPrompt(String, Boolean, String)}.
+     */
+    public CompletableFuture<WDEmptyResult> handleUserPromptAsync(String contextId, Boolean accept, String userText) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.HandleUserPrompt(contextId, accept, userText),
                 WDEmptyResult.class
         );
@@ -194,7 +311,14 @@ public class WDBrowsingContextManager implements WDModule {
      * @return The response containing the located nodes.
      */
     public WDBrowsingContextResult.LocateNodesResult locateNodes(String contextId, WDLocator locator) {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(locateNodesAsync(contextId, locator));
+    }
+
+    /**
+     * Non-blocking variant of {@link #locateNodes(String, WDLocator)}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.LocateNodesResult> locateNodesAsync(String contextId, WDLocator locator) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.LocateNodes(contextId, locator),
                 WDBrowsingContextResult.LocateNodesResult.class
         );
@@ -208,7 +332,14 @@ public class WDBrowsingContextManager implements WDModule {
      * @return The response containing the located nodes.
      */
     public WDBrowsingContextResult.LocateNodesResult locateNodes(String contextId, WDLocator locator, Integer maxNodeCount) {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(locateNodesAsync(contextId, locator, maxNodeCount));
+    }
+
+    /**
+     * Non-blocking variant of {@link #locateNodes(String, WDLocator, Integer)}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.LocateNodesResult> locateNodesAsync(String contextId, WDLocator locator, Integer maxNodeCount) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.LocateNodes(contextId, locator, maxNodeCount),
                 WDBrowsingContextResult.LocateNodesResult.class
         );
@@ -223,7 +354,14 @@ public class WDBrowsingContextManager implements WDModule {
      * @return The response containing the located nodes.
      */
     public WDBrowsingContextResult.LocateNodesResult locateNodes(WDBrowsingContext context, WDLocator locator, Integer maxNodeCount) {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(locateNodesAsync(context, locator, maxNodeCount));
+    }
+
+    /**
+     * Non-blocking variant of {@link #locateNodes(WDBrowsingContext, WDLocator, Integer)}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.LocateNodesResult> locateNodesAsync(WDBrowsingContext context, WDLocator locator, Integer maxNodeCount) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.LocateNodes(context, locator, maxNodeCount),
                 WDBrowsingContextResult.LocateNodesResult.class
         );
@@ -238,7 +376,14 @@ public class WDBrowsingContextManager implements WDModule {
      * @return The response containing the located nodes.
      */
     public WDBrowsingContextResult.LocateNodesResult locateNodes(WDBrowsingContext context, WDLocator locator, Integer maxNodeCount, WDSerializationOptions WDSerializationOptions, List<WDRemoteReference.SharedReference> startNodes) {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(locateNodesAsync(context, locator, maxNodeCount, WDSerializationOptions, startNodes));
+    }
+
+    /**
+     * Non-blocking variant of {@link #locateNodes(WDBrowsingContext, WDLocator, Integer, WDSerializationOptions, List)}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.LocateNodesResult> locateNodesAsync(WDBrowsingContext context, WDLocator locator, Integer maxNodeCount, WDSerializationOptions WDSerializationOptions, List<WDRemoteReference.SharedReference> startNodes) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.LocateNodes(context, locator, maxNodeCount, WDSerializationOptions, startNodes),
                 WDBrowsingContextResult.LocateNodesResult.class
         );
@@ -254,7 +399,14 @@ public class WDBrowsingContextManager implements WDModule {
          * @throws RuntimeException if the print operation fails.
          */
     public WDBrowsingContextResult.PrintResult print(String contextId) {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(printAsync(contextId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #print(String)}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.PrintResult> printAsync(String contextId) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.Print(contextId),
                 WDBrowsingContextResult.PrintResult.class
         );
@@ -267,7 +419,14 @@ public class WDBrowsingContextManager implements WDModule {
      * @throws RuntimeException if the reload operation fails.
      */
     public void reload(String contextId) {
-        webSocketManager.sendAndWaitForResponse(
+        webSocketManager.await(reloadAsync(contextId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #reload(String)}.
+     */
+    public CompletableFuture<WDEmptyResult> reloadAsync(String contextId) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.Reload(contextId),
                 WDEmptyResult.class
         );
@@ -282,7 +441,14 @@ public class WDBrowsingContextManager implements WDModule {
      * @throws RuntimeException if setting the viewport size fails.
      */
     public void setViewport(String contextId, int width, int height) {
-        webSocketManager.sendAndWaitForResponse(
+        webSocketManager.await(setViewportAsync(contextId, width, height));
+    }
+
+    /**
+     * Non-blocking variant of {@link #setViewport(String, int, int)}.
+     */
+    public CompletableFuture<WDEmptyResult> setViewportAsync(String contextId, int width, int height) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.SetViewport(
                         contextId,
                         new SetViewportParameters.Viewport(width, height),
@@ -300,7 +466,14 @@ public class WDBrowsingContextManager implements WDModule {
      * @throws RuntimeException if traversing history fails.
      */
     public WDBrowsingContextResult.TraverseHistoryResult traverseHistory(String contextId, int delta) {
-        return webSocketManager.sendAndWaitForResponse(
+        return webSocketManager.await(traverseHistoryAsync(contextId, delta));
+    }
+
+    /**
+     * Non-blocking variant of {@link #traverseHistory(String, int)}.
+     */
+    public CompletableFuture<WDBrowsingContextResult.TraverseHistoryResult> traverseHistoryAsync(String contextId, int delta) {
+        return webSocketManager.sendAsync(
                 new WDBrowsingContextRequest.TraverseHistory(contextId, delta),
                 WDBrowsingContextResult.TraverseHistoryResult.class
         );
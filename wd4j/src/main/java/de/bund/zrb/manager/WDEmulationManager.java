@@ -9,11 +9,13 @@ import de.bund.zrb.type.browser.WDUserContext;
 import de.bund.zrb.type.emulation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Facade for emulation.* commands.
  * Provides higher-level methods that map directly to WebDriver BiDi emulation commands.
  * Each method hides details of request construction and response handling.
+ * Every command is also available as non-blocking *Async variant.
  */
 public class WDEmulationManager {
     private final WDWebSocketManager ws;
@@ -24,54 +26,90 @@ public class WDEmulationManager {
 
     // ── Forced Colors ─────────────────────────────────────────────────────────────
     public void setForcedColorsModeThemeOverride(WDForcedColorsModeTheme theme, List<WDBrowsingContext> contexts) {
-        send(new WDEmulationRequest.SetForcedColorsModeThemeOverride(new SetForcedColorsModeThemeOverrideParameters(theme, contexts)));
+        ws.await(setForcedColorsModeThemeOverrideAsync(theme, contexts));
+    }
+    public CompletableFuture<WDEmptyResult> setForcedColorsModeThemeOverrideAsync(WDForcedColorsModeTheme theme, List<WDBrowsingContext> contexts) {
+        return sendAsync(new WDEmulationRequest.SetForcedColorsModeThemeOverride(new SetForcedColorsModeThemeOverrideParameters(theme, contexts)));
     }
     public void setForcedColorsModeThemeOverrideUser(List<WDUserContext> userContexts, WDForcedColorsModeTheme theme) {
-        send(new WDEmulationRequest.SetForcedColorsModeThemeOverride(new SetForcedColorsModeThemeOverrideParameters(userContexts, theme)));
+        ws.await(setForcedColorsModeThemeOverrideUserAsync(userContexts, theme));
+    }
+    public CompletableFuture<WDEmptyResult> setForcedColorsModeThemeOverrideUserAsync(List<WDUserContext> userContexts, WDForcedColorsModeTheme theme) {
+        return sendAsync(new WDEmulationRequest.SetForcedColorsModeThemeOverride(new SetForcedColorsModeThemeOverrideParameters(userContexts, theme)));
     }
 
     // ── Geolocation ───────────────────────────────────────────────────────────────
     public void setGeolocationOverride(WDGeolocationCoordinates coords, List<WDBrowsingContext> contexts) {
-        send(new WDEmulationRequest.SetGeolocationOverride(new SetGeolocationOverrideParameters(coords, contexts)));
+        ws.await(setGeolocationOverrideAsync(coords, contexts));
+    }
+    public CompletableFuture<WDEmptyResult> setGeolocationOverrideAsync(WDGeolocationCoordinates coords, List<WDBrowsingContext> contexts) {
+        return sendAsync(new WDEmulationRequest.SetGeolocationOverride(new SetGeolocationOverrideParameters(coords, contexts)));
     }
     public void setGeolocationOverrideError(WDGeolocationPositionError error, List<WDUserContext> userContexts) {
-        send(new WDEmulationRequest.SetGeolocationOverride(new SetGeolocationOverrideParameters(error, userContexts)));
+        ws.await(setGeolocationOverrideErrorAsync(error, userContexts));
+    }
+    public CompletableFuture<WDEmptyResult> setGeolocationOverrideErrorAsync(WDGeolocationPositionError error, List<WDUserContext> userContexts) {
+        return sendAsync(new WDEmulationRequest.SetGeolocationOverride(new SetGeolocationOverrideParameters(error, userContexts)));
     }
 
     // ── Locale ───────────────────────────────────────────────────────────────────
     public void setLocaleOverride(String locale, List<WDBrowsingContext> contexts) {
-        send(new WDEmulationRequest.SetLocaleOverride(new SetLocaleOverrideParameters(locale, contexts)));
+        ws.await(setLocaleOverrideAsync(locale, contexts));
+    }
+    public CompletableFuture<WDEmptyResult> setLocaleOverrideAsync(String locale, List<WDBrowsingContext> contexts) {
+        return sendAsync(new WDEmulationRequest.SetLocaleOverride(new SetLocaleOverrideParameters(locale, contexts)));
     }
     public void setLocaleOverrideUser(List<WDUserContext> userContexts, String locale) {
-        send(new WDEmulationRequest.SetLocaleOverride(new SetLocaleOverrideParameters(userContexts, locale)));
+        ws.await(setLocaleOverrideUserAsync(userContexts, locale));
+    }
+    public CompletableFuture<WDEmptyResult> setLocaleOverrideUserAsync(List<WDUserContext> userContexts, String locale) {
+        return sendAsync(new WDEmulationRequest.SetLocaleOverride(new SetLocaleOverrideParameters(userContexts, locale)));
     }
 
     // ── Screen Orientation ───────────────────────────────────────────────────────
     public void setScreenOrientationOverride(WDScreenOrientation orientation, List<WDBrowsingContext> contexts) {
-        send(new WDEmulationRequest.SetScreenOrientationOverride(new SetScreenOrientationOverrideParameters(orientation, contexts)));
+        ws.await(setScreenOrientationOverrideAsync(orientation, contexts));
+    }
+    public CompletableFuture<WDEmptyResult> setScreenOrientationOverrideAsync(WDScreenOrientation orientation, List<WDBrowsingContext> contexts) {
+        return sendAsync(new WDEmulationRequest.SetScreenOrientationOverride(new SetScreenOrientationOverrideParameters(orientation, contexts)));
     }
     public void setScreenOrientationOverrideUser(List<WDUserContext> userContexts, WDScreenOrientation orientation) {
-        send(new WDEmulationRequest.SetScreenOrientationOverride(new SetScreenOrientationOverrideParameters(userContexts, orientation)));
+        ws.await(setScreenOrientationOverrideUserAsync(userContexts, orientation));
+    }
+    public CompletableFuture<WDEmptyResult> setScreenOrientationOverrideUserAsync(List<WDUserContext> userContexts, WDScreenOrientation orientation) {
+        return sendAsync(new WDEmulationRequest.SetScreenOrientationOverride(new SetScreenOrientationOverrideParameters(userContexts, orientation)));
     }
 
     // ── Scripting Enabled ────────────────────────────────────────────────────────
     public void setScriptingEnabled(Boolean enabled, List<WDBrowsingContext> contexts) {
-        send(new WDEmulationRequest.SetScriptingEnabled(new SetScriptingEnabledParameters(enabled, contexts)));
+        ws.await(setScriptingEnabledAsync(enabled, contexts));
+    }
+    public CompletableFuture<WDEmptyResult> setScriptingEnabledAsync(Boolean enabled, List<WDBrowsingContext> contexts) {
+        return sendAsync(new WDEmulationRequest.SetScriptingEnabled(new SetScriptingEnabledParameters(enabled, contexts)));
     }
     public void setScriptingEnabledUser(List<WDUserContext> userContexts, Boolean enabled) {
-        send(new WDEmulationRequest.SetScriptingEnabled(new SetScriptingEnabledParameters(userContexts, enabled)));
+        ws.await(setScriptingEnabledUserAsync(userContexts, enabled));
+    }
+    public CompletableFuture<WDEmptyResult> setScriptingEnabledUserAsync(List<WDUserContext> userContexts, Boolean enabled) {
+        return sendAsync(new WDEmulationRequest.SetScriptingEnabled(new SetScriptingEnabledParameters(userContexts, enabled)));
     }
 
     // ── Timezone ─────────────────────────────────────────────────────────────────
     public void setTimezoneOverride(String timezone, List<WDBrowsingContext> contexts) {
-        send(new WDEmulationRequest.SetTimezoneOverride(new SetTimezoneOverrideParameters(timezone, contexts)));
+        ws.await(setTimezoneOverrideAsync(timezone, contexts));
+    }
+    public CompletableFuture<WDEmptyResult> setTimezoneOverrideAsync(String timezone, List<WDBrowsingContext> contexts) {
+        return sendAsync(new WDEmulationRequest.SetTimezoneOverride(new SetTimezoneOverrideParameters(timezone, contexts)));
     }
     public void setTimezoneOverrideUser(List<WDUserContext> userContexts, String timezone) {
-        send(new WDEmulationRequest.SetTimezoneOverride(new SetTimezoneOverrideParameters(userContexts, timezone)));
+        ws.await(setTimezoneOverrideUserAsync(userContexts, timezone));
+    }
+    public CompletableFuture<WDEmptyResult> setTimezoneOverrideUserAsync(List<WDUserContext> userContexts, String timezone) {
+        return sendAsync(new WDEmulationRequest.SetTimezoneOverride(new SetTimezoneOverrideParameters(userContexts, timezone)));
     }
 
     // ── Internal helper ──────────────────────────────────────────────────────────
-    private void send(Object cmd) {
-        ws.sendAndWaitForResponse((de.bund.zrb.api.WDCommand) cmd, WDEmptyResult.class);
+    private CompletableFuture<WDEmptyResult> sendAsync(Object cmd) {
+        return ws.sendAsync((de.bund.zrb.api.WDCommand) cmd, WDEmptyResult.class);
     }
 }
\ No newline at end of file
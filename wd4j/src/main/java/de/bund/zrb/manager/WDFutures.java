@@ -0,0 +1,21 @@
+package de.bund.zrb.manager;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Hilfsmethoden für die {@code *Async}-Varianten der Manager.
+ * Ungültige Argumente werden nicht synchron geworfen, sondern als fehlgeschlagenes Future geliefert,
+ * damit Aufrufer Fehler einheitlich über das Future behandeln können.
+ */
+final class WDFutures {
+
+    private WDFutures() {
+    }
+
+    /** Entspricht {@code CompletableFuture.failedFuture} (erst ab Java 9 verfügbar). */
+    static <T> CompletableFuture<T> failed(Throwable ex) {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        future.completeExceptionally(ex);
+        return future;
+    }
+}
@@ -8,6 +8,7 @@ import de.bund.zrb.type.script.WDRemoteReference;
 import de.bund.zrb.api.WDWebSocketManager;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class WDInputManager implements WDModule {
 
@@ -42,12 +43,19 @@ public class WDInputManager implements WDModule {
      * @throws RuntimeException if the action execution fails.
      */
     public void performActions(String contextId, List<SourceActions> actions) {
+        WDWebSocketManager.await(performActionsAsync(contextId, actions));
+        System.out.println("Performed actions in context: " + contextId);
+    }
+
+    /**
+     * Non-blocking variant of {@link #performActions(String, List)}.
+     */
+    public CompletableFuture<WDEmptyResult> performActionsAsync(String contextId, List<SourceActions> actions) {
         if (actions == null || actions.isEmpty()) {
-            throw new IllegalArgumentException("Actions list must not be null or empty.");
+            return WDFutures.failed(new IllegalArgumentException("Actions list must not be null or empty."));
         }
 
-        WDWebSocketManager.sendAndWaitForResponse(new WDInputRequest.PerformActions(contextId, actions), WDEmptyResult.class);
-        System.out.println("Performed actions in context: " + contextId);
+        return WDWebSocketManager.sendAsync(new WDInputRequest.PerformActions(contextId, actions), WDEmptyResult.class);
     }
 
     /**
@@ -57,10 +65,17 @@ public class WDInputManager implements WDModule {
      * @throws RuntimeException if the release operation fails.
      */
     public void releaseActions(String contextId) {
-        WDWebSocketManager.sendAndWaitForResponse(new WDInputRequest.ReleaseActions(contextId), WDEmptyResult.class);
+        WDWebSocketManager.await(releaseActionsAsync(contextId));
         System.out.println("Released actions in context: " + contextId);
     }
 
+    /**
+     * Non-blocking variant of {@link #releaseActions(String)}.
+     */
+    public CompletableFuture<WDEmptyResult> releaseActionsAsync(String contextId) {
+        return WDWebSocketManager.sendAsync(new WDInputRequest.ReleaseActions(contextId), WDEmptyResult.class);
+    }
+
     /**
      * Sets files to the given input element.
      *
@@ -71,11 +86,18 @@ public class WDInputManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public void setFiles(String contextId, WDRemoteReference.SharedReference sharedReference, List<String> files) {
+        WDWebSocketManager.await(setFilesAsync(contextId, sharedReference, files));
+        System.out.println("Files set for element: " + sharedReference);
+    }
+
+    /**
+     * Non-blocking variant of {@link #setFiles(String, WDRemoteReference.SharedReference, List)}.
+     */
+    public CompletableFuture<WDEmptyResult> setFilesAsync(String contextId, WDRemoteReference.SharedReference sharedReference, List<String> files) {
         if (files == null || files.isEmpty()) {
-            throw new IllegalArgumentException("File paths list must not be null or empty.");
+            return WDFutures.failed(new IllegalArgumentException("File paths list must not be null or empty."));
         }
 
-        WDWebSocketManager.sendAndWaitForResponse(new WDInputRequest.SetFiles(contextId, sharedReference, files), WDEmptyResult.class);
-        System.out.println("Files set for element: " + sharedReference);
+        return WDWebSocketManager.sendAsync(new WDInputRequest.SetFiles(contextId, sharedReference, files), WDEmptyResult.class);
     }
 }
\ No newline at end of file
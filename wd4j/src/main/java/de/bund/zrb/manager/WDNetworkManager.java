@@ -9,10 +9,14 @@ import de.bund.zrb.command.response.WDEmptyResult;
 import de.bund.zrb.command.response.WDNetworkResult;
 import de.bund.zrb.type.browsingContext.WDBrowsingContext;
 import de.bund.zrb.type.network.WDAuthCredentials;
+import de.bund.zrb.type.network.WDBytesValue;
+import de.bund.zrb.type.network.WDHeader;
+import de.bund.zrb.type.network.WDRequest;
 import de.bund.zrb.api.WDWebSocketManager;
 import de.bund.zrb.type.network.WDUrlPattern;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class WDNetworkManager implements WDModule {
 
@@ -38,14 +42,28 @@ public class WDNetworkManager implements WDModule {
      * @return The intercept ID of the added rule.
      */
     public WDNetworkResult.AddInterceptResult addIntercept(List<AddInterceptParameters.InterceptPhase> phases) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(addInterceptAsync(phases));
+    }
+
+    /**
+     * Non-blocking variant of {@link #addIntercept(List)}.
+     */
+    public CompletableFuture<WDNetworkResult.AddInterceptResult> addInterceptAsync(List<AddInterceptParameters.InterceptPhase> phases) {
+        return WDWebSocketManager.sendAsync(
                 new WDNetworkRequest.AddIntercept(phases),
                 WDNetworkResult.AddInterceptResult.class
         );
     }
 
     public  WDNetworkResult.AddInterceptResult addIntercept(List<AddInterceptParameters.InterceptPhase> phases, List<WDBrowsingContext> ctxs, List<WDUrlPattern> patterns) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(addInterceptAsync(phases, ctxs, patterns));
+    }
+
+    /**
+     * Non-blocking variant of {@link #addIntercept(List, List, List)}.
+     */
+    public CompletableFuture<WDNetworkResult.AddInterceptResult> addInterceptAsync(List<AddInterceptParameters.InterceptPhase> phases, List<WDBrowsingContext> ctxs, List<WDUrlPattern> patterns) {
+        return WDWebSocketManager.sendAsync(
                 new WDNetworkRequest.AddIntercept(phases, ctxs, patterns),
                 WDNetworkResult.AddInterceptResult.class
         );
@@ -57,7 +75,40 @@ public class WDNetworkManager implements WDModule {
      * @param requestId The ID of the intercepted request.
      */
     public void continueRequest(String requestId) {
-        WDWebSocketManager.sendAndWaitForResponse(new WDNetworkRequest.ContinueRequest(requestId), WDEmptyResult.class);
+        WDWebSocketManager.await(continueRequestAsync(requestId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #continueRequest(String)}.
+     */
+    public CompletableFuture<WDEmptyResult> continueRequestAsync(String requestId) {
+        return WDWebSocketManager.sendAsync(
+                new WDNetworkRequest.ContinueRequest(requestId),
+                WDEmptyResult.class
+        );
+    }
+
+    /**
+     * Continues a previously intercepted request with modifications.
+     *
+     * @param requestId The ID of the intercepted request.
+     * @param body      New request body or {@code null}
+     * @param headers   Replacement headers or {@code null}
+     * @param method    New method or {@code null}
+     * @param url       New URL or {@code null}
+     */
+    public void continueRequest(String requestId, WDBytesValue body, List<WDHeader> headers, String method, String url) {
+        WDWebSocketManager.await(continueRequestAsync(requestId, body, headers, method, url));
+    }
+
+    /**
+     * Non-blocking variant of {@link #continueRequest(String, WDBytesValue, List, String, String)}.
+     */
+    public CompletableFuture<WDEmptyResult> continueRequestAsync(String requestId, WDBytesValue body, List<WDHeader> headers, String method, String url) {
+        return WDWebSocketManager.sendAsync(
+                new WDNetworkRequest.ContinueRequest(new WDRequest(requestId), body, null, headers, method, url),
+                WDEmptyResult.class
+        );
     }
 
     /**
@@ -66,7 +117,17 @@ public class WDNetworkManager implements WDModule {
      * @param requestId The ID of the intercepted response.
      */
     public void continueResponse(String requestId) {
-        WDWebSocketManager.sendAndWaitForResponse(new WDNetworkRequest.ContinueResponse(requestId), WDEmptyResult.class);
+        WDWebSocketManager.await(continueResponseAsync(requestId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #continueResponse(String)}.
+     */
+    public CompletableFuture<WDEmptyResult> continueResponseAsync(String requestId) {
+        return WDWebSocketManager.sendAsync(
+                new WDNetworkRequest.ContinueResponse(requestId),
+                WDEmptyResult.class
+        );
     }
 
 
@@ -77,7 +138,17 @@ public class WDNetworkManager implements WDModule {
      * @param authChallengeResponse The authentication challenge response.
      */
     public void continueWithAuth(String requestId, WDAuthCredentials authChallengeResponse) {
-        WDWebSocketManager.sendAndWaitForResponse(new WDNetworkRequest.ContinueWithAuth(requestId, authChallengeResponse), WDEmptyResult.class);
+        WDWebSocketManager.await(continueWithAuthAsync(requestId, authChallengeResponse));
+    }
+
+    /**
+     * Non-blocking variant of {@link #continueWithAuth(String, WDAuthCredentials)}.
+     */
+    public CompletableFuture<WDEmptyResult> continueWithAuthAsync(String requestId, WDAuthCredentials authChallengeResponse) {
+        return WDWebSocketManager.sendAsync(
+                new WDNetworkRequest.ContinueWithAuth(requestId, authChallengeResponse),
+                WDEmptyResult.class
+        );
     }
 
     /**
@@ -86,7 +157,17 @@ public class WDNetworkManager implements WDModule {
      * @param requestId The ID of the intercepted request.
      */
     public void failRequest(String requestId) {
-        WDWebSocketManager.sendAndWaitForResponse(new WDNetworkRequest.FailRequest(requestId), WDEmptyResult.class);
+        WDWebSocketManager.await(failRequestAsync(requestId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #failRequest(String)}.
+     */
+    public CompletableFuture<WDEmptyResult> failRequestAsync(String requestId) {
+        return WDWebSocketManager.sendAsync(
+                new WDNetworkRequest.FailRequest(requestId),
+                WDEmptyResult.class
+        );
     }
 
     /**
@@ -95,7 +176,40 @@ public class WDNetworkManager implements WDModule {
      * @param requestId The ID of the intercepted request.
      */
     public void provideResponse(String requestId) {
-        WDWebSocketManager.sendAndWaitForResponse(new WDNetworkRequest.ProvideResponse(requestId), WDEmptyResult.class);
+        WDWebSocketManager.await(provideResponseAsync(requestId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #provideResponse(String)}.
+     */
+    public CompletableFuture<WDEmptyResult> provideResponseAsync(String requestId) {
+        return WDWebSocketManager.sendAsync(
+                new WDNetworkRequest.ProvideResponse(requestId),
+                WDEmptyResult.class
+        );
+    }
+
+    /**
+     * Provides a complete response to an intercepted request (the request is not sent to the network).
+     *
+     * @param requestId    The ID of the intercepted request.
+     * @param body         Response body or {@code null}
+     * @param headers      Response headers or {@code null}
+     * @param reasonPhrase Status text or {@code null}
+     * @param statusCode   Status code or {@code null}
+     */
+    public void provideResponse(String requestId, WDBytesValue body, List<WDHeader> headers, String reasonPhrase, Integer statusCode) {
+        WDWebSocketManager.await(provideResponseAsync(requestId, body, headers, reasonPhrase, statusCode));
+    }
+
+    /**
+     * Non-blocking variant of {@link #provideResponse(String, WDBytesValue, List, String, Integer)}.
+     */
+    public CompletableFuture<WDEmptyResult> provideResponseAsync(String requestId, WDBytesValue body, List<WDHeader> headers, String reasonPhrase, Integer statusCode) {
+        return WDWebSocketManager.sendAsync(
+                new WDNetworkRequest.ProvideResponse(new WDRequest(requestId), body, null, headers, reasonPhrase, statusCode),
+                WDEmptyResult.class
+        );
     }
 
     /**
@@ -104,7 +218,17 @@ public class WDNetworkManager implements WDModule {
      * @param interceptId The ID of the intercept to remove.
      */
     public void removeIntercept(String interceptId) {
-        WDWebSocketManager.sendAndWaitForResponse(new WDNetworkRequest.RemoveIntercept(interceptId), WDEmptyResult.class);
+        WDWebSocketManager.await(removeInterceptAsync(interceptId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #removeIntercept(String)}.
+     */
+    public CompletableFuture<WDEmptyResult> removeInterceptAsync(String interceptId) {
+        return WDWebSocketManager.sendAsync(
+                new WDNetworkRequest.RemoveIntercept(interceptId),
+                WDEmptyResult.class
+        );
     }
 
     /**
@@ -113,19 +237,34 @@ public class WDNetworkManager implements WDModule {
      * @param cacheBehavior The cache behavior to set.
      */
     public void setCacheBehavior(SetCacheBehaviorParameters.CacheBehavior cacheBehavior) {
-        WDWebSocketManager.sendAndWaitForResponse(new WDNetworkRequest.SetCacheBehavior(cacheBehavior), WDEmptyResult.class);
+        WDWebSocketManager.await(setCacheBehaviorAsync(cacheBehavior));
+    }
+
+    /**
+     * Non-blocking variant of {@link #setCacheBehavior(SetCacheBehaviorParameters.CacheBehavior)}.
+     */
+    public CompletableFuture<WDEmptyResult> setCacheBehaviorAsync(SetCacheBehaviorParameters.CacheBehavior cacheBehavior) {
+        return WDWebSocketManager.sendAsync(
+                new WDNetworkRequest.SetCacheBehavior(cacheBehavior),
+                WDEmptyResult.class
+        );
     }
 
     // === UPDATED TO NEW SPECS ===
 
     /** Add a data collector. */
     public de.bund.zrb.type.network.WDCollector addDataCollector(java.util.List<de.bund.zrb.type.network.WDDataType> dataTypes, int maxEncodedDataSize) {
-        de.bund.zrb.command.response.WDNetworkResult.AddDataCollectorResult result =
-                WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(addDataCollectorAsync(dataTypes, maxEncodedDataSize));
+    }
+
+    /** Non-blocking variant of {@link #addDataCollector(java.util.List, int)}. */
+    public CompletableFuture<de.bund.zrb.type.network.WDCollector> addDataCollectorAsync(java.util.List<de.bund.zrb.type.network.WDDataType> dataTypes, int maxEncodedDataSize) {
+        CompletableFuture<de.bund.zrb.command.response.WDNetworkResult.AddDataCollectorResult> result =
+                WDWebSocketManager.sendAsync(
                         new de.bund.zrb.command.request.WDNetworkRequest.AddDataCollector(dataTypes, maxEncodedDataSize),
                         de.bund.zrb.command.response.WDNetworkResult.AddDataCollectorResult.class
                 );
-        return result.getCollector();
+        return result.thenApply(de.bund.zrb.command.response.WDNetworkResult.AddDataCollectorResult::getCollector);
     }
 
     /** Convenience: Add a response body collector for all contexts. */
@@ -139,21 +278,36 @@ public class WDNetworkManager implements WDModule {
                                                          de.bund.zrb.type.network.WDRequest request,
                                                          de.bund.zrb.type.network.WDCollector collector,
                                                          java.lang.Boolean disown) {
-        de.bund.zrb.command.response.WDNetworkGetDataResult result =
-                WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(getDataAsync(dataType, request, collector, disown));
+    }
+
+    /** Non-blocking variant of {@link #getData(de.bund.zrb.type.network.WDDataType, de.bund.zrb.type.network.WDRequest, de.bund.zrb.type.network.WDCollector, java.lang.Boolean)}. */
+    public CompletableFuture<de.bund.zrb.type.network.WDBytesValue> getDataAsync(de.bund.zrb.type.network.WDDataType dataType,
+                                                                                 de.bund.zrb.type.network.WDRequest request,
+                                                                                 de.bund.zrb.type.network.WDCollector collector,
+                                                                                 java.lang.Boolean disown) {
+        CompletableFuture<de.bund.zrb.command.response.WDNetworkGetDataResult> result =
+                WDWebSocketManager.sendAsync(
                         new de.bund.zrb.command.request.WDNetworkRequest.GetData(
                                 new de.bund.zrb.command.request.parameters.network.GetDataParameters(dataType, collector, disown, request)
                         ),
                         de.bund.zrb.command.response.WDNetworkGetDataResult.class
                 );
-        return result.getBytes();
+        return result.thenApply(de.bund.zrb.command.response.WDNetworkGetDataResult::getBytes);
     }
 
     /** Disown previously collected data for a given request and collector. */
     public void disownData(de.bund.zrb.type.network.WDDataType dataType,
                            de.bund.zrb.type.network.WDCollector collector,
                            de.bund.zrb.type.network.WDRequest request) {
-        WDWebSocketManager.sendAndWaitForResponse(
+        WDWebSocketManager.await(disownDataAsync(dataType, collector, request));
+    }
+
+    /** Non-blocking variant of {@link #disownData(de.bund.zrb.type.network.WDDataType, de.bund.zrb.type.network.WDCollector, de.bund.zrb.type.network.WDRequest)}. */
+    public CompletableFuture<WDEmptyResult> disownDataAsync(de.bund.zrb.type.network.WDDataType dataType,
+                                                            de.bund.zrb.type.network.WDCollector collector,
+                                                            de.bund.zrb.type.network.WDRequest request) {
+        return WDWebSocketManager.sendAsync(
                 new de.bund.zrb.command.request.WDNetworkRequest.DisownData(dataType, collector, request),
                 de.bund.zrb.command.response.WDEmptyResult.class
         );
@@ -161,7 +315,12 @@ public class WDNetworkManager implements WDModule {
 
     /** Remove a data collector. */
     public void removeDataCollector(de.bund.zrb.type.network.WDCollector collector) {
-        WDWebSocketManager.sendAndWaitForResponse(
+        WDWebSocketManager.await(removeDataCollectorAsync(collector));
+    }
+
+    /** Non-blocking variant of {@link #removeDataCollector(de.bund.zrb.type.network.WDCollector)}. */
+    public CompletableFuture<WDEmptyResult> removeDataCollectorAsync(de.bund.zrb.type.network.WDCollector collector) {
+        return WDWebSocketManager.sendAsync(
                 new de.bund.zrb.command.request.WDNetworkRequest.RemoveDataCollector(collector),
                 de.bund.zrb.command.response.WDEmptyResult.class
         );
@@ -169,7 +328,12 @@ public class WDNetworkManager implements WDModule {
 
     /** Set extra headers for matching contexts/userContexts. */
     public void setExtraHeaders(java.util.List<de.bund.zrb.type.network.WDHeader> headers) {
-        WDWebSocketManager.sendAndWaitForResponse(
+        WDWebSocketManager.await(setExtraHeadersAsync(headers));
+    }
+
+    /** Non-blocking variant of {@link #setExtraHeaders(java.util.List)}. */
+    public CompletableFuture<WDEmptyResult> setExtraHeadersAsync(java.util.List<de.bund.zrb.type.network.WDHeader> headers) {
+        return WDWebSocketManager.sendAsync(
                 new de.bund.zrb.command.request.WDNetworkRequest.SetExtraHeaders(headers),
                 de.bund.zrb.command.response.WDEmptyResult.class
         );
@@ -8,15 +8,30 @@ import de.bund.zrb.type.browser.WDUserContext;
 import de.bund.zrb.type.browsingContext.WDBrowsingContext;
 import de.bund.zrb.type.script.*;
 import de.bund.zrb.api.WDWebSocketManager;
+import de.bund.zrb.service.WDHandleRegistry;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class WDScriptManager implements WDModule {
 
     private final WDWebSocketManager WDWebSocketManager;
+    private final WDHandleRegistry handles;
 
     public WDScriptManager(WDWebSocketManager WDWebSocketManager) {
         this.WDWebSocketManager = WDWebSocketManager;
+        this.handles = new WDHandleRegistry(this::disownAsync);
+    }
+
+    /**
+     * @return Registry of all handles created with {@link WDResultOwnership#ROOT} (scopes, live-handle counts)
+     */
+    public WDHandleRegistry handles() {
+        return handles;
+    }
+
+    private CompletableFuture<WDEvaluateResult> tracked(CompletableFuture<WDEvaluateResult> result, WDResultOwnership ownership) {
+        return ownership == WDResultOwnership.ROOT ? handles.trackOnComplete(result) : result;
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -36,7 +51,14 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDScriptResult.AddPreloadScriptResult addPreloadScript(String script) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(addPreloadScriptAsync(script));
+    }
+
+    /**
+     * Non-blocking variant of {@link #addPreloadScript(String)}.
+     */
+    public CompletableFuture<WDScriptResult.AddPreloadScriptResult> addPreloadScriptAsync(String script) {
+        return WDWebSocketManager.sendAsync(
                 new WDScriptRequest.AddPreloadScript(script),
                 WDScriptResult.AddPreloadScriptResult.class
         );
@@ -50,7 +72,14 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDScriptResult.AddPreloadScriptResult addPreloadScript(String script, List<WDChannelValue> arguments) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(addPreloadScriptAsync(script, arguments));
+    }
+
+    /**
+     * Non-blocking variant of {@link #addPreloadScript(String, List)}.
+     */
+    public CompletableFuture<WDScriptResult.AddPreloadScriptResult> addPreloadScriptAsync(String script, List<WDChannelValue> arguments) {
+        return WDWebSocketManager.sendAsync(
                 new WDScriptRequest.AddPreloadScript(script, arguments),
                 WDScriptResult.AddPreloadScriptResult.class
         );
@@ -66,7 +95,14 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDScriptResult.AddPreloadScriptResult addPreloadScript(String script, List<WDChannelValue> arguments, List<WDBrowsingContext> browsingContexts) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(addPreloadScriptAsync(script, arguments, browsingContexts));
+    }
+
+    /**
+     * Non-blocking variant of {@link #addPreloadScript(String, List, List)}.
+     */
+    public CompletableFuture<WDScriptResult.AddPreloadScriptResult> addPreloadScriptAsync(String script, List<WDChannelValue> arguments, List<WDBrowsingContext> browsingContexts) {
+        return WDWebSocketManager.sendAsync(
                 new WDScriptRequest.AddPreloadScript(script, arguments, browsingContexts),
                 WDScriptResult.AddPreloadScriptResult.class
         );
@@ -84,7 +120,14 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDScriptResult.AddPreloadScriptResult addPreloadScript(String script, List<WDChannelValue> arguments, List<WDBrowsingContext> WDBrowsingContexts, List<WDUserContext> WDUserContexts, String sandbox) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(addPreloadScriptAsync(script, arguments, WDBrowsingContexts, WDUserContexts, sandbox));
+    }
+
+    /**
+     * Non-blocking variant of {@link #addPreloadScript(String, List, List, List, String)}.
+     */
+    public CompletableFuture<WDScriptResult.AddPreloadScriptResult> addPreloadScriptAsync(String script, List<WDChannelValue> arguments, List<WDBrowsingContext> WDBrowsingContexts, List<WDUserContext> WDUserContexts, String sandbox) {
+        return WDWebSocketManager.sendAsync(
                 new WDScriptRequest.AddPreloadScript(script, arguments, WDBrowsingContexts, WDUserContexts, sandbox),
                 WDScriptResult.AddPreloadScriptResult.class
         );
@@ -98,8 +141,15 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDScriptResult.AddPreloadScriptResult addPreloadScript(String script, String context) {
-        return WDWebSocketManager.sendAndWaitForResponse(
-                new WDScriptRequest.AddPreloadScript(script, context), // ToDo: Improve this
+        return WDWebSocketManager.await(addPreloadScriptAsync(script, context));
+    }
+
+    /**
+     * Non-blocking variant of {@link #addPreloadScript(String, String)}.
+     */
+    public CompletableFuture<WDScriptResult.AddPreloadScriptResult> addPreloadScriptAsync(String script, String context) {
+        return WDWebSocketManager.sendAsync(
+                new WDScriptRequest.AddPreloadScript(script, context),
                 WDScriptResult.AddPreloadScriptResult.class
         );
     }
@@ -112,11 +162,19 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public void disown(List<WDHandle> WDHandles, WDTarget target) {
+        WDWebSocketManager.await(disownAsync(WDHandles, target));
+    }
+
+    /**
+     * Non-blocking variant of {@link #disown(List, WDTarget)}.
+     */
+    public CompletableFuture<WDEmptyResult> disownAsync(List<WDHandle> WDHandles, WDTarget target) {
         if (WDHandles == null || WDHandles.isEmpty()) {
-            throw new IllegalArgumentException("Handles list must not be null or empty.");
+            return WDFutures.failed(new IllegalArgumentException("Handles list must not be null or empty."));
         }
+        handles.released(WDHandles);
 
-        WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.sendAsync(
                 new WDScriptRequest.Disown(WDHandles, target),
                 WDEmptyResult.class
         );
@@ -131,7 +189,14 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public <T> WDEvaluateResult callFunction(String functionDeclaration, boolean awaitPromise, WDTarget target, List<WDLocalValue> arguments) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(callFunctionAsync(functionDeclaration, awaitPromise, target, arguments));
+    }
+
+    /**
+     * Non-blocking variant of {@link #callFunction(String, boolean, WDTarget, List)}.
+     */
+    public CompletableFuture<WDEvaluateResult> callFunctionAsync(String functionDeclaration, boolean awaitPromise, WDTarget target, List<WDLocalValue> arguments) {
+        return WDWebSocketManager.sendAsync(
                 new WDScriptRequest.CallFunction(functionDeclaration, awaitPromise, target, arguments),
                 WDEvaluateResult.class
         );
@@ -147,7 +212,14 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public <T> WDEvaluateResult callFunction(String functionDeclaration, boolean awaitPromise, WDTarget target, List<WDLocalValue> arguments, WDLocalValue thisArg) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(callFunctionAsync(functionDeclaration, awaitPromise, target, arguments, thisArg));
+    }
+
+    /**
+     * Non-blocking variant of {@link #callFunction(String, boolean, WDTarget, List, WDLocalValue)}.
+     */
+    public CompletableFuture<WDEvaluateResult> callFunctionAsync(String functionDeclaration, boolean awaitPromise, WDTarget target, List<WDLocalValue> arguments, WDLocalValue thisArg) {
+        return WDWebSocketManager.sendAsync(
                 new WDScriptRequest.CallFunction(functionDeclaration, awaitPromise, target, arguments, thisArg),
                 WDEvaluateResult.class
         );
@@ -166,11 +238,18 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public <T> WDEvaluateResult callFunction(String functionDeclaration, boolean awaitPromise, WDTarget target, List<WDLocalValue> arguments, WDLocalValue thisArg, WDResultOwnership resultOwnership, WDSerializationOptions serializationOptions) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(callFunctionAsync(functionDeclaration, awaitPromise, target, arguments, thisArg, resultOwnership, serializationOptions));
+    }
+
+    /**
+     * Non-blocking variant of {@link #callFunction(String, boolean, WDTarget, List, WDLocalValue, WDResultOwnership, WDSerializationOptions)}.
+     */
+    public CompletableFuture<WDEvaluateResult> callFunctionAsync(String functionDeclaration, boolean awaitPromise, WDTarget target, List<WDLocalValue> arguments, WDLocalValue thisArg, WDResultOwnership resultOwnership, WDSerializationOptions serializationOptions) {
+        return tracked(WDWebSocketManager.sendAsync(
                 new WDScriptRequest.CallFunction(functionDeclaration, awaitPromise, target, arguments,
                         resultOwnership, serializationOptions, thisArg),
                 WDEvaluateResult.class
-        );
+        ), resultOwnership);
     }
 
     /**
@@ -187,11 +266,18 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public <T> WDEvaluateResult callFunction(String functionDeclaration, boolean awaitPromise, WDTarget target, List<WDLocalValue> arguments, WDLocalValue thisArg, WDResultOwnership resultOwnership, WDSerializationOptions serializationOptions, boolean userActivation) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(callFunctionAsync(functionDeclaration, awaitPromise, target, arguments, thisArg, resultOwnership, serializationOptions, userActivation));
+    }
+
+    /**
+     * Non-blocking variant of {@link #callFunction(String, boolean, WDTarget, List, WDLocalValue, WDResultOwnership, WDSerializationOptions, boolean)}.
+     */
+    public CompletableFuture<WDEvaluateResult> callFunctionAsync(String functionDeclaration, boolean awaitPromise, WDTarget target, List<WDLocalValue> arguments, WDLocalValue thisArg, WDResultOwnership resultOwnership, WDSerializationOptions serializationOptions, boolean userActivation) {
+        return tracked(WDWebSocketManager.sendAsync(
                 new WDScriptRequest.CallFunction(functionDeclaration, awaitPromise, target, arguments,
                         resultOwnership, serializationOptions, thisArg, userActivation),
                 WDEvaluateResult.class
-        );
+        ), resultOwnership);
     }
 
     /**
@@ -203,7 +289,14 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDEvaluateResult evaluate(String script, WDTarget target, boolean awaitPromise) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(evaluateAsync(script, target, awaitPromise));
+    }
+
+    /**
+     * Non-blocking variant of {@link #evaluate(String, WDTarget, boolean)}.
+     */
+    public CompletableFuture<WDEvaluateResult> evaluateAsync(String script, WDTarget target, boolean awaitPromise) {
+        return WDWebSocketManager.sendAsync(
                 new WDScriptRequest.Evaluate(script, target, awaitPromise),
                 WDEvaluateResult.class
         );
@@ -221,10 +314,17 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDEvaluateResult evaluate(String script, WDTarget target, boolean awaitPromise, WDResultOwnership resultOwnership, WDSerializationOptions serializationOptions) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(evaluateAsync(script, target, awaitPromise, resultOwnership, serializationOptions));
+    }
+
+    /**
+     * Non-blocking variant of {@link #evaluate(String, WDTarget, boolean, WDResultOwnership, WDSerializationOptions)}.
+     */
+    public CompletableFuture<WDEvaluateResult> evaluateAsync(String script, WDTarget target, boolean awaitPromise, WDResultOwnership resultOwnership, WDSerializationOptions serializationOptions) {
+        return tracked(WDWebSocketManager.sendAsync(
                 new WDScriptRequest.Evaluate(script, target, awaitPromise, resultOwnership, serializationOptions),
                 WDEvaluateResult.class
-        );
+        ), resultOwnership);
     }
 
     /**
@@ -240,10 +340,17 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDEvaluateResult evaluate(String script, WDTarget target, boolean awaitPromise, WDResultOwnership resultOwnership, WDSerializationOptions serializationOptions, boolean userActivation) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(evaluateAsync(script, target, awaitPromise, resultOwnership, serializationOptions, userActivation));
+    }
+
+    /**
+     * Non-blocking variant of {@link #evaluate(String, WDTarget, boolean, WDResultOwnership, WDSerializationOptions, boolean)}.
+     */
+    public CompletableFuture<WDEvaluateResult> evaluateAsync(String script, WDTarget target, boolean awaitPromise, WDResultOwnership resultOwnership, WDSerializationOptions serializationOptions, boolean userActivation) {
+        return tracked(WDWebSocketManager.sendAsync(
                 new WDScriptRequest.Evaluate(script, target, awaitPromise, resultOwnership, serializationOptions, userActivation),
                 WDEvaluateResult.class
-        );
+        ), resultOwnership);
     }
 
     /**
@@ -253,7 +360,14 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDScriptResult.GetRealmsResult getRealms() {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(getRealmsAsync());
+    }
+
+    /**
+     * Non-blocking variant of {@link #getRealms()}.
+     */
+    public CompletableFuture<WDScriptResult.GetRealmsResult> getRealmsAsync() {
+        return WDWebSocketManager.sendAsync(
                 new WDScriptRequest.GetRealms(),
                 WDScriptResult.GetRealmsResult.class
         );
@@ -267,7 +381,14 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDScriptResult.GetRealmsResult getRealms(WDBrowsingContext context) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(getRealmsAsync(context));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getRealms(WDBrowsingContext)}.
+     */
+    public CompletableFuture<WDScriptResult.GetRealmsResult> getRealmsAsync(WDBrowsingContext context) {
+        return WDWebSocketManager.sendAsync(
                 new WDScriptRequest.GetRealms(context),
                 WDScriptResult.GetRealmsResult.class
         );
@@ -283,7 +404,14 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDScriptResult.GetRealmsResult getRealms(WDBrowsingContext context, WDRealmType type){
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(getRealmsAsync(context, type));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getRealms(WDBrowsingContext, WDRealmType)}.
+     */
+    public CompletableFuture<WDScriptResult.GetRealmsResult> getRealmsAsync(WDBrowsingContext context, WDRealmType type) {
+        return WDWebSocketManager.sendAsync(
                 new WDScriptRequest.GetRealms(context, type),
                 WDScriptResult.GetRealmsResult.class
         );
@@ -296,7 +424,14 @@ public class WDScriptManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public void removePreloadScript(String scriptId) {
-        WDWebSocketManager.sendAndWaitForResponse(
+        WDWebSocketManager.await(removePreloadScriptAsync(scriptId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #removePreloadScript(String)}.
+     */
+    public CompletableFuture<WDEmptyResult> removePreloadScriptAsync(String scriptId) {
+        return WDWebSocketManager.sendAsync(
                 new WDScriptRequest.RemovePreloadScript(scriptId),
                 WDEmptyResult.class
         );
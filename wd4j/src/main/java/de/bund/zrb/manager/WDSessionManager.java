@@ -11,13 +11,18 @@ import de.bund.zrb.type.session.WDSubscriptionRequest;
 import de.bund.zrb.api.WDWebSocketManager;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 public class WDSessionManager implements WDModule {
     private final WDWebSocketManager WDWebSocketManager;
     private final Map<WDSubscriptionRequest, String> subscriptionIds = new ConcurrentHashMap<>();
-    private final Set<String> subscribedEvents = new HashSet<>();
+    private final Set<String> subscribedEvents = ConcurrentHashMap.newKeySet();
+    // Subscription-ID vor einem Reconnect -> aktuelle ID
+    private final Map<String, String> resumedIds = new ConcurrentHashMap<>();
+    // Browser der über diesen Manager erstellten Session, um sie nach einem Reconnect neu zu erstellen
+    private volatile String browserName;
 
     /**
      * Erstellt eine neue Session und gibt diese zurück.
@@ -44,7 +49,17 @@ public class WDSessionManager implements WDModule {
      * Ruft den Status der WebDriver BiDi Session ab.
      */
     public WDSessionResult.StatusResult status() {
-        return WDWebSocketManager.sendAndWaitForResponse(new WDSessionRequest.Status(), WDSessionResult.StatusResult.class);
+        return WDWebSocketManager.await(statusAsync());
+    }
+
+    /**
+     * Nicht-blockierende Variante von {@link #status()}.
+     */
+    public CompletableFuture<WDSessionResult.StatusResult> statusAsync() {
+        return WDWebSocketManager.sendAsync(
+                new WDSessionRequest.Status(),
+                WDSessionResult.StatusResult.class
+        );
     }
 
     // new() - Since plain "new" is a reserved word in Java!
@@ -52,7 +67,21 @@ public class WDSessionManager implements WDModule {
      * Erstellt eine neue Session mit dem gegebenen Browser.
      */
     public WDSessionResult.NewResult newSession(String browserName) {
-        return WDWebSocketManager.sendAndWaitForResponse(new WDSessionRequest.New(browserName), WDSessionResult.NewResult.class);
+        return WDWebSocketManager.await(newSessionAsync(browserName));
+    }
+
+    /**
+     * Nicht-blockierende Variante von {@link #newSession(String)}.
+     */
+    public CompletableFuture<WDSessionResult.NewResult> newSessionAsync(final String browserName) {
+        CompletableFuture<WDSessionResult.NewResult> pending = WDWebSocketManager.sendAsync(
+                new WDSessionRequest.New(browserName),
+                WDSessionResult.NewResult.class
+        );
+        return pending.thenApply(result -> {
+            this.browserName = browserName; // für resumeSession() nach einem Reconnect
+            return result;
+        });
     }
 
 
@@ -61,7 +90,17 @@ public class WDSessionManager implements WDModule {
      * Beendet die aktuelle WebDriver BiDi Session.
      */
     public void endSession() {
-        WDWebSocketManager.sendAndWaitForResponse(new WDSessionRequest.End(), WDEmptyResult.class);
+        WDWebSocketManager.await(endSessionAsync());
+    }
+
+    /**
+     * Nicht-blockierende Variante von {@link #endSession()}.
+     */
+    public CompletableFuture<WDEmptyResult> endSessionAsync() {
+        return WDWebSocketManager.sendAsync(
+                new WDSessionRequest.End(),
+                WDEmptyResult.class
+        );
     }
 
     /**
@@ -69,50 +108,67 @@ public class WDSessionManager implements WDModule {
      * Falls bereits abonniert, wird das Event nicht erneut angefordert.
      */
     public WDSessionResult.SubscribeResult subscribe(WDSubscriptionRequest subscriptionRequest) {
+        return WDWebSocketManager.await(subscribeAsync(subscriptionRequest));
+    }
+
+    /**
+     * Nicht-blockierende Variante von {@link #subscribe(WDSubscriptionRequest)}.
+     * Die Subscription wird erst nach Eingang der Antwort gespeichert.
+     */
+    public CompletableFuture<WDSessionResult.SubscribeResult> subscribeAsync(final WDSubscriptionRequest subscriptionRequest) {
         if (subscriptionRequest == null || subscriptionRequest.getEvents().isEmpty()) {
-            throw new IllegalArgumentException("Subscription request must not be null or empty.");
+            return WDFutures.failed(new IllegalArgumentException("Subscription request must not be null or empty."));
         }
 
         // Prüfe, ob genau diese Subscription bereits existiert
         if (subscriptionIds.containsKey(subscriptionRequest)) {
             System.out.println("Subscription already exists for: " + subscriptionRequest);
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         // Erzeuge das Command-Objekt mit der ID
         WDSessionRequest.Subscribe subscribeCommand = new WDSessionRequest.Subscribe(subscriptionRequest);
 
         // Die ID ist bereits bekannt, sollt aber eigentlich in der Antwort geliefert werden (ToDo: Wait for fix in WebDriver BiDi!)
-        String subscriptionId = subscribeCommand.getId().toString();
+        final String subscriptionId = subscribeCommand.getId().toString();
 
         // Sende den Subscribe-Command
-        WDSessionResult.SubscribeResult result = WDWebSocketManager.sendAndWaitForResponse(
+        CompletableFuture<WDSessionResult.SubscribeResult> pending = WDWebSocketManager.sendAsync(
                 subscribeCommand, WDSessionResult.SubscribeResult.class);
 
-        // Bug fix: Falls die Antwort leer ist, erstelle ein Fallback-Result mit der ID
-        if (result == null || result.getSubscription() == null) {
-            System.out.println("Warning: No Subscription-ID returned. Using command ID as fallback.");
-            result = new WDSessionResult.SubscribeResult(new WDSubscription(subscriptionId));
-        }
-        // End Bug fix (ToDo: Remove when fixed in WebDriver BiDi!)
+        return pending.thenApply(result -> {
+            // Bug fix: Falls die Antwort leer ist, erstelle ein Fallback-Result mit der ID
+            if (result == null || result.getSubscription() == null) {
+                System.out.println("Warning: No Subscription-ID returned. Using command ID as fallback.");
+                result = new WDSessionResult.SubscribeResult(new WDSubscription(subscriptionId));
+            }
+            // End Bug fix (ToDo: Remove when fixed in WebDriver BiDi!)
 
-        // Speichere die Subscription mit ihren vollen Kriterien
-        subscriptionIds.put(subscriptionRequest, subscriptionId);
+            // Speichere die Subscription mit ihren vollen Kriterien (ID wie an den Aufrufer geliefert)
+            subscriptionIds.put(subscriptionRequest, result.getSubscription().value());
 
-        System.out.println("Subscribed to events: " + subscriptionRequest.getEvents() + " with Subscription-ID: " + subscriptionId);
+            System.out.println("Subscribed to events: " + subscriptionRequest.getEvents() + " with Subscription-ID: " + result.getSubscription().value());
 
-        return result;
+            return result;
+        });
     }
 
     /**
      * Entfernt die Event-Subscription für WebDriver BiDi Events.
      */
     public void unsubscribe(List<String> events, List<WDBrowsingContext> contexts) {
+        WDWebSocketManager.await(unsubscribeAsync(events, contexts));
+    }
+
+    /**
+     * Nicht-blockierende Variante von {@link #unsubscribe(List, List)}.
+     */
+    public CompletableFuture<WDEmptyResult> unsubscribeAsync(final List<String> events, final List<WDBrowsingContext> contexts) {
         if (events == null || events.isEmpty()) {
-            throw new IllegalArgumentException("Events list must not be null or empty.");
+            return WDFutures.failed(new IllegalArgumentException("Events list must not be null or empty."));
         }
 
-        List<String> eventsToRemove = new ArrayList<>();
+        final List<String> eventsToRemove = new ArrayList<>();
         for (String event : events) {
             // ToDo: Fix this. Es gibt jetzt zwei Listen mit Events: subscribedEvents und subscriptionIds
 //            if (subscribedEvents.contains(event)) {
@@ -128,11 +184,15 @@ public class WDSessionManager implements WDModule {
             // 🔹 Unsubscribe-Request mit Events und Contexts senden
             WDSessionRequest.Unsubscribe unsubscribeRequest = new WDSessionRequest.Unsubscribe(unsubscribeParameters);
 
-            WDWebSocketManager.sendAndWaitForResponse(unsubscribeRequest, WDEmptyResult.class);
-            subscribedEvents.removeAll(eventsToRemove);
+            CompletableFuture<WDEmptyResult> pending = WDWebSocketManager.sendAsync(unsubscribeRequest, WDEmptyResult.class);
+            return pending.thenApply(result -> {
+                subscribedEvents.removeAll(eventsToRemove);
 
-            System.out.println("[INFO] Unsubscribed from events: " + eventsToRemove + " for contexts: " + contexts);
+                System.out.println("[INFO] Unsubscribed from events: " + eventsToRemove + " for contexts: " + contexts);
+                return result;
+            });
         }
+        return CompletableFuture.completedFuture(null);
     }
 
 
@@ -140,21 +200,103 @@ public class WDSessionManager implements WDModule {
     // [WebSocket] Message sent: {"id":6,"method":"session.unsubscribe","params":{"subscriptions":["5"]}}
     //[WebSocket] Message received: {"type":"error","id":6,"error":"invalid argument","message":"Expected \"events\" to be an array, got [object Undefined] undefined","stacktrace":"RemoteError@chrome://remote/content/shared/RemoteError.sys.mjs:8:8\nWebDriverError@chrome://remote/content/shared/webdriver/Errors.sys.mjs:197:5\nInvalidArgumentError@chrome://remote/content/shared/webdriver/Errors.sys.mjs:392:5\nassert.that/<@chrome://remote/content/shared/webdriver/Assert.sys.mjs:538:13\nassert.array@chrome://remote/content/shared/webdriver/Assert.sys.mjs:511:41\n#assertNonEmptyArrayWithStrings@chrome://remote/content/webdriver-bidi/modules/root/session.sys.mjs:136:17\nunsubscribe@chrome://remote/content/webdriver-bidi/modules/root/session.sys.mjs:115:41\nhandleCommand@chrome://remote/content/shared/messagehandler/MessageHandler.sys.mjs:257:33\nexecute@chrome://remote/content/shared/webdriver/Session.sys.mjs:390:32\nonPacket@chrome://remote/content/webdriver-bidi/WebDriverBiDiConnection.sys.mjs:236:37\nonMessage@chrome://remote/content/server/WebSocketTransport.sys.mjs:127:18\nhandleEvent@chrome://remote/content/server/WebSocketTransport.sys.mjs:109:14\n"}
     public void unsubscribe(WDSubscription subscription) {
+        WDWebSocketManager.await(unsubscribeAsync(subscription));
+    }
+
+    /**
+     * Nicht-blockierende Variante von {@link #unsubscribe(WDSubscription)}.
+     */
+    public CompletableFuture<WDEmptyResult> unsubscribeAsync(final WDSubscription subscription) {
         if (subscription == null || subscription.value().isEmpty()) {
-            throw new IllegalArgumentException("Subscription ID must not be null or empty.");
+            return WDFutures.failed(new IllegalArgumentException("Subscription ID must not be null or empty."));
         }
 
+        // Nach einem Reconnect hat die Subscription eine neue ID
+        final WDSubscription current = resolveResumed(subscription);
+
         // Baue die Unsubscribe-Parameter
         UnsubscribeParameters unsubscribeParameters =
-                new UnsubscribeParameters.WDUnsubscribeByIDRequestParams(Collections.singletonList(subscription));
+                new UnsubscribeParameters.WDUnsubscribeByIDRequestParams(Collections.singletonList(current));
 
         // Sende den Unsubscribe-Command mit der Subscription-ID
-        WDWebSocketManager.sendAndWaitForResponse(new WDSessionRequest.Unsubscribe(unsubscribeParameters), WDEmptyResult.class);
+        CompletableFuture<WDEmptyResult> pending =
+                WDWebSocketManager.sendAsync(new WDSessionRequest.Unsubscribe(unsubscribeParameters), WDEmptyResult.class);
 
-        // Entferne die Subscription aus der Map (Vergleich als String)
-        subscriptionIds.entrySet().removeIf(entry -> entry.getValue().equals(subscription.value()));
+        return pending.thenApply(result -> {
+            // Entferne die Subscription aus der Map (Vergleich als String)
+            subscriptionIds.entrySet().removeIf(entry -> entry.getValue().equals(current.value()));
+
+            System.out.println("Unsubscribed from event using Subscription-ID: " + subscription.value());
+            return result;
+        });
+    }
+
+    /**
+     * Stellt nach einem Reconnect die Session wieder her und erneuert danach die Subscriptions.
+     *
+     * Zuerst wird {@code session.status} abgefragt: Meldet der Browser {@code ready}, gibt es auf der neuen Verbindung
+     * keine Session mehr (z.B. endet sie bei Firefox mit der Verbindung, über die sie erstellt wurde). Dann wird sie mit
+     * demselben Browser per {@code session.new} neu erstellt. Ohne bekannten Browser (Session nicht über diesen
+     * Manager erstellt) wird eine {@link IllegalStateException} geworfen, ebenso wenn {@code session.new} scheitert.
+     * Blockiert bis alle Antworten da sind, darf daher nicht auf dem WebSocket-Thread laufen.
+     *
+     * @return Ergebnis von {@code session.new} oder {@code null}, wenn die Session noch bestand
+     */
+    public WDSessionResult.NewResult resumeSession() {
+        WDSessionResult.NewResult renewed = null;
+        WDSessionResult.StatusResult status = status();
+        if (status != null && status.isReady()) {
+            if (browserName == null) {
+                throw new IllegalStateException("Session ended with the connection and cannot be re-created: "
+                        + "no browser known (" + status.getMessage() + ")");
+            }
+            try {
+                renewed = newSession(browserName);
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Session ended with the connection, session.new failed: "
+                        + e.getMessage(), e);
+            }
+            System.out.println("[INFO] Session re-created after reconnect: " + renewed.getSessionId());
+        }
+        replaySubscriptions();
+        return renewed;
+    }
+
+    /**
+     * Erneuert nach einem Reconnect alle bekannten Subscriptions ({@code session.subscribe}) auf der neuen Verbindung.
+     * Die bisherigen IDs bleiben für {@link #unsubscribe(WDSubscription)} gültig und werden intern umgeschrieben.
+     * Blockiert bis alle Antworten da sind, darf daher nicht auf dem WebSocket-Thread laufen.
+     *
+     * @return Anzahl erneuerter Subscriptions
+     */
+    public int replaySubscriptions() {
+        int replayed = 0;
+        for (Map.Entry<WDSubscriptionRequest, String> entry : subscriptionIds.entrySet()) {
+            WDSessionRequest.Subscribe subscribeCommand = new WDSessionRequest.Subscribe(entry.getKey());
+            WDSessionResult.SubscribeResult result =
+                    WDWebSocketManager.sendAndWaitForResponse(subscribeCommand, WDSessionResult.SubscribeResult.class);
+            String newId = (result != null && result.getSubscription() != null)
+                    ? result.getSubscription().value()
+                    : subscribeCommand.getId().toString();
+
+            String oldId = entry.getValue();
+            entry.setValue(newId);
+            // Frühere Umschreibungen auf die neue ID nachziehen (mehrere Reconnects)
+            for (Map.Entry<String, String> resumed : resumedIds.entrySet()) {
+                if (resumed.getValue().equals(oldId)) {
+                    resumed.setValue(newId);
+                }
+            }
+            resumedIds.put(oldId, newId);
+            replayed++;
+        }
+        System.out.println("[INFO] Replayed " + replayed + " subscription(s) after reconnect.");
+        return replayed;
+    }
 
-        System.out.println("Unsubscribed from event using Subscription-ID: " + subscription.value());
+    private WDSubscription resolveResumed(WDSubscription subscription) {
+        String resumed = resumedIds.get(subscription.value());
+        return resumed != null ? new WDSubscription(resumed) : subscription;
     }
 
     /**
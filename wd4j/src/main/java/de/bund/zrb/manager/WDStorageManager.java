@@ -8,6 +8,8 @@ import de.bund.zrb.command.response.WDStorageResult;
 import de.bund.zrb.type.browsingContext.WDBrowsingContext;
 import de.bund.zrb.api.WDWebSocketManager;
 
+import java.util.concurrent.CompletableFuture;
+
 public class WDStorageManager implements WDModule {
 
     private final WDWebSocketManager WDWebSocketManager;
@@ -34,7 +36,14 @@ public class WDStorageManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDStorageResult.GetCookieResult getCookies(WDBrowsingContext contextId) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(getCookiesAsync(contextId));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getCookies(WDBrowsingContext)}.
+     */
+    public CompletableFuture<WDStorageResult.GetCookieResult> getCookiesAsync(WDBrowsingContext contextId) {
+        return WDWebSocketManager.sendAsync(
                 new WDStorageRequest.GetCookies(contextId),
                 WDStorageResult.GetCookieResult.class
         );
@@ -48,7 +57,14 @@ public class WDStorageManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDStorageResult.SetCookieResult setCookie(String contextId, SetCookieParameters.PartialCookie cookie) {
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.await(setCookieAsync(contextId, cookie));
+    }
+
+    /**
+     * Non-blocking variant of {@link #setCookie(String, SetCookieParameters.PartialCookie)}.
+     */
+    public CompletableFuture<WDStorageResult.SetCookieResult> setCookieAsync(String contextId, SetCookieParameters.PartialCookie cookie) {
+        return WDWebSocketManager.sendAsync(
                 new WDStorageRequest.SetCookie(contextId, cookie),
                 WDStorageResult.SetCookieResult.class
         );
@@ -62,9 +78,16 @@ public class WDStorageManager implements WDModule {
      * @throws RuntimeException if the operation fails.
      */
     public WDStorageResult.DeleteCookiesResult deleteCookie(String contextId, String name) {
+        return WDWebSocketManager.await(deleteCookieAsync(contextId, name));
+    }
+
+    /**
+     * Non-blocking variant of {@link #deleteCookie(String, String)}.
+     */
+    public CompletableFuture<WDStorageResult.DeleteCookiesResult> deleteCookieAsync(String contextId, String name) {
         CookieFilter cookieFilter = new CookieFilter(name, null, null, null, null, null, null, null, null);
 
-        return WDWebSocketManager.sendAndWaitForResponse(
+        return WDWebSocketManager.sendAsync(
                 new WDStorageRequest.DeleteCookies(contextId, cookieFilter),
                 WDStorageResult.DeleteCookiesResult.class
         );
@@ -9,6 +9,8 @@ import de.bund.zrb.api.WDWebSocketManager;
 
 import de.bund.zrb.command.response.WDEmptyResult;
 
+import java.util.concurrent.CompletableFuture;
+
 public class WDWebExtensionManager implements WDModule {
 
     private final WDWebSocketManager WDWebSocketManager;
@@ -35,9 +37,7 @@ public class WDWebExtensionManager implements WDModule {
      */
     public WDWebExtensionResult.InstallResult install(ExtensionData extensionData) {
         try {
-            WDWebExtensionResult.InstallResult result = WDWebSocketManager.sendAndWaitForResponse(
-                    new WDWebExtensionRequest.Install(extensionData), WDWebExtensionResult.InstallResult.class
-            );
+            WDWebExtensionResult.InstallResult result = WDWebSocketManager.await(installAsync(extensionData));
             System.out.println("Web extension installed: " + result.getExtension().value());
             return result;
         } catch (RuntimeException e) {
@@ -46,6 +46,15 @@ public class WDWebExtensionManager implements WDModule {
         }
     }
 
+    /**
+     * Non-blocking variant of {@link #install(ExtensionData)}.
+     */
+    public CompletableFuture<WDWebExtensionResult.InstallResult> installAsync(ExtensionData extensionData) {
+        return WDWebSocketManager.sendAsync(
+                new WDWebExtensionRequest.Install(extensionData), WDWebExtensionResult.InstallResult.class
+        );
+    }
+
     /**
      * Uninstalls a web extension from the specified browsing context.
      *
@@ -54,9 +63,7 @@ public class WDWebExtensionManager implements WDModule {
      */
     public void uninstall(WDExtension extension) {
         try {
-            WDWebSocketManager.sendAndWaitForResponse(
-                    new WDWebExtensionRequest.Uninstall(extension), WDEmptyResult.class
-            );
+            WDWebSocketManager.await(uninstallAsync(extension));
             System.out.println("Web extension uninstalled: " + extension.value());
         } catch (RuntimeException e) {
             System.out.println("Error uninstalling web extension: " + e.getMessage());
@@ -64,6 +71,15 @@ public class WDWebExtensionManager implements WDModule {
         }
     }
 
+    /**
+     * Non-blocking variant of {@link #uninstall(WDExtension)}.
+     */
+    public CompletableFuture<WDEmptyResult> uninstallAsync(WDExtension extension) {
+        return WDWebSocketManager.sendAsync(
+                new WDWebExtensionRequest.Uninstall(extension), WDEmptyResult.class
+        );
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // Events (Classes)
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,396 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.WDWebSocketImpl;
+import de.bund.zrb.type.browser.WDClientWindow;
+import de.bund.zrb.type.browser.WDUserContext;
+import de.bund.zrb.type.browsingContext.WDBrowsingContext;
+import de.bund.zrb.type.browsingContext.WDInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Local mirror of the browsing-context tree, maintained from {@code browsingContext.contextCreated} /
+ * {@code contextDestroyed} and the navigation events ({@code navigationCommitted}, {@code fragmentNavigated},
+ * {@code historyUpdated}, {@code load}).
+ *
+ * Seeded once with {@code browsingContext.getTree}; afterwards {@link #getTree}, {@link #children},
+ * {@link #descendants} and {@link #getUrl} are answered without a round trip.
+ *
+ * The seed (subscribe + getTree) never runs on the WebSocket read thread: it would wait for a response only that
+ * thread can read. A first use from an event listener starts the seed in the background and is answered from the
+ * state known from events so far.
+ *
+ * Consistency check mode ({@code -Dwd4j.contextTree.verify=true}): every {@link #getTree} additionally asks the
+ * browser, logs differences and adopts the browser's state.
+ */
+public class WDContextTree {
+
+    private static final boolean VERIFY = Boolean.getBoolean("wd4j.contextTree.verify");
+
+    private final Supplier<List<WDInfo>> snapshot;
+
+    // guarded by this; insertion order = creation order, like the browser reports it
+    private final Map<String, Node> nodes = new LinkedHashMap<String, Node>();
+    private final Object seedLock = new Object();
+    private volatile boolean seeded;
+    // Während eines Seeds zerstörte Contexts – dürfen aus dem (älteren) Snapshot nicht wieder auftauchen
+    private Set<String> destroyedDuringSeed;
+    private volatile Runnable onFirstUse;
+    private volatile BooleanSupplier mayBlock = () -> !WDWebSocketImpl.isReceiveThread();
+    private final AtomicBoolean seedScheduled = new AtomicBoolean();
+
+    private final AtomicLong snapshots = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+
+    /**
+     * @param snapshot full tree from the browser, e.g. {@code () -> browsingContext().getTree().getContexts()}
+     */
+    public WDContextTree(Supplier<List<WDInfo>> snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /** Runs once before the first seed (used to subscribe to the events first). */
+    public void setOnFirstUse(Runnable onFirstUse) {
+        this.onFirstUse = onFirstUse;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Event input
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public synchronized void contextCreated(WDInfo info) {
+        if (info == null || info.getContext() == null) {
+            return;
+        }
+        put(info);
+    }
+
+    /** Removes the context and all its descendants. */
+    public synchronized void contextDestroyed(String contextId) {
+        Node node = contextId != null ? nodes.remove(contextId) : null;
+        if (destroyedDuringSeed != null && contextId != null) {
+            destroyedDuringSeed.add(contextId);
+        }
+        if (node == null) {
+            return;
+        }
+        Node parent = node.parent != null ? nodes.get(node.parent) : null;
+        if (parent != null) {
+            parent.children.remove(contextId);
+        }
+        for (String child : new ArrayList<String>(node.children)) {
+            contextDestroyed(child);
+        }
+    }
+
+    public synchronized void navigated(String contextId, String url) {
+        Node node = contextId != null ? nodes.get(contextId) : null;
+        if (node != null && url != null) {
+            node.url = url;
+        }
+    }
+
+    /** Forces a new snapshot on next use (e.g. after a reconnect). */
+    public synchronized void invalidate() {
+        seeded = false;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Queries
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Same shape as {@code browsingContext.getTree}: the root (or all top-level contexts) with children up to
+     * {@code maxDepth}; {@code children == null} where the depth is exhausted.
+     *
+     * @param root     context id or {@code null} for all top-level contexts
+     * @param maxDepth {@code null} = unlimited
+     */
+    public List<WDInfo> getTree(String root, Long maxDepth) {
+        ensureSeeded();
+        List<WDInfo> local = buildTree(root, maxDepth);
+        if (VERIFY && mayBlock.getAsBoolean()) {
+            return verify(root, maxDepth, local);
+        }
+        return local;
+    }
+
+    /** @return Direct child context ids (frames) in document order, empty if unknown */
+    public List<String> children(String contextId) {
+        ensureSeeded();
+        synchronized (this) {
+            Node node = nodes.get(contextId);
+            return node != null ? new ArrayList<String>(node.children) : Collections.<String>emptyList();
+        }
+    }
+
+    /** @return All descendant context ids (depth first), excluding {@code contextId} itself */
+    public List<String> descendants(String contextId) {
+        ensureSeeded();
+        synchronized (this) {
+            List<String> out = new ArrayList<String>();
+            collectDescendants(contextId, out);
+            return out;
+        }
+    }
+
+    /** @return Parent context id, {@code null} for top-level or unknown contexts */
+    public String getParent(String contextId) {
+        ensureSeeded();
+        synchronized (this) {
+            Node node = nodes.get(contextId);
+            return node != null ? node.parent : null;
+        }
+    }
+
+    /** @return Last known URL of the context, {@code null} if unknown */
+    public String getUrl(String contextId) {
+        ensureSeeded();
+        synchronized (this) {
+            Node node = nodes.get(contextId);
+            return node != null ? node.url : null;
+        }
+    }
+
+    public boolean contains(String contextId) {
+        ensureSeeded();
+        synchronized (this) {
+            return nodes.containsKey(contextId);
+        }
+    }
+
+    /** @return Number of {@code browsingContext.getTree} calls (seeds and verifications) */
+    public long getSnapshotCount() {
+        return snapshots.get();
+    }
+
+    /** @return Number of differences found in consistency check mode */
+    public long getMismatchCount() {
+        return mismatches.get();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /** For tests: whether the calling thread may wait for a browser round trip. */
+    void setMayBlock(BooleanSupplier mayBlock) {
+        this.mayBlock = mayBlock;
+    }
+
+    private void ensureSeeded() {
+        if (seeded) {
+            return;
+        }
+        if (!mayBlock.getAsBoolean()) {
+            seedInBackground();
+            return;
+        }
+        seed();
+    }
+
+    private void seedInBackground() {
+        if (!seedScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                seed();
+            } catch (RuntimeException e) {
+                System.err.println("[WARN] WDContextTree could not be seeded: " + e.getMessage());
+            } finally {
+                seedScheduled.set(false);
+            }
+        });
+    }
+
+    private void seed() {
+        synchronized (seedLock) {
+            if (seeded) {
+                return;
+            }
+            Runnable hook = onFirstUse;
+            if (hook != null) {
+                onFirstUse = null;
+                hook.run(); // not under 'this' – events must be able to come in meanwhile
+            }
+            synchronized (this) {
+                destroyedDuringSeed = new HashSet<String>();
+            }
+            try {
+                List<WDInfo> infos = snapshot.get();
+                snapshots.incrementAndGet();
+                synchronized (this) {
+                    // Reseed (nach invalidate): Contexts, die während der Unterbrechung verschwanden, verwerfen
+                    adopt(infos, destroyedDuringSeed, snapshots.get() > 1);
+                    seeded = true;
+                }
+            } finally {
+                synchronized (this) {
+                    destroyedDuringSeed = null;
+                }
+            }
+        }
+    }
+
+    /** Merges a browser snapshot; {@code replace} drops everything the snapshot does not contain. */
+    private void adopt(List<WDInfo> infos, Set<String> skip, boolean replace) {
+        if (replace) {
+            nodes.clear();
+        }
+        if (infos == null) {
+            return;
+        }
+        for (WDInfo info : infos) {
+            adoptRecursive(info, null, skip);
+        }
+    }
+
+    private void adoptRecursive(WDInfo info, String parentFromTree, Set<String> skip) {
+        if (info == null || info.getContext() == null) {
+            return;
+        }
+        String id = info.getContext().value();
+        if (skip != null && skip.contains(id)) {
+            return;
+        }
+        Node node = nodes.get(id);
+        if (node == null) {
+            node = put(info);
+        }
+        if (node.parent == null && parentFromTree != null) {
+            node.parent = parentFromTree;
+            Node parent = nodes.get(parentFromTree);
+            if (parent != null && !parent.children.contains(id)) {
+                parent.children.add(id);
+            }
+        }
+        if (info.getChildren() != null) {
+            for (WDInfo child : info.getChildren()) {
+                adoptRecursive(child, id, skip);
+            }
+        }
+    }
+
+    private Node put(WDInfo info) {
+        String id = info.getContext().value();
+        String parentId = info.getParent() != null ? info.getParent().value() : null;
+        Node node = nodes.get(id);
+        if (node == null) {
+            node = new Node(id);
+            nodes.put(id, node);
+        }
+        node.parent = parentId;
+        node.url = info.getUrl();
+        node.userContext = info.getUserContext();
+        node.clientWindow = info.getClientWindow();
+        node.originalOpener = info.getOriginalOpener();
+        if (parentId != null) {
+            Node parent = nodes.get(parentId);
+            if (parent != null && !parent.children.contains(id)) {
+                parent.children.add(id);
+            }
+        }
+        return node;
+    }
+
+    private synchronized List<WDInfo> buildTree(String root, Long maxDepth) {
+        long depth = maxDepth != null ? maxDepth : Long.MAX_VALUE;
+        List<WDInfo> out = new ArrayList<WDInfo>();
+        if (root != null) {
+            Node node = nodes.get(root);
+            if (node != null) {
+                out.add(toInfo(node, depth));
+            }
+            return out;
+        }
+        for (Node node : nodes.values()) {
+            if (node.parent == null) {
+                out.add(toInfo(node, depth));
+            }
+        }
+        return out;
+    }
+
+    private WDInfo toInfo(Node node, long depth) {
+        List<WDInfo> children = null;
+        if (depth > 0) {
+            children = new ArrayList<WDInfo>(node.children.size());
+            for (String child : node.children) {
+                Node c = nodes.get(child);
+                if (c != null) {
+                    children.add(toInfo(c, depth - 1));
+                }
+            }
+        }
+        return new WDInfo(children, node.clientWindow, new WDBrowsingContext(node.id), node.originalOpener, node.url,
+                node.userContext, node.parent != null ? new WDBrowsingContext(node.parent) : null);
+    }
+
+    private void collectDescendants(String contextId, List<String> out) {
+        Node node = nodes.get(contextId);
+        if (node == null) {
+            return;
+        }
+        for (String child : node.children) {
+            out.add(child);
+            collectDescendants(child, out);
+        }
+    }
+
+    private List<WDInfo> verify(String root, Long maxDepth, List<WDInfo> local) {
+        List<WDInfo> remote = snapshot.get();
+        snapshots.incrementAndGet();
+        synchronized (this) {
+            Map<String, String> expected = new LinkedHashMap<String, String>();
+            Map<String, String> actual = new LinkedHashMap<String, String>();
+            flatten(remote, null, expected);
+            flatten(buildTree(null, null), null, actual);
+            if (expected.equals(actual)) {
+                return local;
+            }
+            mismatches.incrementAndGet();
+            System.err.println("[WARN] WDContextTree out of sync - local: " + actual + ", browser: " + expected);
+            adopt(remote, null, true);
+            return buildTree(root, maxDepth);
+        }
+    }
+
+    /** context id → "parent|url" */
+    private static void flatten(List<WDInfo> infos, String parent, Map<String, String> out) {
+        if (infos == null) {
+            return;
+        }
+        for (WDInfo info : infos) {
+            if (info == null || info.getContext() == null) continue;
+            String id = info.getContext().value();
+            String p = info.getParent() != null ? info.getParent().value() : parent;
+            out.put(id, p + "|" + info.getUrl());
+            flatten(info.getChildren(), id, out);
+        }
+    }
+
+    private static final class Node {
+        final String id;
+        String parent;
+        String url;
+        WDUserContext userContext;
+        WDClientWindow clientWindow;
+        WDBrowsingContext originalOpener;
+        final List<String> children = new ArrayList<String>();
+
+        Node(String id) {
+            this.id = Objects.requireNonNull(id);
+        }
+    }
+}
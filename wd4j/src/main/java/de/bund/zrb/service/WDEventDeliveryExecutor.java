@@ -0,0 +1,326 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.websocket.WDEventNames;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deliver events off the WebSocket read thread.
+ *
+ * Events are queued per lane (browsing context id; events without context share one lane). Each lane is
+ * drained by at most one worker at a time, so listeners see the events of one context in arrival order while
+ * different contexts are delivered in parallel. The {@link OverflowPolicy} decides what happens when a lane
+ * reaches its capacity. The producer (WebSocket read thread) is never parked: blocking it would also stall the
+ * command responses a listener may be waiting for.
+ *
+ * Events that must be answered by the client (e.g. {@code network.beforeRequestSent} with {@code isBlocked=true})
+ * are submitted as "must deliver" and are never dropped or coalesced; the lane grows for them if needed.
+ *
+ * Configure via System Properties (see {@link #fromSystemProperties()}):
+ *  - wd4j.events.async          (boolean) enable asynchronous delivery, default false
+ *  - wd4j.events.threads        (int)     worker threads, default 2
+ *  - wd4j.events.queueCapacity  (int)     max queued events per context, default 1024
+ *  - wd4j.events.overflow       (enum)    GROW | DROP_OLDEST | COALESCE, default GROW
+ */
+public class WDEventDeliveryExecutor {
+
+    public enum OverflowPolicy {
+        /** Let the lane grow beyond its capacity and log a warning (at every doubling). No event is lost. */
+        GROW,
+        /** Drop the oldest droppable queued event of the lane. */
+        DROP_OLDEST,
+        /** Replace the oldest droppable queued event with the same key (e.g. event type), otherwise drop the oldest. */
+        COALESCE
+    }
+
+    private static final String NO_CONTEXT_LANE = "";
+    private static final int MAX_BATCH_PER_RUN = 64; // Give other lanes a chance on a busy pool
+
+    private final ExecutorService workers;
+    private final int laneCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<String, Lane>();
+
+    // Counters
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public WDEventDeliveryExecutor(int threads, int laneCapacity, OverflowPolicy overflowPolicy) {
+        if (threads <= 0 || laneCapacity <= 0) {
+            throw new IllegalArgumentException("threads and laneCapacity must be positive");
+        }
+        this.laneCapacity = laneCapacity;
+        this.overflowPolicy = overflowPolicy != null ? overflowPolicy : OverflowPolicy.GROW;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory());
+        pool.allowCoreThreadTimeOut(true);
+        this.workers = pool;
+    }
+
+    /**
+     * @return Executor configured by the wd4j.events.* System Properties or {@code null} if async delivery is off.
+     */
+    public static WDEventDeliveryExecutor fromSystemProperties() {
+        if (!Boolean.getBoolean("wd4j.events.async")) {
+            return null;
+        }
+        int threads = Integer.getInteger("wd4j.events.threads", 2);
+        int capacity = Integer.getInteger("wd4j.events.queueCapacity", 1024);
+        OverflowPolicy policy = OverflowPolicy.GROW;
+        String v = System.getProperty("wd4j.events.overflow");
+        if (v != null && !v.trim().isEmpty()) {
+            if ("BLOCK".equalsIgnoreCase(v.trim())) {
+                // Früherer Default: hat den WebSocket-Thread geparkt, GROW verliert ebenfalls kein Event
+                System.err.println("[WARN] wd4j.events.overflow=BLOCK is no longer supported – using GROW");
+            } else {
+                try {
+                    policy = OverflowPolicy.valueOf(v.trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    System.err.println("[WARN] Unknown wd4j.events.overflow: " + v + " – using GROW");
+                }
+            }
+        }
+        return new WDEventDeliveryExecutor(threads, capacity, policy);
+    }
+
+    /**
+     * Queue a delivery task that may be dropped or coalesced by the overflow policy.
+     *
+     * @param contextId   browsing context id used for ordering (may be null)
+     * @param coalesceKey key for {@link OverflowPolicy#COALESCE}, typically the event name (may be null)
+     * @param task        the delivery
+     */
+    public void submit(String contextId, Object coalesceKey, Runnable task) {
+        submit(contextId, coalesceKey, false, task);
+    }
+
+    /**
+     * Queue a delivery task.
+     *
+     * @param contextId   browsing context id used for ordering (may be null)
+     * @param coalesceKey key for {@link OverflowPolicy#COALESCE}, typically the event name (may be null)
+     * @param mustDeliver true for events the client has to answer (never dropped or coalesced)
+     * @param task        the delivery
+     */
+    public void submit(String contextId, Object coalesceKey, boolean mustDeliver, Runnable task) {
+        final String key = contextId != null ? contextId : NO_CONTEXT_LANE;
+        final Entry entry = new Entry(coalesceKey, mustDeliver, task);
+        while (true) {
+            Lane lane = lanes.get(key);
+            if (lane == null) {
+                Lane created = new Lane(key);
+                lane = lanes.putIfAbsent(key, created);
+                if (lane == null) {
+                    lane = created;
+                }
+            }
+            boolean schedule;
+            synchronized (lane) {
+                if (lane.retired) {
+                    continue; // Lane was removed concurrently, pick up the new one
+                }
+                if (!offer(lane, entry)) {
+                    return;
+                }
+                schedule = !lane.scheduled;
+                lane.scheduled = true;
+            }
+            if (schedule) {
+                execute(lane);
+            }
+            return;
+        }
+    }
+
+    /**
+     * Add the entry to the lane, applying the overflow policy. Called while holding the lane monitor, never waits.
+     *
+     * @return false if the event was not queued (dropped or merged into a queued event)
+     */
+    private boolean offer(Lane lane, Entry entry) {
+        if (lane.queue.size() >= laneCapacity && overflowPolicy != OverflowPolicy.GROW) {
+            if (overflowPolicy == OverflowPolicy.COALESCE && replaceSameKey(lane, entry)) {
+                coalesced.incrementAndGet();
+                return false;
+            }
+            if (removeOldestDroppable(lane)) {
+                queueDepth.decrementAndGet();
+                dropped.incrementAndGet();
+            } else if (!entry.mustDeliver) {
+                dropped.incrementAndGet(); // Lane holds only must-deliver events: the new one is the oldest droppable
+                return false;
+            }
+        }
+        lane.queue.addLast(entry);
+        if (lane.queue.size() > lane.warnAt) {
+            System.err.println("[WARN] Event lane '" + lane.key + "' holds " + lane.queue.size()
+                    + " events (capacity " + laneCapacity + ") – listeners are slower than the browser");
+            lane.warnAt *= 2;
+        }
+        int depth = queueDepth.incrementAndGet();
+        int max = maxQueueDepth.get();
+        while (depth > max && !maxQueueDepth.compareAndSet(max, depth)) {
+            max = maxQueueDepth.get();
+        }
+        return true;
+    }
+
+    private boolean replaceSameKey(Lane lane, Entry entry) {
+        if (entry.coalesceKey == null || entry.mustDeliver) {
+            return false;
+        }
+        for (Iterator<Entry> it = lane.queue.iterator(); it.hasNext(); ) {
+            Entry queued = it.next();
+            if (!queued.mustDeliver && entry.coalesceKey.equals(queued.coalesceKey)) {
+                // Keep position, deliver the newest payload
+                queued.task = entry.task;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean removeOldestDroppable(Lane lane) {
+        for (Iterator<Entry> it = lane.queue.iterator(); it.hasNext(); ) {
+            if (!it.next().mustDeliver) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void execute(Lane lane) {
+        try {
+            workers.execute(lane);
+        } catch (RejectedExecutionException e) {
+            // Executor shut down: queued events of this lane are discarded
+        }
+    }
+
+    /** Stop the worker threads; queued events are discarded. */
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Counters
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /** @return events currently queued over all contexts */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /** @return highest queue depth seen so far */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    /** @return events dropped by the overflow policy */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /** @return events merged into an already queued event under {@link OverflowPolicy#COALESCE} */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Internals
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static final class Entry {
+        final Object coalesceKey;
+        final boolean mustDeliver;
+        Runnable task;
+
+        Entry(Object coalesceKey, boolean mustDeliver, Runnable task) {
+            this.coalesceKey = coalesceKey;
+            this.mustDeliver = mustDeliver;
+            this.task = task;
+        }
+    }
+
+    /** Serial queue of one context; runs on the pool as long as it has work. */
+    private final class Lane implements Runnable {
+        final String key;
+        final ArrayDeque<Entry> queue = new ArrayDeque<Entry>();
+        boolean scheduled;
+        boolean retired;
+        int warnAt = laneCapacity; // nächste Größe, ab der gewarnt wird
+
+        Lane(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < MAX_BATCH_PER_RUN; i++) {
+                Runnable task;
+                Object event;
+                synchronized (this) {
+                    Entry next = queue.pollFirst();
+                    if (next == null) {
+                        scheduled = false;
+                        retired = true;
+                        lanes.remove(key, this);
+                        return;
+                    }
+                    queueDepth.decrementAndGet();
+                    task = next.task;
+                    event = next.coalesceKey;
+                }
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    // Do not break the lane, but do not hide the failure either
+                    System.err.println("[WARN] Event listener failed (lane '" + key + "', event " + describe(event) + "): " + t);
+                    t.printStackTrace();
+                } finally {
+                    delivered.incrementAndGet();
+                }
+            }
+            // Batch used up: requeue behind other lanes, keep ordering (lane stays scheduled)
+            execute(this);
+        }
+    }
+
+    private static String describe(Object event) {
+        return event instanceof WDEventNames ? ((WDEventNames) event).getName() : String.valueOf(event);
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "wd4j-event-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
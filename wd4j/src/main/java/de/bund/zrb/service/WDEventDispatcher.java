@@ -1,6 +1,7 @@
 package de.bund.zrb.service;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import de.bund.zrb.command.response.WDSessionResult;
 import de.bund.zrb.manager.WDSessionManager;
@@ -25,6 +26,9 @@ public class WDEventDispatcher {
     private final Gson gson = GsonMapperFactory.getGson(); // ToDo: Maybe removed
     private final BiFunction<String, JsonObject, Object> eventMapper;
 
+    // Optional: deliver events off the WebSocket thread (null = inline delivery, bisheriges Verhalten)
+    private volatile WDEventDeliveryExecutor deliveryExecutor = WDEventDeliveryExecutor.fromSystemProperties();
+
     // Global listeners per event type (unchanged behavior, but key now is enum)
     private final Map<WDEventNames, ConcurrentLinkedQueue<Consumer<Object>>> eventListeners = new ConcurrentHashMap<WDEventNames, ConcurrentLinkedQueue<Consumer<Object>>>();
 
@@ -52,26 +56,65 @@ public class WDEventDispatcher {
             System.err.println("[WARN] No event mapping found for event: " + method);
             return;
         }
-        dispatchEvent(eventEnum, params);
+        // Determine browsing context id for context-aware listeners
+        final String ctxId = WDEventContextExtractor.extractContextId(eventEnum, params);
+        if (!hasMatchingListener(eventEnum, ctxId)) {
+            // Nobody listens: skip DTO mapping (and queueing) completely
+            if (Boolean.getBoolean("wd4j.debug")) {
+                System.out.println("[DEBUG] No listener registered for event: " + eventEnum.getName());
+            }
+            return;
+        }
+
+        final WDEventDeliveryExecutor executor = deliveryExecutor;
+        if (executor == null) {
+            dispatchEvent(eventEnum, params, ctxId);
+            return;
+        }
+        // Ordering per browsing context: same context => same lane
+        executor.submit(ctxId, eventEnum, needsReply(eventEnum, params), () -> dispatchEvent(eventEnum, params, ctxId));
     }
 
     /**
-     * Dispatches an event to all registered listeners (global and context-aware).
-     * Map params to DTO once to keep behavior consistent.
+     * Events the client has to answer: a blocked request waits for continue/fail/provideResponse, an open user prompt
+     * for handleUserPrompt. Such events must never be dropped or coalesced by the delivery executor.
      */
-    private void dispatchEvent(WDEventNames eventEnum, JsonObject params) {
-        // Map JSON params to typed DTO (unchanged strategy)
-        final Object event = mapEvent(eventEnum.getName(), params);
+    static boolean needsReply(WDEventNames eventEnum, JsonObject params) {
+        if (eventEnum == WDEventNames.USER_PROMPT_OPENED) {
+            return true;
+        }
+        JsonElement blocked = params.get("isBlocked");
+        return blocked != null && blocked.isJsonPrimitive() && blocked.getAsBoolean();
+    }
 
-        // Determine browsing context id for context-aware listeners
-        final String ctxId = WDEventContextExtractor.extractContextId(eventEnum, params);
+    /**
+     * Switch to asynchronous delivery via the given executor, or back to inline delivery on the
+     * WebSocket thread with {@code null}. Default is taken from the wd4j.events.* System Properties.
+     */
+    public void setDeliveryExecutor(WDEventDeliveryExecutor deliveryExecutor) {
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    public WDEventDeliveryExecutor getDeliveryExecutor() {
+        return deliveryExecutor;
+    }
+
+    /**
+     * Dispatches an event to all registered listeners (global and context-aware).
+     * Map params to DTO once and only if a listener is actually called; the DTO itself maps its params lazily.
+     */
+    private void dispatchEvent(WDEventNames eventEnum, JsonObject params, String ctxId) {
+        Object event = null;
 
         // 1) Fan-out to context-aware listeners (if any)
         final Map<String, ConcurrentLinkedQueue<Consumer<Object>>> byContext = contextListeners.get(eventEnum);
         if (byContext != null && ctxId != null) {
             final ConcurrentLinkedQueue<Consumer<Object>> ctxQueue = byContext.get(ctxId);
-            if (ctxQueue != null && !ctxQueue.isEmpty()) {
+            if (ctxQueue != null) {
                 for (Consumer<Object> l : ctxQueue) {
+                    if (event == null) {
+                        event = mapEvent(eventEnum.getName(), params);
+                    }
                     try {
                         // Comment: Deliver DTO to context-scoped listener
                         l.accept(event);
@@ -84,8 +127,11 @@ public class WDEventDispatcher {
 
         // 2) Fan-out to global listeners (unchanged behavior)
         final ConcurrentLinkedQueue<Consumer<Object>> globals = eventListeners.get(eventEnum);
-        if (globals != null && !globals.isEmpty()) {
+        if (globals != null) {
             for (Consumer<Object> listener : globals) {
+                if (event == null) {
+                    event = mapEvent(eventEnum.getName(), params);
+                }
                 try {
                     // Comment: Deliver DTO to global listener
                     listener.accept(event);
@@ -94,11 +140,6 @@ public class WDEventDispatcher {
                 }
             }
         }
-
-        if ((byContext == null || (ctxId != null && (byContext.get(ctxId) == null || byContext.get(ctxId).isEmpty())))
-                && (globals == null || globals.isEmpty())) {
-            System.out.println("[INFO] No listener registered for event: " + eventEnum.getName());
-        }
     }
 
     // -----------------------------------------------------------------------------------------------------------------
@@ -256,6 +297,23 @@ public class WDEventDispatcher {
     // Helpers
     // -----------------------------------------------------------------------------------------------------------------
 
+    /**
+     * @return true if a global listener or a listener for the given context is registered for the event type.
+     */
+    private boolean hasMatchingListener(WDEventNames type, String ctxId) {
+        ConcurrentLinkedQueue<Consumer<Object>> globals = eventListeners.get(type);
+        if (globals != null && !globals.isEmpty()) return true;
+
+        if (ctxId != null) {
+            Map<String, ConcurrentLinkedQueue<Consumer<Object>>> byCtx = contextListeners.get(type);
+            if (byCtx != null) {
+                ConcurrentLinkedQueue<Consumer<Object>> q = byCtx.get(ctxId);
+                return q != null && !q.isEmpty();
+            }
+        }
+        return false;
+    }
+
     private boolean hasAnyListener(WDEventNames type) {
         ConcurrentLinkedQueue<Consumer<Object>> globals = eventListeners.get(type);
         if (globals != null && !globals.isEmpty()) return true;
@@ -0,0 +1,257 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.type.script.WDEvaluateResult;
+import de.bund.zrb.type.script.WDHandle;
+import de.bund.zrb.type.script.WDRealm;
+import de.bund.zrb.type.script.WDRemoteValue;
+import de.bund.zrb.type.script.WDTarget;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Tracks every handle the browser holds for us (results with {@code resultOwnership=root}), per realm.
+ *
+ * Without {@code script.disown} the browser keeps these objects alive until the realm dies, so a long suite grows
+ * the handle table without bound. The registry
+ *  - disowns all handles created inside a {@link Scope} in one {@code script.disown} per realm when the scope closes,
+ *  - forgets the handles of a realm once it is destroyed (navigation, closed context) – the browser already
+ *    dropped them, sending disown would only fail,
+ *  - exposes live-handle counts for monitoring.
+ *
+ * <pre>
+ * WDHandleRegistry.Scope handles = webDriver.script().handles().openScope();
+ * try {
+ *     ... // handles created here are disowned at the end
+ * } finally {
+ *     handles.close();
+ * }
+ * </pre>
+ */
+public class WDHandleRegistry {
+
+    private final ThreadLocal<Scope> CURRENT = new ThreadLocal<Scope>();
+
+    private final BiFunction<List<WDHandle>, WDTarget, CompletableFuture<?>> disowner;
+
+    /** handle id → realm id */
+    private final Map<String, String> live = new ConcurrentHashMap<String, String>();
+    private final AtomicLong tracked = new AtomicLong();
+    private final AtomicLong disowned = new AtomicLong();
+    private final AtomicLong forgotten = new AtomicLong();
+
+    private final AtomicBoolean firstTrack = new AtomicBoolean(true);
+    private volatile Runnable onFirstTrack;
+
+    /**
+     * @param disowner sends {@code script.disown}, e.g. {@code scriptManager::disownAsync}
+     */
+    public WDHandleRegistry(BiFunction<List<WDHandle>, WDTarget, CompletableFuture<?>> disowner) {
+        this.disowner = disowner;
+    }
+
+    /**
+     * Runs once when the first handle is tracked (used to subscribe to {@code script.realmDestroyed} lazily).
+     * Called on the thread that completes the command – must not block.
+     */
+    public void setOnFirstTrack(Runnable onFirstTrack) {
+        this.onFirstTrack = onFirstTrack;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Tracking
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Tracks the handle of the result once the command completes. The scope is taken from the calling thread.
+     *
+     * @return {@code result} itself (still the pending command, so its deadline handling stays intact)
+     */
+    public CompletableFuture<WDEvaluateResult> trackOnComplete(CompletableFuture<WDEvaluateResult> result) {
+        final Scope scope = CURRENT.get();
+        result.thenAccept(r -> {
+            if (r instanceof WDEvaluateResult.WDEvaluateResultSuccess) {
+                WDEvaluateResult.WDEvaluateResultSuccess success = (WDEvaluateResult.WDEvaluateResultSuccess) r;
+                track(success.getRealm(), success.getResult(), scope);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Tracks the handle of {@code value} (if any) in {@code realm}, within the given scope (may be {@code null}).
+     */
+    public void track(WDRealm realm, WDRemoteValue value, Scope scope) {
+        if (realm == null || !(value instanceof WDRemoteValue.BaseRemoteValue)) {
+            return;
+        }
+        WDHandle handle = ((WDRemoteValue.BaseRemoteValue) value).getHandle();
+        if (handle == null) {
+            return;
+        }
+        live.put(handle.value(), realm.value());
+        tracked.incrementAndGet();
+        if (scope != null) {
+            scope.add(realm.value(), handle.value());
+        }
+        Runnable hook = onFirstTrack;
+        if (hook != null && firstTrack.compareAndSet(true, false)) {
+            hook.run();
+        }
+    }
+
+    /**
+     * Marks the handles as released (e.g. after an explicit {@code script.disown}).
+     */
+    public void released(List<WDHandle> handles) {
+        if (handles == null) {
+            return;
+        }
+        for (WDHandle handle : handles) {
+            if (handle != null && live.remove(handle.value()) != null) {
+                disowned.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Forgets all handles of the realm; the browser has dropped them together with the realm.
+     */
+    public void realmDestroyed(String realmId) {
+        if (realmId == null) {
+            return;
+        }
+        Iterator<Map.Entry<String, String>> it = live.entrySet().iterator();
+        while (it.hasNext()) {
+            if (realmId.equals(it.next().getValue())) {
+                it.remove();
+                forgotten.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Disowns the given handles, one {@code script.disown} per realm. Handles no longer live are skipped.
+     * Fire-and-forget: a realm may vanish meanwhile, failures are ignored.
+     */
+    public void disown(Map<String, List<String>> handlesByRealm) {
+        for (Map.Entry<String, List<String>> entry : handlesByRealm.entrySet()) {
+            List<WDHandle> batch = new ArrayList<WDHandle>();
+            for (String handle : entry.getValue()) {
+                if (live.remove(handle) != null) {
+                    batch.add(new WDHandle(handle));
+                }
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            disowned.addAndGet(batch.size());
+            try {
+                disowner.apply(batch, new WDTarget.RealmTarget(new WDRealm(entry.getKey())))
+                        .exceptionally(e -> null);
+            } catch (RuntimeException ignored) {
+                // connection closed – the handles die with the session anyway
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Scopes
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Opens a scope for the current thread. Nested scopes are supported, each disowns only its own handles.
+     */
+    public Scope openScope() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private final Map<String, List<String>> handlesByRealm = new LinkedHashMap<String, List<String>>();
+        private boolean closed;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        private synchronized void add(String realm, String handle) {
+            if (closed) {
+                // Answer arrived after the scope was left – disown right away
+                disown(Collections.singletonMap(realm, Collections.singletonList(handle)));
+                return;
+            }
+            List<String> handles = handlesByRealm.get(realm);
+            if (handles == null) {
+                handles = new ArrayList<String>();
+                handlesByRealm.put(realm, handles);
+            }
+            handles.add(handle);
+        }
+
+        @Override
+        public void close() {
+            Map<String, List<String>> toDisown;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                toDisown = new LinkedHashMap<String, List<String>>(handlesByRealm);
+                handlesByRealm.clear();
+            }
+            if (CURRENT.get() == this) {
+                if (parent == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(parent);
+                }
+            }
+            disown(toDisown);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Metrics
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /** @return Handles currently held by the browser on our behalf */
+    public int getLiveHandleCount() {
+        return live.size();
+    }
+
+    /** @return Snapshot: realm id → live handles */
+    public Map<String, Integer> getLiveHandleCounts() {
+        Map<String, Integer> counts = new TreeMap<String, Integer>();
+        for (String realm : live.values()) {
+            Integer n = counts.get(realm);
+            counts.put(realm, n == null ? 1 : n + 1);
+        }
+        return counts;
+    }
+
+    public long getTrackedCount() {
+        return tracked.get();
+    }
+
+    public long getDisownedCount() {
+        return disowned.get();
+    }
+
+    /** @return Handles dropped because their realm was destroyed */
+    public long getForgottenCount() {
+        return forgotten.get();
+    }
+}
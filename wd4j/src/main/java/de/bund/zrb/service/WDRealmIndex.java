@@ -0,0 +1,289 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.WDWebSocketImpl;
+import de.bund.zrb.type.script.WDRealm;
+import de.bund.zrb.type.script.WDRealmInfo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Index realm id → {@link WDRealmInfo}, maintained incrementally from {@code script.realmCreated} /
+ * {@code script.realmDestroyed} (and {@code browsingContext.contextDestroyed}).
+ *
+ * It is seeded once with {@code script.getRealms}; afterwards lookups are a map access instead of a
+ * {@code getRealms} round trip plus index rebuild per call. A miss triggers one refresh (event may still be in
+ * flight), an unknown realm after that is reported as such.
+ *
+ * Seed and refresh never run on the WebSocket read thread (it would wait for a response only it can read): there
+ * they are started in the background and the lookup is answered from the current index.
+ *
+ * Resolving a realm to its browsing context walks the owner chain of workers (usually 1–2 steps):
+ *  - window realm: its {@code context},
+ *  - dedicated worker: {@code owners[]} – realm ids (or, in some browsers, context ids) – up to a window realm,
+ *  - otherwise: the unique window realm with the same origin, if there is exactly one.
+ */
+public class WDRealmIndex {
+
+    // UUID-ähnlicher Check für BiDi-BrowsingContext-IDs (heuristisch, reicht für Praxis)
+    private static final Pattern UUID_LIKE =
+            Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+    private static final int MAX_OWNER_DEPTH = 32; // Zyklenschutz
+
+    private final Supplier<List<WDRealmInfo>> snapshot;
+    private final Map<String, WDRealmInfo> realms = new ConcurrentHashMap<String, WDRealmInfo>();
+
+    private final Object refreshLock = new Object();
+    private volatile boolean seeded;
+    // Während eines Refresh zerstörte Realms – dürfen aus dem (älteren) Snapshot nicht wieder auftauchen
+    private volatile Set<String> destroyedDuringRefresh;
+    private volatile Runnable onFirstUse;
+    private volatile BooleanSupplier mayBlock = () -> !WDWebSocketImpl.isReceiveThread();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    private final AtomicLong refreshes = new AtomicLong();
+
+    /**
+     * @param snapshot current realms, e.g. {@code () -> script.getRealms().getRealms()}
+     */
+    public WDRealmIndex(Supplier<List<WDRealmInfo>> snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Runs once before the index is seeded (used to subscribe to the realm events first, so nothing is missed
+     * between snapshot and subscription).
+     */
+    public void setOnFirstUse(Runnable onFirstUse) {
+        this.onFirstUse = onFirstUse;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Event input
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public void realmCreated(WDRealmInfo info) {
+        String id = realmId(info);
+        if (id != null) {
+            realms.put(id, info);
+        }
+    }
+
+    public void realmDestroyed(String realmId) {
+        if (realmId == null) {
+            return;
+        }
+        realms.remove(realmId);
+        Set<String> tombstones = destroyedDuringRefresh;
+        if (tombstones != null) {
+            tombstones.add(realmId);
+        }
+    }
+
+    /** Drops the window realms of a closed context (some browsers do not send realmDestroyed for them). */
+    public void contextDestroyed(String contextId) {
+        if (contextId == null) {
+            return;
+        }
+        for (WDRealmInfo info : realms.values()) {
+            if (info instanceof WDRealmInfo.WindowRealmInfo
+                    && contextId.equals(((WDRealmInfo.WindowRealmInfo) info).getContext())) {
+                realmDestroyed(realmId(info));
+            }
+        }
+    }
+
+    /** Forces a new snapshot on next use (e.g. after a reconnect, when events may have been lost). */
+    public void invalidate() {
+        seeded = false;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Lookup
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return RealmInfo or {@code null} if the realm is unknown (also after one refresh; on the WebSocket read thread
+     *         the refresh runs in the background)
+     */
+    public WDRealmInfo get(String realmId) {
+        ensureSeeded();
+        WDRealmInfo info = realms.get(realmId);
+        if (info == null) {
+            if (!mayBlock.getAsBoolean()) {
+                refreshInBackground();
+                return null;
+            }
+            refresh();
+            info = realms.get(realmId);
+        }
+        return info;
+    }
+
+    /**
+     * @return Browsing context id of the realm
+     * @throws IllegalStateException if the realm is unknown or cannot be attributed to a context
+     */
+    public String resolveContextId(String realmId) {
+        WDRealmInfo start = get(realmId);
+        if (start == null) {
+            throw new IllegalStateException("Realm not found: " + realmId);
+        }
+        String ctx = unwindToWindowContext(start, 0);
+        if (ctx == null) {
+            // Optionaler Fallback: eindeutigen Window-Realm mit gleicher Origin nehmen (nur wenn eindeutig!)
+            ctx = resolveByUniqueOrigin(start.getOrigin());
+        }
+        if (ctx == null) {
+            throw new IllegalStateException("Could not resolve browsingContext for realm: " + realmId);
+        }
+        return ctx;
+    }
+
+    /** @return Snapshot of the indexed realms */
+    public Collection<WDRealmInfo> getRealms() {
+        ensureSeeded();
+        return Collections.unmodifiableList(new ArrayList<WDRealmInfo>(realms.values()));
+    }
+
+    public int size() {
+        return realms.size();
+    }
+
+    /** @return Number of {@code script.getRealms} calls so far (seed + misses) */
+    public long getRefreshCount() {
+        return refreshes.get();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /** For tests: whether the calling thread may wait for a browser round trip. */
+    void setMayBlock(BooleanSupplier mayBlock) {
+        this.mayBlock = mayBlock;
+    }
+
+    private void ensureSeeded() {
+        if (seeded) {
+            return;
+        }
+        if (!mayBlock.getAsBoolean()) {
+            refreshInBackground();
+            return;
+        }
+        seed();
+    }
+
+    private void refreshInBackground() {
+        if (!refreshScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                if (seeded) {
+                    refresh();
+                } else {
+                    seed();
+                }
+            } catch (RuntimeException e) {
+                System.err.println("[WARN] WDRealmIndex could not be refreshed: " + e.getMessage());
+            } finally {
+                refreshScheduled.set(false);
+            }
+        });
+    }
+
+    private void seed() {
+        synchronized (refreshLock) {
+            if (seeded) {
+                return;
+            }
+            Runnable hook = onFirstUse;
+            if (hook != null) {
+                onFirstUse = null;
+                hook.run();
+            }
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        synchronized (refreshLock) {
+            Set<String> tombstones = ConcurrentHashMap.newKeySet();
+            destroyedDuringRefresh = tombstones;
+            try {
+                List<WDRealmInfo> infos = snapshot.get();
+                refreshes.incrementAndGet();
+                if (infos != null) {
+                    for (WDRealmInfo info : infos) {
+                        String id = realmId(info);
+                        if (id != null && !tombstones.contains(id)) {
+                            realms.putIfAbsent(id, info);
+                        }
+                    }
+                }
+                seeded = true;
+            } finally {
+                destroyedDuringRefresh = null;
+            }
+        }
+    }
+
+    private String unwindToWindowContext(WDRealmInfo node, int depth) {
+        if (depth > MAX_OWNER_DEPTH) {
+            return null;
+        }
+        if (node instanceof WDRealmInfo.WindowRealmInfo) {
+            String ctx = ((WDRealmInfo.WindowRealmInfo) node).getContext();
+            return (ctx == null || ctx.isEmpty()) ? null : ctx;
+        }
+        if (node instanceof WDRealmInfo.DedicatedWorkerRealmInfo) {
+            List<String> owners = ((WDRealmInfo.DedicatedWorkerRealmInfo) node).getOwners();
+            if (owners != null) {
+                for (String owner : owners) {
+                    if (owner == null || owner.isEmpty()) continue;
+                    // Manchmal kann ein Owner direkt eine Context-ID sein
+                    if (UUID_LIKE.matcher(owner).matches()) {
+                        return owner;
+                    }
+                    WDRealmInfo parent = realms.get(owner);
+                    if (parent != null) {
+                        String ctx = unwindToWindowContext(parent, depth + 1);
+                        if (ctx != null) return ctx;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private String resolveByUniqueOrigin(String origin) {
+        if (origin == null || origin.isEmpty()) return null;
+        String ctx = null;
+        for (WDRealmInfo info : realms.values()) {
+            if (info instanceof WDRealmInfo.WindowRealmInfo && origin.equals(info.getOrigin())) {
+                String c = ((WDRealmInfo.WindowRealmInfo) info).getContext();
+                if (c != null && !c.isEmpty()) {
+                    if (ctx != null && !ctx.equals(c)) return null; // mehrdeutig
+                    ctx = c;
+                }
+            }
+        }
+        return ctx;
+    }
+
+    private static String realmId(WDRealmInfo info) {
+        WDRealm realm = info != null ? info.getRealm() : null;
+        return realm != null ? realm.value() : null;
+    }
+}
@@ -0,0 +1,253 @@
+package de.bund.zrb.service;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import de.bund.zrb.WDWebSocketManagerImpl;
+import de.bund.zrb.api.WDCommand;
+import de.bund.zrb.api.WDWebSocket;
+import de.bund.zrb.api.WebSocketFrame;
+import de.bund.zrb.support.TraceRingBuffer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Low-overhead trace recorder of one WebDriver connection.
+ *
+ * While recording, every BiDi command (via {@link WDWebSocketManagerImpl.CommandObserver}), every received frame
+ * (via {@link WDWebSocket#onFrameReceived}) and every traced API call ({@link #call}) is appended as a compact binary
+ * record to a {@link TraceRingBuffer}. Nothing is formatted on the hot path – that happens when a chunk is exported.
+ * Each command carries the id of the API call that issued it ({@link WDCommand#getTraceCallId()}, set on the calling
+ * thread), so the attribution also holds when the batching writer flushes on another thread.
+ *
+ * Commands sent by the {@link AfterCallHook} (the recorder's own screenshots) are not recorded, neither are their
+ * responses: the image is stored as a resource and only referenced by a {@link #SCREENSHOT} record.
+ *
+ * When not recording, {@link #call} costs one volatile read.
+ *
+ * Konfiguration: {@code -Dwd4j.trace.bufferMb} (Größe des Ringpuffers, Default 64).
+ */
+public class WDTraceRecorder {
+
+    public static final byte SENT = 1;
+    public static final byte RECEIVED = 2;
+    public static final byte BEFORE = 3;      // payload: apiName \n pageId \n params
+    public static final byte AFTER = 4;       // payload: error message (empty = success)
+    public static final byte GROUP = 5;       // payload: name
+    public static final byte GROUP_END = 6;
+    public static final byte SCREENSHOT = 7;  // payload: pageId \n resource name \n width \n height
+
+    private static final int BUFFER_BYTES = Integer.getInteger("wd4j.trace.bufferMb", 64) * 1024 * 1024;
+
+    private static final int OWN_COMMAND = -1; // trace call id of commands sent by the after-call hook
+
+    private final WDWebSocket webSocket;
+    private final WDWebSocketManagerImpl webSocketManager;
+    private final AtomicInteger callIds = new AtomicInteger();
+    // [0] = running API call, [1] = 1 while the after-call hook runs
+    private final ThreadLocal<int[]> currentCall = ThreadLocal.withInitial(() -> new int[2]);
+    private final Set<Integer> ownCommands = ConcurrentHashMap.newKeySet(); // awaiting their (large) response
+
+    private volatile TraceRingBuffer buffer; // null = not recording
+    private volatile AfterCallHook afterCall;
+
+    private final Consumer<WebSocketFrame> onReceived = this::received;
+    private final WDWebSocketManagerImpl.CommandObserver onCommand = new WDWebSocketManagerImpl.CommandObserver() {
+        @Override
+        public void dispatching(WDCommand command) {
+            int[] current = currentCall.get();
+            if (current[1] != 0) {
+                command.setTraceCallId(OWN_COMMAND);
+                ownCommands.add(command.getId());
+            } else {
+                command.setTraceCallId(current[0]);
+            }
+        }
+
+        @Override
+        public void written(WDCommand command, String json) {
+            if (command.getTraceCallId() != OWN_COMMAND) {
+                append(SENT, command.getTraceCallId(), json);
+            }
+        }
+    };
+
+    /** Called after each traced API call while recording (e.g. to take a screenshot). */
+    public interface AfterCallHook {
+        void afterCall(int callId, String pageId);
+    }
+
+    public WDTraceRecorder(WDWebSocket webSocket, WDWebSocketManagerImpl webSocketManager) {
+        this.webSocket = webSocket;
+        this.webSocketManager = webSocketManager;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Lifecycle
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public synchronized void start() {
+        if (buffer != null) {
+            throw new IllegalStateException("Tracing has been already started");
+        }
+        try {
+            buffer = TraceRingBuffer.mapped(BUFFER_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create trace buffer", e);
+        }
+        webSocketManager.setCommandObserver(onCommand);
+        webSocket.onFrameReceived(onReceived);
+    }
+
+    public synchronized void stop() {
+        TraceRingBuffer b = buffer;
+        if (b == null) {
+            return;
+        }
+        webSocketManager.setCommandObserver(null);
+        webSocket.offFrameReceived(onReceived);
+        buffer = null;
+        afterCall = null;
+        ownCommands.clear();
+        try {
+            b.close();
+        } catch (IOException ignored) {
+            // temp file only
+        }
+    }
+
+    public boolean isRecording() {
+        return buffer != null;
+    }
+
+    public void setAfterCallHook(AfterCallHook hook) {
+        this.afterCall = hook;
+    }
+
+    /** @return Position to pass to {@link #records(long)} later (start of a chunk) */
+    public long mark() {
+        TraceRingBuffer b = requireBuffer();
+        return b.position();
+    }
+
+    /** @return Copy of all records since {@code mark}, oldest first */
+    public List<TraceRingBuffer.Record> records(long mark) {
+        return requireBuffer().read(mark);
+    }
+
+    /** @return Records lost because the ring buffer was full */
+    public long getDropped() {
+        TraceRingBuffer b = buffer;
+        return b != null ? b.getDropped() : 0L;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Recording
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Runs an API call and records it (start, end, error and the BiDi commands it sends).
+     *
+     * @param apiName e.g. {@code locator.click}
+     * @param pageId  browsing context of the call, may be {@code null}
+     * @param params  short parameter description (selector, url …), may be {@code null}
+     */
+    public <T> T call(String apiName, String pageId, String params, Supplier<T> action) {
+        if (buffer == null) {
+            return action.get();
+        }
+        int[] current = currentCall.get();
+        int parent = current[0];
+        int callId = callIds.incrementAndGet();
+        append(BEFORE, callId, apiName + '\n' + (pageId != null ? pageId : "") + '\n' + (params != null ? params : ""));
+        current[0] = callId;
+        String error = "";
+        try {
+            return action.get();
+        } catch (RuntimeException | Error e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            throw e;
+        } finally {
+            current[0] = parent;
+            append(AFTER, callId, error);
+            AfterCallHook hook = afterCall;
+            if (hook != null && parent == 0) {
+                current[1] = 1;
+                try {
+                    hook.afterCall(callId, pageId);
+                } catch (RuntimeException ignored) {
+                    // Trace-Beiwerk darf die Aktion nicht scheitern lassen
+                } finally {
+                    current[1] = 0;
+                }
+            }
+        }
+    }
+
+    public void call(String apiName, String pageId, String params, Runnable action) {
+        call(apiName, pageId, params, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public void group(String name) {
+        append(GROUP, currentCall.get()[0], name);
+    }
+
+    public void groupEnd() {
+        append(GROUP_END, currentCall.get()[0], "");
+    }
+
+    /** Records a screenshot stored elsewhere under {@code resource} (by reference, not the image itself). */
+    public void screenshot(int callId, String pageId, String resource, int width, int height) {
+        append(SCREENSHOT, callId, pageId + '\n' + resource + '\n' + width + '\n' + height);
+    }
+
+    private void received(WebSocketFrame frame) {
+        String text = frame.text();
+        if (!ownCommands.isEmpty() && ownCommands.remove(responseId(text))) {
+            return; // Antwort auf einen eigenen Screenshot (mehrere MB Base64), das Bild liegt als Ressource vor
+        }
+        append(RECEIVED, 0, text);
+    }
+
+    /** @return top-level {@code id} of a BiDi message, -1 for events and unparsable frames (values are skipped, not copied) */
+    static int responseId(String json) {
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("id".equals(reader.nextName()) && reader.peek() == JsonToken.NUMBER) {
+                    return reader.nextInt();
+                }
+                reader.skipValue();
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // kein JSON-Objekt
+        }
+        return -1;
+    }
+
+    private void append(byte type, int callId, String payload) {
+        TraceRingBuffer b = buffer;
+        if (b != null) {
+            b.append(type, System.nanoTime(), callId, payload.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private TraceRingBuffer requireBuffer() {
+        TraceRingBuffer b = buffer;
+        if (b == null) {
+            throw new IllegalStateException("Tracing is not started");
+        }
+        return b;
+    }
+}
@@ -0,0 +1,112 @@
+package de.bund.zrb.support;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Decodes base64 payloads (e.g. {@code browsingContext.captureScreenshot}) chunk by chunk into a sink.
+ *
+ * {@code Base64.getDecoder().decode(String)} materializes the whole image as {@code byte[]} next to the JSON string;
+ * for full-page screenshots that is several MB per call. Here only two fixed buffers of {@value #CHUNK_CHARS} chars
+ * are used, no matter how large the payload is.
+ */
+public final class Base64Streams {
+
+    /** Multiple of 4, so every chunk but the last decodes without padding. */
+    private static final int CHUNK_CHARS = 64 * 1024;
+
+    private Base64Streams() {
+        // Prevent instantiation
+    }
+
+    /**
+     * @return Number of decoded bytes written to {@code out}
+     * @throws IllegalArgumentException if {@code base64} is not valid base64
+     */
+    public static long decode(CharSequence base64, OutputStream out) throws IOException {
+        Chunks chunks = new Chunks(base64);
+        long total = 0;
+        int n;
+        while ((n = chunks.next()) >= 0) {
+            out.write(chunks.decoded, 0, n);
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * @return Number of decoded bytes written to {@code channel}
+     * @throws IllegalArgumentException if {@code base64} is not valid base64
+     */
+    public static long decode(CharSequence base64, WritableByteChannel channel) throws IOException {
+        Chunks chunks = new Chunks(base64);
+        long total = 0;
+        int n;
+        while ((n = chunks.next()) >= 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(chunks.decoded, 0, n);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Decodes into {@code file} (created or truncated) through a {@link FileChannel}.
+     *
+     * @return Number of decoded bytes
+     */
+    public static long decodeToFile(CharSequence base64, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return decode(base64, channel);
+        }
+    }
+
+    /** @return Exact decoded size without decoding (for pre-sized buffers) */
+    public static int decodedLength(CharSequence base64) {
+        int length = base64.length();
+        int padding = 0;
+        if (length > 0 && base64.charAt(length - 1) == '=') padding++;
+        if (length > 1 && base64.charAt(length - 2) == '=') padding++;
+        return (int) ((long) length * 3 / 4) - padding;
+    }
+
+    private static final class Chunks {
+        private final Base64.Decoder decoder = Base64.getDecoder();
+        private final CharSequence source;
+        private final byte[] encoded;
+        private final byte[] decoded;
+        private int position;
+
+        Chunks(CharSequence source) {
+            this.source = source;
+            int size = Math.min(CHUNK_CHARS, source.length());
+            this.encoded = new byte[size];
+            this.decoded = new byte[size / 4 * 3 + 3];
+        }
+
+        /** @return Decoded bytes of the next chunk in {@link #decoded}, -1 at the end */
+        int next() {
+            int length = Math.min(encoded.length, source.length() - position);
+            if (length <= 0) {
+                return -1;
+            }
+            for (int i = 0; i < length; i++) {
+                encoded[i] = (byte) source.charAt(position + i);
+            }
+            position += length;
+            // Decoder consumes the whole array; only the (shorter) last chunk needs a trimmed copy
+            byte[] src = length == encoded.length ? encoded : Arrays.copyOf(encoded, length);
+            return decoder.decode(src, decoded);
+        }
+    }
+}
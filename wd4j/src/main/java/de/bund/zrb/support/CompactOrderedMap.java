@@ -0,0 +1,141 @@
+package de.bund.zrb.support;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only map that keeps insertion order and stores keys and values in two flat arrays.
+ *
+ * Intended for deserialized data (e.g. BiDi object/map remote values): a small object costs two arrays instead
+ * of one entry object per key. Lookups are linear for small maps; larger maps build a hash index on the first
+ * {@link #get(Object)}.
+ */
+public final class CompactOrderedMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int LINEAR_LOOKUP_LIMIT = 8;
+
+    private final Object[] keys;
+    private final Object[] values;
+    private final int size;
+    private volatile Map<Object, Integer> index;
+
+    private CompactOrderedMap(Object[] keys, Object[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int i = indexOf(key);
+        return i >= 0 ? (V) values[i] : null;
+    }
+
+    private int indexOf(Object key) {
+        if (size <= LINEAR_LOOKUP_LIMIT) {
+            for (int i = 0; i < size; i++) {
+                if (key == null ? keys[i] == null : key.equals(keys[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        Map<Object, Integer> idx = index;
+        if (idx == null) {
+            idx = new HashMap<Object, Integer>(size * 2);
+            for (int i = size - 1; i >= 0; i--) {
+                idx.put(keys[i], i); // first occurrence wins, like the linear lookup
+            }
+            index = idx;
+        }
+        Integer i = idx.get(key);
+        return i != null ? i : -1;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new Iterator<Entry<K, V>>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Entry<K, V> next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = next++;
+                        return new SimpleImmutableEntry<K, V>((K) keys[i], (V) values[i]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Collects entries in order; {@link #build()} trims the arrays to the final size.
+     */
+    public static final class Builder<K, V> {
+        private Object[] keys;
+        private Object[] values;
+        private int size;
+
+        public Builder() {
+            this(4);
+        }
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            this.keys = new Object[capacity];
+            this.values = new Object[capacity];
+        }
+
+        public Builder<K, V> put(K key, V value) {
+            if (size == keys.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            keys[size] = key;
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        public CompactOrderedMap<K, V> build() {
+            if (size == keys.length) {
+                return new CompactOrderedMap<K, V>(keys, values, size);
+            }
+            return new CompactOrderedMap<K, V>(Arrays.copyOf(keys, size), Arrays.copyOf(values, size), size);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package de.bund.zrb.support;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary ring buffer for trace records, by default backed by a memory-mapped temp file (the records stay off the Java
+ * heap and the OS pages them out if needed).
+ *
+ * Record layout: {@code int length | byte type | long nanoTime | int callId | payload}. Positions are logical
+ * (monotonically increasing); when the buffer is full the oldest records are dropped. A reader remembers a
+ * {@link #position()} and later fetches everything written since with {@link #read(long)}.
+ */
+public final class TraceRingBuffer implements Closeable {
+
+    public static final int HEADER_BYTES = 4 + 1 + 8 + 4;
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final int maxPayload;
+    private final Path file;
+    private final FileChannel channel;
+    private final byte[] header = new byte[HEADER_BYTES];
+
+    // guarded by this
+    private long head; // oldest record
+    private long tail; // next write
+    private long dropped;
+    private long truncated;
+
+    /** Heap-backed buffer (tests, tiny buffers). */
+    public TraceRingBuffer(int capacity) {
+        this(ByteBuffer.allocate(capacity), null, null);
+    }
+
+    private TraceRingBuffer(ByteBuffer buffer, Path file, FileChannel channel) {
+        if (buffer.capacity() < HEADER_BYTES * 4) {
+            throw new IllegalArgumentException("Trace buffer too small: " + buffer.capacity());
+        }
+        this.buffer = buffer;
+        this.capacity = buffer.capacity();
+        this.maxPayload = capacity / 4 - HEADER_BYTES; // ein Record verdrängt höchstens ein Viertel
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Creates a buffer mapped onto a temp file, which is removed again by {@link #close()}.
+     */
+    public static TraceRingBuffer mapped(int capacity) throws IOException {
+        Path file = Files.createTempFile("wd4j-trace-", ".bin");
+        file.toFile().deleteOnExit();
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new TraceRingBuffer(channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity), file, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Appends one record; payloads above a quarter of the capacity are cut off.
+     *
+     * @return logical position of the record
+     */
+    public synchronized long append(byte type, long nanoTime, int callId, byte[] payload) {
+        int length = payload != null ? payload.length : 0;
+        if (length > maxPayload) {
+            length = maxPayload;
+            truncated++;
+        }
+        int recordLength = HEADER_BYTES + length;
+        while (tail + recordLength - head > capacity) {
+            head += readInt(head);
+            dropped++;
+        }
+        putInt(header, 0, recordLength);
+        header[4] = type;
+        putLong(header, 5, nanoTime);
+        putInt(header, 13, callId);
+        long position = tail;
+        write(position, header, HEADER_BYTES);
+        if (length > 0) {
+            write(position + HEADER_BYTES, payload, length);
+        }
+        tail = position + recordLength;
+        return position;
+    }
+
+    /** @return Current write position, i.e. the start of the next record */
+    public synchronized long position() {
+        return tail;
+    }
+
+    /**
+     * @return All records written at or after {@code from} that are still in the buffer, oldest first
+     */
+    public synchronized List<Record> read(long from) {
+        List<Record> out = new ArrayList<Record>();
+        long pos = Math.max(from, head);
+        while (pos < tail) {
+            int recordLength = readInt(pos);
+            byte[] h = new byte[HEADER_BYTES];
+            readBytes(pos, h, HEADER_BYTES);
+            byte[] payload = new byte[recordLength - HEADER_BYTES];
+            readBytes(pos + HEADER_BYTES, payload, payload.length);
+            out.add(new Record(h[4], getLong(h, 5), getInt(h, 13), payload));
+            pos += recordLength;
+        }
+        return out;
+    }
+
+    /** @return Number of records overwritten because the buffer was full */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /** @return Number of records whose payload was cut off */
+    public synchronized long getTruncated() {
+        return truncated;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // Windows: noch gemappt – deleteOnExit räumt auf
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void write(long position, byte[] src, int length) {
+        int index = (int) (position % capacity);
+        int first = Math.min(length, capacity - index);
+        buffer.position(index);
+        buffer.put(src, 0, first);
+        if (first < length) {
+            buffer.position(0);
+            buffer.put(src, first, length - first);
+        }
+    }
+
+    private void readBytes(long position, byte[] dst, int length) {
+        int index = (int) (position % capacity);
+        int first = Math.min(length, capacity - index);
+        buffer.position(index);
+        buffer.get(dst, 0, first);
+        if (first < length) {
+            buffer.position(0);
+            buffer.get(dst, first, length - first);
+        }
+    }
+
+    private int readInt(long position) {
+        byte[] b = new byte[4];
+        readBytes(position, b, 4);
+        return getInt(b, 0);
+    }
+
+    private static void putInt(byte[] b, int off, int v) {
+        b[off] = (byte) (v >>> 24);
+        b[off + 1] = (byte) (v >>> 16);
+        b[off + 2] = (byte) (v >>> 8);
+        b[off + 3] = (byte) v;
+    }
+
+    private static void putLong(byte[] b, int off, long v) {
+        putInt(b, off, (int) (v >>> 32));
+        putInt(b, off + 4, (int) v);
+    }
+
+    private static int getInt(byte[] b, int off) {
+        return ((b[off] & 0xFF) << 24) | ((b[off + 1] & 0xFF) << 16) | ((b[off + 2] & 0xFF) << 8) | (b[off + 3] & 0xFF);
+    }
+
+    private static long getLong(byte[] b, int off) {
+        return ((long) getInt(b, off) << 32) | (getInt(b, off + 4) & 0xFFFFFFFFL);
+    }
+
+    /** One decoded trace record. */
+    public static final class Record {
+        private final byte type;
+        private final long nanoTime;
+        private final int callId;
+        private final byte[] payload;
+
+        Record(byte type, long nanoTime, int callId, byte[] payload) {
+            this.type = type;
+            this.nanoTime = nanoTime;
+            this.callId = callId;
+            this.payload = payload;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public long getNanoTime() {
+            return nanoTime;
+        }
+
+        public int getCallId() {
+            return callId;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package de.bund.zrb.support.mapping;
 
-import com.google.gson.*;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
-public class EnumWrapperAdapter<T extends Enum<T> & EnumWrapper> implements JsonSerializer<T>, JsonDeserializer<T> {
+/**
+ * Streaming-Adapter: EnumWrapper werden über ihren {@link EnumWrapper#value()} als JSON-String gelesen/geschrieben.
+ * Die Zuordnung String -> Konstante wird einmalig aufgebaut.
+ */
+public class EnumWrapperAdapter<T extends Enum<T> & EnumWrapper> extends TypeAdapter<T> {
     private final Class<T> clazz;
+    private volatile Map<String, T> constantsByValue;
 
     @SuppressWarnings("unchecked")
     public EnumWrapperAdapter(Class<? extends EnumWrapper> clazz) {
@@ -13,18 +24,40 @@ public class EnumWrapperAdapter<T extends Enum<T> & EnumWrapper> implements Json
     }
 
     @Override
-    public JsonElement serialize(T src, Type typeOfSrc, JsonSerializationContext context) {
-        return new JsonPrimitive(src.value()); // Direkt als String speichern
+    public void write(JsonWriter out, T src) throws IOException {
+        if (src == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(src.value()); // Direkt als String speichern
     }
 
     @Override
-    public T deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-        String value = json.getAsString();
-        for (T constant : clazz.getEnumConstants()) {
-            if (constant.value().equals(value)) {
-                return constant;
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String value = in.nextString();
+        T constant = constants().get(value);
+        if (constant == null) {
+            throw new JsonParseException("Unknown value: " + value + " for enum " + clazz.getSimpleName());
+        }
+        return constant;
+    }
+
+    private Map<String, T> constants() {
+        Map<String, T> map = constantsByValue;
+        if (map == null) {
+            map = new HashMap<String, T>();
+            T[] constants = clazz.getEnumConstants();
+            if (constants != null) { // null für Interfaces wie ContinueWithAuthParameters.Action
+                for (T constant : constants) {
+                    map.put(constant.value(), constant);
+                }
             }
+            constantsByValue = map;
         }
-        throw new JsonParseException("Unknown value: " + value + " for enum " + clazz.getSimpleName());
+        return map;
     }
 }
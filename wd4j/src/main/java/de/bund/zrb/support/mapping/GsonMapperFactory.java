@@ -2,16 +2,13 @@ package de.bund.zrb.support.mapping;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import org.reflections.Reflections;
-
-import java.util.Set;
 
 public class GsonMapperFactory {
 
     private static final Gson GSON_INSTANCE = createGson();
     public static final String PACKAGE = "de.bund.zrb";
 
-    private static Gson createGson() {
+    static Gson createGson() {
         GsonBuilder builder = new GsonBuilder();
         registerAllWrappers(builder);
         return builder.create(); // IMPORTANT: Do not serialize null values, they mark optional parameters!
@@ -19,27 +16,26 @@ public class GsonMapperFactory {
 
     private static void registerAllWrappers(GsonBuilder builder) {
         ////////////////////////////////////////////////////////////////////////////////////////////////////////////////
-        // Register new Wrapper Interfaces, here:
+        // Register new Wrapper Interfaces, here (and in GsonAdapterIndexProcessor):
         registerStringWrappers(builder);
         registerEnumWrappers(builder);
         ////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     }
 
-    private static void registerStringWrappers(GsonBuilder builder) {
-        Reflections reflections = new Reflections(PACKAGE); // Paketnamen ggf. anpassen
-        Set<Class<? extends StringWrapper>> stringWrapperClasses = reflections.getSubTypesOf(StringWrapper.class);
+    // Die Implementierer werden zur Compile-Zeit ermittelt (GsonAdapterIndex, generiert von
+    // GsonAdapterIndexProcessor) – kein Classpath-Scan beim Start.
 
-        for (Class<? extends StringWrapper> clazz : stringWrapperClasses) {
-            builder.registerTypeAdapter(clazz, new StringWrapperAdapter<>(clazz));
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void registerStringWrappers(GsonBuilder builder) {
+        for (Class<?> clazz : GsonAdapterIndex.STRING_WRAPPERS) {
+            builder.registerTypeAdapter(clazz, new StringWrapperAdapter((Class<? extends StringWrapper>) clazz));
         }
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
     private static void registerEnumWrappers(GsonBuilder builder) {
-        Reflections reflections = new Reflections(PACKAGE); // Paketnamen ggf. anpassen
-        Set<Class<? extends EnumWrapper>> enumWrapperClasses = reflections.getSubTypesOf(EnumWrapper.class);
-
-        for (Class<? extends EnumWrapper> clazz : enumWrapperClasses) {
-            builder.registerTypeAdapter(clazz, new EnumWrapperAdapter<>(clazz));
+        for (Class<?> clazz : GsonAdapterIndex.ENUM_WRAPPERS) {
+            builder.registerTypeAdapter(clazz, new EnumWrapperAdapter((Class<? extends EnumWrapper>) clazz));
         }
     }
 
@@ -1,28 +1,54 @@
 package de.bund.zrb.support.mapping;
 
-import com.google.gson.*;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
 
-
-public class StringWrapperAdapter<T extends StringWrapper> implements JsonSerializer<T>, JsonDeserializer<T> {
+/**
+ * Streaming-Adapter: StringWrapper werden direkt als JSON-String gelesen/geschrieben, ohne JsonElement-Baum.
+ */
+public class StringWrapperAdapter<T extends StringWrapper> extends TypeAdapter<T> {
     private final Class<T> clazz;
+    private volatile Constructor<T> constructor; // Einmal auflösen statt bei jedem Lesen
 
     public StringWrapperAdapter(Class<T> clazz) {
         this.clazz = clazz;
     }
 
     @Override
-    public JsonElement serialize(T src, Type typeOfSrc, JsonSerializationContext context) {
-        return new JsonPrimitive(src.value()); // Direkt als String speichern
+    public void write(JsonWriter out, T src) throws IOException {
+        if (src == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(src.value()); // Direkt als String speichern
     }
 
     @Override
-    public T deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String value = in.nextString();
         try {
-            return clazz.getConstructor(String.class).newInstance(json.getAsString());
+            return constructor().newInstance(value);
         } catch (Exception e) {
             throw new JsonParseException("Could not deserialize " + clazz.getSimpleName(), e);
         }
     }
+
+    private Constructor<T> constructor() throws NoSuchMethodException {
+        Constructor<T> c = constructor;
+        if (c == null) {
+            c = clazz.getConstructor(String.class);
+            constructor = c;
+        }
+        return c;
+    }
 }
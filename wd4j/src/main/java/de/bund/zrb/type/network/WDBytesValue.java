@@ -25,6 +25,8 @@ public interface WDBytesValue {
             switch (type) {
                 case "string":
                     return context.deserialize(jsonObject, StringValueWD.class);
+                case "base64":
+                    return context.deserialize(jsonObject, Base64ValueWD.class);
                 default:
                     throw new JsonParseException("Unknown BytesValue type: " + type);
             }
@@ -47,4 +49,21 @@ public interface WDBytesValue {
             return type;
         }
     }
-}
\ No newline at end of file
+
+    class Base64ValueWD implements WDBytesValue {
+        private final String type = "base64";
+        private final String value;
+
+        public Base64ValueWD(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public String getType() {
+            return type;
+        }
+    }
+}
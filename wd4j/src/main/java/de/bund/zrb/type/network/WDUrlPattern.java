@@ -53,22 +53,22 @@ public interface WDUrlPattern {
     class WDUrlPatternPattern implements WDUrlPattern {
         private final String type = "pattern";
         private final String protocol; // optional
-        private final String hostnames; // optional
+        private final String hostname; // optional
         private final String port; // optional
         private final String pathname; // optional
         private final String search; // optional
 
         public WDUrlPatternPattern() {
             this.protocol = null;
-            this.hostnames = null;
+            this.hostname = null;
             this.port = null;
             this.pathname = null;
             this.search = null;
         }
 
-        public WDUrlPatternPattern(String protocol, String hostnames, String port, String pathname, String search) {
+        public WDUrlPatternPattern(String protocol, String hostname, String port, String pathname, String search) {
             this.protocol = protocol;
-            this.hostnames = hostnames;
+            this.hostname = hostname;
             this.port = port;
             this.pathname = pathname;
             this.search = search;
@@ -83,8 +83,8 @@ public interface WDUrlPattern {
             return protocol;
         }
 
-        public String getHostnames() {
-            return hostnames;
+        public String getHostname() {
+            return hostname;
         }
 
         public String getPort() {
@@ -1,12 +1,16 @@
 package de.bund.zrb.type.script;
 
-import com.google.gson.*;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
 import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import de.bund.zrb.support.mapping.EnumWrapper;
 import de.bund.zrb.type.browsingContext.WDBrowsingContext;
 
-import java.lang.reflect.Type;
-import java.util.HashMap;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -23,98 +27,30 @@ public interface WDRemoteValue {
     }
 
     // JSON Adapter for automatic serialization/deserialization
-    class WDRemoteValueAdapter implements JsonSerializer<WDRemoteValue>, JsonDeserializer<WDRemoteValue> {
+    // Deserialisierung streamt direkt aus dem JsonReader (siehe WDRemoteValueReader), kein JsonObject-Baum.
+    class WDRemoteValueAdapter implements TypeAdapterFactory {
         @Override
-        public WDRemoteValue deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-            JsonObject jsonObject = json.getAsJsonObject();
-
-            if (!jsonObject.has("type")) {
-                throw new JsonParseException("Missing 'type' field in WDRemoteValue JSON");
-            }
-
-            String type = jsonObject.get("type").getAsString();
-
-            // ✅ **Falls der Typ ein PrimitiveProtocolValue ist, verwenden wir den bestehenden Adapter**
-            if (EnumWrapper.contains(WDPrimitiveProtocolValue.Type.class, type)) {
-                return context.deserialize(jsonObject, WDPrimitiveProtocolValue.class);
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(final Gson gson, TypeToken<T> typeToken) {
+            if (!WDRemoteValue.class.isAssignableFrom(typeToken.getRawType())) {
+                return null;
             }
-
-            switch (type) {
-                case "symbol":
-                    return context.deserialize(jsonObject, SymbolRemoteValue.class);
-                case "array":
-                    return context.deserialize(jsonObject, ArrayRemoteValue.class);
-                case "object":
-                    JsonArray valueArray = jsonObject.getAsJsonArray("value");
-                    Map<WDRemoteValue, WDRemoteValue> objectMap = new HashMap<>();
-                    for (JsonElement entry : valueArray) {
-                        JsonArray keyValuePair = entry.getAsJsonArray();
-                        if (keyValuePair.size() != 2) {
-                            throw new JsonParseException("Invalid object entry: Expected key-value pair.");
-                        }
-                        // ✅ Key als WDRemoteValue (String-Wert) umwandeln
-                        WDRemoteValue key = new WDPrimitiveProtocolValue.StringValue(keyValuePair.get(0).getAsString());
-                        // ✅ Value als WDRemoteValue parsen
-                        WDRemoteValue value = context.deserialize(keyValuePair.get(1), WDRemoteValue.class);
-                        objectMap.put(key, value);
+            return (TypeAdapter<T>) new TypeAdapter<WDRemoteValue>() {
+                @Override
+                public WDRemoteValue read(JsonReader in) throws IOException {
+                    return WDRemoteValueReader.read(in);
+                }
+
+                // ✅ **Serialisierung: Wandelt `WDRemoteValue` über die konkrete Klasse in JSON um**
+                @Override
+                public void write(JsonWriter out, WDRemoteValue src) throws IOException {
+                    if (src == null) {
+                        out.nullValue();
+                        return;
                     }
-                    return new ObjectRemoteValue(null, null, objectMap);
-                case "function":
-                    return context.deserialize(jsonObject, FunctionRemoteValue.class);
-                case "regexp":
-                    return context.deserialize(jsonObject, RegExpRemoteValue.class);
-                case "date":
-                    return context.deserialize(jsonObject, DateRemoteValue.class);
-                case "map":
-                    return context.deserialize(jsonObject, MapRemoteValue.class);
-                case "set":
-                    return context.deserialize(jsonObject, SetRemoteValue.class);
-                case "weakmap":
-                    return context.deserialize(jsonObject, WeakMapRemoteValue.class);
-                case "weakset":
-                    return context.deserialize(jsonObject, WeakSetRemoteValue.class);
-                case "generator":
-                    return context.deserialize(jsonObject, GeneratorRemoteValue.class);
-                case "error":
-                    return context.deserialize(jsonObject, ErrorRemoteValue.class);
-                case "proxy":
-                    return context.deserialize(jsonObject, ProxyRemoteValue.class);
-                case "promise":
-                    return context.deserialize(jsonObject, PromiseRemoteValue.class);
-                case "typedarray":
-                    return context.deserialize(jsonObject, TypedArrayRemoteValue.class);
-                case "arraybuffer":
-                    return context.deserialize(jsonObject, ArrayBufferRemoteValue.class);
-                case "nodelist":
-                    return context.deserialize(jsonObject, NodeListRemoteValue.class);
-                case "htmlcollection":
-                    return context.deserialize(jsonObject, HTMLCollectionRemoteValue.class);
-                case "node":
-                    return context.deserialize(jsonObject, NodeRemoteValue.class);
-                case "window":
-                    return context.deserialize(jsonObject, WindowProxyRemoteValue.class);
-                default:
-                    throw new JsonParseException("Unknown WDRemoteValue type: " + type);
-            }
-        }
-
-        // ✅ **Serialisierung: Wandelt `WDRemoteValue` in JSON um**
-        @Override
-        public JsonElement serialize(WDRemoteValue src, Type typeOfSrc, JsonSerializationContext context) {
-            return context.serialize(src);
-            }
-
-        private WDRemoteValue mergeWithLocalValue(WDLocalValue localValue, JsonObject jsonObject) {
-            WDHandle handle = jsonObject.has("handle") ? new WDHandle(jsonObject.get("handle").getAsString()) : null;
-            WDInternalId internalId = jsonObject.has("internalId") ? new WDInternalId(jsonObject.get("internalId").getAsString()) : null;
-
-            if (localValue instanceof WDLocalValue.RegExpLocalValue) {
-                return new RegExpRemoteValue(handle, internalId, ((WDLocalValue.RegExpLocalValue) localValue).getValue());
-            } else if (localValue instanceof WDLocalValue.DateLocalValue) {
-                return new DateRemoteValue(handle, internalId, ((WDLocalValue.DateLocalValue) localValue).getValue());
-            }
-
-            throw new JsonParseException("Unexpected local value type in RemoteValue merging.");
+                    ((TypeAdapter<WDRemoteValue>) gson.getAdapter(src.getClass())).write(out, src);
+                }
+            };
         }
     }
 
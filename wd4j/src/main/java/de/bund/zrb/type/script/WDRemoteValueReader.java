@@ -0,0 +1,371 @@
+package de.bund.zrb.type.script;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import de.bund.zrb.support.CompactOrderedMap;
+import de.bund.zrb.type.browsingContext.WDBrowsingContext;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming deserialization of {@link WDRemoteValue}: reads directly from the {@link JsonReader} without building
+ * a {@code JsonObject} tree first. The type tag is resolved by a static switch; objects and maps are stored in
+ * insertion order in a {@link CompactOrderedMap}.
+ *
+ * BiDi sends "type" before "value". If an implementation does not, the value is buffered once and read after the
+ * type is known.
+ */
+final class WDRemoteValueReader {
+
+    private WDRemoteValueReader() {
+        // static helper
+    }
+
+    static WDRemoteValue read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        String type = null;
+        WDHandle handle = null;
+        WDInternalId internalId = null;
+        WDSharedId sharedId = null;
+        Object value = null;
+        JsonElement bufferedValue = null;
+        boolean hasValue = false;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if ("type".equals(name)) {
+                type = in.nextString();
+            } else if ("value".equals(name)) {
+                hasValue = true;
+                if (type != null) {
+                    value = readValue(in, type);
+                } else {
+                    bufferedValue = JsonParser.parseReader(in); // rare: "value" before "type"
+                }
+            } else if ("handle".equals(name)) {
+                String v = nextStringOrNull(in);
+                handle = v != null ? new WDHandle(v) : null;
+            } else if ("internalId".equals(name)) {
+                String v = nextStringOrNull(in);
+                internalId = v != null ? new WDInternalId(v) : null;
+            } else if ("sharedId".equals(name)) {
+                String v = nextStringOrNull(in);
+                sharedId = v != null ? new WDSharedId(v) : null;
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (type == null) {
+            throw new JsonParseException("Missing 'type' field in WDRemoteValue JSON");
+        }
+        if (bufferedValue != null) {
+            JsonReader buffered = new JsonReader(new StringReader(bufferedValue.toString()));
+            value = readValue(buffered, type);
+        }
+        return create(type, handle, internalId, sharedId, value, hasValue);
+    }
+
+    /**
+     * Reads the "value" member for the given type tag.
+     */
+    private static Object readValue(JsonReader in, String type) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        switch (type) {
+            case "string":
+            case "bigint":
+            case "date":
+                return in.nextString();
+            case "number":
+                // JSON number (raw text, e.g. "3000") or special value as string ("NaN", "-0", ...)
+                return in.nextString();
+            case "boolean":
+                return in.nextBoolean();
+            case "array":
+            case "set":
+            case "nodelist":
+            case "htmlcollection":
+                return readList(in);
+            case "object":
+            case "map":
+                return readEntries(in);
+            case "regexp":
+                return readRegExp(in);
+            case "node":
+                return readNodeProperties(in);
+            case "window":
+                return readWindowProxy(in);
+            default:
+                in.skipValue(); // types without a value (symbol, function, ...) or unknown payload
+                return null;
+        }
+    }
+
+    private static WDRemoteValue create(String type, WDHandle handle, WDInternalId internalId, WDSharedId sharedId,
+                                        Object value, boolean hasValue) {
+        switch (type) {
+            // Primitive protocol values
+            case "undefined":
+                return new WDPrimitiveProtocolValue.UndefinedValue();
+            case "null":
+                return new WDPrimitiveProtocolValue.NullValue();
+            case "string":
+                return new WDPrimitiveProtocolValue.StringValue((String) value);
+            case "number":
+                if (!hasValue || value == null) {
+                    throw new JsonParseException("number.value missing");
+                }
+                return new WDPrimitiveProtocolValue.NumberValue((String) value);
+            case "boolean":
+                return new WDPrimitiveProtocolValue.BooleanValue((Boolean) value);
+            case "bigint":
+                return new WDPrimitiveProtocolValue.BigIntValue((String) value);
+
+            // Remote values
+            case "symbol":
+                return new WDRemoteValue.SymbolRemoteValue(handle, internalId);
+            case "array":
+                return new WDRemoteValue.ArrayRemoteValue(handle, internalId, asList(value));
+            case "object":
+                return new WDRemoteValue.ObjectRemoteValue(handle, internalId, asMap(value));
+            case "function":
+                return new WDRemoteValue.FunctionRemoteValue(handle, internalId);
+            case "regexp":
+                return new WDRemoteValue.RegExpRemoteValue(handle, internalId, (WDLocalValue.RegExpLocalValue.RegExpValue) value);
+            case "date":
+                return new WDRemoteValue.DateRemoteValue(handle, internalId, (String) value);
+            case "map":
+                return new WDRemoteValue.MapRemoteValue(handle, internalId, asMap(value));
+            case "set":
+                return new WDRemoteValue.SetRemoteValue(handle, internalId, asList(value));
+            case "weakmap":
+                return new WDRemoteValue.WeakMapRemoteValue(handle, internalId);
+            case "weakset":
+                return new WDRemoteValue.WeakSetRemoteValue(handle, internalId);
+            case "generator":
+                return new WDRemoteValue.GeneratorRemoteValue(handle, internalId);
+            case "error":
+                return new WDRemoteValue.ErrorRemoteValue(handle, internalId);
+            case "proxy":
+                return new WDRemoteValue.ProxyRemoteValue(handle, internalId);
+            case "promise":
+                return new WDRemoteValue.PromiseRemoteValue(handle, internalId);
+            case "typedarray":
+                return new WDRemoteValue.TypedArrayRemoteValue(handle, internalId);
+            case "arraybuffer":
+                return new WDRemoteValue.ArrayBufferRemoteValue(handle, internalId);
+            case "nodelist":
+                return new WDRemoteValue.NodeListRemoteValue(handle, internalId, asList(value));
+            case "htmlcollection":
+                return new WDRemoteValue.HTMLCollectionRemoteValue(handle, internalId, asList(value));
+            case "node":
+                return new WDRemoteValue.NodeRemoteValue(handle, internalId, sharedId, (WDRemoteValue.NodeProperties) value);
+            case "window":
+                return new WDRemoteValue.WindowProxyRemoteValue(handle, (WDRemoteValue.WindowProxyProperties) value, internalId);
+            default:
+                throw new JsonParseException("Unknown WDRemoteValue type: " + type);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<WDRemoteValue> asList(Object value) {
+        return value != null ? (List<WDRemoteValue>) value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<WDRemoteValue, WDRemoteValue> asMap(Object value) {
+        return value != null ? (Map<WDRemoteValue, WDRemoteValue>) value : null;
+    }
+
+    private static List<WDRemoteValue> readList(JsonReader in) throws IOException {
+        List<WDRemoteValue> list = new ArrayList<WDRemoteValue>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    /**
+     * Reads [[key, value], ...]; a key is either a plain string or a remote value.
+     */
+    private static Map<WDRemoteValue, WDRemoteValue> readEntries(JsonReader in) throws IOException {
+        CompactOrderedMap.Builder<WDRemoteValue, WDRemoteValue> entries = new CompactOrderedMap.Builder<WDRemoteValue, WDRemoteValue>();
+        in.beginArray();
+        while (in.hasNext()) {
+            in.beginArray();
+            if (!in.hasNext()) {
+                throw new JsonParseException("Invalid object entry: Expected key-value pair.");
+            }
+            WDRemoteValue key = in.peek() == JsonToken.STRING
+                    ? new WDPrimitiveProtocolValue.StringValue(in.nextString())
+                    : read(in);
+            if (!in.hasNext()) {
+                throw new JsonParseException("Invalid object entry: Expected key-value pair.");
+            }
+            WDRemoteValue value = read(in);
+            if (in.hasNext()) {
+                throw new JsonParseException("Invalid object entry: Expected key-value pair.");
+            }
+            in.endArray();
+            entries.put(key, value);
+        }
+        in.endArray();
+        return entries.build();
+    }
+
+    private static WDLocalValue.RegExpLocalValue.RegExpValue readRegExp(JsonReader in) throws IOException {
+        String pattern = null;
+        String flags = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if ("pattern".equals(name)) {
+                pattern = nextStringOrNull(in);
+            } else if ("flags".equals(name)) {
+                flags = nextStringOrNull(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new WDLocalValue.RegExpLocalValue.RegExpValue(pattern, flags);
+    }
+
+    private static WDRemoteValue.NodeProperties readNodeProperties(JsonReader in) throws IOException {
+        long nodeType = 0;
+        long childNodeCount = 0;
+        Map<String, String> attributes = null;
+        List<WDRemoteValue.NodeRemoteValue> children = null;
+        String localName = null;
+        WDRemoteValue.NodeProperties.Mode mode = null;
+        String namespaceURI = null;
+        String nodeValue = null;
+        WDRemoteValue.NodeRemoteValue shadowRoot = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "nodeType":
+                    nodeType = in.nextLong();
+                    break;
+                case "childNodeCount":
+                    childNodeCount = in.nextLong();
+                    break;
+                case "attributes":
+                    attributes = readAttributes(in);
+                    break;
+                case "children":
+                    children = readChildren(in);
+                    break;
+                case "localName":
+                    localName = in.nextString();
+                    break;
+                case "mode":
+                    mode = readMode(in.nextString());
+                    break;
+                case "namespaceURI":
+                    namespaceURI = in.nextString();
+                    break;
+                case "nodeValue":
+                    nodeValue = in.nextString();
+                    break;
+                case "shadowRoot":
+                    shadowRoot = asNode(read(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new WDRemoteValue.NodeProperties(nodeType, childNodeCount, attributes, children,
+                localName, mode, namespaceURI, nodeValue, shadowRoot);
+    }
+
+    private static Map<String, String> readAttributes(JsonReader in) throws IOException {
+        CompactOrderedMap.Builder<String, String> attributes = new CompactOrderedMap.Builder<String, String>();
+        in.beginObject();
+        while (in.hasNext()) {
+            attributes.put(in.nextName(), nextStringOrNull(in));
+        }
+        in.endObject();
+        return attributes.build();
+    }
+
+    private static List<WDRemoteValue.NodeRemoteValue> readChildren(JsonReader in) throws IOException {
+        in.beginArray();
+        if (!in.hasNext()) {
+            in.endArray();
+            return Collections.emptyList();
+        }
+        List<WDRemoteValue.NodeRemoteValue> children = new ArrayList<WDRemoteValue.NodeRemoteValue>();
+        while (in.hasNext()) {
+            children.add(asNode(read(in)));
+        }
+        in.endArray();
+        return children;
+    }
+
+    private static WDRemoteValue.NodeRemoteValue asNode(WDRemoteValue value) {
+        if (value != null && !(value instanceof WDRemoteValue.NodeRemoteValue)) {
+            throw new JsonParseException("Expected node remote value, got: " + value.getType());
+        }
+        return (WDRemoteValue.NodeRemoteValue) value;
+    }
+
+    private static WDRemoteValue.NodeProperties.Mode readMode(String value) {
+        switch (value) {
+            case "open":
+                return WDRemoteValue.NodeProperties.Mode.OPEN;
+            case "closed":
+                return WDRemoteValue.NodeProperties.Mode.CLOSED;
+            default:
+                throw new JsonParseException("Unknown value: " + value + " for enum Mode");
+        }
+    }
+
+    private static WDRemoteValue.WindowProxyProperties readWindowProxy(JsonReader in) throws IOException {
+        String context = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("context".equals(in.nextName())) {
+                context = nextStringOrNull(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new WDRemoteValue.WindowProxyProperties(context != null ? new WDBrowsingContext(context) : null);
+    }
+
+    private static String nextStringOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+}
@@ -0,0 +1,148 @@
+package de.bund.zrb.websocket;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Absoluter Zeitpunkt, bis zu dem eine Operation fertig sein muss.
+ *
+ * Eine Deadline wird für den aktuellen Thread aktiviert ({@link #enter()}) und gilt dann für alle Commands, die in
+ * diesem Bereich gesendet werden: {@code WDWebSocketManagerImpl} lässt sie zum Ablauf fehlschlagen und entfernt sie
+ * aus der Antwort-Tabelle, statt pauschal 30 s zu warten. Verschachtelte Bereiche können die Deadline nur verkürzen.
+ *
+ * Ein Timeout von 0 (oder negativ) heißt wie bei Playwright "kein Timeout angegeben" – so steht er z.B. in jeder
+ * TestAction ohne eigenen Timeout. Er wird auf den Standard-Timeout {@code wd4j.command.timeoutMs} abgebildet, nicht
+ * auf eine bereits abgelaufene Deadline.
+ *
+ * <pre>
+ * WDDeadline.run(options.timeout, () -> {
+ *     ... // alle Commands enden spätestens nach options.timeout ms
+ * });
+ * </pre>
+ */
+public final class WDDeadline {
+
+    /** Standard-Timeout, wenn keiner angegeben ist (-Dwd4j.command.timeoutMs, Default 30000). */
+    public static final long DEFAULT_TIMEOUT_MILLIS = Long.getLong("wd4j.command.timeoutMs", 30_000L);
+
+    private static final ThreadLocal<WDDeadline> CURRENT = new ThreadLocal<WDDeadline>();
+
+    private final long deadlineNanos;
+    private final long timeoutMillis;
+
+    private WDDeadline(long timeoutMillis) {
+        this.timeoutMillis = effectiveTimeout(timeoutMillis);
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.timeoutMillis);
+    }
+
+    /** @param timeoutMillis Timeout in ms, {@code <= 0} = Standard-Timeout */
+    public static WDDeadline after(long timeoutMillis) {
+        return new WDDeadline(timeoutMillis);
+    }
+
+    /** @param timeoutMillis Timeout in ms, {@code <= 0} = Standard-Timeout */
+    public static WDDeadline after(double timeoutMillis) {
+        return new WDDeadline((long) Math.ceil(timeoutMillis));
+    }
+
+    /** @return {@code timeoutMillis}, bzw. {@link #DEFAULT_TIMEOUT_MILLIS} für 0 oder negativ (kein Timeout angegeben) */
+    public static long effectiveTimeout(long timeoutMillis) {
+        return timeoutMillis > 0L ? timeoutMillis : DEFAULT_TIMEOUT_MILLIS;
+    }
+
+    /**
+     * @return Die im aktuellen Thread aktive Deadline oder {@code null}.
+     */
+    public static WDDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return Aktive Deadline des Threads oder eine neue mit dem gegebenen Default-Timeout.
+     */
+    public static WDDeadline currentOr(long defaultTimeoutMillis) {
+        WDDeadline current = CURRENT.get();
+        return current != null ? current : new WDDeadline(defaultTimeoutMillis);
+    }
+
+    /**
+     * Führt die Aktion mit einer Deadline von {@code timeoutMillis} aus.
+     */
+    public static <T> T call(long timeoutMillis, Supplier<T> action) {
+        Scope scope = after(timeoutMillis).enter();
+        try {
+            return action.get();
+        } finally {
+            scope.close();
+        }
+    }
+
+    public static void run(long timeoutMillis, Runnable action) {
+        Scope scope = after(timeoutMillis).enter();
+        try {
+            action.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Aktiviert die Deadline für den aktuellen Thread. Ist bereits eine frühere aktiv, bleibt diese gültig.
+     *
+     * @return Scope, dessen {@code close()} den vorherigen Zustand wiederherstellt
+     */
+    public Scope enter() {
+        WDDeadline previous = CURRENT.get();
+        WDDeadline effective = previous != null && previous.deadlineNanos - deadlineNanos < 0 ? previous : this;
+        CURRENT.set(effective);
+        return new Scope(previous, effective);
+    }
+
+    /** @return Verbleibende Zeit in ms, 0 wenn abgelaufen */
+    public long remainingMillis() {
+        long remaining = deadlineNanos - System.nanoTime();
+        return remaining <= 0 ? 0L : TimeUnit.NANOSECONDS.toMillis(remaining + 999_999L);
+    }
+
+    public long remainingNanos() {
+        return Math.max(0L, deadlineNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /** @return Ursprünglich gesetzter Timeout in ms (für Fehlermeldungen) */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "WDDeadline{timeout=" + timeoutMillis + "ms, remaining=" + remainingMillis() + "ms}";
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final WDDeadline previous;
+        private final WDDeadline effective;
+
+        private Scope(WDDeadline previous, WDDeadline effective) {
+            this.previous = previous;
+            this.effective = effective;
+        }
+
+        /** @return Die innerhalb des Scopes gültige (ggf. frühere, geerbte) Deadline */
+        public WDDeadline deadline() {
+            return effective;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
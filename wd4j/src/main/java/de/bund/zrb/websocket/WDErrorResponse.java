@@ -9,6 +9,18 @@ public class WDErrorResponse extends RuntimeException implements WDCommandRespon
     private String message;
     private String stacktrace;
 
+    public WDErrorResponse() {
+        // Für Gson
+    }
+
+    public WDErrorResponse(Integer id, String error, String message, String stacktrace) {
+        this.type = "error";
+        this.id = id;
+        this.error = error;
+        this.message = message;
+        this.stacktrace = stacktrace;
+    }
+
     @Override
     public String getType() {
         return type;
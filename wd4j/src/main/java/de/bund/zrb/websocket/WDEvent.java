@@ -9,11 +9,17 @@ public abstract class WDEvent<T> implements WDWebSocketMessage {
     private final Gson gson = GsonMapperFactory.getGson();
     private String type = "event";
 //    private String method;
-    protected T params; // Die Event-Daten, e.g. browsingContext.NavigationInfo
+    protected volatile T params; // Die Event-Daten, e.g. browsingContext.NavigationInfo – erst bei Zugriff gemappt
+
+    // Roh-Daten bis zum ersten Zugriff auf getParams()
+    private transient volatile JsonObject json;
+    private final transient Class<T> paramsClass;
 
     public WDEvent(JsonObject json, Class<T> paramsClass) {
-        // **Generischen Typ `T` zur Laufzeit ermitteln**
-        this.params = gson.fromJson(json, paramsClass);
+        // Lazy: Das DTO wird erst beim ersten getParams() aus dem JsonObject erzeugt.
+        // So kosten Events, deren Felder niemand liest (z.B. network.beforeRequestSent-Fluten), kaum Allokationen.
+        this.json = json;
+        this.paramsClass = paramsClass;
     }
 
     @Override
@@ -24,6 +30,17 @@ public abstract class WDEvent<T> implements WDWebSocketMessage {
     public abstract String getMethod();
 
     public T getParams() {
-        return params;
+        T result = params;
+        if (result == null && json != null) {
+            synchronized (this) {
+                result = params;
+                if (result == null && json != null) {
+                    result = gson.fromJson(json, paramsClass);
+                    params = result;
+                    json = null; // Roh-Daten freigeben
+                }
+            }
+        }
+        return result;
     }
 }
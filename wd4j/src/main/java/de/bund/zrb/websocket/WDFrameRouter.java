@@ -0,0 +1,174 @@
+package de.bund.zrb.websocket;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import de.bund.zrb.api.WDCommandResponse;
+import de.bund.zrb.api.WebSocketFrame;
+import de.bund.zrb.service.WDEventDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Routes incoming WebDriver BiDi frames in a single parsing pass.
+ *
+ * The frame is streamed once: the top-level members {@code id}, {@code type} and {@code method} are read as plain
+ * tokens while all other members are collected into one {@link JsonObject}. Depending on the header the tree is
+ * handed to the callback registered for the command id or to every {@link WDEventDispatcher}.
+ *
+ * Responses nobody waits for (e.g. after a timeout) are not materialized: if the {@code id} precedes the
+ * {@code result} member - which is the order used by the browsers - the result is skipped on the token level.
+ *
+ * @see <a href="https://w3c.github.io/webdriver-bidi/#local-end-definition">Local end definition</a>
+ */
+public class WDFrameRouter implements Consumer<WebSocketFrame> {
+
+    private static final Logger logger = LoggerFactory.getLogger(WDFrameRouter.class);
+
+    private final IntFunction<Consumer<WDCommandResponse<?>>> responseLookup;
+    private final List<WDEventDispatcher> eventDispatchers = new CopyOnWriteArrayList<WDEventDispatcher>();
+
+    /**
+     * @param responseLookup returns the callback waiting for the given command id or {@code null}
+     */
+    public WDFrameRouter(IntFunction<Consumer<WDCommandResponse<?>>> responseLookup) {
+        this.responseLookup = responseLookup;
+    }
+
+    public void addEventDispatcher(WDEventDispatcher eventDispatcher) {
+        eventDispatchers.add(eventDispatcher);
+    }
+
+    public void removeEventDispatcher(WDEventDispatcher eventDispatcher) {
+        eventDispatchers.remove(eventDispatcher);
+    }
+
+    @Override
+    public void accept(WebSocketFrame frame) {
+        route(frame.text());
+    }
+
+    /**
+     * Parses the given frame once and delivers it to the response callback or the event dispatchers.
+     *
+     * @param text the raw JSON text of the frame
+     */
+    public void route(String text) {
+        JsonObject json = new JsonObject();
+        Integer id = null;
+        String type = null;
+        String method = null;
+        Consumer<WDCommandResponse<?>> callback = null;
+
+        try {
+            JsonReader reader = new JsonReader(new StringReader(text));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                JsonToken token = reader.peek();
+
+                if ("id".equals(name) && token == JsonToken.NUMBER) {
+                    id = reader.nextInt();
+                    callback = responseLookup.apply(id);
+                    json.addProperty(name, id);
+                } else if ("type".equals(name) && token == JsonToken.STRING) {
+                    type = reader.nextString();
+                    json.addProperty(name, type);
+                } else if ("method".equals(name) && token == JsonToken.STRING) {
+                    method = reader.nextString();
+                    json.addProperty(name, method);
+                } else if ("result".equals(name) && id != null && callback == null) {
+                    // Nobody waits for this response, do not build the (possibly large) result tree
+                    reader.skipValue();
+                } else {
+                    json.add(name, JsonParser.parseReader(reader));
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | JsonParseException e) {
+            logger.error("JSON Parsing-Fehler in Frame (id={}): {}", id, e.getMessage());
+            if (callback != null) {
+                failCallback(id, callback, e); // Aufrufer nicht bis zum Timeout warten lassen
+            }
+            return;
+        }
+
+        if (id != null && callback != null) {
+            callback.accept(toResponse(id, type, json));
+        }
+
+        if (method != null) {
+            if (Boolean.getBoolean("wd4j.debug")) {
+                System.out.println("[DEBUG] WebSocketManager detected event: " + method);
+            }
+            for (WDEventDispatcher eventDispatcher : eventDispatchers) {
+                eventDispatcher.processEvent(json); // 🔥 Event an Dispatcher weitergeben
+            }
+        }
+    }
+
+    private static void failCallback(int id, Consumer<WDCommandResponse<?>> callback, Exception cause) {
+        if (callback instanceof CompletableFuture) {
+            ((CompletableFuture<?>) callback).completeExceptionally(
+                    new JsonParseException("Response " + id + " could not be parsed: " + cause.getMessage(), cause));
+        } else {
+            callback.accept(new WDErrorResponse(id, "unknown error",
+                    "Response could not be parsed: " + cause.getMessage(), null));
+        }
+    }
+
+    private WDCommandResponse<?> toResponse(int id, String type, JsonObject json) {
+        if ("error".equals(type)) {
+            // Build from the already parsed tree, do not parse the raw text again
+            return new WDErrorResponse(id, getString(json, "error"), getString(json, "message"),
+                    getString(json, "stacktrace"));
+        }
+        return new TreeResponse(type, id, json.get("result"));
+    }
+
+    private static String getString(JsonObject json, String key) {
+        JsonElement element = json.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+
+    /**
+     * Generic response, the result is kept as JSON tree until the caller knows the expected type.
+     */
+    private static final class TreeResponse implements WDCommandResponse<Object> {
+        private final String type;
+        private final int id;
+        private final JsonElement result;
+
+        TreeResponse(String type, int id, JsonElement result) {
+            this.type = type;
+            this.id = id;
+            this.result = result;
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public Object getResult() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package de.bund.zrb.websocket;
+
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Outbound stage between the managers and the WebSocket: collects commands issued close together and hands them to
+ * the socket as one batch of frames (one message per command, as required by BiDi).
+ *
+ * Serialization goes through one reused {@link StringBuilder} (no growing {@code StringWriter} per command), but each
+ * command still becomes one {@code String}: the frame encoder of the WebSocket library and the sent-frame listeners
+ * (logging, tracing) take the message as text.
+ *
+ * Flush strategy:
+ *  - maxDelayMillis == 0: "smart batching" – the caller that finds the writer idle flushes; commands enqueued by other
+ *    threads meanwhile are picked up by the same flush. No extra thread, no added latency.
+ *  - maxDelayMillis  > 0: the first command of a batch schedules a flush after the delay; reaching maxBatch flushes
+ *    immediately.
+ *
+ * Configure via System Properties (see {@link #fromSystemProperties(Gson, Consumer, BiConsumer)}):
+ *  - wd4j.ws.batch.enabled     (boolean) default false (one send per command)
+ *  - wd4j.ws.batch.maxSize     (int)     max frames per flush, default 32
+ *  - wd4j.ws.batch.maxDelayMs  (long)    default 0
+ */
+public class WDOutboundWriter {
+
+    private final Gson gson;
+    private final Consumer<List<String>> sink;
+    private final BiConsumer<Object, RuntimeException> onFailure;
+    private volatile BiConsumer<Object, String> onWritten;
+    private final int maxBatch;
+    private final long maxDelayMillis;
+
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<Object>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService timer;
+
+    // Serialization buffer, reused by the flushing thread only (guarded by flushLock)
+    private final StringBuilder buffer = new StringBuilder(1024);
+
+    // Metrics
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicInteger maxFramesPerFlush = new AtomicInteger();
+
+    /**
+     * @param gson           serializer for the commands
+     * @param sink           writes one batch of JSON messages to the socket, in order
+     * @param onFailure      called for every command of a batch whose write failed (may be null)
+     * @param maxBatch       max frames per flush
+     * @param maxDelayMillis max time a command waits for companions, 0 = flush as soon as the writer is idle
+     */
+    public WDOutboundWriter(Gson gson, Consumer<List<String>> sink, BiConsumer<Object, RuntimeException> onFailure,
+                            int maxBatch, long maxDelayMillis) {
+        if (maxBatch <= 0 || maxDelayMillis < 0) {
+            throw new IllegalArgumentException("maxBatch must be positive and maxDelayMillis not negative");
+        }
+        this.gson = gson;
+        this.sink = sink;
+        this.onFailure = onFailure;
+        this.maxBatch = maxBatch;
+        this.maxDelayMillis = maxDelayMillis;
+        this.timer = maxDelayMillis > 0 ? Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "wd4j-outbound-writer");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+    }
+
+    /**
+     * @return Writer configured by the wd4j.ws.batch.* System Properties or {@code null} if batching is off.
+     */
+    public static WDOutboundWriter fromSystemProperties(Gson gson, Consumer<List<String>> sink,
+                                                        BiConsumer<Object, RuntimeException> onFailure) {
+        if (!Boolean.getBoolean("wd4j.ws.batch.enabled")) {
+            return null;
+        }
+        int maxBatch = Integer.getInteger("wd4j.ws.batch.maxSize", 32);
+        long maxDelay = Long.getLong("wd4j.ws.batch.maxDelayMs", 0L);
+        return new WDOutboundWriter(gson, sink, onFailure, maxBatch, maxDelay);
+    }
+
+    /**
+     * @param onWritten called for every command after its batch was written, with the JSON sent (e.g. tracing);
+     *                  runs on the flushing thread, may be null
+     */
+    public void setOnWritten(BiConsumer<Object, String> onWritten) {
+        this.onWritten = onWritten;
+    }
+
+    /**
+     * Queue a command. Depending on the flush strategy it is written before this method returns (idle writer)
+     * or by a concurrent / scheduled flush.
+     */
+    public void enqueue(Object command) {
+        queue.add(command);
+        int size = queued.incrementAndGet();
+
+        if (timer == null || size >= maxBatch) {
+            flushIfIdle();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            timer.schedule(() -> {
+                flushScheduled.set(false);
+                flushIfIdle();
+            }, maxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Write everything that is queued, unless another thread is already flushing (it will pick the commands up).
+     */
+    public void flushIfIdle() {
+        while (!queue.isEmpty() && flushLock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                flushLock.unlock();
+            }
+            // Loop: a command may have been queued after drain() saw an empty queue but before unlock()
+        }
+    }
+
+    private void drain() {
+        List<Object> batch = new ArrayList<Object>(Math.min(maxBatch, Math.max(queued.get(), 1)));
+        List<String> messages = new ArrayList<String>(batch.size());
+        Object command;
+        while (true) {
+            batch.clear();
+            messages.clear();
+            while (batch.size() < maxBatch && (command = queue.poll()) != null) {
+                queued.decrementAndGet();
+                batch.add(command);
+                buffer.setLength(0);
+                gson.toJson(command, buffer);
+                messages.add(buffer.toString());
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            write(batch, messages);
+        }
+    }
+
+    private void write(List<Object> batch, List<String> messages) {
+        try {
+            sink.accept(messages);
+        } catch (RuntimeException e) {
+            if (onFailure == null) {
+                throw e;
+            }
+            for (Object failed : batch) {
+                onFailure.accept(failed, e);
+            }
+            return;
+        }
+        int n = messages.size();
+        BiConsumer<Object, String> written = onWritten;
+        if (written != null) {
+            for (int i = 0; i < n; i++) {
+                written.accept(batch.get(i), messages.get(i));
+            }
+        }
+        flushes.incrementAndGet();
+        frames.addAndGet(n);
+        int max = maxFramesPerFlush.get();
+        while (n > max && !maxFramesPerFlush.compareAndSet(max, n)) {
+            max = maxFramesPerFlush.get();
+        }
+    }
+
+    /** Stop the delay timer (if any); queued commands are flushed once more. */
+    public void close() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        flushIfIdle();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Metrics
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public long getFlushCount() {
+        return flushes.get();
+    }
+
+    public long getFrameCount() {
+        return frames.get();
+    }
+
+    public int getMaxFramesPerFlush() {
+        return maxFramesPerFlush.get();
+    }
+
+    public double getAverageFramesPerFlush() {
+        long f = flushes.get();
+        return f == 0 ? 0.0 : (double) frames.get() / f;
+    }
+
+    /** @return commands waiting for the next flush */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+}
@@ -0,0 +1,136 @@
+package de.bund.zrb.websocket;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Tabelle der offenen Commands, indiziert über die (fortlaufende) Command-ID.
+ *
+ * Da die IDs monoton vergeben werden, landet jeder Command in einem eigenen Slot eines Rings
+ * ({@code id & mask}); Zugriffe sind lock-frei und benötigen weder Boxing noch Map-Knoten.
+ * Ist ein Slot noch von einem älteren Command belegt (mehr offene Commands als Slots oder ein
+ * hängender Command), weicht der Eintrag auf eine Overflow-Map aus.
+ *
+ * @param <V> Typ des hinterlegten Handlers.
+ */
+public class WDPendingRequests<V> {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final AtomicReferenceArray<Slot<V>> slots;
+    private final int mask;
+    private final Map<Integer, V> overflow = new ConcurrentHashMap<Integer, V>();
+
+    public WDPendingRequests() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Anzahl der Slots, wird auf die nächste Zweierpotenz aufgerundet.
+     */
+    public WDPendingRequests(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<Slot<V>>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Trägt einen Handler für die gegebene ID ein. Eine ID darf nur einmal gleichzeitig offen sein.
+     */
+    public void put(int id, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        if (!slots.compareAndSet(id & mask, null, new Slot<V>(id, value))) {
+            overflow.put(id, value);
+        }
+    }
+
+    /**
+     * @return Den Handler zur ID oder {@code null}, wenn kein Command mit dieser ID offen ist.
+     */
+    public V get(int id) {
+        Slot<V> slot = slots.get(id & mask);
+        if (slot != null && slot.id == id) {
+            return slot.value;
+        }
+        return overflow.isEmpty() ? null : overflow.get(id);
+    }
+
+    /**
+     * Entfernt den Eintrag zur ID, sofern er noch auf {@code value} zeigt.
+     *
+     * @return {@code true}, wenn ein Eintrag entfernt wurde.
+     */
+    public boolean remove(int id, V value) {
+        int index = id & mask;
+        Slot<V> slot = slots.get(index);
+        if (slot != null && slot.id == id && slot.value == value) {
+            return slots.compareAndSet(index, slot, null);
+        }
+        return !overflow.isEmpty() && overflow.remove(id, value);
+    }
+
+    /**
+     * Entfernt den Eintrag zur ID unabhängig vom hinterlegten Handler.
+     *
+     * @return Den entfernten Handler oder {@code null}.
+     */
+    public V remove(int id) {
+        int index = id & mask;
+        Slot<V> slot = slots.get(index);
+        while (slot != null && slot.id == id) {
+            if (slots.compareAndSet(index, slot, null)) {
+                return slot.value;
+            }
+            slot = slots.get(index);
+        }
+        return overflow.isEmpty() ? null : overflow.remove(id);
+    }
+
+    /**
+     * @return Anzahl der offenen Einträge (nur für Diagnose, nicht atomar).
+     */
+    public int size() {
+        int count = overflow.size();
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Durchläuft alle offenen Einträge (schwach konsistent, z.B. beim Verbindungsabbruch).
+     */
+    public void forEach(Consumer<? super V> action) {
+        for (int i = 0; i < slots.length(); i++) {
+            Slot<V> slot = slots.get(i);
+            if (slot != null) {
+                action.accept(slot.value);
+            }
+        }
+        for (V value : overflow.values()) {
+            action.accept(value);
+        }
+    }
+
+    private static final class Slot<V> {
+        final int id;
+        final V value;
+
+        Slot(int id, V value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
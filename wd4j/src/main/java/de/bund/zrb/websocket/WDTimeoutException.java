@@ -0,0 +1,24 @@
+package de.bund.zrb.websocket;
+
+/**
+ * Ein Command hat bis zu seiner {@link WDDeadline} keine Antwort erhalten.
+ */
+public class WDTimeoutException extends RuntimeException {
+    private final String method;
+    private final long timeoutMillis;
+
+    public WDTimeoutException(String method, long timeoutMillis) {
+        super("Timeout while waiting for response" + (method != null ? " to " + method : "") + " (" + timeoutMillis + " ms).");
+        this.method = method;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /** @return BiDi-Methode des Commands, z.B. {@code script.callFunction}, oder {@code null} wenn unbekannt */
+    public String getMethod() {
+        return method;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+}
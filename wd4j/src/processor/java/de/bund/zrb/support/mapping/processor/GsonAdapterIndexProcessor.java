@@ -0,0 +1,156 @@
+package de.bund.zrb.support.mapping.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Erzeugt zur Compile-Zeit den Index {@code de.bund.zrb.support.mapping.GsonAdapterIndex} mit allen
+ * Implementierungen von {@code StringWrapper} und {@code EnumWrapper} des Moduls.
+ *
+ * Ersetzt den Reflections-Classpath-Scan in {@code GsonMapperFactory}: zur Laufzeit werden nur noch die
+ * gelisteten Klassen geladen.
+ *
+ * Der Prozessor sieht alle Quellen einer Compilation ("*"). Ohne Eintrag in
+ * META-INF/gradle/incremental.annotation.processors kompiliert Gradle das Modul bei Änderungen
+ * vollständig, damit der Index nie unvollständig ist.
+ */
+@SupportedAnnotationTypes("*")
+public class GsonAdapterIndexProcessor extends AbstractProcessor {
+
+    static final String PACKAGE = "de.bund.zrb.support.mapping";
+    static final String INDEX_CLASS = "GsonAdapterIndex";
+
+    // key = binary name (sortiert, damit der generierte Code stabil bleibt)
+    private final TreeMap<String, TypeElement> stringWrappers = new TreeMap<String, TypeElement>();
+    private final TreeMap<String, TypeElement> enumWrappers = new TreeMap<String, TypeElement>();
+    private boolean written;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (written) {
+            return false;
+        }
+        TypeElement stringWrapper = processingEnv.getElementUtils().getTypeElement(PACKAGE + ".StringWrapper");
+        TypeElement enumWrapper = processingEnv.getElementUtils().getTypeElement(PACKAGE + ".EnumWrapper");
+        if (stringWrapper == null || enumWrapper == null) {
+            return false; // Nicht das wd4j-Modul
+        }
+
+        for (Element root : roundEnv.getRootElements()) {
+            collect(root, stringWrapper.asType(), enumWrapper.asType());
+        }
+
+        if (!stringWrappers.isEmpty() || !enumWrappers.isEmpty()) {
+            writeIndex();
+            written = true;
+        }
+        return false;
+    }
+
+    private void collect(Element element, TypeMirror stringWrapper, TypeMirror enumWrapper) {
+        if (!(element instanceof TypeElement)) {
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type.asType());
+        String qualifiedName = type.getQualifiedName().toString();
+        boolean isMarker = qualifiedName.equals(PACKAGE + ".StringWrapper") || qualifiedName.equals(PACKAGE + ".EnumWrapper");
+
+        if (!isMarker) {
+            String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+            if (processingEnv.getTypeUtils().isAssignable(erasure, processingEnv.getTypeUtils().erasure(stringWrapper))) {
+                stringWrappers.put(binaryName, type);
+            }
+            if (processingEnv.getTypeUtils().isAssignable(erasure, processingEnv.getTypeUtils().erasure(enumWrapper))) {
+                enumWrappers.put(binaryName, type);
+            }
+        }
+
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed.getKind().isClass() || enclosed.getKind().isInterface()) {
+                collect(enclosed, stringWrapper, enumWrapper);
+            }
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(PACKAGE + "." + INDEX_CLASS);
+            Writer out = file.openWriter();
+            try {
+                out.write("package " + PACKAGE + ";\n\n");
+                out.write("/**\n * Generated by " + getClass().getName() + " – do not edit.\n */\n");
+                out.write("final class " + INDEX_CLASS + " {\n\n");
+                out.write("    private " + INDEX_CLASS + "() {\n    }\n\n");
+                writeArray(out, "STRING_WRAPPERS", stringWrappers);
+                writeArray(out, "ENUM_WRAPPERS", enumWrappers);
+                out.write("    private static Class<?> load(String binaryName) {\n");
+                out.write("        try {\n");
+                out.write("            return Class.forName(binaryName, false, " + INDEX_CLASS + ".class.getClassLoader());\n");
+                out.write("        } catch (ClassNotFoundException e) {\n");
+                out.write("            throw new IllegalStateException(\"Gson adapter index is out of date: \" + binaryName, e);\n");
+                out.write("        }\n");
+                out.write("    }\n");
+                out.write("}\n");
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + INDEX_CLASS + ": " + e);
+        }
+    }
+
+    private void writeArray(Writer out, String name, TreeMap<String, TypeElement> types) throws IOException {
+        out.write("    static final Class<?>[] " + name + " = {\n");
+        for (TypeElement type : types.values()) {
+            String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+            if (isAccessible(type)) {
+                out.write("            " + type.getQualifiedName() + ".class,\n");
+            } else {
+                out.write("            load(\"" + binaryName + "\"),\n");
+            }
+        }
+        out.write("    };\n\n");
+    }
+
+    /**
+     * @return true, wenn der Typ aus dem Paket des Index per Klassenliteral referenziert werden kann.
+     */
+    private boolean isAccessible(TypeElement type) {
+        Element current = type;
+        while (current instanceof TypeElement) {
+            Element enclosing = current.getEnclosingElement();
+            boolean interfaceMember = enclosing != null && enclosing.getKind().isInterface();
+            boolean samePackage = processingEnv.getElementUtils().getPackageOf(current).getQualifiedName().contentEquals(PACKAGE);
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!current.getModifiers().contains(Modifier.PUBLIC) && !interfaceMember && !samePackage) {
+                return false;
+            }
+            if (enclosing == null || enclosing.getKind() == ElementKind.PACKAGE) {
+                break;
+            }
+            current = enclosing;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,237 @@
+package de.bund.zrb;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import de.bund.zrb.command.request.WDScriptRequest;
+import de.bund.zrb.command.response.WDScriptResult;
+import de.bund.zrb.manager.WDSessionManager;
+import de.bund.zrb.type.session.WDSubscriptionRequest;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WDReconnectTest {
+
+    /**
+     * Never answers on the first connection, answers every command with an empty realm list afterwards.
+     */
+    static class ScriptedServer extends WebSocketServer {
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicInteger connections = new AtomicInteger();
+        final List<String> log;
+        volatile WebSocket current;
+
+        ScriptedServer(List<String> log) {
+            super(new InetSocketAddress("127.0.0.1", 0));
+            setReuseAddr(true);
+            this.log = log;
+        }
+
+        @Override
+        public void onOpen(WebSocket conn, ClientHandshake handshake) {
+            connections.incrementAndGet();
+            current = conn;
+        }
+
+        @Override
+        public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            JsonObject json = JsonParser.parseString(message).getAsJsonObject();
+            log.add("message:" + json.get("method").getAsString());
+            if (connections.get() > 1) {
+                conn.send("{\"type\":\"success\",\"id\":" + json.get("id").getAsInt() + ",\"result\":{\"realms\":[]}}");
+            }
+        }
+
+        @Override
+        public void onError(WebSocket conn, Exception ex) {
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+    }
+
+    /**
+     * Minimal BiDi session endpoint: like Firefox, a session lives only as long as the connection that created it.
+     * Commands other than session.status/session.new fail with "invalid session id" while no session exists.
+     */
+    static class SessionServer extends ScriptedServer {
+        volatile boolean rejectNewSession;
+
+        SessionServer(List<String> log) {
+            super(log);
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            JsonObject json = JsonParser.parseString(message).getAsJsonObject();
+            String method = json.get("method").getAsString();
+            int id = json.get("id").getAsInt();
+            log.add("message:" + method);
+            boolean active = conn.getAttachment() != null;
+            if ("session.status".equals(method)) {
+                conn.send("{\"type\":\"success\",\"id\":" + id + ",\"result\":{\"ready\":" + !active
+                        + ",\"message\":\"\"}}");
+            } else if ("session.new".equals(method)) {
+                if (rejectNewSession && connections.get() > 1) {
+                    conn.send("{\"type\":\"error\",\"id\":" + id + ",\"error\":\"session not created\",\"message\":\"browser gone\"}");
+                    return;
+                }
+                conn.setAttachment("session-" + connections.get());
+                conn.send("{\"type\":\"success\",\"id\":" + id + ",\"result\":{\"sessionId\":\"" + conn.getAttachment()
+                        + "\",\"capabilities\":{\"browserName\":\"firefox\"}}}");
+            } else if (!active) {
+                conn.send("{\"type\":\"error\",\"id\":" + id + ",\"error\":\"invalid session id\",\"message\":\"no session\"}");
+            } else {
+                conn.send("{\"type\":\"success\",\"id\":" + id + ",\"result\":{\"realms\":[]}}");
+            }
+        }
+    }
+
+    private final List<String> log = new CopyOnWriteArrayList<String>();
+    private final ScriptedServer scripted = new ScriptedServer(log);
+    private final SessionServer server = new SessionServer(log);
+    private WDWebSocketImpl webSocket;
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (webSocket != null) {
+            webSocket.close();
+        }
+        server.stop(1000);
+        scripted.stop(1000);
+    }
+
+    @Test
+    public void testReconnectFailsInFlightResumesAndSendsHeldCommands() throws Exception {
+        ScriptedServer server = scripted;
+        server.start();
+        assertTrue(server.started.await(10, TimeUnit.SECONDS));
+        webSocket = new WDWebSocketImpl(URI.create("ws://127.0.0.1:" + server.getPort()), 5_000.0);
+        webSocket.setReconnectPolicy(5, 200);
+        WDWebSocketManagerImpl manager = new WDWebSocketManagerImpl(webSocket);
+        manager.addResumeHandler(() -> log.add("resume"));
+
+        CompletableFuture<WDScriptResult.GetRealmsResult> inFlight =
+                manager.sendAsync(new WDScriptRequest.GetRealms(), WDScriptResult.GetRealmsResult.class);
+        waitFor(() -> log.size() == 1);
+
+        server.current.close(1001, "going away");
+
+        // In-flight command fails once the drop is detected (default policy FAIL)
+        ExecutionException lost = assertThrows(ExecutionException.class, () -> inFlight.get(10, TimeUnit.SECONDS));
+        assertTrue(lost.getCause().getMessage().contains("connection lost"));
+
+        // Sent while reconnecting (or right after): delivered after the resume handler ran
+        CompletableFuture<WDScriptResult.GetRealmsResult> held =
+                manager.sendAsync(new WDScriptRequest.GetRealms(), WDScriptResult.GetRealmsResult.class);
+        assertNotNull(held.get(10, TimeUnit.SECONDS));
+
+        assertEquals(2, server.connections.get());
+        assertEquals("resume", log.get(1));
+        assertEquals("message:script.getRealms", log.get(2));
+        assertEquals(1, manager.getReconnectCount());
+        assertEquals(1, manager.getLostCommandCount());
+        assertTrue(manager.getLastReconnectLatencyMillis() >= 0);
+        assertFalse(webSocket.isClosed());
+    }
+
+    @Test
+    public void testSessionDroppedWithConnectionIsRecreatedBeforeReplay() throws Exception {
+        WDWebSocketManagerImpl manager = connectToSessionServer();
+        WDSessionManager session = new WDSessionManager(manager);
+        manager.addResumeHandler(session::resumeSession);
+
+        session.newSession("firefox");
+        session.subscribe(new WDSubscriptionRequest(Collections.singletonList("log.entryAdded")));
+        log.clear();
+
+        server.current.close(1001, "going away");
+        waitFor(() -> server.connections.get() == 2);
+
+        CompletableFuture<WDScriptResult.GetRealmsResult> held =
+                manager.sendAsync(new WDScriptRequest.GetRealms(), WDScriptResult.GetRealmsResult.class);
+        assertNotNull(held.get(10, TimeUnit.SECONDS));
+
+        // Status first, new session before the subscriptions are replayed, the held command last
+        assertEquals(Arrays.asList("message:session.status", "message:session.new", "message:session.subscribe",
+                "message:script.getRealms"), log);
+    }
+
+    @Test
+    public void testHeldCommandsFailWhenSessionCannotBeRecreated() throws Exception {
+        server.rejectNewSession = true;
+        WDWebSocketManagerImpl manager = connectToSessionServer();
+        WDSessionManager session = new WDSessionManager(manager);
+        final CountDownLatch resumeStarted = new CountDownLatch(1);
+        final CountDownLatch commandHeld = new CountDownLatch(1);
+        manager.addResumeHandler(() -> {
+            resumeStarted.countDown();
+            awaitLatch(commandHeld);
+        });
+        manager.addResumeHandler(session::resumeSession);
+
+        session.newSession("firefox");
+        session.subscribe(new WDSubscriptionRequest(Collections.singletonList("log.entryAdded")));
+        log.clear();
+
+        server.current.close(1001, "going away");
+        assertTrue(resumeStarted.await(10, TimeUnit.SECONDS));
+        // Issued while the resume runs: held back until the session is known to be alive
+        CompletableFuture<WDScriptResult.GetRealmsResult> held =
+                manager.sendAsync(new WDScriptRequest.GetRealms(), WDScriptResult.GetRealmsResult.class);
+        commandHeld.countDown();
+
+        ExecutionException failed = assertThrows(ExecutionException.class, () -> held.get(10, TimeUnit.SECONDS));
+        assertTrue(failed.getCause().getMessage().contains("Session could not be resumed"));
+        // Neither the subscriptions nor the held command were sent to the dead session
+        assertEquals(Arrays.asList("message:session.status", "message:session.new"), log);
+        assertEquals(1, manager.getLostCommandCount());
+    }
+
+    private WDWebSocketManagerImpl connectToSessionServer() throws Exception {
+        server.start();
+        assertTrue(server.started.await(10, TimeUnit.SECONDS));
+        webSocket = new WDWebSocketImpl(URI.create("ws://127.0.0.1:" + server.getPort()), 5_000.0);
+        webSocket.setReconnectPolicy(5, 200);
+        return new WDWebSocketManagerImpl(webSocket);
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,196 @@
+package de.bund.zrb;
+
+import de.bund.zrb.api.WDCommand;
+import de.bund.zrb.api.WebSocketFrame;
+import de.bund.zrb.command.request.WDBrowsingContextRequest;
+import de.bund.zrb.command.request.WDScriptRequest;
+import de.bund.zrb.command.request.parameters.input.sourceActions.SourceActions;
+import de.bund.zrb.command.response.WDEmptyResult;
+import de.bund.zrb.command.response.WDScriptResult;
+import de.bund.zrb.manager.WDInputManager;
+import de.bund.zrb.websocket.WDDeadline;
+import de.bund.zrb.websocket.WDErrorResponse;
+import de.bund.zrb.websocket.WDTimeoutException;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WDWebSocketManagerImplTest {
+
+    /**
+     * WebSocket without a connection: records sent frames and lets the test inject received frames.
+     */
+    static class FakeWebSocket extends WDWebSocketImpl {
+        final List<String> sent = new ArrayList<String>();
+        final List<Consumer<WebSocketFrame>> receivers = new ArrayList<Consumer<WebSocketFrame>>();
+
+        FakeWebSocket() {
+            super(URI.create("ws://localhost:1/session"));
+        }
+
+        @Override
+        public void send(String jsonCommand) {
+            sent.add(jsonCommand);
+        }
+
+        @Override
+        public void send(List<String> jsonCommands) {
+            sent.addAll(jsonCommands);
+        }
+
+        @Override
+        public void onFrameReceived(Consumer<WebSocketFrame> handler) {
+            receivers.add(handler);
+        }
+
+        void receive(String text) {
+            WebSocketFrame frame = new WebSocketFrameImpl(text);
+            for (Consumer<WebSocketFrame> receiver : receivers) {
+                receiver.accept(frame);
+            }
+        }
+    }
+
+    private final FakeWebSocket webSocket = new FakeWebSocket();
+    private final WDWebSocketManagerImpl manager = new WDWebSocketManagerImpl(webSocket);
+
+    @Test
+    public void testPipelinedCommandsCompleteOutOfOrder() throws Exception {
+        WDCommand first = new WDScriptRequest.GetRealms();
+        WDCommand second = new WDBrowsingContextRequest.Activate("ctx-1");
+
+        CompletableFuture<WDScriptResult.GetRealmsResult> realms = manager.sendAsync(first, WDScriptResult.GetRealmsResult.class);
+        CompletableFuture<WDEmptyResult> activated = manager.sendAsync(second, WDEmptyResult.class);
+
+        assertEquals(2, webSocket.sent.size());
+        assertFalse(realms.isDone());
+        assertFalse(activated.isDone());
+
+        webSocket.receive("{\"type\":\"success\",\"id\":" + second.getId() + ",\"result\":{}}");
+        assertTrue(activated.isDone());
+        assertFalse(realms.isDone());
+
+        webSocket.receive("{\"type\":\"success\",\"id\":" + first.getId() + ",\"result\":{\"realms\":[]}}");
+        assertNotNull(realms.get());
+        assertTrue(realms.get().getRealms().isEmpty());
+    }
+
+    @Test
+    public void testErrorResponseCompletesExceptionally() {
+        WDCommand command = new WDBrowsingContextRequest.Activate("ctx-unknown");
+        CompletableFuture<WDEmptyResult> future = manager.sendAsync(command, WDEmptyResult.class);
+
+        webSocket.receive("{\"type\":\"error\",\"id\":" + command.getId() + ",\"error\":\"no such frame\",\"message\":\"unknown\"}");
+
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertTrue(e.getCause() instanceof WDErrorResponse);
+        assertEquals("no such frame", ((WDErrorResponse) e.getCause()).getError());
+
+        WDErrorResponse rethrown = assertThrows(WDErrorResponse.class, () -> manager.await(future));
+        assertEquals("unknown", rethrown.getMessage());
+    }
+
+    @Test
+    public void testBlockingWrapperReturnsResult() throws Exception {
+        final WDCommand command = new WDScriptRequest.GetRealms();
+        Thread responder = new Thread(() -> {
+            while (webSocket.sent.isEmpty()) {
+                Thread.yield();
+            }
+            webSocket.receive("{\"type\":\"success\",\"id\":" + command.getId() + ",\"result\":{\"realms\":[]}}");
+        });
+        responder.start();
+
+        WDScriptResult.GetRealmsResult result = manager.sendAndWaitForResponse(command, WDScriptResult.GetRealmsResult.class);
+        responder.join();
+
+        assertNotNull(result);
+    }
+
+    @Test
+    public void testBatchedCommandsAreSentAndCompleted() throws Exception {
+        manager.setOutboundWriter(manager.createOutboundWriter(8, 0));
+        WDCommand command = new WDScriptRequest.GetRealms();
+
+        CompletableFuture<WDScriptResult.GetRealmsResult> realms = manager.sendAsync(command, WDScriptResult.GetRealmsResult.class);
+        assertEquals(1, webSocket.sent.size());
+        assertEquals(1, manager.getOutboundWriter().getFrameCount());
+
+        webSocket.receive("{\"type\":\"success\",\"id\":" + command.getId() + ",\"result\":{\"realms\":[]}}");
+        assertNotNull(realms.get());
+    }
+
+    @Test
+    public void testDeadlineExpiresCommandAndCountsTimeoutPerMethod() {
+        WDCommand command = new WDScriptRequest.GetRealms();
+
+        long start = System.currentTimeMillis();
+        WDTimeoutException timeout = assertThrows(WDTimeoutException.class, () ->
+                WDDeadline.call(200, () -> manager.sendAndWaitForResponse(command, WDScriptResult.GetRealmsResult.class)));
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals("script.getRealms", timeout.getMethod());
+        assertTrue(elapsed < 5_000, "waited " + elapsed + " ms");
+        assertEquals(Long.valueOf(1), manager.getTimeoutCounts().get("script.getRealms"));
+
+        // Late response finds no entry anymore
+        webSocket.receive("{\"type\":\"success\",\"id\":" + command.getId() + ",\"result\":{\"realms\":[]}}");
+        assertNull(WDDeadline.current());
+    }
+
+    @Test
+    public void testExpiredDeadlineFailsWithoutSending() throws Exception {
+        try (WDDeadline.Scope scope = WDDeadline.after(1L).enter()) {
+            Thread.sleep(5);
+            assertTrue(scope.deadline().isExpired());
+            CompletableFuture<WDEmptyResult> future = manager.sendAsync(new WDBrowsingContextRequest.Activate("ctx-1"), WDEmptyResult.class);
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertTrue(e.getCause() instanceof WDTimeoutException);
+        }
+        assertTrue(webSocket.sent.isEmpty());
+    }
+
+    @Test
+    public void testZeroTimeoutMeansDefaultTimeout() throws Exception {
+        WDCommand command = new WDBrowsingContextRequest.Activate("ctx-1");
+        try (WDDeadline.Scope scope = WDDeadline.after(0L).enter()) { // TestAction ohne eigenen Timeout
+            assertFalse(scope.deadline().isExpired());
+            assertEquals(WDDeadline.DEFAULT_TIMEOUT_MILLIS, scope.deadline().getTimeoutMillis());
+
+            CompletableFuture<WDEmptyResult> future = manager.sendAsync(command, WDEmptyResult.class);
+            assertEquals(1, webSocket.sent.size());
+            webSocket.receive("{\"type\":\"success\",\"id\":" + command.getId() + ",\"result\":{}}");
+            assertNotNull(future.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testCancelledCommandIgnoresLateResponse() {
+        WDCommand command = new WDScriptRequest.GetRealms();
+        CompletableFuture<WDScriptResult.GetRealmsResult> future = manager.sendAsync(command, WDScriptResult.GetRealmsResult.class);
+
+        assertTrue(future.cancel(false));
+        webSocket.receive("{\"type\":\"success\",\"id\":" + command.getId() + ",\"result\":{\"realms\":[]}}");
+
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void testAsyncVariantReturnsFailedFutureForInvalidArguments() {
+        WDInputManager input = new WDInputManager(manager);
+
+        CompletableFuture<WDEmptyResult> pending = input.performActionsAsync("ctx-1", new ArrayList<SourceActions>());
+
+        assertTrue(pending.isCompletedExceptionally());
+        assertTrue(webSocket.sent.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> input.performActions("ctx-1", new ArrayList<SourceActions>()));
+    }
+}
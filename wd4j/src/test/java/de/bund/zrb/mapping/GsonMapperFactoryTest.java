@@ -4,8 +4,31 @@ import com.google.gson.Gson;
 import de.bund.zrb.support.mapping.GsonMapperFactory;
 import de.bund.zrb.type.browsingContext.WDNavigation;
 import de.bund.zrb.type.log.WDLogEntry;
+import de.bund.zrb.type.session.WDSubscriptionRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class GsonMapperFactoryTest {
+
+    @Test
+    void testWrappersFromGeneratedIndex() {
+        Gson gson = GsonMapperFactory.getGson();
+
+        assertEquals("\"warn\"", gson.toJson(WDLogEntry.Level.WARN));
+        assertEquals(WDLogEntry.Level.WARN, gson.fromJson("\"warn\"", WDLogEntry.Level.class));
+
+        assertEquals("\"page-load\"", gson.toJson(new WDNavigation("page-load")));
+        assertEquals("page-load", gson.fromJson("\"page-load\"", WDNavigation.class).value());
+        assertNull(gson.fromJson("null", WDNavigation.class));
+
+        // Optional (null) wrapper fields are not serialized
+        String json = gson.toJson(new WDSubscriptionRequest(Collections.singletonList("log.entryAdded")));
+        assertFalse(json.contains("contexts"), json);
+    }
+
     public static void main(String[] args) {
         Gson gson = GsonMapperFactory.getGson();
 
@@ -0,0 +1,107 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.type.browser.WDUserContext;
+import de.bund.zrb.type.browsingContext.WDBrowsingContext;
+import de.bund.zrb.type.browsingContext.WDInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WDContextTreeTest {
+
+    private final List<WDInfo> browserTree = new ArrayList<WDInfo>();
+    private final WDContextTree tree = new WDContextTree(() -> new ArrayList<WDInfo>(browserTree));
+
+    private static WDInfo info(String id, String parent, String url, WDInfo... children) {
+        return new WDInfo(Arrays.asList(children), null, new WDBrowsingContext(id), null, url,
+                new WDUserContext("default"), parent != null ? new WDBrowsingContext(parent) : null);
+    }
+
+    @Test
+    public void testSeedsOnceAndFollowsEvents() {
+        browserTree.add(info("top", null, "https://example.org", info("f1", "top", "about:blank")));
+        final int[] subscribed = {0};
+        tree.setOnFirstUse(() -> subscribed[0]++);
+
+        assertEquals(Collections.singletonList("f1"), tree.children("top"));
+        tree.contextCreated(info("f2", "top", "about:blank"));
+        tree.navigated("f2", "https://example.org/frame");
+
+        assertEquals(Arrays.asList("f1", "f2"), tree.children("top"));
+        assertEquals("https://example.org/frame", tree.getUrl("f2"));
+        assertEquals("top", tree.getParent("f2"));
+        assertEquals(1, tree.getSnapshotCount());
+        assertEquals(1, subscribed[0]);
+    }
+
+    @Test
+    public void testDestroyRemovesSubtree() {
+        browserTree.add(info("top", null, "https://example.org",
+                info("f1", "top", "about:blank", info("f1a", "f1", "about:blank"))));
+        assertEquals(Arrays.asList("f1", "f1a"), tree.descendants("top"));
+
+        tree.contextDestroyed("f1");
+        assertTrue(tree.descendants("top").isEmpty());
+        assertFalse(tree.contains("f1a"));
+    }
+
+    @Test
+    public void testDepthLimitLeavesChildrenNull() {
+        browserTree.add(info("top", null, "https://example.org",
+                info("f1", "top", "about:blank", info("f1a", "f1", "about:blank"))));
+
+        List<WDInfo> roots = tree.getTree("top", 1L);
+        assertEquals(1, roots.size());
+        WDInfo f1 = roots.get(0).getChildren().iterator().next();
+        assertEquals("f1", f1.getContext().value());
+        assertNull(f1.getChildren());
+        assertNull(tree.getTree("top", 0L).get(0).getChildren());
+        assertEquals(1, tree.getTree(null, null).size()); // nur Top-Level
+    }
+
+    @Test
+    public void testInvalidateReseedsAndDropsVanishedContexts() {
+        browserTree.add(info("top", null, "https://example.org"));
+        browserTree.add(info("popup", null, "https://example.org/popup"));
+        assertTrue(tree.contains("popup"));
+
+        browserTree.remove(1); // während der Unterbrechung geschlossen
+        tree.invalidate();
+        assertFalse(tree.contains("popup"));
+        assertEquals(2, tree.getSnapshotCount());
+    }
+
+    @Test
+    public void testFirstUseOnReceiveThreadSeedsInBackground() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        WDContextTree blocked = new WDContextTree(() -> {
+            awaitQuietly(release);
+            return Collections.singletonList(info("top", null, "https://example.org", info("f1", "top", "about:blank")));
+        });
+        blocked.setMayBlock(() -> false); // wie im WebSocket-Thread
+
+        assertTrue(blocked.children("top").isEmpty()); // kein Warten auf getTree
+        release.countDown();
+        long end = System.currentTimeMillis() + 5_000;
+        while (blocked.children("top").isEmpty() && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+        assertEquals(Collections.singletonList("f1"), blocked.children("top"));
+        assertEquals(1, blocked.getSnapshotCount());
+    }
+
+    static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
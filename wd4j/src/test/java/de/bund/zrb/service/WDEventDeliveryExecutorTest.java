@@ -0,0 +1,187 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.websocket.WDEventNames;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WDEventDeliveryExecutorTest {
+
+    @Test
+    public void testEventsOfOneContextKeepOrder() throws Exception {
+        WDEventDeliveryExecutor executor = new WDEventDeliveryExecutor(4, 10000, WDEventDeliveryExecutor.OverflowPolicy.GROW);
+        final List<Integer> ctxA = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> ctxB = Collections.synchronizedList(new ArrayList<Integer>());
+        final CountDownLatch done = new CountDownLatch(2000);
+
+        for (int i = 0; i < 1000; i++) {
+            final int n = i;
+            executor.submit("A", null, () -> { ctxA.add(n); done.countDown(); });
+            executor.submit("B", null, () -> { ctxB.add(n); done.countDown(); });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), ctxA.get(i));
+            assertEquals(Integer.valueOf(i), ctxB.get(i));
+        }
+        waitForDelivered(executor, 2000); // counter is updated after the task returned
+        assertEquals(0, executor.getDroppedCount());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testFailingListenerIsLoggedAndLaneContinues() throws Exception {
+        WDEventDeliveryExecutor executor = new WDEventDeliveryExecutor(1, 10, WDEventDeliveryExecutor.OverflowPolicy.GROW);
+        final CountDownLatch next = new CountDownLatch(1);
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream original = System.err;
+        System.setErr(new PrintStream(err, true));
+        try {
+            executor.submit("A", WDEventNames.LOAD, () -> { throw new IllegalStateException("boom"); });
+            executor.submit("A", null, next::countDown);
+            assertTrue(next.await(5, TimeUnit.SECONDS));
+        } finally {
+            System.setErr(original);
+            executor.shutdown();
+        }
+        String log = err.toString();
+        assertTrue(log.contains("lane 'A'"), log);
+        assertTrue(log.contains(WDEventNames.LOAD.getName()), log);
+        assertTrue(log.contains("boom"), log);
+    }
+
+    @Test
+    public void testDropOldestCountsDroppedEvents() throws Exception {
+        WDEventDeliveryExecutor executor = new WDEventDeliveryExecutor(1, 2, WDEventDeliveryExecutor.OverflowPolicy.DROP_OLDEST);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final List<Integer> delivered = Collections.synchronizedList(new ArrayList<Integer>());
+
+        // Occupy the lane's worker so the following events queue up
+        executor.submit("ctx", null, () -> {
+            started.countDown();
+            await(blocker);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 5; i++) {
+            final int n = i;
+            executor.submit("ctx", null, () -> delivered.add(n));
+        }
+        assertEquals(2, executor.getQueueDepth());
+        assertEquals(3, executor.getDroppedCount());
+
+        blocker.countDown();
+        waitForDelivered(executor, 3);
+        assertEquals(Arrays.asList(3, 4), delivered);
+        executor.shutdown();
+    }
+
+    @Test
+    public void testCoalesceReplacesQueuedEventOfSameKey() throws Exception {
+        WDEventDeliveryExecutor executor = new WDEventDeliveryExecutor(1, 2, WDEventDeliveryExecutor.OverflowPolicy.COALESCE);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final List<String> delivered = Collections.synchronizedList(new ArrayList<String>());
+
+        executor.submit("ctx", null, () -> {
+            started.countDown();
+            await(blocker);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        executor.submit("ctx", "log", () -> delivered.add("log-1"));
+        executor.submit("ctx", "nav", () -> delivered.add("nav-1"));
+        executor.submit("ctx", "log", () -> delivered.add("log-2"));
+        executor.submit("ctx", "log", () -> delivered.add("log-3"));
+
+        assertEquals(2, executor.getCoalescedCount());
+        assertEquals(0, executor.getDroppedCount());
+
+        blocker.countDown();
+        waitForDelivered(executor, 3);
+        assertEquals(Arrays.asList("log-3", "nav-1"), delivered);
+        executor.shutdown();
+    }
+
+    @Test
+    public void testGrowNeverBlocksTheProducer() throws Exception {
+        WDEventDeliveryExecutor executor = new WDEventDeliveryExecutor(1, 2, WDEventDeliveryExecutor.OverflowPolicy.GROW);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final List<Integer> delivered = Collections.synchronizedList(new ArrayList<Integer>());
+
+        executor.submit("ctx", null, () -> {
+            started.countDown();
+            await(blocker);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Lane is full after two events, the producer must still return immediately
+        for (int i = 0; i < 10; i++) {
+            final int n = i;
+            executor.submit("ctx", null, () -> delivered.add(n));
+        }
+        assertEquals(10, executor.getQueueDepth());
+
+        blocker.countDown();
+        waitForDelivered(executor, 11);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), delivered);
+        assertEquals(0, executor.getDroppedCount());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testEventsNeedingReplyAreNeverDroppedOrCoalesced() throws Exception {
+        WDEventDeliveryExecutor executor = new WDEventDeliveryExecutor(1, 2, WDEventDeliveryExecutor.OverflowPolicy.COALESCE);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final List<String> delivered = Collections.synchronizedList(new ArrayList<String>());
+
+        executor.submit("ctx", null, () -> {
+            started.countDown();
+            await(blocker);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        executor.submit("ctx", "request", true, () -> delivered.add("blocked-1"));
+        executor.submit("ctx", "request", true, () -> delivered.add("blocked-2"));
+        executor.submit("ctx", "request", true, () -> delivered.add("blocked-3"));
+        executor.submit("ctx", "request", false, () -> delivered.add("plain-1")); // only droppable entry
+        executor.submit("ctx", "log", false, () -> delivered.add("log-1"));
+
+        assertEquals(0, executor.getCoalescedCount());
+        assertEquals(2, executor.getDroppedCount());
+
+        blocker.countDown();
+        waitForDelivered(executor, 4);
+        assertEquals(Arrays.asList("blocked-1", "blocked-2", "blocked-3"), delivered);
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitForDelivered(WDEventDeliveryExecutor executor, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getDeliveredCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, executor.getDeliveredCount());
+    }
+}
@@ -0,0 +1,55 @@
+package de.bund.zrb.service;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import de.bund.zrb.event.WDBrowsingContextEvent;
+import de.bund.zrb.type.browsingContext.WDNavigationInfo;
+import de.bund.zrb.websocket.WDEventNames;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WDEventDispatcherTest {
+
+    @Test
+    public void testEventWithoutListenerIsNotMapped() {
+        final AtomicInteger mapped = new AtomicInteger();
+        WDEventDispatcher dispatcher = new WDEventDispatcher((type, json) -> {
+            mapped.incrementAndGet();
+            return json;
+        });
+
+        dispatcher.processEvent(JsonParser.parseString(
+                "{\"type\":\"event\",\"method\":\"network.beforeRequestSent\",\"params\":{\"context\":\"ctx-1\"}}")
+                .getAsJsonObject());
+
+        assertEquals(0, mapped.get());
+    }
+
+    @Test
+    public void testEventParamsAreMappedOnFirstAccess() {
+        JsonObject params = JsonParser.parseString(
+                "{\"context\":\"ctx-1\",\"navigation\":\"nav-1\",\"timestamp\":42,\"url\":\"https://example.org/\"}")
+                .getAsJsonObject();
+
+        WDBrowsingContextEvent.NavigationCommitted event = new WDBrowsingContextEvent.NavigationCommitted(params);
+
+        WDNavigationInfo info = event.getParams();
+        assertEquals("https://example.org/", info.getUrl());
+        assertEquals(42L, info.getTimestamp());
+        assertSame(info, event.getParams());
+    }
+
+    @Test
+    public void testBlockedRequestsAndPromptsNeedReply() {
+        JsonObject blocked = JsonParser.parseString("{\"context\":\"ctx-1\",\"isBlocked\":true}").getAsJsonObject();
+        JsonObject passing = JsonParser.parseString("{\"context\":\"ctx-1\",\"isBlocked\":false}").getAsJsonObject();
+
+        assertTrue(WDEventDispatcher.needsReply(WDEventNames.BEFORE_REQUEST_SENT, blocked));
+        assertFalse(WDEventDispatcher.needsReply(WDEventNames.BEFORE_REQUEST_SENT, passing));
+        assertFalse(WDEventDispatcher.needsReply(WDEventNames.ENTRY_ADDED, new JsonObject()));
+        assertTrue(WDEventDispatcher.needsReply(WDEventNames.USER_PROMPT_OPENED, new JsonObject()));
+    }
+}
@@ -0,0 +1,89 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.type.script.WDEvaluateResult;
+import de.bund.zrb.type.script.WDHandle;
+import de.bund.zrb.type.script.WDPrimitiveProtocolValue;
+import de.bund.zrb.type.script.WDRealm;
+import de.bund.zrb.type.script.WDRemoteValue;
+import de.bund.zrb.type.script.WDTarget;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WDHandleRegistryTest {
+
+    private final List<String> disownCalls = new ArrayList<String>();
+
+    private final WDHandleRegistry registry = new WDHandleRegistry((handles, target) -> {
+        StringBuilder call = new StringBuilder(((WDTarget.RealmTarget) target).getRealm().value()).append(':');
+        for (WDHandle handle : handles) {
+            call.append(handle.value()).append(',');
+        }
+        disownCalls.add(call.toString());
+        return CompletableFuture.completedFuture(null);
+    });
+
+    private static CompletableFuture<WDEvaluateResult> result(String realm, String handle) {
+        WDRemoteValue value = new WDRemoteValue.ObjectRemoteValue(
+                handle != null ? new WDHandle(handle) : null, null, Collections.<WDRemoteValue, WDRemoteValue>emptyMap());
+        return CompletableFuture.<WDEvaluateResult>completedFuture(
+                new WDEvaluateResult.WDEvaluateResultSuccess(value, new WDRealm(realm)));
+    }
+
+    @Test
+    public void testScopeDisownsOwnHandlesInOneCallPerRealm() {
+        registry.trackOnComplete(result("outer", "h0"));
+        WDHandleRegistry.Scope scope = registry.openScope();
+        try {
+            registry.trackOnComplete(result("r1", "h1"));
+            registry.trackOnComplete(result("r1", "h2"));
+            registry.trackOnComplete(result("r2", "h3"));
+            registry.trackOnComplete(result("r2", null)); // value without handle
+            assertEquals(4, registry.getLiveHandleCount());
+        } finally {
+            scope.close();
+        }
+
+        assertEquals(2, disownCalls.size());
+        assertTrue(disownCalls.contains("r1:h1,h2,"));
+        assertTrue(disownCalls.contains("r2:h3,"));
+        assertEquals(1, registry.getLiveHandleCount());
+        assertEquals(Collections.singletonMap("outer", 1), registry.getLiveHandleCounts());
+        assertEquals(3, registry.getDisownedCount());
+    }
+
+    @Test
+    public void testDestroyedRealmIsForgottenWithoutDisown() {
+        WDHandleRegistry.Scope scope = registry.openScope();
+        try {
+            registry.trackOnComplete(result("r1", "h1"));
+            registry.trackOnComplete(result("r2", "h2"));
+            registry.realmDestroyed("r1");
+        } finally {
+            scope.close();
+        }
+
+        assertEquals(Collections.singletonList("r2:h2,"), disownCalls);
+        assertEquals(1, registry.getForgottenCount());
+        assertEquals(0, registry.getLiveHandleCount());
+    }
+
+    @Test
+    public void testExplicitDisownAndPrimitivesAreNotTracked() {
+        registry.trackOnComplete(result("r1", "h1"));
+        registry.trackOnComplete(CompletableFuture.<WDEvaluateResult>completedFuture(
+                new WDEvaluateResult.WDEvaluateResultSuccess(new WDPrimitiveProtocolValue.StringValue("x"), new WDRealm("r1"))));
+        assertEquals(1, registry.getTrackedCount());
+
+        registry.released(Collections.singletonList(new WDHandle("h1")));
+
+        assertEquals(0, registry.getLiveHandleCount());
+        assertEquals(1, registry.getDisownedCount());
+        assertTrue(disownCalls.isEmpty());
+    }
+}
@@ -0,0 +1,101 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.type.script.WDRealm;
+import de.bund.zrb.type.script.WDRealmInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WDRealmIndexTest {
+
+    private final List<WDRealmInfo> browserRealms = new ArrayList<WDRealmInfo>();
+    private final WDRealmIndex index = new WDRealmIndex(() -> new ArrayList<WDRealmInfo>(browserRealms));
+
+    private static WDRealmInfo window(String realm, String context) {
+        return new WDRealmInfo.WindowRealmInfo(new WDRealm(realm), "https://example.org", context);
+    }
+
+    private static WDRealmInfo worker(String realm, String... owners) {
+        return new WDRealmInfo.DedicatedWorkerRealmInfo(new WDRealm(realm), "https://example.org", Arrays.asList(owners));
+    }
+
+    @Test
+    public void testSeedsOnceAndResolvesFromEvents() {
+        browserRealms.add(window("w1", "ctx-1"));
+        final int[] subscribed = {0};
+        index.setOnFirstUse(() -> subscribed[0]++);
+
+        assertEquals("ctx-1", index.resolveContextId("w1"));
+        index.realmCreated(worker("dw1", "w1"));
+        index.realmCreated(worker("dw2", "dw1"));
+
+        assertEquals("ctx-1", index.resolveContextId("dw2"));
+        assertEquals("ctx-1", index.resolveContextId("dw1"));
+        assertEquals(1, index.getRefreshCount());
+        assertEquals(1, subscribed[0]);
+    }
+
+    @Test
+    public void testDestroyedRealmIsGone() {
+        browserRealms.add(window("w1", "ctx-1"));
+        index.realmCreated(worker("dw1", "w1"));
+        assertEquals("ctx-1", index.resolveContextId("dw1"));
+
+        index.realmDestroyed("dw1");
+        assertNull(index.get("dw1")); // miss → one refresh, browser does not know it either
+        assertThrows(IllegalStateException.class, () -> index.resolveContextId("dw1"));
+    }
+
+    @Test
+    public void testContextDestroyedDropsWindowRealms() {
+        index.realmCreated(window("w1", "ctx-1"));
+        index.realmCreated(window("w2", "ctx-2"));
+        index.contextDestroyed("ctx-1");
+
+        assertEquals(Collections.singletonList("ctx-2"), contexts());
+    }
+
+    @Test
+    public void testMissRefreshesAndInvalidateReseeds() {
+        assertNull(index.get("w1"));
+        browserRealms.add(window("w1", "ctx-1"));
+        assertEquals("ctx-1", index.resolveContextId("w1"));
+
+        long before = index.getRefreshCount();
+        index.invalidate();
+        index.get("w1");
+        assertEquals(before + 1, index.getRefreshCount());
+    }
+
+    @Test
+    public void testLookupOnReceiveThreadRefreshesInBackground() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        WDRealmIndex blocked = new WDRealmIndex(() -> {
+            WDContextTreeTest.awaitQuietly(release);
+            return Collections.singletonList(window("w1", "ctx-1"));
+        });
+        blocked.setMayBlock(() -> false); // wie im WebSocket-Thread
+
+        assertNull(blocked.get("w1")); // kein Warten auf getRealms
+        release.countDown();
+        long end = System.currentTimeMillis() + 5_000;
+        while (blocked.size() == 0 && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+        assertEquals("ctx-1", blocked.resolveContextId("w1"));
+    }
+
+    private List<String> contexts() {
+        List<String> out = new ArrayList<String>();
+        for (WDRealmInfo info : index.getRealms()) {
+            out.add(((WDRealmInfo.WindowRealmInfo) info).getContext());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,155 @@
+package de.bund.zrb.service;
+
+import de.bund.zrb.WDWebSocketImpl;
+import de.bund.zrb.WDWebSocketManagerImpl;
+import de.bund.zrb.api.WDCommand;
+import de.bund.zrb.api.WebSocketFrame;
+import de.bund.zrb.command.request.WDBrowsingContextRequest;
+import de.bund.zrb.command.request.WDScriptRequest;
+import de.bund.zrb.command.response.WDScriptResult;
+import de.bund.zrb.support.TraceRingBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WDTraceRecorderTest {
+
+    /** WebSocket without a connection: records sent frames and lets the test inject received frames. */
+    static class FakeWebSocket extends WDWebSocketImpl {
+        final List<String> sent = Collections.synchronizedList(new ArrayList<String>());
+        final List<Consumer<WebSocketFrame>> receivers = new CopyOnWriteArrayList<Consumer<WebSocketFrame>>();
+
+        FakeWebSocket() {
+            super(URI.create("ws://localhost:1/session"));
+        }
+
+        @Override
+        public void send(String jsonCommand) {
+            sent.add(jsonCommand);
+        }
+
+        @Override
+        public void send(List<String> jsonCommands) {
+            sent.addAll(jsonCommands);
+        }
+
+        @Override
+        public void onFrameReceived(Consumer<WebSocketFrame> handler) {
+            receivers.add(handler);
+        }
+
+        @Override
+        public void offFrameReceived(Consumer<WebSocketFrame> handler) {
+            receivers.remove(handler);
+        }
+
+        void receive(final String text) {
+            WebSocketFrame frame = new WebSocketFrame() {
+                public byte[] binary() {
+                    return null;
+                }
+
+                public String text() {
+                    return text;
+                }
+            };
+            for (Consumer<WebSocketFrame> receiver : receivers) {
+                receiver.accept(frame);
+            }
+        }
+    }
+
+    private final FakeWebSocket webSocket = new FakeWebSocket();
+    private final WDWebSocketManagerImpl manager = new WDWebSocketManagerImpl(webSocket);
+    private final WDTraceRecorder recorder = new WDTraceRecorder(webSocket, manager);
+
+    @AfterEach
+    public void tearDown() {
+        recorder.stop();
+        manager.setOutboundWriter(null);
+    }
+
+    private static String text(TraceRingBuffer.Record record) {
+        return new String(record.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    private static List<TraceRingBuffer.Record> ofType(List<TraceRingBuffer.Record> records, byte type) {
+        List<TraceRingBuffer.Record> out = new ArrayList<TraceRingBuffer.Record>();
+        for (TraceRingBuffer.Record r : records) {
+            if (r.getType() == type) {
+                out.add(r);
+            }
+        }
+        return out;
+    }
+
+    @Test
+    public void testCommandFlushedByWriterThreadKeepsCallId() throws Exception {
+        manager.setOutboundWriter(manager.createOutboundWriter(8, 20)); // Timer-Thread flusht
+        recorder.start();
+        long mark = recorder.mark();
+
+        final WDCommand command = new WDScriptRequest.GetRealms();
+        recorder.call("page.realms", "ctx-1", null, () -> {
+            manager.sendAsync(command, WDScriptResult.GetRealmsResult.class);
+        });
+        long end = System.currentTimeMillis() + 5_000;
+        while (webSocket.sent.isEmpty() && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+
+        List<TraceRingBuffer.Record> records = recorder.records(mark);
+        int callId = ofType(records, WDTraceRecorder.BEFORE).get(0).getCallId();
+        List<TraceRingBuffer.Record> sent = ofType(records, WDTraceRecorder.SENT);
+        assertEquals(1, sent.size());
+        assertEquals(callId, sent.get(0).getCallId());
+        assertTrue(text(sent.get(0)).contains("\"id\":" + command.getId()));
+    }
+
+    @Test
+    public void testOwnScreenshotCommandsAndResponsesAreNotRecorded() {
+        final List<WDCommand> own = new ArrayList<WDCommand>();
+        recorder.start();
+        recorder.setAfterCallHook((callId, pageId) -> {
+            WDCommand screenshot = new WDBrowsingContextRequest.Activate(pageId);
+            own.add(screenshot);
+            manager.send(screenshot);
+        });
+        long mark = recorder.mark();
+
+        final WDCommand command = new WDScriptRequest.GetRealms();
+        recorder.call("page.realms", "ctx-1", null, () -> manager.send(command));
+        assertEquals(2, webSocket.sent.size());
+
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            data.append("iVBORw0KGgo");
+        }
+        webSocket.receive("{\"type\":\"success\",\"result\":{\"data\":\"" + data + "\"},\"id\":" + own.get(0).getId() + "}");
+        webSocket.receive("{\"type\":\"success\",\"id\":" + command.getId() + ",\"result\":{\"realms\":[]}}");
+
+        List<TraceRingBuffer.Record> records = recorder.records(mark);
+        List<TraceRingBuffer.Record> sent = ofType(records, WDTraceRecorder.SENT);
+        assertEquals(1, sent.size());
+        assertTrue(text(sent.get(0)).contains("\"id\":" + command.getId()));
+        List<TraceRingBuffer.Record> received = ofType(records, WDTraceRecorder.RECEIVED);
+        assertEquals(1, received.size());
+        assertTrue(text(received.get(0)).contains("\"id\":" + command.getId()));
+    }
+
+    @Test
+    public void testResponseIdSkipsNestedIds() {
+        assertEquals(42, WDTraceRecorder.responseId("{\"result\":{\"id\":7},\"type\":\"success\",\"id\":42}"));
+        assertEquals(-1, WDTraceRecorder.responseId("{\"type\":\"event\",\"method\":\"log.entryAdded\",\"params\":{\"id\":3}}"));
+        assertEquals(-1, WDTraceRecorder.responseId("not json"));
+    }
+}
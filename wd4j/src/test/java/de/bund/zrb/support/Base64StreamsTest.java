@@ -0,0 +1,48 @@
+package de.bund.zrb.support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Base64StreamsTest {
+
+    @Test
+    public void testDecodeAcrossChunkBoundaries() throws Exception {
+        Random random = new Random(42);
+        // around the 64K-char chunk size (48K bytes) and with every padding variant
+        for (int size : new int[]{0, 1, 2, 3, 49_151, 49_152, 49_153, 200_000}) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            String base64 = Base64.getEncoder().encodeToString(data);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(size, Base64Streams.decode(base64, out));
+            assertArrayEquals(data, out.toByteArray(), "size " + size);
+            assertEquals(size, Base64Streams.decodedLength(base64));
+        }
+    }
+
+    @Test
+    public void testDecodeToFile(@TempDir Path dir) throws Exception {
+        byte[] data = new byte[100_001];
+        new Random(7).nextBytes(data);
+        Path file = dir.resolve("shot.png");
+        Files.write(file, new byte[300_000]); // must be truncated
+
+        assertEquals(data.length, Base64Streams.decodeToFile(Base64.getEncoder().encodeToString(data), file));
+        assertArrayEquals(data, Files.readAllBytes(file));
+    }
+
+    @Test
+    public void testInvalidInputIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Base64Streams.decode("ab$d", new ByteArrayOutputStream()));
+    }
+}
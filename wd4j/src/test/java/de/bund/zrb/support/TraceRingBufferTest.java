@@ -0,0 +1,64 @@
+package de.bund.zrb.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraceRingBufferTest {
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(TraceRingBuffer.Record record) {
+        return new String(record.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testReadsRecordsSinceMark() {
+        TraceRingBuffer buffer = new TraceRingBuffer(1024);
+        buffer.append((byte) 1, 10L, 0, bytes("before mark"));
+        long mark = buffer.position();
+        buffer.append((byte) 3, 20L, 7, bytes("locator.click"));
+        buffer.append((byte) 4, 30L, 7, null);
+
+        List<TraceRingBuffer.Record> records = buffer.read(mark);
+        assertEquals(2, records.size());
+        assertEquals(3, records.get(0).getType());
+        assertEquals(20L, records.get(0).getNanoTime());
+        assertEquals(7, records.get(0).getCallId());
+        assertEquals("locator.click", text(records.get(0)));
+        assertEquals(0, records.get(1).getPayload().length);
+    }
+
+    @Test
+    public void testWrapAroundDropsOldestRecords() {
+        TraceRingBuffer buffer = new TraceRingBuffer(256);
+        for (int i = 0; i < 100; i++) {
+            buffer.append((byte) 1, i, i, bytes("frame-" + i)); // Records straddle the end of the buffer
+        }
+        List<TraceRingBuffer.Record> records = buffer.read(0L);
+        assertFalse(records.isEmpty());
+        assertTrue(buffer.getDropped() > 0);
+        assertEquals(100, records.size() + buffer.getDropped());
+        for (int i = 0; i < records.size(); i++) {
+            int expected = (int) buffer.getDropped() + i;
+            assertEquals(expected, records.get(i).getCallId());
+            assertEquals("frame-" + expected, text(records.get(i)));
+        }
+    }
+
+    @Test
+    public void testOversizedPayloadIsTruncated() throws Exception {
+        try (TraceRingBuffer buffer = TraceRingBuffer.mapped(4096)) {
+            buffer.append((byte) 2, 1L, 0, new byte[10_000]);
+            List<TraceRingBuffer.Record> records = buffer.read(0L);
+            assertEquals(1, records.size());
+            assertEquals(4096 / 4 - TraceRingBuffer.HEADER_BYTES, records.get(0).getPayload().length);
+            assertEquals(1, buffer.getTruncated());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package de.bund.zrb.type.script;
+
+import com.google.gson.Gson;
+import de.bund.zrb.support.mapping.GsonMapperFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WDRemoteValueTest {
+
+    private final Gson gson = GsonMapperFactory.getGson();
+
+    @Test
+    void testObjectKeepsEntryOrderAndNestedValues() {
+        String json = "{\"type\":\"object\",\"handle\":\"h-1\",\"value\":["
+                + "[\"zeta\",{\"type\":\"number\",\"value\":3000}],"
+                + "[\"alpha\",{\"type\":\"array\",\"value\":[{\"type\":\"string\",\"value\":\"x\"},{\"type\":\"boolean\",\"value\":true}]}],"
+                + "[{\"type\":\"string\",\"value\":\"mid\"},{\"type\":\"number\",\"value\":\"NaN\"}],"
+                + "[\"none\",{\"type\":\"undefined\"}]"
+                + "]}";
+
+        WDRemoteValue value = gson.fromJson(json, WDRemoteValue.class);
+
+        assertTrue(value instanceof WDRemoteValue.ObjectRemoteValue);
+        WDRemoteValue.ObjectRemoteValue object = (WDRemoteValue.ObjectRemoteValue) value;
+        assertEquals("h-1", object.getHandle().value());
+
+        List<String> keys = new ArrayList<String>();
+        for (Map.Entry<WDRemoteValue, WDRemoteValue> e : object.getValue().entrySet()) {
+            keys.add(((WDPrimitiveProtocolValue.StringValue) e.getKey()).getValue());
+        }
+        assertEquals(Arrays.asList("zeta", "alpha", "mid", "none"), keys);
+
+        List<WDRemoteValue> values = new ArrayList<WDRemoteValue>(object.getValue().values());
+        assertEquals("3000", ((WDPrimitiveProtocolValue.NumberValue) values.get(0)).getValue());
+        WDRemoteValue.ArrayRemoteValue array = (WDRemoteValue.ArrayRemoteValue) values.get(1);
+        assertEquals("x", ((WDPrimitiveProtocolValue.StringValue) array.getValue().get(0)).getValue());
+        assertEquals(Boolean.TRUE, ((WDPrimitiveProtocolValue.BooleanValue) array.getValue().get(1)).getValue());
+        assertEquals("NaN", ((WDPrimitiveProtocolValue.NumberValue) values.get(2)).getValue());
+        assertTrue(values.get(3) instanceof WDPrimitiveProtocolValue.UndefinedValue);
+    }
+
+    @Test
+    void testNodeWithChildrenAndAttributes() {
+        String json = "{\"type\":\"node\",\"sharedId\":\"s-1\",\"value\":{\"nodeType\":1,\"childNodeCount\":1,"
+                + "\"localName\":\"div\",\"namespaceURI\":\"http://www.w3.org/1999/xhtml\","
+                + "\"attributes\":{\"id\":\"main\",\"class\":\"a b\"},\"shadowRoot\":null,"
+                + "\"children\":[{\"type\":\"node\",\"sharedId\":\"s-2\",\"value\":{\"nodeType\":3,\"childNodeCount\":0,\"nodeValue\":\"Hello\"}}]}}";
+
+        WDRemoteValue.NodeRemoteValue node = (WDRemoteValue.NodeRemoteValue) gson.fromJson(json, WDRemoteValue.class);
+
+        assertEquals("s-1", node.getSharedId().value());
+        assertEquals("div", node.getValue().getLocalName());
+        assertEquals("main", node.getValue().getAttributes().get("id"));
+        assertEquals("a b", node.getValue().getAttributes().get("class"));
+        assertNull(node.getValue().getShadowRoot());
+        assertEquals(1, node.getValue().getChildren().size());
+        assertEquals("Hello", node.getValue().getChildren().get(0).asString());
+    }
+
+    @Test
+    void testValueBeforeTypeAndWindowProxy() {
+        WDRemoteValue value = gson.fromJson("{\"value\":{\"context\":\"ctx-1\"},\"type\":\"window\"}", WDRemoteValue.class);
+
+        assertTrue(value instanceof WDRemoteValue.WindowProxyRemoteValue);
+        assertEquals("ctx-1", ((WDRemoteValue.WindowProxyRemoteValue) value).getValue().getBrowsingContext().value());
+    }
+
+    @Test
+    void testUnknownTypeIsRejected() {
+        assertThrows(RuntimeException.class, () -> gson.fromJson("{\"type\":\"bogus\"}", WDRemoteValue.class));
+    }
+}
@@ -0,0 +1,128 @@
+package de.bund.zrb.websocket;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import de.bund.zrb.api.WDCommandResponse;
+import de.bund.zrb.service.WDEventDispatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WDFrameRouterTest {
+
+    private final List<WDCommandResponse<?>> responses = new ArrayList<WDCommandResponse<?>>();
+    private final List<JsonObject> events = new ArrayList<JsonObject>();
+
+    private final Consumer<WDCommandResponse<?>> callback = responses::add;
+
+    private WDFrameRouter newRouter(final int pendingId) {
+        WDFrameRouter router = new WDFrameRouter(id -> id == pendingId ? callback : null);
+        router.addEventDispatcher(new WDEventDispatcher() {
+            @Override
+            public void processEvent(JsonObject jsonMessage) {
+                events.add(jsonMessage);
+            }
+        });
+        return router;
+    }
+
+    @Test
+    public void testSuccessResponseIsRoutedToCallback() {
+        newRouter(7).route("{\"type\":\"success\",\"id\":7,\"result\":{\"realm\":\"r-1\"}}");
+
+        assertEquals(1, responses.size());
+        assertTrue(events.isEmpty());
+        WDCommandResponse<?> response = responses.get(0);
+        assertEquals(7, response.getId());
+        assertEquals("success", response.getType());
+        assertEquals("r-1", ((JsonElement) response.getResult()).getAsJsonObject().get("realm").getAsString());
+    }
+
+    @Test
+    public void testErrorResponseIsMappedFromTree() {
+        newRouter(8).route("{\"type\":\"error\",\"id\":8,\"error\":\"no such node\",\"message\":\"unknown\"}");
+
+        assertEquals(1, responses.size());
+        assertTrue(responses.get(0) instanceof WDErrorResponse);
+        WDErrorResponse error = (WDErrorResponse) responses.get(0);
+        assertEquals(8, error.getId());
+        assertEquals("no such node", error.getError());
+        assertEquals("unknown", error.getMessage());
+    }
+
+    @Test
+    public void testErrorFrameRoundTrips() {
+        String frame = "{\"type\":\"error\",\"id\":9,\"error\":\"no such frame\",\"message\":\"gone\",\"stacktrace\":\"at x\"}";
+        newRouter(9).route(frame);
+
+        WDErrorResponse error = (WDErrorResponse) responses.get(0);
+        JsonObject actual = new JsonObject();
+        actual.addProperty("type", error.getType());
+        actual.addProperty("id", error.getId());
+        actual.addProperty("error", error.getError());
+        actual.addProperty("message", error.getMessage());
+        actual.addProperty("stacktrace", error.getStacktrace());
+        assertEquals(JsonParser.parseString(frame), actual);
+    }
+
+    @Test
+    public void testEventIsRoutedToDispatcherWithParams() {
+        newRouter(1).route("{\"type\":\"event\",\"method\":\"log.entryAdded\",\"params\":{\"level\":\"info\"}}");
+
+        assertTrue(responses.isEmpty());
+        assertEquals(1, events.size());
+        JsonObject event = events.get(0);
+        assertEquals("log.entryAdded", event.get("method").getAsString());
+        assertEquals("info", event.getAsJsonObject("params").get("level").getAsString());
+    }
+
+    @Test
+    public void testResponseWithoutWaitingCallbackIsDropped() {
+        newRouter(1).route("{\"type\":\"success\",\"id\":99,\"result\":{\"nodes\":[{\"type\":\"node\"}]}}");
+
+        assertTrue(responses.isEmpty());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testMalformedFrameIsIgnored() {
+        WDFrameRouter router = newRouter(1);
+        router.route("[1,2,3]");
+        router.route("{\"type\":\"success\",\"id\":2,");
+
+        assertTrue(responses.isEmpty());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testParseErrorAfterIdFailsWaitingCallback() {
+        newRouter(5).route("{\"type\":\"success\",\"id\":5,\"result\":{\"nodes\":[");
+
+        assertEquals(1, responses.size());
+        assertTrue(responses.get(0) instanceof WDErrorResponse);
+        assertEquals(5, responses.get(0).getId());
+        assertEquals("error", responses.get(0).getType());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testParseErrorAfterIdCompletesPendingFutureExceptionally() {
+        PendingFuture pending = new PendingFuture();
+        new WDFrameRouter(id -> id == 6 ? pending : null).route("{\"id\":6,\"result\":{\"value\":tru");
+
+        assertTrue(pending.isCompletedExceptionally());
+    }
+
+    private static final class PendingFuture extends CompletableFuture<Object> implements Consumer<WDCommandResponse<?>> {
+        @Override
+        public void accept(WDCommandResponse<?> response) {
+            complete(response);
+        }
+    }
+}
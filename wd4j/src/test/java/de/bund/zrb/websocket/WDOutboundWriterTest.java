@@ -0,0 +1,115 @@
+package de.bund.zrb.websocket;
+
+import com.google.gson.Gson;
+import de.bund.zrb.api.WDCommand;
+import de.bund.zrb.command.request.WDScriptRequest;
+import de.bund.zrb.support.mapping.GsonMapperFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WDOutboundWriterTest {
+
+    private final Gson gson = GsonMapperFactory.getGson();
+    private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<List<String>>());
+
+    private void record(List<String> messages) {
+        batches.add(new ArrayList<String>(messages));
+    }
+
+    @Test
+    public void testIdleWriterSendsImmediately() {
+        WDOutboundWriter writer = new WDOutboundWriter(gson, this::record, null, 32, 0);
+        WDCommand command = new WDScriptRequest.GetRealms();
+
+        writer.enqueue(command);
+
+        assertEquals(1, batches.size());
+        assertEquals(gson.toJson(command), batches.get(0).get(0));
+        assertEquals(1, writer.getFlushCount());
+        assertEquals(1, writer.getFrameCount());
+        assertEquals(0, writer.getQueuedCount());
+    }
+
+    @Test
+    public void testDelayedFlushCollectsCommands() throws Exception {
+        WDOutboundWriter writer = new WDOutboundWriter(gson, this::record, null, 3, 200);
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 5; i++) {
+            WDCommand command = new WDScriptRequest.GetRealms();
+            expected.add(gson.toJson(command));
+            writer.enqueue(command);
+        }
+
+        // maxBatch reached after 3 commands, the remaining 2 follow after the delay
+        assertEquals(3, batches.get(0).size());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writer.getFrameCount() < 5 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        writer.close();
+
+        List<String> sent = new ArrayList<String>();
+        for (List<String> batch : batches) {
+            sent.addAll(batch);
+        }
+        assertEquals(expected, sent);
+        assertEquals(2, writer.getFlushCount());
+        assertEquals(3, writer.getMaxFramesPerFlush());
+        assertEquals(2.5, writer.getAverageFramesPerFlush(), 0.001);
+    }
+
+    @Test
+    public void testConcurrentProducersLoseNothing() throws Exception {
+        WDOutboundWriter writer = new WDOutboundWriter(gson, messages -> {
+            record(messages);
+            Thread.yield(); // slow socket: others queue up meanwhile
+        }, null, 16, 0);
+
+        int threads = 4;
+        final int perThread = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    writer.enqueue(new WDScriptRequest.GetRealms());
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, writer.getFrameCount());
+        assertEquals(0, writer.getQueuedCount());
+        assertTrue(writer.getMaxFramesPerFlush() <= 16);
+    }
+
+    @Test
+    public void testFailedWriteReportsEveryCommandOfBatch() {
+        final List<Object> failed = new ArrayList<Object>();
+        WDOutboundWriter writer = new WDOutboundWriter(gson, messages -> {
+            throw new RuntimeException("closed");
+        }, (command, e) -> failed.add(command), 32, 0);
+
+        WDCommand command = new WDScriptRequest.GetRealms();
+        writer.enqueue(command);
+
+        assertEquals(Collections.singletonList(command), failed);
+        assertEquals(0, writer.getFlushCount());
+    }
+}
@@ -0,0 +1,77 @@
+package de.bund.zrb.websocket;
+
+import de.bund.zrb.command.request.WDScriptRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WDPendingRequestsTest {
+
+    @Test
+    public void testPutGetRemove() {
+        WDPendingRequests<String> table = new WDPendingRequests<String>(8);
+        table.put(3, "three");
+
+        assertEquals("three", table.get(3));
+        assertNull(table.get(11)); // same slot, different id
+        assertFalse(table.remove(3, "other"));
+        assertTrue(table.remove(3, "three"));
+        assertNull(table.get(3));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testOccupiedSlotFallsBackToOverflow() {
+        WDPendingRequests<String> table = new WDPendingRequests<String>(8);
+        table.put(1, "old");
+        table.put(9, "new"); // 9 & 7 == 1
+
+        assertEquals("old", table.get(1));
+        assertEquals("new", table.get(9));
+        assertEquals(2, table.size());
+
+        assertEquals("new", table.remove(9));
+        assertEquals("old", table.remove(1));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testCommandIdsAreUniqueAcrossThreads() throws Exception {
+        final int threads = 8;
+        final int perThread = 2000;
+        final Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        final WDPendingRequests<Integer> table = new WDPendingRequests<Integer>();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    int id = new WDScriptRequest.GetRealms().getId();
+                    ids.add(id);
+                    table.put(id, id);
+                    assertEquals(Integer.valueOf(id), table.get(id));
+                    assertTrue(table.remove(id, table.get(id)));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, ids.size());
+        assertEquals(0, table.size());
+    }
+}